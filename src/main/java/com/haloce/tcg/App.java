@@ -1,17 +1,25 @@
 package com.haloce.tcg;
 
+import com.haloce.tcg.ai.MctsConfig;
 import com.haloce.tcg.card.loader.CardLoader;
 import com.haloce.tcg.card.loader.CardRepository;
 import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.core.event.journal.EventJournalOptions;
 import com.haloce.tcg.deck.DeckLoader;
 import com.haloce.tcg.deck.DeckValidator;
 import com.haloce.tcg.deck.model.DeckDef;
 import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.net.BotScheduler;
 import com.haloce.tcg.net.NetworkGameServer;
 import com.haloce.tcg.net.RoomManager;
+import com.haloce.tcg.net.ServerTransport;
 
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class App {
     public static void main(String[] args) {
@@ -25,15 +33,34 @@ public class App {
         System.out.println("Halo CE TCG initialized. Loaded cards: " + repository.size()
             + ", validated deck: " + deckDef.deckId());
 
-        RoomManager roomManager = new RoomManager(repository, deckDef);
-        roomManager.createRoom("default", GameMode.DUEL_1V1, List.of("P1", "P2"), null);
-        System.out.println("Default room created: default (DUEL_1V1, players=P1,P2)");
+        String journalDir = System.getProperty("haloce.journal.dir");
+        EventJournalOptions journalOptions = journalDir == null || journalDir.isBlank()
+                ? null
+                : EventJournalOptions.defaults(Path.of(journalDir));
+        MctsConfig botConfig = MctsConfig.defaults()
+                .withMoveTimeMillis(Long.getLong("haloce.bot.moveMillis", MctsConfig.DEFAULT_MOVE_TIME_MILLIS))
+                .withWorkers(Integer.getInteger("haloce.bot.workers", Runtime.getRuntime().availableProcessors()));
+        BotScheduler botScheduler = new BotScheduler(botConfig);
+        RoomManager roomManager = new RoomManager(repository, deckDef, journalOptions, botScheduler);
+        if (journalOptions != null) {
+            System.out.println("Event journal enabled at " + journalOptions.directory());
+        }
+        String botSeats = System.getProperty("haloce.bot.seats", "");
+        Set<String> defaultBots = Arrays.stream(botSeats.split(","))
+                .map(String::trim)
+                .filter(seat -> !seat.isEmpty())
+                .collect(Collectors.toSet());
+        roomManager.createRoom("default", GameMode.DUEL_1V1, List.of("P1", "P2"), null, defaultBots);
+        System.out.println("Default room created: default (DUEL_1V1, players=P1,P2"
+                + (defaultBots.isEmpty() ? "" : ", bots=" + String.join(",", defaultBots)) + ")");
 
         if (args.length > 0 && "--server".equalsIgnoreCase(args[0])) {
             int port = args.length > 1 ? Integer.parseInt(args[1]) : 19110;
-            NetworkGameServer server = new NetworkGameServer(port, roomManager);
+            ServerTransport transport = ServerTransport.valueOf(
+                    System.getProperty("haloce.server.transport", "blocking").trim().toUpperCase(Locale.ROOT));
+            NetworkGameServer server = new NetworkGameServer(port, roomManager, transport);
             server.start();
-            System.out.println("Network game server started at port " + port + ". Press Ctrl+C to stop.");
+            System.out.println("Network game server started at port " + port + " (" + transport + " transport). Press Ctrl+C to stop.");
             try {
                 Thread.currentThread().join();
             } catch (InterruptedException ignored) {
@@ -0,0 +1,55 @@
+package com.haloce.tcg.ai;
+
+/**
+ * Search budget and tuning for {@link MctsSearch}.
+ *
+ * @param moveTimeMillis  wall-clock budget per move; 0 for none
+ * @param moveIterations  iteration budget per move, split across workers; 0 for none
+ * @param workers         independent root-parallel searches whose root statistics are summed
+ * @param exploration     UCT exploration constant
+ * @param rolloutTurns    turns a random playout may run before the position is scored
+ * @param seed            seed for playout randomness; worker {@code i} uses {@code seed + i}
+ */
+public record MctsConfig(
+        long moveTimeMillis,
+        int moveIterations,
+        int workers,
+        double exploration,
+        int rolloutTurns,
+        long seed
+) {
+    public static final long DEFAULT_MOVE_TIME_MILLIS = 250L;
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2.0);
+    public static final int DEFAULT_ROLLOUT_TURNS = 6;
+
+    public MctsConfig {
+        if (moveTimeMillis < 0 || moveIterations < 0) {
+            throw new IllegalArgumentException("Budgets must be >= 0");
+        }
+        if (moveTimeMillis == 0 && moveIterations == 0) {
+            throw new IllegalArgumentException("A time or iteration budget is required");
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException("workers must be > 0");
+        }
+        if (!(exploration >= 0)) {
+            throw new IllegalArgumentException("exploration must be >= 0");
+        }
+        if (rolloutTurns < 0) {
+            throw new IllegalArgumentException("rolloutTurns must be >= 0");
+        }
+    }
+
+    public static MctsConfig defaults() {
+        return new MctsConfig(DEFAULT_MOVE_TIME_MILLIS, 0, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_EXPLORATION, DEFAULT_ROLLOUT_TURNS, 0L);
+    }
+
+    public MctsConfig withMoveTimeMillis(long newMoveTimeMillis) {
+        return new MctsConfig(newMoveTimeMillis, moveIterations, workers, exploration, rolloutTurns, seed);
+    }
+
+    public MctsConfig withWorkers(int newWorkers) {
+        return new MctsConfig(moveTimeMillis, moveIterations, newWorkers, exploration, rolloutTurns, seed);
+    }
+}
@@ -0,0 +1,241 @@
+package com.haloce.tcg.ai;
+
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.TeamRelations;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo Tree Search over {@link ActionGenerator} moves. Each worker searches its own fork of
+ * the position with UCT selection and random playouts, applying moves and undoing them with
+ * {@link GameStateManager#mark()}; the workers' root visit counts are summed to pick the move.
+ *
+ * <p>Every seat is scored separately, so two-player, free-for-all and team matches share one tree:
+ * a node's value is the reward of the seat that moved into it. Playouts end when the match does or
+ * after {@link MctsConfig#rolloutTurns()} turns and are scored by {@link PositionEvaluator}.
+ *
+ * <p>The search sees the forked position in full, including library order; it is a perfect-information
+ * opponent.
+ */
+public class MctsSearch {
+    private static final int MAX_ROLLOUT_ACTIONS = 400;
+
+    private final MctsConfig config;
+    private final ExecutorService workerPool;
+
+    /**
+     * @param workerPool runs the workers beyond the first, which runs on the calling thread; may be
+     *                   {@code null} when {@code config.workers()} is 1
+     */
+    public MctsSearch(MctsConfig config, ExecutorService workerPool) {
+        if (config == null) {
+            throw new IllegalArgumentException("config is required");
+        }
+        if (workerPool == null && config.workers() > 1) {
+            throw new IllegalArgumentException("workerPool is required for more than one worker");
+        }
+        this.config = config;
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Searches from {@code game}, which the caller must own for the duration, and returns the index
+     * of the chosen move among the actions {@link ActionGenerator} generates for it. {@code game} is
+     * left in its original state.
+     */
+    public int chooseAction(GameStateManager game) {
+        ActionBuffer rootActions = new ActionBuffer();
+        int actionCount = new ActionGenerator().generate(game, rootActions);
+        if (actionCount == 0) {
+            throw new IllegalStateException("No legal action to search: game is " + game.status());
+        }
+        if (actionCount == 1) {
+            return 0;
+        }
+
+        long deadline = config.moveTimeMillis() == 0 ? Long.MAX_VALUE : System.nanoTime() + config.moveTimeMillis() * 1_000_000L;
+        int workers = config.workers();
+        List<Callable<Node>> tasks = new ArrayList<>(workers - 1);
+        for (int i = 1; i < workers; i++) {
+            Worker worker = new Worker(game.fork(), config.seed() + i, iterationsFor(i, workers), deadline);
+            tasks.add(worker::search);
+        }
+        List<Future<Node>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Node> task : tasks) {
+            futures.add(workerPool.submit(task));
+        }
+
+        long[] visits = new long[actionCount];
+        double[] values = new double[actionCount];
+        accumulate(new Worker(game, config.seed(), iterationsFor(0, workers), deadline).search(), visits, values);
+        for (Future<Node> future : futures) {
+            accumulate(await(future), visits, values);
+        }
+
+        int best = 0;
+        for (int i = 1; i < actionCount; i++) {
+            if (visits[i] > visits[best] || (visits[i] == visits[best] && values[i] > values[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int iterationsFor(int worker, int workers) {
+        if (config.moveIterations() == 0) {
+            return Integer.MAX_VALUE;
+        }
+        int share = config.moveIterations() / workers;
+        return Math.max(1, worker < config.moveIterations() % workers ? share + 1 : share);
+    }
+
+    private static void accumulate(Node root, long[] visits, double[] values) {
+        if (root.children == null) {
+            return;
+        }
+        for (int i = 0; i < root.children.length && i < visits.length; i++) {
+            Node child = root.children[i];
+            if (child != null) {
+                visits[i] += child.visits;
+                values[i] += child.value;
+            }
+        }
+    }
+
+    private static Node await(Future<Node> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search workers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        }
+    }
+
+    private static final class Node {
+        private final Node parent;
+        private final int moverSeat;
+        private Node[] children;
+        private int[] untried;
+        private int untriedCount;
+        private int visits;
+        private double value;
+
+        private Node(Node parent, int moverSeat) {
+            this.parent = parent;
+            this.moverSeat = moverSeat;
+        }
+    }
+
+    private final class Worker {
+        private final GameStateManager game;
+        private final SplittableRandom random;
+        private final int iterations;
+        private final long deadline;
+        private final ActionGenerator generator = new ActionGenerator();
+        private final ActionBuffer actions = new ActionBuffer();
+        private final TeamRelations teamRelations;
+        private final double[] rewards;
+
+        private Worker(GameStateManager game, long seed, int iterations, long deadline) {
+            this.game = game;
+            this.random = new SplittableRandom(seed);
+            this.iterations = iterations;
+            this.deadline = deadline;
+            this.teamRelations = game.teamRelations();
+            this.rewards = new double[teamRelations.seatCount()];
+        }
+
+        private Node search() {
+            Node root = new Node(null, -1);
+            for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                int mark = game.mark();
+                try {
+                    Node leaf = descend(root);
+                    rollout();
+                    PositionEvaluator.scoreSeats(game, rewards);
+                    for (Node node = leaf; node.parent != null; node = node.parent) {
+                        node.visits++;
+                        node.value += rewards[node.moverSeat];
+                    }
+                    root.visits++;
+                } finally {
+                    game.rollbackTo(mark);
+                }
+            }
+            return root;
+        }
+
+        private Node descend(Node node) {
+            while (game.status() == GameStatus.RUNNING) {
+                int count = generator.generate(game, actions);
+                if (count == 0) {
+                    return node;
+                }
+                if (node.children == null) {
+                    node.children = new Node[count];
+                    node.untried = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        node.untried[i] = i;
+                    }
+                    node.untriedCount = count;
+                } else if (node.children.length != count) {
+                    // Same path, different moves: the position is not reproducible, so stop here.
+                    return node;
+                }
+                int mover = teamRelations.seatOf(game.activePlayerId());
+                if (node.untriedCount > 0) {
+                    int pick = random.nextInt(node.untriedCount);
+                    int action = node.untried[pick];
+                    node.untried[pick] = node.untried[--node.untriedCount];
+                    Node child = new Node(node, mover);
+                    node.children[action] = child;
+                    actions.apply(action, game);
+                    return child;
+                }
+                int action = select(node);
+                actions.apply(action, game);
+                node = node.children[action];
+            }
+            return node;
+        }
+
+        private int select(Node node) {
+            double logVisits = Math.log(node.visits);
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.children.length; i++) {
+                Node child = node.children[i];
+                double score = child.value / child.visits + config.exploration() * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        private void rollout() {
+            int lastTurn = game.globalTurnIndex() + config.rolloutTurns();
+            for (int step = 0; step < MAX_ROLLOUT_ACTIONS
+                    && game.status() == GameStatus.RUNNING
+                    && game.globalTurnIndex() < lastTurn; step++) {
+                int count = generator.generate(game, actions);
+                if (count == 0) {
+                    return;
+                }
+                actions.apply(random.nextInt(count), game);
+            }
+        }
+    }
+}
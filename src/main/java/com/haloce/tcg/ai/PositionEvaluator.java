@@ -0,0 +1,52 @@
+package com.haloce.tcg.ai;
+
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.TeamRelations;
+
+import java.util.List;
+
+/**
+ * Scores a position for every seat at once, in {@code [0, 1]}. A finished match scores 1 for the
+ * winning team and 0 otherwise; a running one scores each team's share of the base health and
+ * units left on the board, so every team scores the same at the start of an even match.
+ */
+public class PositionEvaluator {
+    private static final double UNIT_WEIGHT = 2.0;
+
+    /**
+     * @param rewards filled by seat index ({@link TeamRelations#seatOf(String)}); at least one entry per seat
+     */
+    public static void scoreSeats(GameStateManager game, double[] rewards) {
+        TeamRelations teamRelations = game.teamRelations();
+        List<String> seats = game.playerIds();
+        if (game.status() == GameStatus.FINISHED) {
+            String winnerTeamId = game.winnerTeamId();
+            for (int seat = 0; seat < seats.size(); seat++) {
+                rewards[seat] = winnerTeamId != null && winnerTeamId.equals(teamRelations.teamOf(seats.get(seat))) ? 1.0 : 0.0;
+            }
+            return;
+        }
+        double total = 0;
+        for (int seat = 0; seat < seats.size(); seat++) {
+            total += strength(game, seats.get(seat));
+        }
+        for (int seat = 0; seat < seats.size(); seat++) {
+            double team = 0;
+            for (long allies = teamRelations.allyMask(seats.get(seat)); allies != 0; allies &= allies - 1) {
+                team += strength(game, seats.get(Long.numberOfTrailingZeros(allies)));
+            }
+            rewards[seat] = total == 0 ? 0 : team / total;
+        }
+    }
+
+    /**
+     * Remaining base health plus a weight per unit on the board; 0 once eliminated.
+     */
+    public static double strength(GameStateManager game, String playerId) {
+        if (game.teamRelations().isEliminated(playerId)) {
+            return 0;
+        }
+        return Math.max(0, game.player(playerId).baseHealth()) + UNIT_WEIGHT * game.battlefield().unitCountOf(playerId);
+    }
+}
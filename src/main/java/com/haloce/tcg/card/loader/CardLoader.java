@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.runtime.CompiledCard;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,7 +37,7 @@ public class CardLoader {
             List<CardDef> defs = readCardDefs(filePath);
             for (CardDef def : defs) {
                 semanticValidator.validate(def);
-                repository.put(def);
+                repository.put(CompiledCard.compile(def));
             }
         }
 
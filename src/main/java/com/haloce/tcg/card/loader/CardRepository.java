@@ -1,6 +1,7 @@
 package com.haloce.tcg.card.loader;
 
 import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.runtime.CompiledCard;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -8,20 +9,34 @@ import java.util.Map;
 
 public class CardRepository {
     private final Map<String, CardDef> defsById = new HashMap<>();
+    private final Map<String, CompiledCard> compiledById = new HashMap<>();
 
     public void put(CardDef def) {
         if (def == null || def.id() == null || def.id().isBlank()) {
             throw new IllegalArgumentException("Card id is required");
         }
+        put(CompiledCard.compile(def));
+    }
+
+    public void put(CompiledCard card) {
+        CardDef def = card.definition();
+        if (def.id() == null || def.id().isBlank()) {
+            throw new IllegalArgumentException("Card id is required");
+        }
         if (defsById.putIfAbsent(def.id(), def) != null) {
             throw new IllegalStateException("Duplicate card id: " + def.id());
         }
+        compiledById.put(def.id(), card);
     }
 
     public CardDef get(String id) {
         return defsById.get(id);
     }
 
+    public CompiledCard compiled(String id) {
+        return compiledById.get(id);
+    }
+
     public boolean contains(String id) {
         return defsById.containsKey(id);
     }
@@ -4,6 +4,7 @@ import com.haloce.tcg.card.model.Ability;
 import com.haloce.tcg.card.model.CardDef;
 import com.haloce.tcg.card.model.CardType;
 import com.haloce.tcg.card.model.Effect;
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.model.KeywordInstance;
 import com.haloce.tcg.core.event.EventType;
 
@@ -12,13 +13,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class SemanticValidator {
-    private static final Set<String> VALID_KEYWORDS = Set.of(
-            "SHIELDED", "ARMOR", "EMP", "CAMO", "HIJACK", "PLASMA", "BALLISTIC",
-            "HEADSHOT", "INFECT", "DROP_POD", "RANGED", "SENTINEL", "SQUAD", "VEHICLE",
-            "ORBITAL_BATTERY", "POINT_DEFENSE", "SHIELD_HARDENING", "MULTI_SECTION", "TARGET_LINK"
-    );
+    private static final Set<String> VALID_KEYWORDS = Arrays.stream(Keyword.values())
+            .map(Enum::name)
+            .collect(Collectors.toSet());
 
     private static final Set<String> VALID_EFFECT_TYPES = Set.of(
             "DEAL_DAMAGE", "HEAL", "DRAW", "ADD_KEYWORD", "REMOVE_KEYWORD", "APPLY_STATUS",
@@ -28,7 +28,7 @@ public class SemanticValidator {
 
     private static final Set<String> VALID_TRIGGERS = Arrays.stream(EventType.values())
             .map(Enum::name)
-            .collect(java.util.stream.Collectors.toSet());
+            .collect(Collectors.toSet());
 
     public void validate(CardDef def) {
         require(def.id() != null && !def.id().isBlank(), "Card id is required");
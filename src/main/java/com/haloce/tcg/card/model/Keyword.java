@@ -0,0 +1,53 @@
+package com.haloce.tcg.card.model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The closed set of keywords a card may carry; {@code SemanticValidator} rejects any other name.
+ */
+public enum Keyword {
+    SHIELDED,
+    ARMOR,
+    EMP,
+    CAMO,
+    HIJACK,
+    PLASMA,
+    BALLISTIC,
+    HEADSHOT,
+    INFECT,
+    DROP_POD,
+    RANGED,
+    SENTINEL,
+    SQUAD,
+    VEHICLE,
+    ORBITAL_BATTERY,
+    POINT_DEFENSE,
+    SHIELD_HARDENING,
+    MULTI_SECTION,
+    TARGET_LINK;
+
+    private static final Map<String, Keyword> BY_NAME = new HashMap<>();
+
+    static {
+        for (Keyword keyword : values()) {
+            BY_NAME.put(keyword.name(), keyword);
+        }
+    }
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Case-insensitive lookup; returns {@code null} for names outside the set.
+     */
+    public static Keyword fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Keyword keyword = BY_NAME.get(name);
+        return keyword != null ? keyword : BY_NAME.get(name.toUpperCase(Locale.ROOT));
+    }
+}
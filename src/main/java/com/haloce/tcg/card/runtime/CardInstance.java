@@ -2,11 +2,25 @@ package com.haloce.tcg.card.runtime;
 
 import com.haloce.tcg.card.model.CardDef;
 
+/**
+ * @param handle     dense per-match index issued by {@link InstanceHandleAllocator}; use it to index
+ *                   internal per-unit arrays
+ * @param instanceId wire id derived from the handle, used at the protocol edge
+ * @param card       compiled definition; use it for keyword, tag and stat checks on hot paths
+ */
 public record CardInstance(
+        int handle,
         String instanceId,
-        CardDef definition,
+        CompiledCard card,
         String ownerPlayerId,
         long sourceEventSequence,
         String sourceCardId
 ) {
+    public CardDef definition() {
+        return card.definition();
+    }
+
+    public CardInstance withOwner(String newOwnerPlayerId) {
+        return new CardInstance(handle, instanceId, card, newOwnerPlayerId, sourceEventSequence, sourceCardId);
+    }
 }
@@ -0,0 +1,43 @@
+package com.haloce.tcg.card.runtime;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns card tags to small bit indexes. Tags are an open set, so indexes are handed out on first
+ * sight; the constants cover the tags the engine itself checks.
+ */
+public final class CardTags {
+    private static final Map<String, Integer> INDEX_BY_TAG = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    public static final int VEHICLE = indexOf("VEHICLE");
+    public static final int VESSEL = indexOf("VESSEL");
+    public static final int INFANTRY = indexOf("INFANTRY");
+    public static final int FORERUNNER = indexOf("FORERUNNER");
+    public static final int PROMETHEAN = indexOf("PROMETHEAN");
+    public static final int SPARTAN = indexOf("SPARTAN");
+
+    private CardTags() {
+    }
+
+    /**
+     * Case-insensitive; assigns the next free index to a tag seen for the first time.
+     */
+    public static int indexOf(String tag) {
+        return INDEX_BY_TAG.computeIfAbsent(tag.toUpperCase(Locale.ROOT), key -> NEXT_INDEX.getAndIncrement());
+    }
+
+    /**
+     * Like {@link #indexOf(String)} but returns -1 instead of interning an unseen tag.
+     */
+    public static int find(String tag) {
+        if (tag == null) {
+            return -1;
+        }
+        Integer index = INDEX_BY_TAG.get(tag.toUpperCase(Locale.ROOT));
+        return index == null ? -1 : index;
+    }
+}
@@ -0,0 +1,141 @@
+package com.haloce.tcg.card.runtime;
+
+import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.model.Cost;
+import com.haloce.tcg.card.model.Keyword;
+import com.haloce.tcg.card.model.KeywordInstance;
+import com.haloce.tcg.card.model.Stats;
+
+import java.util.BitSet;
+
+/**
+ * Immutable runtime form of a {@link CardDef}: keywords and tags as bitsets, stats, costs and the
+ * vehicle/infantry classification resolved once at load time.
+ */
+public final class CompiledCard {
+    private final CardDef definition;
+    private final long keywordBits;
+    private final BitSet tagBits;
+    private final boolean hasStats;
+    private final int attack;
+    private final int shieldCap;
+    private final int healthCap;
+    private final boolean vehicle;
+    private final boolean infantry;
+    private final int supplyCost;
+    private final int batteryCost;
+
+    private CompiledCard(CardDef definition) {
+        this.definition = definition;
+
+        long keywords = 0L;
+        if (definition.keywords() != null) {
+            for (KeywordInstance instance : definition.keywords()) {
+                Keyword keyword = instance == null ? null : Keyword.fromName(instance.name());
+                if (keyword != null) {
+                    keywords |= keyword.mask();
+                }
+            }
+        }
+        this.keywordBits = keywords;
+
+        BitSet tags = new BitSet();
+        if (definition.tags() != null) {
+            for (String tag : definition.tags()) {
+                if (tag != null) {
+                    tags.set(CardTags.indexOf(tag));
+                }
+            }
+        }
+        this.tagBits = tags;
+
+        Stats stats = definition.stats();
+        this.hasStats = stats != null;
+        this.attack = stats == null ? 0 : stats.attack();
+        this.shieldCap = stats == null ? 0 : stats.shieldCap();
+        this.healthCap = stats == null ? 0 : stats.healthCap();
+
+        this.vehicle = definition.cardType() == CardType.VESSEL
+                || hasKeyword(Keyword.VEHICLE)
+                || hasTag(CardTags.VEHICLE)
+                || hasTag(CardTags.VESSEL);
+        this.infantry = definition.cardType() == CardType.UNIT
+                && !vehicle
+                && (hasTag(CardTags.INFANTRY) || !hasTag(CardTags.VEHICLE));
+
+        Cost cost = definition.cost();
+        this.supplyCost = cost == null ? 0 : cost.supply();
+        this.batteryCost = cost == null ? 0 : cost.battery();
+    }
+
+    public static CompiledCard compile(CardDef definition) {
+        if (definition == null) {
+            throw new IllegalArgumentException("Card definition is required");
+        }
+        return new CompiledCard(definition);
+    }
+
+    public CardDef definition() {
+        return definition;
+    }
+
+    public String id() {
+        return definition.id();
+    }
+
+    public boolean hasKeyword(Keyword keyword) {
+        return (keywordBits & keyword.mask()) != 0;
+    }
+
+    /**
+     * Case-insensitive; names outside {@link Keyword} are never present.
+     */
+    public boolean hasKeyword(String keyword) {
+        Keyword resolved = Keyword.fromName(keyword);
+        return resolved != null && hasKeyword(resolved);
+    }
+
+    /**
+     * @param tagIndex index from {@link CardTags}
+     */
+    public boolean hasTag(int tagIndex) {
+        return tagIndex >= 0 && tagBits.get(tagIndex);
+    }
+
+    public boolean hasTag(String tag) {
+        return hasTag(CardTags.find(tag));
+    }
+
+    public boolean hasStats() {
+        return hasStats;
+    }
+
+    public int attack() {
+        return attack;
+    }
+
+    public int shieldCap() {
+        return shieldCap;
+    }
+
+    public int healthCap() {
+        return healthCap;
+    }
+
+    public int supplyCost() {
+        return supplyCost;
+    }
+
+    public int batteryCost() {
+        return batteryCost;
+    }
+
+    public boolean isVehicle() {
+        return vehicle;
+    }
+
+    public boolean isInfantry() {
+        return infantry;
+    }
+}
@@ -0,0 +1,101 @@
+package com.haloce.tcg.card.runtime;
+
+/**
+ * Issues the dense per-match handles of {@link CardInstance}s: 0, 1, 2, ... in creation order.
+ * The wire id is derived from the handle, so either can be recovered from the other without a lookup.
+ */
+public class InstanceHandleAllocator {
+    public static final int NO_HANDLE = -1;
+
+    private static final char ID_PREFIX = 'U';
+    private static final int ID_DIGITS = 7;
+    private static final int MAX_HANDLE = 9_999_999;
+
+    private int next;
+
+    public InstanceHandleAllocator() {
+    }
+
+    /**
+     * Allocator that has already issued handles {@code 0} to {@code allocated - 1}, for a match
+     * restored from saved state.
+     */
+    public InstanceHandleAllocator(int allocated) {
+        if (allocated < 0 || allocated > MAX_HANDLE + 1) {
+            throw new IllegalArgumentException("Invalid allocated handle count: " + allocated);
+        }
+        this.next = allocated;
+    }
+
+    public int allocate() {
+        if (next > MAX_HANDLE) {
+            throw new IllegalStateException("Instance handle space exhausted");
+        }
+        return next++;
+    }
+
+    /**
+     * Makes {@code allocated} the next handle again, which must not be ahead of {@link #allocated()};
+     * used when the instances created since are rolled back.
+     */
+    public void rewindTo(int allocated) {
+        if (allocated < 0 || allocated > next) {
+            throw new IllegalArgumentException("Cannot rewind handle " + next + " to " + allocated);
+        }
+        next = allocated;
+    }
+
+    /**
+     * Independent allocator that continues from the same next handle, for a forked match.
+     */
+    public InstanceHandleAllocator copy() {
+        return new InstanceHandleAllocator(next);
+    }
+
+    /**
+     * Number of handles issued so far; every issued handle is below this value.
+     */
+    public int allocated() {
+        return next;
+    }
+
+    public CardInstance create(CompiledCard card, String ownerPlayerId, long sourceEventSequence, String sourceCardId) {
+        int handle = allocate();
+        return new CardInstance(handle, instanceId(handle), card, ownerPlayerId, sourceEventSequence, sourceCardId);
+    }
+
+    /**
+     * Wire id for a handle: {@code U} followed by seven decimal digits, e.g. {@code U0000042}.
+     */
+    public static String instanceId(int handle) {
+        if (handle < 0 || handle > MAX_HANDLE) {
+            throw new IllegalArgumentException("Invalid instance handle: " + handle);
+        }
+        char[] chars = new char[ID_DIGITS + 1];
+        chars[0] = ID_PREFIX;
+        int remaining = handle;
+        for (int i = ID_DIGITS; i > 0; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Inverse of {@link #instanceId(int)}; returns {@link #NO_HANDLE} for ids this class did not issue.
+     */
+    public static int handleOf(String instanceId) {
+        if (instanceId == null || instanceId.length() != ID_DIGITS + 1 || instanceId.charAt(0) != ID_PREFIX) {
+            return NO_HANDLE;
+        }
+        int handle = 0;
+        for (int i = 1; i <= ID_DIGITS; i++) {
+            char c = instanceId.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_HANDLE;
+            }
+            handle = handle * 10 + (c - '0');
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,270 @@
+package com.haloce.tcg.combat;
+
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps combat state in parallel primitive arrays indexed by instance handle instead of one object
+ * per entity. {@link #get(String)} hands out a write-through view, so existing callers keep working,
+ * and the bulk shield recharge touches the arrays directly. Only accepts ids issued by
+ * {@link InstanceHandleAllocator}.
+ */
+public class ColumnarCombatStateStore implements CombatStateStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+    private int[] shield = new int[INITIAL_CAPACITY];
+    private int[] health = new int[INITIAL_CAPACITY];
+    private int[] cover = new int[INITIAL_CAPACITY];
+    private boolean[] marked = new boolean[INITIAL_CAPACITY];
+    private boolean[] suppressed = new boolean[INITIAL_CAPACITY];
+    private View[] views = new View[INITIAL_CAPACITY];
+    private ZobristHash hash;
+    private UndoLog undoLog;
+
+    @Override
+    public void put(String entityId, EntityCombatState state) {
+        int handle = requireHandle(entityId);
+        ensureCapacity(handle + 1);
+        if (journaling()) {
+            EntityCombatState previous = present[handle] ? view(handle).copy() : null;
+            undoLog.record(previous == null ? () -> remove(entityId) : () -> put(entityId, previous));
+        }
+        present[handle] = true;
+        shield[handle] = state.currentShield();
+        health[handle] = state.currentHealth();
+        cover[handle] = state.coverValue();
+        marked[handle] = state.marked();
+        suppressed[handle] = state.suppressed();
+        if (hash != null) {
+            view(handle).bindHash(hash, ZobristHash.idKey(entityId));
+        }
+    }
+
+    @Override
+    public EntityCombatState get(String entityId) {
+        EntityCombatState state = find(entityId);
+        if (state == null) {
+            throw new IllegalArgumentException("Missing combat state for entity: " + entityId);
+        }
+        return state;
+    }
+
+    @Override
+    public EntityCombatState find(String entityId) {
+        int handle = InstanceHandleAllocator.handleOf(entityId);
+        if (!isPresent(handle)) {
+            return null;
+        }
+        return view(handle);
+    }
+
+    @Override
+    public void remove(String entityId) {
+        int handle = InstanceHandleAllocator.handleOf(entityId);
+        if (isPresent(handle)) {
+            if (journaling()) {
+                EntityCombatState removed = view(handle).copy();
+                undoLog.record(() -> put(entityId, removed));
+            }
+            present[handle] = false;
+            // The view stays, unbound, so writes journaled through it still land on the right
+            // handle if an undo puts the entity back.
+            if (views[handle] != null) {
+                views[handle].bindHash(null, 0L);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, EntityCombatState> visitor) {
+        for (int handle = 0; handle < present.length; handle++) {
+            if (present[handle]) {
+                visitor.accept(InstanceHandleAllocator.instanceId(handle), view(handle));
+            }
+        }
+    }
+
+    @Override
+    public CombatStateStore copy() {
+        ColumnarCombatStateStore copy = new ColumnarCombatStateStore();
+        copy.present = present.clone();
+        copy.shield = shield.clone();
+        copy.health = health.clone();
+        copy.cover = cover.clone();
+        copy.marked = marked.clone();
+        copy.suppressed = suppressed.clone();
+        copy.views = new View[views.length];
+        return copy;
+    }
+
+    @Override
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+        for (View view : views) {
+            if (view != null) {
+                view.bindUndoLog(undoLog);
+            }
+        }
+    }
+
+    @Override
+    public void bindHash(ZobristHash hash) {
+        this.hash = hash;
+        for (int handle = 0; handle < present.length; handle++) {
+            if (present[handle]) {
+                view(handle).bindHash(hash, ZobristHash.idKey(InstanceHandleAllocator.instanceId(handle)));
+            }
+        }
+    }
+
+    @Override
+    public void rechargeShields(List<String> entityIds, int[] shieldTargets, int[] previousShields) {
+        int[] handles = requirePresent(entityIds);
+        for (int i = 0; i < handles.length; i++) {
+            previousShields[i] = shield[handles[i]];
+            shield[handles[i]] = Math.max(0, shieldTargets[i]);
+        }
+        if (journaling()) {
+            int[] restored = Arrays.copyOf(previousShields, handles.length);
+            undoLog.record(() -> {
+                for (int i = 0; i < handles.length; i++) {
+                    shield[handles[i]] = restored[i];
+                }
+                rehash(handles);
+            });
+        }
+        rehash(handles);
+    }
+
+    private boolean journaling() {
+        return undoLog != null && undoLog.recording();
+    }
+
+    private void rehash(int[] handles) {
+        if (hash == null) {
+            return;
+        }
+        for (int handle : handles) {
+            views[handle].rehash();
+        }
+    }
+
+    private View view(int handle) {
+        View view = views[handle];
+        if (view == null) {
+            view = new View(handle);
+            view.bindUndoLog(undoLog);
+            views[handle] = view;
+        }
+        return view;
+    }
+
+    // Resolve every id before writing anything, so a bad id leaves the store untouched.
+    private int[] requirePresent(List<String> entityIds) {
+        int[] handles = new int[entityIds.size()];
+        for (int i = 0; i < handles.length; i++) {
+            String entityId = entityIds.get(i);
+            int handle = InstanceHandleAllocator.handleOf(entityId);
+            if (!isPresent(handle)) {
+                throw new IllegalArgumentException("Missing combat state for entity: " + entityId);
+            }
+            handles[i] = handle;
+        }
+        return handles;
+    }
+
+    private boolean isPresent(int handle) {
+        return handle >= 0 && handle < present.length && present[handle];
+    }
+
+    private static int requireHandle(String entityId) {
+        int handle = InstanceHandleAllocator.handleOf(entityId);
+        if (handle == InstanceHandleAllocator.NO_HANDLE) {
+            throw new IllegalArgumentException("Entity id was not issued by an instance handle allocator: " + entityId);
+        }
+        return handle;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= present.length) {
+            return;
+        }
+        int capacity = Math.max(required, present.length * 2);
+        present = Arrays.copyOf(present, capacity);
+        shield = Arrays.copyOf(shield, capacity);
+        health = Arrays.copyOf(health, capacity);
+        cover = Arrays.copyOf(cover, capacity);
+        marked = Arrays.copyOf(marked, capacity);
+        suppressed = Arrays.copyOf(suppressed, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    private final class View extends EntityCombatState {
+        private final int handle;
+
+        private View(int handle) {
+            super(0, 0);
+            this.handle = handle;
+        }
+
+        @Override
+        public int currentShield() {
+            return shield[handle];
+        }
+
+        @Override
+        public int currentHealth() {
+            return health[handle];
+        }
+
+        @Override
+        public int coverValue() {
+            return cover[handle];
+        }
+
+        @Override
+        public boolean marked() {
+            return marked[handle];
+        }
+
+        @Override
+        public boolean suppressed() {
+            return suppressed[handle];
+        }
+
+        @Override
+        public void setMarked(boolean value) {
+            journal();
+            marked[handle] = value;
+            rehash();
+        }
+
+        @Override
+        public void setSuppressed(boolean value) {
+            journal();
+            suppressed[handle] = value;
+            rehash();
+        }
+
+        @Override
+        protected void storeShield(int value) {
+            shield[handle] = value;
+        }
+
+        @Override
+        protected void storeHealth(int value) {
+            health[handle] = value;
+        }
+
+        @Override
+        protected void storeCoverValue(int value) {
+            cover[handle] = value;
+        }
+    }
+}
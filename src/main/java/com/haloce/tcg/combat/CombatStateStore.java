@@ -1,7 +1,59 @@
 package com.haloce.tcg.combat;
 
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
 public interface CombatStateStore {
+    /**
+     * Starts tracking an entity with the values of {@code state}. Implementations may copy the values
+     * rather than keep the object; use {@link #get(String)} afterwards.
+     */
+    void put(String entityId, EntityCombatState state);
+
     EntityCombatState get(String entityId);
 
+    /**
+     * Like {@link #get(String)} but returns {@code null} for unknown or already removed entities.
+     */
+    EntityCombatState find(String entityId);
+
     void remove(String entityId);
+
+    /**
+     * Visits every tracked entity. The store must not change during the visit.
+     */
+    void forEach(BiConsumer<String, EntityCombatState> visitor);
+
+    /**
+     * Makes every tracked entity, and every entity put later, contribute to {@code hash} until it is
+     * removed. Pass {@code null} to stop hashing.
+     */
+    void bindHash(ZobristHash hash);
+
+    /**
+     * Records the inverse of every later put, removal and entity write in {@code undoLog}. Pass
+     * {@code null} to stop.
+     */
+    void bindUndoLog(UndoLog undoLog);
+
+    /**
+     * Independent store of the same implementation holding copies of every entity, not bound to
+     * any hash; used to fork a match.
+     */
+    CombatStateStore copy();
+
+    /**
+     * Sets the shield of each entity in {@code entityIds} to the matching {@code shieldTargets} value
+     * and writes the shields they had before into {@code previousShields}.
+     */
+    default void rechargeShields(List<String> entityIds, int[] shieldTargets, int[] previousShields) {
+        for (int i = 0; i < entityIds.size(); i++) {
+            EntityCombatState state = get(entityIds.get(i));
+            previousShields[i] = state.currentShield();
+            state.rechargeShieldTo(shieldTargets[i]);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.haloce.tcg.combat;
+
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed payload for the damage pipeline events published by {@link DamageResolver}. Fields that do not
+ * belong to {@code stage} are zero/false and are left out of the {@link #asMap()} view.
+ */
+public record DamageEventPayload(
+        EventType stage,
+        DamageContext context,
+        int damage,
+        int shieldDamage,
+        int overflow,
+        int healthDamage,
+        boolean lethal
+) implements EventPayload {
+    public static DamageEventPayload calcStarted(DamageContext context, int damage) {
+        return new DamageEventPayload(EventType.DAMAGE_CALC_STARTED, context, damage, 0, 0, 0, false);
+    }
+
+    public static DamageEventPayload modified(DamageContext context, int damage) {
+        return new DamageEventPayload(EventType.DAMAGE_MODIFIED, context, damage, 0, 0, 0, false);
+    }
+
+    public static DamageEventPayload shieldDamaged(DamageContext context, ShieldDamageResult result) {
+        return new DamageEventPayload(EventType.SHIELD_DAMAGED, context, 0, result.shieldDamage(), result.overflowDamage(), 0, false);
+    }
+
+    public static DamageEventPayload healthDamaged(DamageContext context, HealthDamageResult result) {
+        return new DamageEventPayload(EventType.HULL_OR_HEALTH_DAMAGED, context, 0, 0, 0, result.healthDamage(), result.lethal());
+    }
+
+    public static DamageEventPayload dealt(DamageContext context, int finalDamage) {
+        return new DamageEventPayload(EventType.DAMAGE_DEALT, context, finalDamage, 0, 0, 0, false);
+    }
+
+    public static DamageEventPayload kill(DamageContext context) {
+        return new DamageEventPayload(EventType.KILL_OCCURRED, context, 0, 0, 0, 0, true);
+    }
+
+    public DamageType damageType() {
+        return context.damageType();
+    }
+
+    public boolean orbitalStrike() {
+        return context.orbitalStrike();
+    }
+
+    public boolean ordnance() {
+        return context.ordnance();
+    }
+
+    public int finalDamageMultiplier() {
+        return context.finalDamageMultiplier();
+    }
+
+    public boolean ignoreShield() {
+        return context.ignoreShield();
+    }
+
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "damageType" -> damageType().name();
+            case "orbitalStrike" -> orbitalStrike();
+            case "ordnance" -> ordnance();
+            case "finalDamageMultiplier" -> finalDamageMultiplier();
+            case "ignoreShield" -> ignoreShield();
+            case "damage" -> stage == EventType.DAMAGE_CALC_STARTED || stage == EventType.DAMAGE_MODIFIED ? damage : null;
+            case "finalDamage" -> stage == EventType.DAMAGE_DEALT ? damage : null;
+            case "shieldDamage" -> stage == EventType.SHIELD_DAMAGED ? shieldDamage : null;
+            case "overflow" -> stage == EventType.SHIELD_DAMAGED ? overflow : null;
+            case "healthDamage" -> stage == EventType.HULL_OR_HEALTH_DAMAGED ? healthDamage : null;
+            case "lethal" -> stage == EventType.HULL_OR_HEALTH_DAMAGED ? lethal : null;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        switch (stage) {
+            case DAMAGE_CALC_STARTED, DAMAGE_MODIFIED -> map.put("damage", damage);
+            case SHIELD_DAMAGED -> {
+                map.put("shieldDamage", shieldDamage);
+                map.put("overflow", overflow);
+            }
+            case HULL_OR_HEALTH_DAMAGED -> {
+                map.put("healthDamage", healthDamage);
+                map.put("lethal", lethal);
+            }
+            case DAMAGE_DEALT -> map.put("finalDamage", damage);
+            default -> {
+            }
+        }
+        map.put("damageType", damageType().name());
+        map.put("orbitalStrike", orbitalStrike());
+        map.put("ordnance", ordnance());
+        map.put("finalDamageMultiplier", finalDamageMultiplier());
+        map.put("ignoreShield", ignoreShield());
+        return Collections.unmodifiableMap(map);
+    }
+}
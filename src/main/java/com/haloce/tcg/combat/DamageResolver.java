@@ -1,45 +1,54 @@
 package com.haloce.tcg.combat;
 
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventSequencer;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
 
-import java.util.HashMap;
-import java.util.Map;
 
 public class DamageResolver {
     private final EventBus eventBus;
     private final CombatStateStore stateStore;
+    private final EventSequencer eventSequencer;
 
     public DamageResolver(EventBus eventBus, CombatStateStore stateStore) {
+        this(eventBus, stateStore, new EventSequencer());
+    }
+
+    public DamageResolver(EventBus eventBus, CombatStateStore stateStore, EventSequencer eventSequencer) {
         this.eventBus = eventBus;
         this.stateStore = stateStore;
+        this.eventSequencer = eventSequencer;
     }
 
     public DamageResult resolve(DamageContext context, int globalTurnIndex, int roundIndex, String activePlayerId) {
-        publish(EventType.DAMAGE_CALC_STARTED, context, globalTurnIndex, roundIndex, activePlayerId, Map.of("damage", context.baseDamage()));
+        publish(EventType.DAMAGE_CALC_STARTED, context, globalTurnIndex, roundIndex, activePlayerId,
+                DamageEventPayload.calcStarted(context, context.baseDamage()));
 
+        EntityCombatState defender = stateStore.get(context.defenderId());
         int damage = applyTypeModifiers(context.baseDamage(), context.damageType());
-        damage = applyStatusAndCoverModifiers(damage, context);
+        damage = applyStatusAndCoverModifiers(damage, context, defender);
         damage = Math.max(0, damage * Math.max(1, context.finalDamageMultiplier()));
 
-        publish(EventType.DAMAGE_MODIFIED, context, globalTurnIndex, roundIndex, activePlayerId, Map.of("damage", damage));
+        publish(EventType.DAMAGE_MODIFIED, context, globalTurnIndex, roundIndex, activePlayerId,
+                DamageEventPayload.modified(context, damage));
 
         ShieldDamageResult shieldDamageResult = context.ignoreShield()
             ? new ShieldDamageResult(0, damage)
-            : applyShieldDamage(context.defenderId(), damage);
+            : applyShieldDamage(defender, damage);
         publish(EventType.SHIELD_DAMAGED, context, globalTurnIndex, roundIndex, activePlayerId,
-                Map.of("shieldDamage", shieldDamageResult.shieldDamage(), "overflow", shieldDamageResult.overflowDamage()));
+                DamageEventPayload.shieldDamaged(context, shieldDamageResult));
 
-        HealthDamageResult healthDamageResult = applyHealthDamage(context.defenderId(), shieldDamageResult.overflowDamage());
+        HealthDamageResult healthDamageResult = applyHealthDamage(defender, shieldDamageResult.overflowDamage());
         publish(EventType.HULL_OR_HEALTH_DAMAGED, context, globalTurnIndex, roundIndex, activePlayerId,
-                Map.of("healthDamage", healthDamageResult.healthDamage(), "lethal", healthDamageResult.lethal()));
+                DamageEventPayload.healthDamaged(context, healthDamageResult));
 
         publish(EventType.DAMAGE_DEALT, context, globalTurnIndex, roundIndex, activePlayerId,
-                Map.of("finalDamage", damage));
+                DamageEventPayload.dealt(context, damage));
 
         if (healthDamageResult.lethal()) {
-            publish(EventType.KILL_OCCURRED, context, globalTurnIndex, roundIndex, activePlayerId, Map.of());
+            publish(EventType.KILL_OCCURRED, context, globalTurnIndex, roundIndex, activePlayerId,
+                    DamageEventPayload.kill(context));
         }
 
         return new DamageResult(damage, shieldDamageResult.shieldDamage(), healthDamageResult.healthDamage(), healthDamageResult.lethal());
@@ -53,8 +62,7 @@ public class DamageResolver {
         };
     }
 
-    private int applyStatusAndCoverModifiers(int damage, DamageContext context) {
-        EntityCombatState defender = stateStore.get(context.defenderId());
+    private int applyStatusAndCoverModifiers(int damage, DamageContext context, EntityCombatState defender) {
         int modified = damage;
 
         if (defender.marked()) {
@@ -76,16 +84,14 @@ public class DamageResolver {
         return Math.max(0, modified);
     }
 
-    private ShieldDamageResult applyShieldDamage(String defenderId, int damage) {
-        EntityCombatState defender = stateStore.get(defenderId);
+    private ShieldDamageResult applyShieldDamage(EntityCombatState defender, int damage) {
         int beforeShield = defender.currentShield();
         int overflow = defender.applyShieldDamage(damage);
         int absorbed = beforeShield - defender.currentShield();
         return new ShieldDamageResult(absorbed, overflow);
     }
 
-    private HealthDamageResult applyHealthDamage(String defenderId, int overflow) {
-        EntityCombatState defender = stateStore.get(defenderId);
+    private HealthDamageResult applyHealthDamage(EntityCombatState defender, int overflow) {
         int dealt = defender.applyHealthDamage(overflow);
         boolean lethal = defender.currentHealth() <= 0;
         return new HealthDamageResult(dealt, lethal);
@@ -96,16 +102,9 @@ public class DamageResolver {
                          int globalTurnIndex,
                          int roundIndex,
                          String activePlayerId,
-                         Map<String, Object> payload) {
-        Map<String, Object> merged = new HashMap<>(payload);
-        merged.put("damageType", context.damageType().name());
-        merged.put("orbitalStrike", context.orbitalStrike());
-        merged.put("ordnance", context.ordnance());
-        merged.put("finalDamageMultiplier", context.finalDamageMultiplier());
-        merged.put("ignoreShield", context.ignoreShield());
-
+                         DamageEventPayload payload) {
         eventBus.publish(new GameEvent(
-                System.nanoTime(),
+                eventSequencer.next(),
                 eventType,
                 globalTurnIndex,
                 roundIndex,
@@ -116,7 +115,7 @@ public class DamageResolver {
                 context.defenderId(),
                 null,
                 context.orbitalStrike() ? "ORBIT" : "SURFACE",
-                merged
+                payload
         ));
     }
 }
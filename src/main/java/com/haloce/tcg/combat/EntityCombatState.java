@@ -1,17 +1,39 @@
 package com.haloce.tcg.combat;
 
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
+
+/**
+ * Mutable combat state of one entity. Subclasses may keep the values elsewhere by overriding the
+ * accessors and the {@code store*} methods; the damage and healing rules stay here.
+ */
 public class EntityCombatState {
     private int currentShield;
     private int currentHealth;
     private int coverValue;
     private boolean marked;
     private boolean suppressed;
+    private ZobristHash hash;
+    private long hashOwner;
+    private long hashKey;
+    private UndoLog undoLog;
 
     public EntityCombatState(int currentShield, int currentHealth) {
         this.currentShield = currentShield;
         this.currentHealth = currentHealth;
     }
 
+    /**
+     * Plain copy of the current values, not bound to any hash.
+     */
+    public EntityCombatState copy() {
+        EntityCombatState copy = new EntityCombatState(currentShield(), currentHealth());
+        copy.coverValue = coverValue();
+        copy.marked = marked();
+        copy.suppressed = suppressed();
+        return copy;
+    }
+
     public int currentShield() {
         return currentShield;
     }
@@ -33,39 +55,133 @@ public class EntityCombatState {
     }
 
     public void setCoverValue(int coverValue) {
-        this.coverValue = Math.max(0, coverValue);
+        journal();
+        storeCoverValue(Math.max(0, coverValue));
+        rehash();
     }
 
     public void setMarked(boolean marked) {
+        journal();
         this.marked = marked;
+        rehash();
     }
 
     public void setSuppressed(boolean suppressed) {
+        journal();
         this.suppressed = suppressed;
+        rehash();
+    }
+
+    /**
+     * Makes this state contribute to {@code hash} under {@code owner}, withdrawing it from any hash
+     * it was bound to before. Pass {@code null} to unbind.
+     */
+    public void bindHash(ZobristHash hash, long owner) {
+        if (this.hash != null) {
+            this.hash.toggle(hashKey);
+        }
+        this.hash = hash;
+        this.hashOwner = owner;
+        if (hash != null) {
+            hashKey = computeHashKey();
+            hash.toggle(hashKey);
+        }
+    }
+
+    /**
+     * Records the inverse of every later write in {@code undoLog}. Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    /**
+     * Records the current values so an open undo mark can restore them; subclasses that write state
+     * outside the {@code store*} methods must call this first.
+     */
+    protected final void journal() {
+        if (undoLog == null || !undoLog.recording()) {
+            return;
+        }
+        int shield = currentShield();
+        int health = currentHealth();
+        int cover = coverValue();
+        boolean wasMarked = marked();
+        boolean wasSuppressed = suppressed();
+        undoLog.record(() -> {
+            storeShield(shield);
+            storeHealth(health);
+            storeCoverValue(cover);
+            setMarked(wasMarked);
+            setSuppressed(wasSuppressed);
+        });
+    }
+
+    /**
+     * Brings the bound hash up to date; subclasses that write state outside the {@code store*}
+     * methods must call this afterwards.
+     */
+    protected final void rehash() {
+        if (hash == null) {
+            return;
+        }
+        long key = computeHashKey();
+        hash.replace(hashKey, key);
+        hashKey = key;
+    }
+
+    private long computeHashKey() {
+        long key = ZobristHash.key(ZobristHash.COMBAT, hashOwner, currentShield());
+        key = ZobristHash.chain(key, currentHealth());
+        key = ZobristHash.chain(key, coverValue());
+        return ZobristHash.chain(key, (marked() ? 1 : 0) | (suppressed() ? 2 : 0));
     }
 
     public int applyShieldDamage(int damage) {
+        journal();
         int effective = Math.max(0, damage);
-        int absorbed = Math.min(currentShield, effective);
-        currentShield -= absorbed;
+        int shield = currentShield();
+        int absorbed = Math.min(shield, effective);
+        storeShield(shield - absorbed);
+        rehash();
         return effective - absorbed;
     }
 
     public int applyHealthDamage(int damage) {
+        journal();
         int effective = Math.max(0, damage);
-        int before = currentHealth;
-        currentHealth = Math.max(0, currentHealth - effective);
-        return before - currentHealth;
+        int before = currentHealth();
+        int after = Math.max(0, before - effective);
+        storeHealth(after);
+        rehash();
+        return before - after;
     }
 
     public void rechargeShieldTo(int shieldCap) {
-        currentShield = Math.max(0, shieldCap);
+        journal();
+        storeShield(Math.max(0, shieldCap));
+        rehash();
     }
 
     public int healHealth(int amount, int healthCap) {
+        journal();
         int effective = Math.max(0, amount);
-        int before = currentHealth;
-        currentHealth = Math.min(Math.max(0, healthCap), currentHealth + effective);
-        return currentHealth - before;
+        int before = currentHealth();
+        int after = Math.min(Math.max(0, healthCap), before + effective);
+        storeHealth(after);
+        rehash();
+        return after - before;
+    }
+
+    protected void storeShield(int shield) {
+        this.currentShield = shield;
+    }
+
+    protected void storeHealth(int health) {
+        this.currentHealth = health;
+    }
+
+    protected void storeCoverValue(int coverValue) {
+        this.coverValue = coverValue;
     }
 }
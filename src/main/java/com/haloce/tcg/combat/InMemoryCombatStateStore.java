@@ -1,13 +1,31 @@
 package com.haloce.tcg.combat;
 
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 public class InMemoryCombatStateStore implements CombatStateStore {
     private final Map<String, EntityCombatState> states = new HashMap<>();
+    private ZobristHash hash;
+    private UndoLog undoLog;
 
+    @Override
     public void put(String entityId, EntityCombatState state) {
-        states.put(entityId, state);
+        EntityCombatState previous = states.put(entityId, state);
+        if (previous != null && previous != state) {
+            previous.bindHash(null, 0L);
+            previous.bindUndoLog(null);
+        }
+        if (hash != null) {
+            state.bindHash(hash, ZobristHash.idKey(entityId));
+        }
+        state.bindUndoLog(undoLog);
+        if (undoLog != null && undoLog.recording()) {
+            undoLog.record(previous == null ? () -> remove(entityId) : () -> put(entityId, previous));
+        }
     }
 
     @Override
@@ -19,8 +37,50 @@ public class InMemoryCombatStateStore implements CombatStateStore {
         return state;
     }
 
+    @Override
+    public EntityCombatState find(String entityId) {
+        return states.get(entityId);
+    }
+
     @Override
     public void remove(String entityId) {
-        states.remove(entityId);
+        EntityCombatState removed = states.remove(entityId);
+        if (removed != null) {
+            removed.bindHash(null, 0L);
+            removed.bindUndoLog(null);
+            if (undoLog != null && undoLog.recording()) {
+                undoLog.record(() -> put(entityId, removed));
+            }
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, EntityCombatState> visitor) {
+        states.forEach(visitor);
+    }
+
+    @Override
+    public CombatStateStore copy() {
+        InMemoryCombatStateStore copy = new InMemoryCombatStateStore();
+        for (Map.Entry<String, EntityCombatState> entry : states.entrySet()) {
+            copy.states.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    @Override
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+        for (EntityCombatState state : states.values()) {
+            state.bindUndoLog(undoLog);
+        }
+    }
+
+    @Override
+    public void bindHash(ZobristHash hash) {
+        this.hash = hash;
+        for (Map.Entry<String, EntityCombatState> entry : states.entrySet()) {
+            entry.getValue().bindHash(hash, ZobristHash.idKey(entry.getKey()));
+        }
     }
 }
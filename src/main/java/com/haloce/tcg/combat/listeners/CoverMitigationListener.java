@@ -1,6 +1,7 @@
 package com.haloce.tcg.combat.listeners;
 
 import com.haloce.tcg.combat.CombatStateStore;
+import com.haloce.tcg.combat.DamageEventPayload;
 import com.haloce.tcg.combat.EntityCombatState;
 import com.haloce.tcg.core.event.EventContext;
 import com.haloce.tcg.core.event.EventListener;
@@ -9,6 +10,10 @@ import com.haloce.tcg.core.event.GameEvent;
 
 import java.util.Map;
 
+/**
+ * Reports cover on DAMAGE_MODIFIED as a COVER_MITIGATED event. The reduction itself is applied by
+ * {@code DamageResolver}; payloads are immutable, so this listener no longer rewrites the damage value.
+ */
 public class CoverMitigationListener implements EventListener {
     private final CombatStateStore stateStore;
 
@@ -28,9 +33,8 @@ public class CoverMitigationListener implements EventListener {
 
     @Override
     public void onEvent(GameEvent event, EventContext context) {
-        Object ordnanceValue = event.payload().get("ordnance");
-        boolean isOrdnance = ordnanceValue instanceof Boolean b && b;
-        if (isOrdnance) {
+        DamageEventPayload payload = event.payloadAs(DamageEventPayload.class);
+        if (payload == null || payload.ordnance()) {
             return;
         }
 
@@ -39,15 +43,27 @@ public class CoverMitigationListener implements EventListener {
             return;
         }
 
-        EntityCombatState defender = stateStore.get(defenderId);
-        int cover = Math.max(0, defender.coverValue());
-        Object value = event.payload().get("damage");
-        if (!(value instanceof Integer currentDamage)) {
+        // The resolver's events are drained by the caller's next processQueue(), which can run after
+        // the defender died and left the store.
+        EntityCombatState defender = stateStore.find(defenderId);
+        int cover = defender == null ? 0 : Math.max(0, defender.coverValue());
+        if (cover == 0) {
             return;
         }
 
-        int mitigated = Math.max(0, currentDamage - cover);
-        Map<String, Object> mutableMap = (Map<String, Object>) event.payload();
-        mutableMap.put("damage", mitigated);
+        context.eventBus().publish(new GameEvent(
+                event.sequence(),
+                EventType.COVER_MITIGATED,
+                event.globalTurnIndex(),
+                event.roundIndex(),
+                event.activePlayerId(),
+                event.sourcePlayerId(),
+                event.targetPlayerId(),
+                event.sourceEntityId(),
+                defenderId,
+                event.lane(),
+                event.layer(),
+                Map.of("cover", cover, "damage", payload.damage())
+        ));
     }
 }
@@ -1,16 +1,32 @@
 package com.haloce.tcg.core.event;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 public class DeterministicEventBus implements EventBus {
-    private final Deque<GameEvent> queue = new ArrayDeque<>();
+    private static final EventListener[] NO_LISTENERS = new EventListener[0];
+
+    // Published events not yet delivered to every listener, in publish order. Inside a batch the
+    // first `reacted` of them have been dispatched to the listeners that are not passive.
+    private final List<GameEvent> pending = new ArrayList<>();
     private final List<EventListener> listeners = new ArrayList<>();
+    private final Map<EventType, EventListener[]> dispatchTable = new EnumMap<>(EventType.class);
+    // Types with at least one listener that is not passive; their dispatch cannot wait for a commit.
+    private final Set<EventType> reactiveTypes = EnumSet.noneOf(EventType.class);
     private final EventContext context;
+    // Size of `pending` when each open batch scope began, innermost last.
+    private int[] batchStarts = new int[8];
+    private boolean dispatchTableStale;
+    private int batchDepth;
+    private int reacted;
+    private int delivered;
+    private boolean reactionPending;
 
     public DeterministicEventBus() {
         this.context = new EventContext(this);
@@ -18,30 +34,135 @@ public class DeterministicEventBus implements EventBus {
 
     @Override
     public void publish(GameEvent event) {
-        queue.addLast(event);
+        pending.add(event);
+        if (batchDepth > 0 && !reactionPending) {
+            if (dispatchTableStale) {
+                rebuildDispatchTable();
+            }
+            reactionPending = reactiveTypes.contains(event.type());
+        }
     }
 
     @Override
     public void register(EventListener listener) {
         listeners.add(listener);
-        listeners.sort(Comparator.comparingInt(EventListener::priority));
+        dispatchTableStale = true;
     }
 
     @Override
     public void processQueue() {
-        while (!queue.isEmpty()) {
-            GameEvent event = queue.removeFirst();
-            List<EventListener> matched = listeners.stream()
-                    .filter(listener -> listener.supports() == event.type())
-                    .collect(Collectors.toList());
-
-            for (EventListener listener : matched) {
-                listener.onEvent(event, context);
-            }
+        if (batchDepth == 0) {
+            deliverPending();
+        } else if (reactionPending) {
+            dispatchReactions();
+        }
+    }
+
+    @Override
+    public void beginBatch() {
+        if (batchDepth == batchStarts.length) {
+            batchStarts = Arrays.copyOf(batchStarts, batchDepth * 2);
+        }
+        batchStarts[batchDepth++] = pending.size();
+    }
+
+    @Override
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("commitBatch() without matching beginBatch()");
+        }
+        if (--batchDepth == 0) {
+            deliverPending();
+        }
+    }
+
+    @Override
+    public void abortBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("abortBatch() without matching beginBatch()");
+        }
+        int start = batchStarts[--batchDepth];
+        pending.subList(start, pending.size()).clear();
+        reacted = Math.min(reacted, start);
+        reactionPending &= reacted < pending.size();
+        if (batchDepth == 0) {
+            deliverPending();
         }
     }
 
     public EventContext context() {
         return context;
     }
+
+    /**
+     * Dispatches pending events to the listeners that are not passive, leaving them pending for
+     * the passive ones.
+     */
+    private void dispatchReactions() {
+        while (reacted < pending.size()) {
+            GameEvent event = pending.get(reacted++);
+            for (EventListener listener : listenersFor(event.type())) {
+                if (!listener.passive()) {
+                    listener.onEvent(event, context);
+                }
+            }
+        }
+        // Everything published while dispatching was dispatched too.
+        reactionPending = false;
+    }
+
+    /**
+     * Delivers every pending event to all of its listeners in priority order, except that events
+     * whose reactions already ran inside a batch only go to the passive listeners.
+     */
+    private void deliverPending() {
+        while (delivered < pending.size()) {
+            int index = delivered++;
+            GameEvent event = pending.get(index);
+            boolean reactionsRan = index < reacted;
+            // A listener registered mid-dispatch only sees events dequeued after it.
+            for (EventListener listener : listenersFor(event.type())) {
+                if (!reactionsRan || listener.passive()) {
+                    listener.onEvent(event, context);
+                }
+            }
+        }
+        pending.clear();
+        delivered = 0;
+        reacted = 0;
+        reactionPending = false;
+    }
+    private EventListener[] listenersFor(EventType type) {
+        if (dispatchTableStale) {
+            rebuildDispatchTable();
+        }
+        EventListener[] matched = dispatchTable.get(type);
+        return matched == null ? NO_LISTENERS : matched;
+    }
+
+    /**
+     * Groups listeners by supported type. The sort is stable, so listeners sharing a priority
+     * keep their registration order.
+     */
+    private void rebuildDispatchTable() {
+        List<EventListener> ordered = new ArrayList<>(listeners);
+        ordered.sort(Comparator.comparingInt(EventListener::priority));
+
+        Map<EventType, List<EventListener>> grouped = new EnumMap<>(EventType.class);
+        for (EventListener listener : ordered) {
+            grouped.computeIfAbsent(listener.supports(), ignored -> new ArrayList<>()).add(listener);
+        }
+
+        dispatchTable.clear();
+        reactiveTypes.clear();
+        for (Map.Entry<EventType, List<EventListener>> entry : grouped.entrySet()) {
+            dispatchTable.put(entry.getKey(), entry.getValue().toArray(NO_LISTENERS));
+            for (EventListener listener : entry.getValue()) {
+                if (!listener.passive()) {
+                    reactiveTypes.add(entry.getKey());
+                }
+            }
+        }
+        dispatchTableStale = false;
+    }
 }
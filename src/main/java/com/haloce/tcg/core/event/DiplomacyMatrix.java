@@ -1,10 +1,33 @@
 package com.haloce.tcg.core.event;
 
-import java.util.HashMap;
+import com.haloce.tcg.core.undo.JournaledMap;
+import com.haloce.tcg.core.undo.UndoLog;
+
 import java.util.Map;
+import java.util.TreeMap;
 
 public class DiplomacyMatrix {
-    private final Map<String, DiplomacyRelation> relationByPair = new HashMap<>();
+    private final Map<String, DiplomacyRelation> relationByPair;
+
+    public DiplomacyMatrix() {
+        this(new UndoLog());
+    }
+
+    public DiplomacyMatrix(UndoLog undoLog) {
+        this.relationByPair = new JournaledMap<>(undoLog);
+    }
+
+    void copyFrom(DiplomacyMatrix source) {
+        relationByPair.putAll(source.relationByPair);
+    }
+
+    Map<String, DiplomacyRelation> relationsByPair() {
+        return new TreeMap<>(relationByPair);
+    }
+
+    void putAll(Map<String, DiplomacyRelation> relationsByPair) {
+        relationByPair.putAll(relationsByPair);
+    }
 
     public DiplomacyRelation relationOf(String playerA, String playerB) {
         if (playerA == null || playerB == null || playerA.equals(playerB)) {
@@ -6,4 +6,30 @@ public interface EventBus {
     void register(EventListener listener);
 
     void processQueue();
+
+    /**
+     * Opens a batch scope. Until the matching {@link #commitBatch()}, {@link #processQueue()}
+     * dispatches only to listeners that are not {@link EventListener#passive()}, and only if a
+     * pending event has one, so reactions still change state at the same points as unbatched code.
+     * Passive listeners receive the events at the outermost commit, in publish order. Scopes nest.
+     */
+    default void beginBatch() {
+    }
+
+    /**
+     * Closes a batch scope. The outermost commit dispatches everything still pending, in publish order.
+     */
+    default void commitBatch() {
+        processQueue();
+    }
+
+    /**
+     * Closes a batch scope and drops the events published since it began, so passive listeners never
+     * receive them. Reactions already dispatched for those events are not undone; the caller rolls
+     * back their state. An outermost abort delivers whatever was pending before the scope began.
+     * Buses without batch scopes cannot drop published events and commit instead.
+     */
+    default void abortBatch() {
+        commitBatch();
+    }
 }
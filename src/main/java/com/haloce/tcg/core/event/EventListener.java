@@ -6,4 +6,13 @@ public interface EventListener {
     int priority();
 
     void onEvent(GameEvent event, EventContext context);
+
+    /**
+     * True for listeners that only record or forward events, such as journals and streams: they
+     * never change game state or publish. Inside a batch they receive events at the outermost commit
+     * rather than at each drain, and never receive the events of an aborted batch.
+     */
+    default boolean passive() {
+        return false;
+    }
 }
@@ -0,0 +1,32 @@
+package com.haloce.tcg.core.event;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Map;
+
+/**
+ * Immutable event payload. Hot-path events carry typed records that listeners read without boxing;
+ * everything else is wrapped as a {@link MapEventPayload}. {@link #get(String)} and {@link #asMap()}
+ * keep string-keyed listeners and JSON clients working against either form.
+ */
+public interface EventPayload {
+    EventPayload EMPTY = new MapEventPayload(Map.of());
+
+    @JsonValue
+    Map<String, Object> asMap();
+
+    default Object get(String key) {
+        return asMap().get(key);
+    }
+
+    /**
+     * Wraps an immutable copy of {@code values}; maps built with {@code Map.of} are used as is. Null
+     * keys and values are rejected, as by {@code Map.of}.
+     */
+    static EventPayload of(Map<String, Object> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        return new MapEventPayload(values);
+    }
+}
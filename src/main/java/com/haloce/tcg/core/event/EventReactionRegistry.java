@@ -1,14 +1,17 @@
 package com.haloce.tcg.core.event;
 
 import com.haloce.tcg.card.model.Faction;
+import com.haloce.tcg.core.undo.JournaledMap;
+import com.haloce.tcg.core.undo.UndoLog;
 import com.haloce.tcg.game.PlayerState;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -19,15 +22,17 @@ public class EventReactionRegistry {
 
     private final Supplier<List<String>> playerIdsSupplier;
     private final Function<String, PlayerState> playerStateAccessor;
-
-    private final DiplomacyMatrix diplomacyMatrix = new DiplomacyMatrix();
-    private final Map<String, Faction> factionByPlayer = new HashMap<>();
-    private final Map<String, Integer> commendationByPlayer = new HashMap<>();
-    private final Map<String, Integer> faithByPlayer = new HashMap<>();
-    private final Map<String, Integer> biomassByPlayer = new HashMap<>();
-    private final Map<String, Integer> betrayerMarkUntilTurn = new HashMap<>();
-    private final Set<String> protoGravemindOwners = new HashSet<>();
-    private final Map<String, Integer> bonusTurnByPlayer = new HashMap<>();
+    private final EventSequencer eventSequencer;
+
+    private final UndoLog undoLog;
+    private final DiplomacyMatrix diplomacyMatrix;
+    private final Map<String, Faction> factionByPlayer;
+    private final Map<String, Integer> commendationByPlayer;
+    private final Map<String, Integer> faithByPlayer;
+    private final Map<String, Integer> biomassByPlayer;
+    private final Map<String, Integer> betrayerMarkUntilTurn;
+    private final Set<String> protoGravemindOwners;
+    private final Map<String, Integer> bonusTurnByPlayer;
 
     private boolean schismActive;
     private boolean survivalProtocolActive;
@@ -36,14 +41,114 @@ public class EventReactionRegistry {
             Supplier<List<String>> playerIdsSupplier,
             Function<String, PlayerState> playerStateAccessor,
             Map<String, Faction> initialFactions
+    ) {
+        this(playerIdsSupplier, playerStateAccessor, initialFactions, new EventSequencer());
+    }
+
+    public EventReactionRegistry(
+            Supplier<List<String>> playerIdsSupplier,
+            Function<String, PlayerState> playerStateAccessor,
+            Map<String, Faction> initialFactions,
+            EventSequencer eventSequencer
+    ) {
+        this(playerIdsSupplier, playerStateAccessor, initialFactions, eventSequencer, new UndoLog());
+    }
+
+    /**
+     * @param undoLog journal that records the inverse of every counter, flag and relation change
+     */
+    public EventReactionRegistry(
+            Supplier<List<String>> playerIdsSupplier,
+            Function<String, PlayerState> playerStateAccessor,
+            Map<String, Faction> initialFactions,
+            EventSequencer eventSequencer,
+            UndoLog undoLog
     ) {
         this.playerIdsSupplier = playerIdsSupplier;
         this.playerStateAccessor = playerStateAccessor;
+        this.eventSequencer = eventSequencer;
+        this.undoLog = undoLog;
+        this.diplomacyMatrix = new DiplomacyMatrix(undoLog);
+        this.factionByPlayer = new JournaledMap<>(undoLog);
+        this.commendationByPlayer = new JournaledMap<>(undoLog);
+        this.faithByPlayer = new JournaledMap<>(undoLog);
+        this.biomassByPlayer = new JournaledMap<>(undoLog);
+        this.betrayerMarkUntilTurn = new JournaledMap<>(undoLog);
+        this.protoGravemindOwners = Collections.newSetFromMap(new JournaledMap<>(undoLog));
+        this.bonusTurnByPlayer = new JournaledMap<>(undoLog);
         if (initialFactions != null) {
             factionByPlayer.putAll(initialFactions);
         }
     }
 
+    private EventReactionRegistry(
+            EventReactionRegistry source,
+            Supplier<List<String>> playerIdsSupplier,
+            Function<String, PlayerState> playerStateAccessor,
+            EventSequencer eventSequencer,
+            UndoLog undoLog
+    ) {
+        this(playerIdsSupplier, playerStateAccessor, null, eventSequencer, undoLog);
+        diplomacyMatrix.copyFrom(source.diplomacyMatrix);
+        factionByPlayer.putAll(source.factionByPlayer);
+        commendationByPlayer.putAll(source.commendationByPlayer);
+        faithByPlayer.putAll(source.faithByPlayer);
+        biomassByPlayer.putAll(source.biomassByPlayer);
+        betrayerMarkUntilTurn.putAll(source.betrayerMarkUntilTurn);
+        protoGravemindOwners.addAll(source.protoGravemindOwners);
+        bonusTurnByPlayer.putAll(source.bonusTurnByPlayer);
+        schismActive = source.schismActive;
+        survivalProtocolActive = source.survivalProtocolActive;
+    }
+
+    /**
+     * Copy of every reaction counter and flag for a forked match, reading players from the fork.
+     */
+    public EventReactionRegistry copy(
+            Supplier<List<String>> playerIdsSupplier,
+            Function<String, PlayerState> playerStateAccessor,
+            EventSequencer eventSequencer,
+            UndoLog undoLog
+    ) {
+        return new EventReactionRegistry(this, playerIdsSupplier, playerStateAccessor, eventSequencer, undoLog);
+    }
+
+    /**
+     * Every reaction counter, flag and relation as plain values, for a saved match. Maps are sorted
+     * by key so equal states write equal files.
+     */
+    public Data data() {
+        return new Data(diplomacyMatrix.relationsByPair(), new TreeMap<>(factionByPlayer),
+                new TreeMap<>(commendationByPlayer), new TreeMap<>(faithByPlayer), new TreeMap<>(biomassByPlayer),
+                new TreeMap<>(betrayerMarkUntilTurn), new TreeSet<>(protoGravemindOwners),
+                new TreeMap<>(bonusTurnByPlayer), schismActive, survivalProtocolActive);
+    }
+
+    /**
+     * Registry rebuilt from {@link #data()}, reading players from the restored match.
+     */
+    public static EventReactionRegistry restore(
+            Data data,
+            Supplier<List<String>> playerIdsSupplier,
+            Function<String, PlayerState> playerStateAccessor,
+            EventSequencer eventSequencer,
+            UndoLog undoLog
+    ) {
+        EventReactionRegistry registry = new EventReactionRegistry(
+                playerIdsSupplier, playerStateAccessor, data.factionByPlayer(), eventSequencer, undoLog
+        );
+        registry.diplomacyMatrix.putAll(data.relationByPair());
+        registry.commendationByPlayer.putAll(data.commendationByPlayer());
+        registry.faithByPlayer.putAll(data.faithByPlayer());
+        registry.biomassByPlayer.putAll(data.biomassByPlayer());
+        registry.betrayerMarkUntilTurn.putAll(data.betrayerMarkUntilTurn());
+        registry.protoGravemindOwners.addAll(data.protoGravemindOwners());
+        registry.bonusTurnByPlayer.putAll(data.bonusTurnByPlayer());
+        registry.schismActive = data.schismActive();
+        registry.survivalProtocolActive = data.survivalProtocolActive();
+        return registry;
+    }
+
     public void setPlayerFaction(String playerId, Faction faction) {
         if (playerId == null || faction == null) {
             return;
@@ -219,7 +324,7 @@ public class EventReactionRegistry {
                 .sum();
 
         if (!schismActive && commendationSum > SCHISM_COMMENDATION_THRESHOLD) {
-            schismActive = true;
+            setSchismActive(true);
             for (int i = 0; i < covenantPlayers.size(); i++) {
                 for (int j = i + 1; j < covenantPlayers.size(); j++) {
                     setRelationAndEmit(covenantPlayers.get(i), covenantPlayers.get(j), DiplomacyRelation.CIVIL_WAR, context, event);
@@ -244,14 +349,14 @@ public class EventReactionRegistry {
                 || floodPlayers.stream().anyMatch(protoGravemindOwners::contains);
 
         if (alert && !survivalProtocolActive) {
-            survivalProtocolActive = true;
+            setSurvivalProtocolActive(true);
             activateSurvivalProtocol(context, event);
             emitEvent(context, event, EventType.SURVIVAL_PROTOCOL_STARTED, Map.of(
                     "floodPlayers", floodPlayers,
                     "reason", "BIOMASS_ALERT"
             ));
         } else if (!alert && survivalProtocolActive) {
-            survivalProtocolActive = false;
+            setSurvivalProtocolActive(false);
             deactivateSurvivalProtocol(context, event);
             emitEvent(context, event, EventType.SURVIVAL_PROTOCOL_ENDED, Map.of(
                     "floodPlayers", floodPlayers
@@ -336,6 +441,22 @@ public class EventReactionRegistry {
         betrayerMarkUntilTurn.entrySet().removeIf(entry -> entry.getValue() < turn);
     }
 
+    private void setSchismActive(boolean active) {
+        boolean previous = schismActive;
+        schismActive = active;
+        if (undoLog.recording()) {
+            undoLog.record(() -> schismActive = previous);
+        }
+    }
+
+    private void setSurvivalProtocolActive(boolean active) {
+        boolean previous = survivalProtocolActive;
+        survivalProtocolActive = active;
+        if (undoLog.recording()) {
+            undoLog.record(() -> survivalProtocolActive = previous);
+        }
+    }
+
     private boolean isCovenant(String playerId) {
         return factionByPlayer.getOrDefault(playerId, Faction.NEUTRAL) == Faction.COVENANT;
     }
@@ -365,7 +486,7 @@ public class EventReactionRegistry {
 
     private void emitEvent(EventContext context, GameEvent basis, EventType type, Map<String, Object> payload) {
         context.eventBus().publish(new GameEvent(
-                System.nanoTime(),
+                eventSequencer.next(),
                 type,
                 basis.globalTurnIndex(),
                 basis.roundIndex(),
@@ -379,4 +500,22 @@ public class EventReactionRegistry {
                 payload
         ));
     }
+
+    /**
+     * @param relationByPair relations that differ from the default peace, keyed by the two player ids
+     *                       in order, joined by {@code |}
+     */
+    public record Data(
+            Map<String, DiplomacyRelation> relationByPair,
+            Map<String, Faction> factionByPlayer,
+            Map<String, Integer> commendationByPlayer,
+            Map<String, Integer> faithByPlayer,
+            Map<String, Integer> biomassByPlayer,
+            Map<String, Integer> betrayerMarkUntilTurn,
+            Set<String> protoGravemindOwners,
+            Map<String, Integer> bonusTurnByPlayer,
+            boolean schismActive,
+            boolean survivalProtocolActive
+    ) {
+    }
 }
@@ -0,0 +1,49 @@
+package com.haloce.tcg.core.event;
+
+/**
+ * Per-room monotonic event sequence. One instance is shared by everything that stamps events for a
+ * match, so sequences are reproducible and never depend on wall-clock time.
+ */
+public class EventSequencer {
+    private long last;
+
+    public EventSequencer() {
+    }
+
+    /**
+     * Sequencer whose {@link #current()} is {@code last}, for a match restored from saved state.
+     */
+    public EventSequencer(long last) {
+        if (last < 0) {
+            throw new IllegalArgumentException("Event sequence must be >= 0: " + last);
+        }
+        this.last = last;
+    }
+
+    public long next() {
+        return ++last;
+    }
+
+    public long current() {
+        return last;
+    }
+
+    /**
+     * Moves the sequence back to {@code value}, which must not be ahead of {@link #current()}; used
+     * when the writes that consumed the later values are rolled back. Only rewind past sequences
+     * whose events were dropped with them, as {@code GameStateManager#rollbackTo} does.
+     */
+    public void rewindTo(long value) {
+        if (value < 0 || value > last) {
+            throw new IllegalArgumentException("Cannot rewind sequence " + last + " to " + value);
+        }
+        last = value;
+    }
+
+    /**
+     * Independent sequencer that continues from the same value, for a forked match.
+     */
+    public EventSequencer copy() {
+        return new EventSequencer(last);
+    }
+}
@@ -14,6 +14,36 @@ public record GameEvent(
         String targetEntityId,
         String lane,
         String layer,
-        Map<String, Object> payload
+        EventPayload payload
 ) {
+    public GameEvent {
+        if (payload == null) {
+            payload = EventPayload.EMPTY;
+        }
+    }
+
+    public GameEvent(
+            long sequence,
+            EventType type,
+            int globalTurnIndex,
+            int roundIndex,
+            String activePlayerId,
+            String sourcePlayerId,
+            String targetPlayerId,
+            String sourceEntityId,
+            String targetEntityId,
+            String lane,
+            String layer,
+            Map<String, Object> payload
+    ) {
+        this(sequence, type, globalTurnIndex, roundIndex, activePlayerId, sourcePlayerId, targetPlayerId,
+                sourceEntityId, targetEntityId, lane, layer, EventPayload.of(payload));
+    }
+
+    /**
+     * Returns the payload as {@code type}, or {@code null} when the event carries a different payload form.
+     */
+    public <T extends EventPayload> T payloadAs(Class<T> type) {
+        return type.isInstance(payload) ? type.cast(payload) : null;
+    }
 }
@@ -0,0 +1,23 @@
+package com.haloce.tcg.core.event;
+
+import java.util.Map;
+
+/**
+ * Untyped payload for events that have no dedicated record. Holds an immutable copy of the map, so
+ * later changes to the caller's map are not seen by listeners.
+ */
+public record MapEventPayload(Map<String, Object> values) implements EventPayload {
+    public MapEventPayload {
+        values = Map.copyOf(values);
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return values;
+    }
+
+    @Override
+    public Object get(String key) {
+        return values.get(key);
+    }
+}
@@ -0,0 +1,195 @@
+package com.haloce.tcg.core.event.journal;
+
+import com.haloce.tcg.core.event.GameEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of the events produced by one room. Records are written into
+ * fixed-size segment files named after the journal sequence of their first record; a reopened journal
+ * continues after the last intact record. Single writer; use {@link EventJournalReader} to read.
+ */
+public class EventJournal implements Closeable {
+    private final EventJournalOptions options;
+    private final CRC32 crc = new CRC32();
+    // Not a monitor: append and sync force the segment to disk while holding it, which would pin the
+    // carrier of a virtual thread for the whole write.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private int unsyncedEvents;
+    private boolean closed;
+
+    private EventJournal(EventJournalOptions options) {
+        this.options = options;
+    }
+
+    public static EventJournal open(EventJournalOptions options) {
+        EventJournal journal = new EventJournal(options);
+        try {
+            Files.createDirectories(options.directory());
+            journal.recover();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open event journal: " + options.directory(), e);
+        }
+        return journal;
+    }
+
+    public Path directory() {
+        return options.directory();
+    }
+
+    /**
+     * Sequence that the next appended event will receive.
+     */
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long append(GameEvent event) {
+        lock.lock();
+        try {
+            ensureOpen();
+            long sequence = nextSequence;
+            try {
+                writeOrRoll(sequence, event);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to append to event journal: " + options.directory(), e);
+            }
+            nextSequence = sequence + 1;
+
+            unsyncedEvents++;
+            if (options.fsyncPolicy() == FsyncPolicy.EVERY_EVENT
+                    || (options.fsyncPolicy() == FsyncPolicy.EVERY_N_EVENTS && unsyncedEvents >= options.fsyncEveryEvents())) {
+                sync();
+            }
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sync() {
+        lock.lock();
+        try {
+            if (segment != null && unsyncedEvents > 0) {
+                segment.force();
+                unsyncedEvents = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sync();
+            segment = null;
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeOrRoll(long sequence, GameEvent event) throws IOException {
+        int start = segment.position();
+        try {
+            JournalCodec.writeRecord(segment, sequence, event, crc);
+            return;
+        } catch (BufferOverflowException full) {
+            // Nothing was published: the length slot at start is still zero, which readers treat as end of segment.
+            segment.position(start);
+        }
+
+        if (start == JournalCodec.SEGMENT_HEADER_BYTES) {
+            throw new IllegalArgumentException("Event does not fit in an empty journal segment: " + event.type());
+        }
+        roll(sequence);
+        try {
+            JournalCodec.writeRecord(segment, sequence, event, crc);
+        } catch (BufferOverflowException tooLarge) {
+            throw new IllegalArgumentException("Event does not fit in an empty journal segment: " + event.type());
+        }
+    }
+
+    private void roll(long baseSequence) throws IOException {
+        if (segment != null) {
+            segment.force();
+            unsyncedEvents = 0;
+            channel.close();
+        }
+        Path path = options.directory().resolve(JournalCodec.segmentFileName(baseSequence));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, options.segmentBytes());
+        JournalCodec.writeSegmentHeader(segment, baseSequence);
+        segment.position(JournalCodec.SEGMENT_HEADER_BYTES);
+        segment.force();
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = listSegments(options.directory());
+        if (segments.isEmpty()) {
+            nextSequence = 0;
+            roll(0);
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        nextSequence = JournalCodec.readSegmentHeader(segment, last);
+        segment.position(JournalCodec.SEGMENT_HEADER_BYTES);
+        JournalEntry entry;
+        while ((entry = JournalCodec.readRecord(segment, crc)) != null) {
+            nextSequence = entry.journalSequence() + 1;
+        }
+
+        // Clear a torn tail left by a crash so stale bytes can never pass as a record later.
+        int tail = segment.position();
+        for (int i = tail; i < segment.limit(); i++) {
+            segment.put(i, (byte) 0);
+        }
+        segment.force();
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalCodec::isSegmentFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Event journal is closed: " + options.directory());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.haloce.tcg.core.event.journal;
+
+import java.nio.file.Path;
+
+public record EventJournalOptions(
+        Path directory,
+        int segmentBytes,
+        FsyncPolicy fsyncPolicy,
+        int fsyncEveryEvents
+) {
+    public static final int DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+    public static final int DEFAULT_FSYNC_EVERY_EVENTS = 256;
+
+    public EventJournalOptions {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory is required");
+        }
+        if (segmentBytes < JournalCodec.SEGMENT_HEADER_BYTES + 1024) {
+            throw new IllegalArgumentException("segmentBytes is too small: " + segmentBytes);
+        }
+        if (fsyncPolicy == null) {
+            throw new IllegalArgumentException("fsyncPolicy is required");
+        }
+        if (fsyncPolicy == FsyncPolicy.EVERY_N_EVENTS && fsyncEveryEvents <= 0) {
+            throw new IllegalArgumentException("fsyncEveryEvents must be > 0");
+        }
+    }
+
+    public static EventJournalOptions defaults(Path directory) {
+        return new EventJournalOptions(directory, DEFAULT_SEGMENT_BYTES, FsyncPolicy.EVERY_N_EVENTS, DEFAULT_FSYNC_EVERY_EVENTS);
+    }
+
+    public EventJournalOptions withDirectory(Path newDirectory) {
+        return new EventJournalOptions(newDirectory, segmentBytes, fsyncPolicy, fsyncEveryEvents);
+    }
+}
@@ -0,0 +1,134 @@
+package com.haloce.tcg.core.event.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Tails an {@link EventJournal} directory. Can run in another thread or process than the writer;
+ * {@link #poll()} returns {@code null} once it has caught up and picks up new records on later calls.
+ */
+public class EventJournalReader implements Closeable {
+    private final Path directory;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+
+    private EventJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public static EventJournalReader open(Path directory) {
+        EventJournalReader reader = new EventJournalReader(directory);
+        reader.seek(0);
+        return reader;
+    }
+
+    /**
+     * Positions the reader so that the next {@link #poll()} returns the record with the given journal
+     * sequence, or the first record after it that still exists.
+     */
+    public synchronized void seek(long journalSequence) {
+        try {
+            List<Path> segments = EventJournal.listSegments(directory);
+            Path target = null;
+            for (Path candidate : segments) {
+                if (JournalCodec.baseSequenceOf(candidate) > journalSequence) {
+                    break;
+                }
+                target = candidate;
+            }
+            if (target == null) {
+                if (segments.isEmpty()) {
+                    closeSegment();
+                    nextSequence = journalSequence;
+                    return;
+                }
+                target = segments.get(0);
+            }
+            mapSegment(target);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to seek event journal: " + directory, e);
+        }
+
+        int position = segment.position();
+        JournalEntry entry;
+        while ((entry = JournalCodec.readRecord(segment, crc)) != null && entry.journalSequence() < journalSequence) {
+            position = segment.position();
+            nextSequence = entry.journalSequence() + 1;
+        }
+        segment.position(position);
+    }
+
+    /**
+     * Returns the next record, or {@code null} if the writer has not produced it yet.
+     */
+    public synchronized JournalEntry poll() {
+        if (segment == null && !openSegment(nextSequence)) {
+            return null;
+        }
+        JournalEntry entry = JournalCodec.readRecord(segment, crc);
+        if (entry == null) {
+            // The writer rolls only when a record does not fit, so a successor segment means this one is done.
+            if (!openSegment(nextSequence)) {
+                return null;
+            }
+            entry = JournalCodec.readRecord(segment, crc);
+            if (entry == null) {
+                return null;
+            }
+        }
+        nextSequence = entry.journalSequence() + 1;
+        return entry;
+    }
+
+    public synchronized long nextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+
+    private boolean openSegment(long baseSequence) {
+        Path path = directory.resolve(JournalCodec.segmentFileName(baseSequence));
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try {
+            mapSegment(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open journal segment: " + path, e);
+        }
+        return true;
+    }
+
+    private void mapSegment(Path path) throws IOException {
+        closeSegment();
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        nextSequence = JournalCodec.readSegmentHeader(segment, path);
+        segment.position(JournalCodec.SEGMENT_HEADER_BYTES);
+    }
+
+    private void closeSegment() {
+        segment = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Read-only channel; nothing to flush.
+            }
+            channel = null;
+        }
+    }
+}
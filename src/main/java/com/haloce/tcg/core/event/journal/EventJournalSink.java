@@ -0,0 +1,55 @@
+package com.haloce.tcg.core.event.journal;
+
+import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventContext;
+import com.haloce.tcg.core.event.EventListener;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventJournalSink implements EventListener {
+    private final EventType subscribedType;
+    private final EventJournal journal;
+
+    public EventJournalSink(EventType subscribedType, EventJournal journal) {
+        this.subscribedType = subscribedType;
+        this.journal = journal;
+    }
+
+    @Override
+    public EventType supports() {
+        return subscribedType;
+    }
+
+    @Override
+    public int priority() {
+        // Runs after every game listener, so events are journaled in dispatch order.
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, EventContext context) {
+        journal.append(event);
+    }
+
+    @Override
+    public boolean passive() {
+        return true;
+    }
+
+    public static List<EventListener> allTypes(EventJournal journal) {
+        List<EventListener> sinks = new ArrayList<>();
+        for (EventType type : EventType.values()) {
+            sinks.add(new EventJournalSink(type, journal));
+        }
+        return sinks;
+    }
+
+    public static void attach(EventBus eventBus, EventJournal journal) {
+        for (EventListener sink : allTypes(journal)) {
+            eventBus.register(sink);
+        }
+    }
+}
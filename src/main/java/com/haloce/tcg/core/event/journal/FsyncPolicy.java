@@ -0,0 +1,16 @@
+package com.haloce.tcg.core.event.journal;
+
+/**
+ * When the journal forces mapped segment pages to disk. Segments are always forced when they are
+ * rolled over and when the journal is closed.
+ */
+public enum FsyncPolicy {
+    /** Force after every appended event. Slowest, loses nothing on power failure. */
+    EVERY_EVENT,
+
+    /** Force after every {@link EventJournalOptions#fsyncEveryEvents()} appended events. */
+    EVERY_N_EVENTS,
+
+    /** Only force on segment roll and close; otherwise rely on the OS page cache write-back. */
+    ON_SEGMENT_ROLL
+}
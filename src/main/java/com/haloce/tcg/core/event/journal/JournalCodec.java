@@ -0,0 +1,274 @@
+package com.haloce.tcg.core.event.journal;
+
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout shared by {@link EventJournal} and {@link EventJournalReader}.
+ *
+ * <pre>
+ * segment : header(32) record* zero-fill
+ * header  : magic:int version:short reserved:short typeFingerprint:int baseSequence:long padding
+ * record  : bodyLength:int crc32(body):int body
+ * body    : journalSequence:long eventSequence:long type:short turn:int round:int
+ *           activePlayer sourcePlayer targetPlayer sourceEntity targetEntity lane layer : str
+ *           payload : map
+ * str     : byteLength:short (-1 = null) utf8
+ * </pre>
+ *
+ * A record becomes visible once its length is written, which happens last. A zero length marks the
+ * end of the written part of a segment.
+ */
+final class JournalCodec {
+    static final int MAGIC = 0x48434A4C;
+    static final short VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 32;
+    static final int RECORD_HEADER_BYTES = 8;
+    static final int TYPE_FINGERPRINT = typeFingerprint();
+
+    private static final EventType[] TYPES = EventType.values();
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INT = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_BOOLEAN = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_LIST = 6;
+    private static final byte TAG_MAP = 7;
+
+    private JournalCodec() {
+    }
+
+    static String segmentFileName(long baseSequence) {
+        return String.format("%020d.seg", baseSequence);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.length() == 24 && name.endsWith(".seg");
+    }
+
+    static long baseSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - 4));
+    }
+
+    static void writeSegmentHeader(ByteBuffer buffer, long baseSequence) {
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) 0);
+        buffer.putInt(8, TYPE_FINGERPRINT);
+        buffer.putLong(12, baseSequence);
+    }
+
+    static long readSegmentHeader(ByteBuffer buffer, Path path) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a journal segment: " + path);
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IllegalStateException("Unsupported journal version " + buffer.getShort(4) + " in " + path);
+        }
+        if (buffer.getInt(8) != TYPE_FINGERPRINT) {
+            throw new IllegalStateException("Journal was written with a different EventType set: " + path);
+        }
+        return buffer.getLong(12);
+    }
+
+    /**
+     * Writes one record at the buffer position and advances past it. Throws
+     * {@link BufferOverflowException} without publishing anything if the record does not fit.
+     */
+    static void writeRecord(ByteBuffer buffer, long journalSequence, GameEvent event, CRC32 crc) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_HEADER_BYTES) {
+            throw new BufferOverflowException();
+        }
+        buffer.position(start + RECORD_HEADER_BYTES);
+        buffer.putLong(journalSequence);
+        buffer.putLong(event.sequence());
+        buffer.putShort((short) event.type().ordinal());
+        buffer.putInt(event.globalTurnIndex());
+        buffer.putInt(event.roundIndex());
+        putString(buffer, event.activePlayerId());
+        putString(buffer, event.sourcePlayerId());
+        putString(buffer, event.targetPlayerId());
+        putString(buffer, event.sourceEntityId());
+        putString(buffer, event.targetEntityId());
+        putString(buffer, event.lane());
+        putString(buffer, event.layer());
+        putMap(buffer, event.payload().asMap());
+        int end = buffer.position();
+
+        int bodyLength = end - start - RECORD_HEADER_BYTES;
+        buffer.putInt(start + 4, checksum(buffer, start + RECORD_HEADER_BYTES, bodyLength, crc));
+        buffer.putInt(start, bodyLength);
+    }
+
+    /**
+     * Reads the record at the buffer position, or returns {@code null} (leaving the position unchanged)
+     * when no complete record is there yet.
+     */
+    static JournalEntry readRecord(ByteBuffer buffer, CRC32 crc) {
+        int start = buffer.position();
+        if (buffer.limit() - start < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int bodyLength = buffer.getInt(start);
+        if (bodyLength <= 0 || bodyLength > buffer.limit() - start - RECORD_HEADER_BYTES) {
+            return null;
+        }
+        if (checksum(buffer, start + RECORD_HEADER_BYTES, bodyLength, crc) != buffer.getInt(start + 4)) {
+            return null;
+        }
+
+        buffer.position(start + RECORD_HEADER_BYTES);
+        long journalSequence = buffer.getLong();
+        long eventSequence = buffer.getLong();
+        EventType type = TYPES[buffer.getShort()];
+        int turn = buffer.getInt();
+        int round = buffer.getInt();
+        String activePlayerId = getString(buffer);
+        String sourcePlayerId = getString(buffer);
+        String targetPlayerId = getString(buffer);
+        String sourceEntityId = getString(buffer);
+        String targetEntityId = getString(buffer);
+        String lane = getString(buffer);
+        String layer = getString(buffer);
+        Map<String, Object> payload = getMap(buffer);
+        buffer.position(start + RECORD_HEADER_BYTES + bodyLength);
+
+        return new JournalEntry(journalSequence, new GameEvent(
+                eventSequence,
+                type,
+                turn,
+                round,
+                activePlayerId,
+                sourcePlayerId,
+                targetPlayerId,
+                sourceEntityId,
+                targetEntityId,
+                lane,
+                layer,
+                payload
+        ));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long for journal: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putMap(ByteBuffer buffer, Map<?, ?> map) {
+        buffer.putShort((short) map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            putString(buffer, String.valueOf(entry.getKey()));
+            putValue(buffer, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> getMap(ByteBuffer buffer) {
+        int size = buffer.getShort();
+        if (size == 0) {
+            return Map.of();
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = getString(buffer);
+            map.put(key, getValue(buffer));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static void putValue(ByteBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.put(TAG_NULL);
+        } else if (value instanceof Integer i) {
+            buffer.put(TAG_INT).putInt(i);
+        } else if (value instanceof Long l) {
+            buffer.put(TAG_LONG).putLong(l);
+        } else if (value instanceof Boolean b) {
+            buffer.put(TAG_BOOLEAN).put(b ? (byte) 1 : (byte) 0);
+        } else if (value instanceof Double d) {
+            buffer.put(TAG_DOUBLE).putDouble(d);
+        } else if (value instanceof Collection<?> collection) {
+            buffer.put(TAG_LIST).putInt(collection.size());
+            for (Object item : collection) {
+                putValue(buffer, item);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            buffer.put(TAG_MAP);
+            putMap(buffer, map);
+        } else {
+            // Enums and anything else are journaled by their string form, as JSON clients see them.
+            buffer.put(TAG_STRING);
+            putString(buffer, value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+    }
+
+    private static Object getValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_INT -> buffer.getInt();
+            case TAG_LONG -> buffer.getLong();
+            case TAG_BOOLEAN -> buffer.get() != 0;
+            case TAG_DOUBLE -> buffer.getDouble();
+            case TAG_STRING -> getString(buffer);
+            case TAG_LIST -> {
+                int size = buffer.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(getValue(buffer));
+                }
+                yield Collections.unmodifiableList(list);
+            }
+            case TAG_MAP -> getMap(buffer);
+            default -> throw new IllegalStateException("Unknown journal value tag: " + tag);
+        };
+    }
+
+    private static int typeFingerprint() {
+        StringBuilder names = new StringBuilder();
+        for (EventType type : EventType.values()) {
+            names.append(type.name()).append(',');
+        }
+        return names.toString().hashCode();
+    }
+}
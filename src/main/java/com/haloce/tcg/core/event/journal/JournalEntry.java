@@ -0,0 +1,13 @@
+package com.haloce.tcg.core.event.journal;
+
+import com.haloce.tcg.core.event.GameEvent;
+
+/**
+ * One decoded journal record. {@code journalSequence} is the gap-free position in the room journal;
+ * the event keeps its own {@link GameEvent#sequence()}. Payloads come back as map payloads.
+ */
+public record JournalEntry(
+        long journalSequence,
+        GameEvent event
+) {
+}
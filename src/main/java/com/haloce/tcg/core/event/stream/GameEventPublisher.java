@@ -0,0 +1,333 @@
+package com.haloce.tcg.core.event.stream;
+
+import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventContext;
+import com.haloce.tcg.core.event.EventListener;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans the events of one match out to external subscribers. The game thread writes each event once
+ * into a bounded ring; every subscriber reads the ring from its own cursor on its own executor, so
+ * a slow subscriber only costs the game thread anything under {@link OverflowPolicy#BLOCK}.
+ * Subscribers see events published after they subscribed.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent>, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final long DEFAULT_BLOCK_TIMEOUT_MILLIS = 50L;
+
+    private final AtomicReferenceArray<Slot> ring;
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy defaultPolicy;
+    private final Executor defaultExecutor;
+    private final long blockTimeoutNanos;
+    private final List<RingSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    // A lock rather than a monitor, so a virtual thread waiting for space does not pin its carrier.
+    private final ReentrantLock spaceLock = new ReentrantLock();
+    private final Condition spaceAvailable = spaceLock.newCondition();
+    private volatile long published;
+    private volatile boolean closed;
+
+    public GameEventPublisher() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST, ForkJoinPool.commonPool(), DEFAULT_BLOCK_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param capacity          ring size, rounded up to a power of two
+     * @param defaultPolicy     overflow policy for {@link #subscribe(Flow.Subscriber)}
+     * @param defaultExecutor   executor for {@link #subscribe(Flow.Subscriber)}
+     * @param blockTimeoutMillis longest the game thread waits on a {@link OverflowPolicy#BLOCK} subscriber
+     */
+    public GameEventPublisher(int capacity, OverflowPolicy defaultPolicy, Executor defaultExecutor, long blockTimeoutMillis) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in (0, 2^30]: " + capacity);
+        }
+        if (defaultPolicy == null || defaultExecutor == null) {
+            throw new IllegalArgumentException("defaultPolicy and defaultExecutor are required");
+        }
+        if (blockTimeoutMillis < 0) {
+            throw new IllegalArgumentException("blockTimeoutMillis must be >= 0");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+        this.defaultPolicy = defaultPolicy;
+        this.defaultExecutor = defaultExecutor;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, defaultPolicy, defaultExecutor);
+    }
+
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, OverflowPolicy policy, Executor executor) {
+        if (subscriber == null || policy == null || executor == null) {
+            throw new NullPointerException("subscriber, policy and executor are required");
+        }
+        RingSubscription subscription = new RingSubscription(subscriber, policy, executor, published);
+        subscriber.onSubscribe(subscription);
+        if (subscription.done) {
+            return;
+        }
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.signal();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Writes the event into the ring and wakes subscribers. Single writer: callers must not publish
+     * concurrently, which holds when it is only called from the match's event bus.
+     */
+    public void publish(GameEvent event) {
+        if (closed) {
+            return;
+        }
+        long sequence = published;
+        for (RingSubscription subscription : subscriptions) {
+            if (sequence - subscription.cursor < capacity || subscription.error != null) {
+                continue;
+            }
+            if (subscription.policy == OverflowPolicy.BLOCK && awaitSpace(subscription, sequence)) {
+                continue;
+            }
+            if (subscription.policy != OverflowPolicy.DROP_OLDEST) {
+                subscription.fail(new IllegalStateException(
+                        "Subscriber fell " + capacity + " events behind the game and was disconnected"));
+            }
+        }
+        ring.set((int) sequence & mask, new Slot(sequence, event));
+        published = sequence + 1;
+        for (RingSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Completes every subscriber once it has drained the events already published.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (RingSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    /**
+     * Registers a lowest-priority listener for every event type that publishes into this publisher.
+     */
+    public void attach(EventBus eventBus) {
+        for (EventType type : EventType.values()) {
+            eventBus.register(new PublishingListener(type, this));
+        }
+    }
+
+    private boolean awaitSpace(RingSubscription subscription, long sequence) {
+        long remaining = blockTimeoutNanos;
+        spaceLock.lock();
+        try {
+            while (sequence - subscription.cursor >= capacity && !subscription.done) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    remaining = spaceAvailable.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        } finally {
+            spaceLock.unlock();
+        }
+        return true;
+    }
+
+    private void wakePublisher() {
+        spaceLock.lock();
+        try {
+            spaceAvailable.signalAll();
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    private record Slot(long sequence, GameEvent event) {
+    }
+
+    private final class RingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final OverflowPolicy policy;
+        private final Executor executor;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile long cursor;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private RingSubscription(Flow.Subscriber<? super GameEvent> subscriber, OverflowPolicy policy, Executor executor, long cursor) {
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.executor = executor;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("request must be positive: " + n));
+                return;
+            }
+            requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            detach();
+        }
+
+        private void fail(Throwable throwable) {
+            if (error == null) {
+                error = throwable;
+            }
+            signal();
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException rejected) {
+                    done = true;
+                    detach();
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (done) {
+                    return;
+                }
+                if (error != null) {
+                    terminate(error);
+                    return;
+                }
+                long demand = requested.get();
+                long delivered = 0;
+                while (delivered != demand && !done && error == null) {
+                    long next = cursor;
+                    if (next >= published) {
+                        break;
+                    }
+                    Slot slot = ring.get((int) next & mask);
+                    if (slot.sequence() != next) {
+                        // The game lapped this subscriber between publish-time checks and this read.
+                        if (policy != OverflowPolicy.DROP_OLDEST) {
+                            error = new IllegalStateException(
+                                    "Subscriber fell " + capacity + " events behind the game and was disconnected");
+                            break;
+                        }
+                        cursor = Math.max(next + 1, published - capacity);
+                        continue;
+                    }
+                    cursor = next + 1;
+                    delivered++;
+                    try {
+                        subscriber.onNext(slot.event());
+                    } catch (RuntimeException e) {
+                        error = e;
+                    }
+                }
+                if (delivered > 0) {
+                    if (demand != Long.MAX_VALUE) {
+                        requested.addAndGet(-delivered);
+                    }
+                    if (policy == OverflowPolicy.BLOCK) {
+                        wakePublisher();
+                    }
+                }
+                if (error != null) {
+                    terminate(error);
+                    return;
+                }
+                if (closed && cursor >= published && !done) {
+                    done = true;
+                    detach();
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(Throwable throwable) {
+            done = true;
+            detach();
+            subscriber.onError(throwable);
+        }
+
+        private void detach() {
+            subscriptions.remove(this);
+            if (policy == OverflowPolicy.BLOCK) {
+                wakePublisher();
+            }
+        }
+    }
+
+    private static final class PublishingListener implements EventListener {
+        private final EventType subscribedType;
+        private final GameEventPublisher publisher;
+
+        private PublishingListener(EventType subscribedType, GameEventPublisher publisher) {
+            this.subscribedType = subscribedType;
+            this.publisher = publisher;
+        }
+
+        @Override
+        public EventType supports() {
+            return subscribedType;
+        }
+
+        @Override
+        public int priority() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void onEvent(GameEvent event, EventContext context) {
+            publisher.publish(event);
+        }
+
+        @Override
+        public boolean passive() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.haloce.tcg.core.event.stream;
+
+/**
+ * What a {@link GameEventPublisher} does when a subscriber falls a full ring behind the game.
+ */
+public enum OverflowPolicy {
+    /**
+     * The game thread waits for the subscriber, up to the publisher's block timeout, and then
+     * disconnects it. Only use for consumers that must see every event and are known to be fast.
+     */
+    BLOCK,
+    /**
+     * The subscriber skips ahead to the oldest event still in the ring.
+     */
+    DROP_OLDEST,
+    /**
+     * The subscriber receives {@code onError} and is removed.
+     */
+    DISCONNECT
+}
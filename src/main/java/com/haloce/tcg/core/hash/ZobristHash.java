@@ -0,0 +1,75 @@
+package com.haloce.tcg.core.hash;
+
+/**
+ * Running 64-bit Zobrist hash of a game state. Each piece of state contributes a key derived from
+ * what it is, whose it is and its value; mutators XOR out the old key and XOR in the new one, so the
+ * hash stays current without rescanning the state. Equal states give equal hashes in every process:
+ * keys come from a fixed mixing function, not a random table.
+ */
+public final class ZobristHash {
+    public static final int PLAYER = 1;
+    public static final int HAND = 2;
+    public static final int LIBRARY = 3;
+    public static final int DISCARD = 4;
+    public static final int UNIT = 5;
+    public static final int COMBAT = 6;
+    public static final int STATUS = 7;
+    public static final int TURN = 8;
+    public static final int ATTACKED = 9;
+    public static final int OUTCOME = 10;
+    public static final int CONTROL_STREAK = 11;
+    public static final int LANE_CONTROL = 12;
+
+    private static final long SEED = 0x48414C4F43455447L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long value;
+
+    public long value() {
+        return value;
+    }
+
+    public void toggle(long key) {
+        value ^= key;
+    }
+
+    public void replace(long oldKey, long newKey) {
+        value ^= oldKey ^ newKey;
+    }
+
+    public static long key(int feature, long owner) {
+        return chain(mix(SEED + feature * GOLDEN_GAMMA), owner);
+    }
+
+    public static long key(int feature, long owner, long value) {
+        return chain(key(feature, owner), value);
+    }
+
+    /**
+     * Folds one more value into a key, for state made of several fields.
+     */
+    public static long chain(long key, long value) {
+        return mix(key ^ mix(value + GOLDEN_GAMMA));
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of an id; {@code null} maps to 0.
+     */
+    public static long idKey(String id) {
+        if (id == null) {
+            return 0L;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
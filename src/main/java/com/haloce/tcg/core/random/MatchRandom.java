@@ -0,0 +1,43 @@
+package com.haloce.tcg.core.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * The one source of randomness in a match. Each consumer draws from its own named {@link Stream},
+ * derived from the match seed alone, so a seed reproduces the match exactly and one consumer drawing
+ * more or less never shifts another's results. Nothing is shared between matches, so parallel
+ * simulations do not contend on a generator.
+ */
+public final class MatchRandom {
+    public enum Stream {
+        SHUFFLE,
+        INTERCEPTION,
+        OVERHEAT,
+        ZEALOTRY,
+        HIJACK
+    }
+
+    private final long seed;
+    private final long[] streamSeeds;
+
+    public MatchRandom(long seed) {
+        this.seed = seed;
+        Stream[] streams = Stream.values();
+        this.streamSeeds = new long[streams.length];
+        SplittableRandom root = new SplittableRandom(seed);
+        for (Stream stream : streams) {
+            streamSeeds[stream.ordinal()] = root.split().nextLong();
+        }
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * A new generator at the start of {@code stream}; equal seeds give equal sequences.
+     */
+    public SplitMixRandom stream(Stream stream) {
+        return new SplitMixRandom(streamSeeds[stream.ordinal()]);
+    }
+}
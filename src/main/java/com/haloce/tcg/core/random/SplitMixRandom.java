@@ -0,0 +1,77 @@
+package com.haloce.tcg.core.random;
+
+import java.util.List;
+
+/**
+ * SplitMix64 generator, the algorithm behind {@link java.util.SplittableRandom}, with its state in
+ * one field so that it can be copied: forked matches and undo snapshots continue the sequence from
+ * where the original stood. Not thread-safe; each match owns its streams.
+ */
+public final class SplitMixRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    /**
+     * Uniform in {@code [0, bound)}.
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be > 0");
+        }
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+            // Reject values from the incomplete last block so every result is equally likely.
+        }
+        return r;
+    }
+
+    /**
+     * Uniform in {@code [0, 1)}.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Fisher-Yates shuffle in place, as {@link java.util.Collections#shuffle(List, java.util.Random)}
+     * does, drawing from this generator.
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(j, list.set(i, list.get(j)));
+        }
+    }
+
+    public SplitMixRandom copy() {
+        return new SplitMixRandom(state);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
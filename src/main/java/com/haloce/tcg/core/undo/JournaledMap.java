@@ -0,0 +1,168 @@
+package com.haloce.tcg.core.undo;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link HashMap} whose writes record their inverse in an {@link UndoLog}. Every mutating path,
+ * including the default {@code merge}/{@code compute*} methods and entry-set iterators, goes through
+ * {@link #put} and {@link #remove}. Values are not journaled; keep them immutable.
+ */
+public class JournaledMap<K, V> extends AbstractMap<K, V> {
+    private final HashMap<K, V> backing = new HashMap<>();
+    private final UndoLog undoLog;
+    private Set<Map.Entry<K, V>> entrySet;
+
+    public JournaledMap(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    @Override
+    public int size() {
+        return backing.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return backing.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return backing.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        boolean existed = backing.containsKey(key);
+        V previous = backing.put(key, value);
+        if (undoLog.recording()) {
+            undoLog.record(existed ? () -> backing.put(key, previous) : () -> backing.remove(key));
+        }
+        return previous;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (!backing.containsKey(key)) {
+            return null;
+        }
+        V previous = backing.remove(key);
+        if (undoLog.recording()) {
+            K typedKey = (K) key;
+            undoLog.record(() -> backing.put(typedKey, previous));
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (undoLog.recording() && !backing.isEmpty()) {
+            Map<K, V> previous = new HashMap<>(backing);
+            undoLog.record(() -> {
+                backing.clear();
+                backing.putAll(previous);
+            });
+        }
+        backing.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return backing.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            Iterator<Map.Entry<K, V>> iterator = backing.entrySet().iterator();
+            return new Iterator<>() {
+                private Map.Entry<K, V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    current = iterator.next();
+                    return new Entry(current);
+                }
+
+                @Override
+                public void remove() {
+                    K key = current.getKey();
+                    V previous = current.getValue();
+                    iterator.remove();
+                    if (undoLog.recording()) {
+                        undoLog.record(() -> backing.put(key, previous));
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Entry that writes through to the backing entry, following the {@link Map.Entry} contract for
+     * {@code equals} and {@code hashCode}.
+     */
+    private final class Entry implements Map.Entry<K, V> {
+        private final Map.Entry<K, V> backingEntry;
+
+        private Entry(Map.Entry<K, V> backingEntry) {
+            this.backingEntry = backingEntry;
+        }
+
+        @Override
+        public K getKey() {
+            return backingEntry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return backingEntry.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            K key = backingEntry.getKey();
+            V previous = backingEntry.setValue(value);
+            if (undoLog.recording()) {
+                undoLog.record(() -> backing.put(key, previous));
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Map.Entry<?, ?> entry
+                    && Objects.equals(getKey(), entry.getKey())
+                    && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.haloce.tcg.core.undo;
+
+import java.util.Arrays;
+
+/**
+ * Journal of inverse operations for one match. While at least one mark is open, every journaled
+ * write records a {@link Runnable} that undoes it; {@link #rollbackTo(int)} runs them newest first.
+ * With no mark open nothing is recorded, so normal play pays only a field check per write.
+ *
+ * <p>Marks nest: rolling back or releasing a mark also closes every mark opened after it. Inverses
+ * run with recording suspended, so they may call the same journaled mutators as forward play.
+ */
+public final class UndoLog {
+    private Runnable[] entries = new Runnable[64];
+    private int size;
+    private int[] marks = new int[8];
+    private int openMarks;
+    private long epoch;
+    private boolean replaying;
+
+    /**
+     * True when writes should be journaled: a mark is open and no rollback is running.
+     */
+    public boolean recording() {
+        return openMarks > 0 && !replaying;
+    }
+
+    public void record(Runnable inverse) {
+        if (!recording()) {
+            return;
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = inverse;
+    }
+
+    /**
+     * Opens a mark at the current end of the log and returns its handle.
+     */
+    public int mark() {
+        if (replaying) {
+            throw new IllegalStateException("Cannot mark while rolling back");
+        }
+        if (openMarks == marks.length) {
+            marks = Arrays.copyOf(marks, openMarks * 2);
+        }
+        marks[openMarks] = size;
+        epoch++;
+        return openMarks++;
+    }
+
+    /**
+     * Undoes every write journaled since {@code mark} and closes it together with any later marks.
+     */
+    public void rollbackTo(int mark) {
+        requireOpen(mark);
+        int target = marks[mark];
+        replaying = true;
+        try {
+            while (size > target) {
+                Runnable inverse = entries[--size];
+                entries[size] = null;
+                inverse.run();
+            }
+        } finally {
+            replaying = false;
+        }
+        close(mark);
+    }
+
+    /**
+     * Closes {@code mark} and any later marks, keeping their writes. The entries stay in the log while
+     * an earlier mark is open, so that mark can still roll them back.
+     */
+    public void release(int mark) {
+        requireOpen(mark);
+        close(mark);
+        if (openMarks == 0) {
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+    }
+
+    public int openMarks() {
+        return openMarks;
+    }
+
+    /**
+     * Changes whenever a mark is opened or closed. State journaled by snapshot rather than per write
+     * compares it with the epoch of its last snapshot to know whether the open mark already covers it.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void close(int mark) {
+        openMarks = mark;
+        epoch++;
+    }
+
+    private void requireOpen(int mark) {
+        if (mark < 0 || mark >= openMarks) {
+            throw new IllegalArgumentException("Mark is not open: " + mark);
+        }
+    }
+}
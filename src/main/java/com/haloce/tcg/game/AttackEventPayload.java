@@ -0,0 +1,68 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed payload for {@code ATTACK_DECLARED} and {@code TARGET_LOCKED}. An attack on a unit sets
+ * {@code defenderInstanceId}, one on a base sets {@code targetPlayerId} and shows as
+ * {@code target=BASE}; fields that are not set are left out of the {@link #asMap()} view.
+ */
+public record AttackEventPayload(
+        EventType stage,
+        String attackerInstanceId,
+        String defenderInstanceId,
+        String targetPlayerId,
+        Lane lane
+) implements EventPayload {
+    private static final String BASE_TARGET = "BASE";
+
+    public static AttackEventPayload unitAttacked(String attackerInstanceId, String defenderInstanceId, Lane lane) {
+        return new AttackEventPayload(EventType.ATTACK_DECLARED, attackerInstanceId, defenderInstanceId, null, lane);
+    }
+
+    public static AttackEventPayload baseAttacked(String attackerInstanceId, String targetPlayerId) {
+        return new AttackEventPayload(EventType.ATTACK_DECLARED, attackerInstanceId, null, targetPlayerId, null);
+    }
+
+    public static AttackEventPayload targetLocked(String attackerInstanceId, String defenderInstanceId) {
+        return new AttackEventPayload(EventType.TARGET_LOCKED, attackerInstanceId, defenderInstanceId, null, null);
+    }
+
+    public boolean baseTarget() {
+        return targetPlayerId != null;
+    }
+
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "attackerInstanceId" -> attackerInstanceId;
+            case "defenderInstanceId" -> defenderInstanceId;
+            case "targetPlayerId" -> targetPlayerId;
+            case "target" -> baseTarget() ? BASE_TARGET : null;
+            case "lane" -> lane == null ? null : lane.name();
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("attackerInstanceId", attackerInstanceId);
+        if (defenderInstanceId != null) {
+            map.put("defenderInstanceId", defenderInstanceId);
+        }
+        if (baseTarget()) {
+            map.put("targetPlayerId", targetPlayerId);
+            map.put("target", BASE_TARGET);
+        }
+        if (lane != null) {
+            map.put("lane", lane.name());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,33 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+
+import java.util.Map;
+
+/**
+ * Typed payload for {@code BASE_DAMAGED}.
+ */
+public record BaseDamagedPayload(
+        String targetPlayerId,
+        int damage,
+        int remainingBaseHealth
+) implements EventPayload {
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "targetPlayerId" -> targetPlayerId;
+            case "damage" -> damage;
+            case "remainingBaseHealth" -> remainingBaseHealth;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return Map.of(
+                "targetPlayerId", targetPlayerId,
+                "damage", damage,
+                "remainingBaseHealth", remainingBaseHealth
+        );
+    }
+}
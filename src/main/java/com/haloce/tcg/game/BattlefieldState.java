@@ -1,20 +1,103 @@
 package com.haloce.tcg.game;
 
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class BattlefieldState {
     private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    // Every unit on the board by instance id; kept in step by deploy/removeUnit.
+    private final Map<String, UnitPosition> positionsByInstanceId = new HashMap<>();
+    private final Map<String, Integer> playerIndex = new HashMap<>();
+    private final Map<String, Integer> teamIndex = new HashMap<>();
+    private final int[] teamOfPlayer;
+    // Per-lane unit counts, kept in step by deploy/removeUnit so lane control is a constant-time check.
+    private final int[] laneTotal = new int[Lane.values().length];
+    private final int[] laneFrontline = new int[Lane.values().length];
+    private final int[][] playerTotal;
+    private final int[][] playerFrontline;
+    private final int[][] teamTotal;
+    private final int[][] teamFrontline;
+    private ZobristHash hash;
+    private UndoLog undoLog;
 
     public BattlefieldState(List<String> playerIds) {
+        this(playerIds, Map.of());
+    }
+
+    /**
+     * @param teamByPlayer team of each player; players missing from the map form a team of their own
+     */
+    public BattlefieldState(List<String> playerIds, Map<String, String> teamByPlayer) {
         for (Lane lane : Lane.values()) {
             lanes.put(lane, new LaneState(playerIds));
         }
+        teamOfPlayer = new int[playerIds.size()];
+        for (int i = 0; i < playerIds.size(); i++) {
+            String playerId = playerIds.get(i);
+            playerIndex.put(playerId, i);
+            String teamId = teamByPlayer.getOrDefault(playerId, playerId);
+            teamOfPlayer[i] = teamIndex.computeIfAbsent(teamId, k -> teamIndex.size());
+        }
+        int lanesCount = Lane.values().length;
+        playerTotal = new int[lanesCount][playerIds.size()];
+        playerFrontline = new int[lanesCount][playerIds.size()];
+        teamTotal = new int[lanesCount][teamIndex.size()];
+        teamFrontline = new int[lanesCount][teamIndex.size()];
+    }
+
+    private BattlefieldState(BattlefieldState source) {
+        for (Map.Entry<Lane, LaneState> entry : source.lanes.entrySet()) {
+            lanes.put(entry.getKey(), entry.getValue().copy());
+        }
+        positionsByInstanceId.putAll(source.positionsByInstanceId);
+        playerIndex.putAll(source.playerIndex);
+        teamIndex.putAll(source.teamIndex);
+        teamOfPlayer = source.teamOfPlayer;
+        System.arraycopy(source.laneTotal, 0, laneTotal, 0, laneTotal.length);
+        System.arraycopy(source.laneFrontline, 0, laneFrontline, 0, laneFrontline.length);
+        playerTotal = copyOf(source.playerTotal);
+        playerFrontline = copyOf(source.playerFrontline);
+        teamTotal = copyOf(source.teamTotal);
+        teamFrontline = copyOf(source.teamFrontline);
+    }
+
+    /**
+     * Independent copy of the board for a forked match, not bound to any hash. Units and positions
+     * are immutable records and are shared.
+     */
+    public BattlefieldState copy() {
+        return new BattlefieldState(this);
+    }
+
+    /**
+     * Every unit on the board, for {@link GameStateData}: lane by lane, then by player in
+     * {@code playerIds} order, frontline before backline, each row in board order, so deploying them
+     * in this order rebuilds the same board.
+     */
+    public List<GameStateData.Unit> data(List<String> playerIds) {
+        List<GameStateData.Unit> units = new ArrayList<>(positionsByInstanceId.size());
+        for (Map.Entry<Lane, LaneState> lane : lanes.entrySet()) {
+            for (String playerId : playerIds) {
+                LaneBoardState side = lane.getValue().side(playerId);
+                for (CardInstance card : side.frontline()) {
+                    units.add(new GameStateData.Unit(playerId, lane.getKey(), GameRow.FRONTLINE, GameStateData.Card.of(card)));
+                }
+                for (CardInstance card : side.backline()) {
+                    units.add(new GameStateData.Unit(playerId, lane.getKey(), GameRow.BACKLINE, GameStateData.Card.of(card)));
+                }
+            }
+        }
+        return units;
     }
 
     public LaneState lane(Lane lane) {
@@ -22,7 +105,16 @@ public class BattlefieldState {
     }
 
     public void deploy(String playerId, Lane lane, GameRow row, CardInstance cardInstance) {
+        if (positionsByInstanceId.containsKey(cardInstance.instanceId())) {
+            throw new IllegalStateException("Unit already on battlefield: " + cardInstance.instanceId());
+        }
         lane(lane).deploy(playerId, row, cardInstance);
+        positionsByInstanceId.put(cardInstance.instanceId(), new UnitPosition(playerId, lane, row, cardInstance));
+        count(playerId, lane, row, 1);
+        toggleHash(playerId, lane, row, cardInstance);
+        if (undoLog != null && undoLog.recording()) {
+            undoLog.record(() -> removeUnit(cardInstance.instanceId()));
+        }
     }
 
     public boolean hasSpace(Lane lane, String playerId, GameRow row) {
@@ -30,47 +122,135 @@ public class BattlefieldState {
     }
 
     public Optional<CardInstance> removeUnit(String instanceId) {
-        for (LaneState laneState : lanes.values()) {
-            Optional<CardInstance> removed = laneState.removeByInstanceId(instanceId);
-            if (removed.isPresent()) {
-                return removed;
-            }
+        UnitPosition position = positionsByInstanceId.remove(instanceId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        LaneBoardState side = lane(position.lane()).side(position.playerId());
+        int index = side.indexOf(position.row(), position.card());
+        side.remove(position.row(), position.card());
+        count(position.playerId(), position.lane(), position.row(), -1);
+        toggleHash(position.playerId(), position.lane(), position.row(), position.card());
+        if (undoLog != null && undoLog.recording()) {
+            undoLog.record(() -> restoreUnit(position, index));
         }
-        return Optional.empty();
+        return Optional.of(position.card());
     }
 
-    public UnitPosition locateUnit(String instanceId) {
-        for (Lane lane : Lane.values()) {
-            UnitPosition position = lane(lane).locate(instanceId, lane);
-            if (position != null) {
-                return position;
-            }
+    private void restoreUnit(UnitPosition position, int index) {
+        lane(position.lane()).side(position.playerId()).restore(position.row(), index, position.card());
+        positionsByInstanceId.put(position.card().instanceId(), position);
+        count(position.playerId(), position.lane(), position.row(), 1);
+        toggleHash(position.playerId(), position.lane(), position.row(), position.card());
+    }
+
+    /**
+     * Records the inverse of every later deploy and removal in {@code undoLog}, restoring row order.
+     * Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    /**
+     * Makes every unit on the board, and every unit deployed later, contribute to {@code hash} by
+     * side, lane, row, owner and card. Pass {@code null} to stop hashing.
+     */
+    public void bindHash(ZobristHash hash) {
+        for (UnitPosition position : positionsByInstanceId.values()) {
+            toggleHash(position.playerId(), position.lane(), position.row(), position.card());
         }
-        return null;
+        this.hash = hash;
+        for (UnitPosition position : positionsByInstanceId.values()) {
+            toggleHash(position.playerId(), position.lane(), position.row(), position.card());
+        }
+    }
+
+    public UnitPosition locateUnit(String instanceId) {
+        return positionsByInstanceId.get(instanceId);
     }
 
     public int laneUnitCount(Lane lane, List<String> playerIds) {
-        return lane(lane).totalCountForPlayers(playerIds);
+        return sumForPlayers(playerTotal[lane.ordinal()], playerIds);
     }
 
     public int laneFrontlineCount(Lane lane, List<String> playerIds) {
-        return lane(lane).frontlineCountForPlayers(playerIds);
+        return sumForPlayers(playerFrontline[lane.ordinal()], playerIds);
     }
 
-    public List<CardInstance> unitsOfPlayer(String playerId) {
-        List<CardInstance> units = new ArrayList<>();
-        for (Lane lane : Lane.values()) {
-            units.addAll(lane(lane).unitsOf(playerId));
+    /**
+     * Lanes where the player has more units than all other players combined and no other player
+     * holds the frontline.
+     */
+    public int controlledLaneCountForPlayer(String playerId) {
+        Integer index = playerIndex.get(playerId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown player: " + playerId);
         }
-        return List.copyOf(units);
+        int count = 0;
+        for (int lane = 0; lane < laneTotal.length; lane++) {
+            if (controls(playerTotal[lane][index], playerFrontline[lane][index], lane)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lanes where the team has more units than all other teams combined and no other team holds the
+     * frontline.
+     */
+    public int controlledLaneCountForTeam(String teamId) {
+        Integer index = teamIndex.get(teamId);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown team: " + teamId);
+        }
+        int count = 0;
+        for (int lane = 0; lane < laneTotal.length; lane++) {
+            if (controls(teamTotal[lane][index], teamFrontline[lane][index], lane)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of units the player has on the board, across all lanes.
+     */
+    public int unitCountOf(String playerId) {
+        Integer index = playerIndex.get(playerId);
+        if (index == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int[] lane : playerTotal) {
+            count += lane[index];
+        }
+        return count;
+    }
+
+    /**
+     * Visits the player's units lane by lane, frontline first, without copying. The board must not
+     * change during the visit; see {@link LaneBoardState}.
+     */
+    public void forEachUnitOf(String playerId, Consumer<? super CardInstance> visitor) {
+        for (LaneState lane : lanes.values()) {
+            lane.forEachUnitOf(playerId, visitor);
+        }
+    }
+
+    public List<CardInstance> unitsOfPlayer(String playerId) {
+        List<CardInstance> units = new ArrayList<>(unitCountOf(playerId));
+        forEachUnitOf(playerId, units::add);
+        return Collections.unmodifiableList(units);
     }
 
     public List<CardInstance> unitsOfPlayers(List<String> playerIds) {
         List<CardInstance> units = new ArrayList<>();
-        for (Lane lane : Lane.values()) {
-            units.addAll(lane(lane).unitsOfPlayers(playerIds));
+        for (LaneState lane : lanes.values()) {
+            lane.forEachUnitOfPlayers(playerIds, units::add);
         }
-        return List.copyOf(units);
+        return Collections.unmodifiableList(units);
     }
 
     public int controlledLaneCount(String playerId) {
@@ -82,4 +262,53 @@ public class BattlefieldState {
         }
         return count;
     }
+
+    private boolean controls(int ownTotal, int ownFrontline, int lane) {
+        int opponentTotal = laneTotal[lane] - ownTotal;
+        int opponentFrontline = laneFrontline[lane] - ownFrontline;
+        return ownTotal > opponentTotal && opponentFrontline == 0;
+    }
+
+    private void toggleHash(String playerId, Lane lane, GameRow row, CardInstance card) {
+        if (hash == null) {
+            return;
+        }
+        long key = ZobristHash.key(ZobristHash.UNIT, ZobristHash.idKey(card.instanceId()), ZobristHash.idKey(playerId));
+        key = ZobristHash.chain(key, lane.ordinal() * 2L + row.ordinal());
+        key = ZobristHash.chain(key, ZobristHash.idKey(card.ownerPlayerId()));
+        hash.toggle(ZobristHash.chain(key, ZobristHash.idKey(card.definition().id())));
+    }
+
+    private static int[][] copyOf(int[][] counts) {
+        int[][] copy = new int[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            copy[i] = counts[i].clone();
+        }
+        return copy;
+    }
+
+    private void count(String playerId, Lane lane, GameRow row, int delta) {
+        int player = playerIndex.get(playerId);
+        int team = teamOfPlayer[player];
+        int index = lane.ordinal();
+        laneTotal[index] += delta;
+        playerTotal[index][player] += delta;
+        teamTotal[index][team] += delta;
+        if (row == GameRow.FRONTLINE) {
+            laneFrontline[index] += delta;
+            playerFrontline[index][player] += delta;
+            teamFrontline[index][team] += delta;
+        }
+    }
+
+    private int sumForPlayers(int[] counts, List<String> playerIds) {
+        int total = 0;
+        for (String playerId : playerIds) {
+            Integer index = playerIndex.get(playerId);
+            if (index != null) {
+                total += counts[index];
+            }
+        }
+        return total;
+    }
 }
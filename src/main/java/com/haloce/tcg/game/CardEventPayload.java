@@ -0,0 +1,54 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed payload for a card moving out of a library or hand. {@code lane} and {@code row} are only set
+ * for {@code UNIT_DEPLOYED} and are left out of the {@link #asMap()} view otherwise.
+ */
+public record CardEventPayload(
+        EventType stage,
+        String cardId,
+        String cardInstanceId,
+        Lane lane,
+        GameRow row
+) implements EventPayload {
+    public static CardEventPayload drawn(CardInstance card) {
+        return new CardEventPayload(EventType.CARD_DRAWN, card.definition().id(), card.instanceId(), null, null);
+    }
+
+    public static CardEventPayload deployed(CardInstance card, Lane lane, GameRow row) {
+        return new CardEventPayload(EventType.UNIT_DEPLOYED, card.definition().id(), card.instanceId(), lane, row);
+    }
+
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "cardId" -> cardId;
+            case "cardInstanceId" -> cardInstanceId;
+            case "lane" -> lane == null ? null : lane.name();
+            case "row" -> row == null ? null : row.name();
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("cardId", cardId);
+        map.put("cardInstanceId", cardInstanceId);
+        if (lane != null) {
+            map.put("lane", lane.name());
+        }
+        if (row != null) {
+            map.put("row", row.name());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
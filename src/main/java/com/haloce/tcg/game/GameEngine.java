@@ -5,38 +5,68 @@ import com.haloce.tcg.card.model.CardDef;
 import com.haloce.tcg.card.model.CardType;
 import com.haloce.tcg.card.model.Faction;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.CompiledCard;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.combat.CombatStateStore;
+import com.haloce.tcg.combat.InMemoryCombatStateStore;
 import com.haloce.tcg.core.event.DeterministicEventBus;
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.random.MatchRandom;
+import com.haloce.tcg.core.random.SplitMixRandom;
 import com.haloce.tcg.deck.DeckValidator;
 import com.haloce.tcg.deck.model.DeckEntry;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.UUID;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class GameEngine {
     private static final int DEFAULT_BASE_HEALTH = 30;
+    private static final long DEFAULT_SEED = 20260225L;
 
     private final CardRepository cardRepository;
     private final EventBus eventBus;
     private final DeckValidator deckValidator;
-    private final Random random;
+    private final SplittableRandom matchSeeds;
+    private final Supplier<CombatStateStore> combatStateStoreFactory;
 
     public GameEngine(CardRepository cardRepository) {
-        this(cardRepository, new DeterministicEventBus(), new DeckValidator(), new Random(20260225L));
+        this(cardRepository, new DeterministicEventBus());
     }
 
-    public GameEngine(CardRepository cardRepository, EventBus eventBus, DeckValidator deckValidator, Random random) {
+    public GameEngine(CardRepository cardRepository, EventBus eventBus) {
+        this(cardRepository, eventBus, new DeckValidator(), DEFAULT_SEED);
+    }
+
+    /**
+     * @param seed seeds the sequence of match seeds; each match started without an explicit seed
+     *             takes the next one
+     */
+    public GameEngine(CardRepository cardRepository, EventBus eventBus, DeckValidator deckValidator, long seed) {
+        this(cardRepository, eventBus, deckValidator, seed, InMemoryCombatStateStore::new);
+    }
+
+    /**
+     * @param combatStateStoreFactory creates the combat state store of each match, e.g.
+     *                                {@code ColumnarCombatStateStore::new}
+     */
+    public GameEngine(
+            CardRepository cardRepository,
+            EventBus eventBus,
+            DeckValidator deckValidator,
+            long seed,
+            Supplier<CombatStateStore> combatStateStoreFactory
+    ) {
         this.cardRepository = cardRepository;
         this.eventBus = eventBus;
         this.deckValidator = deckValidator;
-        this.random = random;
+        this.matchSeeds = new SplittableRandom(seed);
+        this.combatStateStoreFactory = combatStateStoreFactory;
     }
 
     public GameStateManager initializeMatch(List<PlayerSetup> setups) {
@@ -55,12 +85,27 @@ public class GameEngine {
     }
 
     public GameStateManager initializeMatchWithSeats(GameMode mode, List<PlayerSeat> seats) {
+        long matchSeed;
+        synchronized (matchSeeds) {
+            matchSeed = matchSeeds.nextLong();
+        }
+        return initializeMatchWithSeats(mode, seats, matchSeed);
+    }
+
+    /**
+     * Starts a match whose library shuffles and dice rolls all come from {@code matchSeed}: the same
+     * seats and seed replay the same match.
+     */
+    public GameStateManager initializeMatchWithSeats(GameMode mode, List<PlayerSeat> seats, long matchSeed) {
         if (seats == null || seats.size() < 2) {
             throw new IllegalArgumentException("At least 2 seats are required");
         }
 
         validateModeSetup(mode, seats);
 
+        MatchRandom random = new MatchRandom(matchSeed);
+        SplitMixRandom shuffle = random.stream(MatchRandom.Stream.SHUFFLE);
+        InstanceHandleAllocator handleAllocator = new InstanceHandleAllocator();
         LinkedHashMap<String, PlayerState> playersById = new LinkedHashMap<>();
         Map<String, String> teamByPlayer = new LinkedHashMap<>();
         Map<String, Faction> factionByPlayer = new LinkedHashMap<>();
@@ -73,7 +118,7 @@ public class GameEngine {
             }
 
             deckValidator.validate(seat.deck(), cardRepository);
-            List<CardInstance> deckInstances = createDeckInstances(seat.playerId(), seat.deck().cards());
+            List<CardInstance> deckInstances = createDeckInstances(seat.playerId(), seat.deck().cards(), handleAllocator, shuffle);
             playersById.put(seat.playerId(), new PlayerState(seat.playerId(), DEFAULT_BASE_HEALTH, deckInstances));
             factionByPlayer.put(seat.playerId(), inferDominantFaction(seat.deck().cards()));
 
@@ -90,13 +135,19 @@ public class GameEngine {
                 playersById,
                 mode,
                 teamByPlayer,
-                factionByPlayer
+                factionByPlayer,
+                handleAllocator,
+                combatStateStoreFactory.get(),
+                random
         );
         stateManager.startGame();
         return stateManager;
     }
 
-    private Faction inferDominantFaction(List<DeckEntry> entries) {
+    /**
+     * Faction with the most cards in the deck; {@link Faction#NEUTRAL} if none is known.
+     */
+    public Faction inferDominantFaction(List<DeckEntry> entries) {
         Map<Faction, Integer> countByFaction = new LinkedHashMap<>();
         for (DeckEntry entry : entries) {
             CardDef def = cardRepository.get(entry.id());
@@ -131,29 +182,30 @@ public class GameEngine {
         }
     }
 
-    private List<CardInstance> createDeckInstances(String playerId, List<DeckEntry> entries) {
-        List<CardInstance> instances = new ArrayList<>();
+    private List<CardInstance> createDeckInstances(String playerId, List<DeckEntry> entries, InstanceHandleAllocator handleAllocator,
+                                                   SplitMixRandom shuffle) {
+        List<CompiledCard> library = new ArrayList<>();
         for (DeckEntry entry : entries) {
-            CardDef def = cardRepository.get(entry.id());
-            if (def == null) {
+            CompiledCard compiled = cardRepository.compiled(entry.id());
+            if (compiled == null) {
                 throw new IllegalArgumentException("Unknown card in deck: " + entry.id());
             }
+            CardDef def = compiled.definition();
             if (def.cardType() == CardType.TOKEN) {
                 throw new IllegalArgumentException("TOKEN cannot be in deck: " + entry.id());
             }
 
             for (int i = 0; i < entry.count(); i++) {
-                instances.add(new CardInstance(
-                        UUID.randomUUID().toString(),
-                        def,
-                        playerId,
-                        0L,
-                        def.id()
-                ));
+                library.add(compiled);
             }
         }
 
-        Collections.shuffle(instances, random);
+        shuffle.shuffle(library);
+        // Handles follow library order, so an instance id says nothing about which card it is.
+        List<CardInstance> instances = new ArrayList<>(library.size());
+        for (CompiledCard card : library) {
+            instances.add(handleAllocator.create(card, playerId, 0L, card.definition().id()));
+        }
         return instances;
     }
 }
@@ -0,0 +1,129 @@
+package com.haloce.tcg.game;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.CompiledCard;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.core.event.EventReactionRegistry;
+import com.haloce.tcg.game.handlers.WinConditionEvaluator;
+
+import java.util.List;
+
+/**
+ * Everything a running match can change, as plain values that serialize to JSON: what
+ * {@link GameStateManager#saveState()} writes and {@link GameStateManager#restoreState(GameStateData)}
+ * reads back. The setup the match started from (card set, mode, seats, teams, factions and seed) is
+ * not included; restoring takes it from a match started the same way.
+ *
+ * @param eventSequence    last event sequence issued
+ * @param allocatedHandles instance handles issued so far, tokens included
+ * @param units            the board, lane by lane and within each side and row in board order
+ * @param combat           combat state of every tracked entity
+ * @param statuses         unit statuses by instance handle
+ * @param campaign         the campaign managers' fields, see {@code CampaignManager#saveState()}
+ */
+public record GameStateData(
+        int globalTurnIndex,
+        int roundIndex,
+        int activePlayerCursor,
+        GameStatus status,
+        GamePhase phase,
+        String winnerPlayerId,
+        String winnerTeamId,
+        long eventSequence,
+        int allocatedHandles,
+        List<String> attackersUsedThisTurn,
+        List<String> eliminatedPlayerIds,
+        List<Player> players,
+        List<Unit> units,
+        List<Combat> combat,
+        List<Status> statuses,
+        EventReactionRegistry.Data reactions,
+        WinConditionEvaluator.Data winConditions,
+        JsonNode campaign
+) {
+    public GameStateData {
+        attackersUsedThisTurn = List.copyOf(attackersUsedThisTurn);
+        eliminatedPlayerIds = List.copyOf(eliminatedPlayerIds);
+        players = List.copyOf(players);
+        units = List.copyOf(units);
+        combat = List.copyOf(combat);
+        statuses = List.copyOf(statuses);
+    }
+
+    /**
+     * A card instance, by the id of its definition.
+     */
+    public record Card(
+            int handle,
+            String cardId,
+            String ownerPlayerId,
+            long sourceEventSequence,
+            String sourceCardId
+    ) {
+        public static Card of(CardInstance card) {
+            return new Card(card.handle(), card.definition().id(), card.ownerPlayerId(), card.sourceEventSequence(),
+                    card.sourceCardId());
+        }
+
+        public CardInstance resolve(CardRepository cardRepository) {
+            CompiledCard compiled = cardRepository.compiled(cardId);
+            if (compiled == null) {
+                throw new IllegalArgumentException("Unknown card in saved state: " + cardId);
+            }
+            return new CardInstance(handle, InstanceHandleAllocator.instanceId(handle), compiled,
+                    ownerPlayerId, sourceEventSequence, sourceCardId);
+        }
+    }
+
+    /**
+     * @param library top card first
+     */
+    public record Player(
+            String playerId,
+            int baseHealth,
+            int supplyCap,
+            int currentSupply,
+            int battery,
+            boolean batteryConvertedThisTurn,
+            int controlledLaneCount,
+            int fullControlStreak,
+            List<Card> hand,
+            List<Card> library,
+            List<Card> discardPile
+    ) {
+        public Player {
+            hand = List.copyOf(hand);
+            library = List.copyOf(library);
+            discardPile = List.copyOf(discardPile);
+        }
+    }
+
+    public record Unit(String playerId, Lane lane, GameRow row, Card card) {
+    }
+
+    public record Combat(
+            String entityId,
+            int currentShield,
+            int currentHealth,
+            int coverValue,
+            boolean marked,
+            boolean suppressed
+    ) {
+    }
+
+    public record Status(
+            int handle,
+            int summonedTurnIndex,
+            int plasmaTaggedTurnIndex,
+            int noobComboTriggeredTurnIndex,
+            int attackedTurnIndex,
+            int damagedTurnIndex,
+            String damagedByPlayerId,
+            int cannotAttackUntilTurn,
+            int cannotMoveUntilTurn,
+            boolean hasCamoThisTurn
+    ) {
+    }
+}
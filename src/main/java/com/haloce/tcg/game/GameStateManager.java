@@ -2,45 +2,60 @@ package com.haloce.tcg.game;
 
 import com.haloce.tcg.card.loader.CardRepository;
 import com.haloce.tcg.card.model.Faction;
-import com.haloce.tcg.card.model.KeywordInstance;
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.combat.CombatStateStore;
 import com.haloce.tcg.combat.DamageResolver;
 import com.haloce.tcg.combat.DamageResult;
 import com.haloce.tcg.combat.DamageType;
+import com.haloce.tcg.combat.EntityCombatState;
 import com.haloce.tcg.combat.InMemoryCombatStateStore;
 import com.haloce.tcg.combat.listeners.CoverMitigationListener;
+import com.haloce.tcg.core.event.DeterministicEventBus;
 import com.haloce.tcg.core.event.DiplomacyListener;
 import com.haloce.tcg.core.event.EventBus;
 import com.haloce.tcg.core.event.EventReactionRegistry;
+import com.haloce.tcg.core.event.EventSequencer;
+import com.haloce.tcg.core.event.EventPayload;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.random.MatchRandom;
+import com.haloce.tcg.core.random.SplitMixRandom;
+import com.haloce.tcg.core.undo.JournaledMap;
+import com.haloce.tcg.core.undo.UndoLog;
 import com.haloce.tcg.game.campaign.CampaignManager;
 import com.haloce.tcg.game.handlers.CombatHandler;
 import com.haloce.tcg.game.handlers.DeploymentHandler;
+import com.haloce.tcg.game.handlers.HandlerUtils;
 import com.haloce.tcg.game.handlers.TurnFlowHandler;
 import com.haloce.tcg.game.handlers.WinConditionEvaluator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class GameStateManager {
     private final EventBus eventBus;
-    @SuppressWarnings("unused")
     private final CardRepository cardRepository;
     private final GameMode gameMode;
     private final LinkedHashMap<String, PlayerState> playersById;
     private final List<String> turnOrder;
     private final Map<String, String> teamByPlayer;
+    private final TeamRelations teamRelations;
     private final BattlefieldState battlefield;
-    private final InMemoryCombatStateStore combatStateStore;
+    private final CombatStateStore combatStateStore;
     private final UnitStatusStore unitStatusStore;
     private final DamageResolver damageResolver;
     private final TurnExecutor turnExecutor;
+    private final InstanceHandleAllocator handleAllocator;
+    private final MatchRandom random;
     private final EventReactionRegistry eventReactionRegistry;
     private final CampaignManager campaignManager;
     
@@ -50,14 +65,14 @@ public class GameStateManager {
     private final TurnFlowHandler turnFlowHandler;
     private final WinConditionEvaluator winConditionEvaluator;
 
-    private final Set<String> attackersUsedThisTurn = new HashSet<>();
-    private final Set<String> eliminatedPlayers = new HashSet<>();
-    private final Map<String, Integer> teamControlStreak = new HashMap<>();
+    private final UndoLog undoLog = new UndoLog();
+    private final Set<String> attackersUsedThisTurn = Collections.newSetFromMap(new JournaledMap<>(undoLog));
+    private final EventSequencer eventSequencer;
+    private final ZobristHash stateHash = new ZobristHash();
 
     private int globalTurnIndex;
     private int roundIndex;
     private int activePlayerCursor;
-    private long eventSequence;
     private GameStatus status;
     private GamePhase phase;
     private String winnerPlayerId;
@@ -80,52 +95,398 @@ public class GameStateManager {
             GameMode gameMode,
             Map<String, String> teamByPlayer,
             Map<String, Faction> factionByPlayer
+    ) {
+        this(eventBus, cardRepository, playersById, gameMode, teamByPlayer, factionByPlayer, new InstanceHandleAllocator());
+    }
+
+    /**
+     * @param handleAllocator the allocator that issued the instances in {@code playersById}; tokens
+     *                        created during the match continue from it
+     */
+    public GameStateManager(
+            EventBus eventBus,
+            CardRepository cardRepository,
+            LinkedHashMap<String, PlayerState> playersById,
+            GameMode gameMode,
+            Map<String, String> teamByPlayer,
+            Map<String, Faction> factionByPlayer,
+            InstanceHandleAllocator handleAllocator
+    ) {
+        this(eventBus, cardRepository, playersById, gameMode, teamByPlayer, factionByPlayer, handleAllocator,
+                new InMemoryCombatStateStore());
+    }
+
+    /**
+     * @param combatStateStore empty store for this match, e.g. a {@link com.haloce.tcg.combat.ColumnarCombatStateStore}
+     */
+    public GameStateManager(
+            EventBus eventBus,
+            CardRepository cardRepository,
+            LinkedHashMap<String, PlayerState> playersById,
+            GameMode gameMode,
+            Map<String, String> teamByPlayer,
+            Map<String, Faction> factionByPlayer,
+            InstanceHandleAllocator handleAllocator,
+            CombatStateStore combatStateStore
+    ) {
+        this(eventBus, cardRepository, playersById, gameMode, teamByPlayer, factionByPlayer, handleAllocator,
+                combatStateStore, new MatchRandom(0L));
+    }
+
+    /**
+     * @param random the match's random service, seeded with the seed that shuffled the libraries
+     */
+    public GameStateManager(
+            EventBus eventBus,
+            CardRepository cardRepository,
+            LinkedHashMap<String, PlayerState> playersById,
+            GameMode gameMode,
+            Map<String, String> teamByPlayer,
+            Map<String, Faction> factionByPlayer,
+            InstanceHandleAllocator handleAllocator,
+            CombatStateStore combatStateStore,
+            MatchRandom random
     ) {
         if (playersById.size() < 2) {
             throw new IllegalArgumentException("At least 2 players are required");
         }
         this.eventBus = eventBus;
         this.cardRepository = cardRepository;
+        this.eventSequencer = new EventSequencer();
+        this.handleAllocator = handleAllocator;
+        this.random = random;
         this.playersById = playersById;
         this.gameMode = gameMode;
         this.turnOrder = List.copyOf(playersById.keySet());
         this.teamByPlayer = new HashMap<>(teamByPlayer);
-        this.battlefield = new BattlefieldState(turnOrder);
-        this.combatStateStore = new InMemoryCombatStateStore();
+        this.teamRelations = new TeamRelations(turnOrder, gameMode, this.teamByPlayer);
+        this.battlefield = new BattlefieldState(turnOrder, this.teamByPlayer);
+        this.combatStateStore = combatStateStore;
         this.unitStatusStore = new UnitStatusStore();
-        this.damageResolver = new DamageResolver(eventBus, combatStateStore);
+        this.damageResolver = new DamageResolver(eventBus, combatStateStore, eventSequencer);
         this.eventBus.register(new CoverMitigationListener(combatStateStore));
-        this.eventReactionRegistry = new EventReactionRegistry(this::playerIds, this::player, factionByPlayer);
+        this.eventReactionRegistry = new EventReactionRegistry(
+                this::playerIds, this::player, factionByPlayer, eventSequencer, undoLog
+        );
         for (var listener : DiplomacyListener.defaultListeners(eventReactionRegistry)) {
             this.eventBus.register(listener);
         }
         this.turnExecutor = new TurnExecutor(this);
         
         // Initialize Campaign Manager with game state reference
-        this.campaignManager = new CampaignManager(this);
+        this.campaignManager = new CampaignManager(this, random);
         
         // Initialize Handlers - delegate pattern to reduce complexity
         this.deploymentHandler = new DeploymentHandler(
                 eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, campaignManager
         );
         this.combatHandler = new CombatHandler(
-                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, damageResolver, campaignManager
+                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, damageResolver, campaignManager,
+                handleAllocator
         );
         this.turnFlowHandler = new TurnFlowHandler(
                 eventBus, battlefield, combatStateStore, unitStatusStore, campaignManager
         );
         this.winConditionEvaluator = new WinConditionEvaluator(
-                eventBus, battlefield, gameMode, teamByPlayer
+                eventBus, battlefield, gameMode, teamRelations, undoLog
         );
 
         this.globalTurnIndex = 0;
         this.roundIndex = 1;
         this.activePlayerCursor = 0;
-        this.eventSequence = 0;
         this.status = GameStatus.NOT_STARTED;
         this.phase = GamePhase.DRAW_RECHARGE;
 
-        initializeTeamStreaks();
+        bindStateHash();
+        bindUndoLog();
+    }
+
+    private GameStateManager(GameStateManager source, EventBus eventBus) {
+        this.eventBus = eventBus;
+        this.cardRepository = source.cardRepository;
+        this.eventSequencer = source.eventSequencer.copy();
+        this.handleAllocator = source.handleAllocator.copy();
+        this.random = source.random;
+        this.playersById = new LinkedHashMap<>();
+        source.playersById.forEach((playerId, player) -> playersById.put(playerId, player.copy()));
+        this.gameMode = source.gameMode;
+        this.turnOrder = source.turnOrder;
+        this.teamByPlayer = source.teamByPlayer;
+        this.teamRelations = source.teamRelations.copy();
+        this.battlefield = source.battlefield.copy();
+        this.combatStateStore = source.combatStateStore.copy();
+        this.unitStatusStore = source.unitStatusStore.copy();
+        this.damageResolver = new DamageResolver(eventBus, combatStateStore, eventSequencer);
+        this.eventBus.register(new CoverMitigationListener(combatStateStore));
+        this.eventReactionRegistry = source.eventReactionRegistry.copy(
+                this::playerIds, this::player, eventSequencer, undoLog
+        );
+        for (var listener : DiplomacyListener.defaultListeners(eventReactionRegistry)) {
+            this.eventBus.register(listener);
+        }
+        this.turnExecutor = new TurnExecutor(this);
+        this.campaignManager = source.campaignManager.copyFor(this);
+        this.deploymentHandler = new DeploymentHandler(
+                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, campaignManager
+        );
+        this.combatHandler = new CombatHandler(
+                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, damageResolver, campaignManager,
+                handleAllocator
+        );
+        this.turnFlowHandler = new TurnFlowHandler(
+                eventBus, battlefield, combatStateStore, unitStatusStore, campaignManager
+        );
+        this.winConditionEvaluator = source.winConditionEvaluator.copy(eventBus, battlefield, teamRelations, undoLog);
+
+        this.attackersUsedThisTurn.addAll(source.attackersUsedThisTurn);
+        this.globalTurnIndex = source.globalTurnIndex;
+        this.roundIndex = source.roundIndex;
+        this.activePlayerCursor = source.activePlayerCursor;
+        this.status = source.status;
+        this.phase = source.phase;
+        this.winnerPlayerId = source.winnerPlayerId;
+        this.winnerTeamId = source.winnerTeamId;
+
+        bindStateHash();
+        bindUndoLog();
+    }
+
+    private GameStateManager(GameStateManager template, GameStateData data, EventBus eventBus) {
+        this.eventBus = eventBus;
+        this.cardRepository = template.cardRepository;
+        this.eventSequencer = new EventSequencer(data.eventSequence());
+        this.handleAllocator = new InstanceHandleAllocator(data.allocatedHandles());
+        this.random = template.random;
+        this.playersById = new LinkedHashMap<>();
+        for (GameStateData.Player player : data.players()) {
+            playersById.put(player.playerId(), PlayerState.restore(player, cardRepository));
+        }
+        if (!List.copyOf(playersById.keySet()).equals(template.turnOrder)) {
+            throw new IllegalArgumentException("Saved players " + playersById.keySet()
+                    + " do not match the seats " + template.turnOrder);
+        }
+        this.gameMode = template.gameMode;
+        this.turnOrder = template.turnOrder;
+        this.teamByPlayer = template.teamByPlayer;
+        this.teamRelations = new TeamRelations(turnOrder, gameMode, teamByPlayer);
+        data.eliminatedPlayerIds().forEach(teamRelations::markEliminated);
+        this.battlefield = new BattlefieldState(turnOrder, teamByPlayer);
+        for (GameStateData.Unit unit : data.units()) {
+            battlefield.deploy(unit.playerId(), unit.lane(), unit.row(), unit.card().resolve(cardRepository));
+        }
+        this.combatStateStore = template.combatStateStore.copy();
+        List<String> copiedIds = new ArrayList<>();
+        combatStateStore.forEach((entityId, state) -> copiedIds.add(entityId));
+        copiedIds.forEach(combatStateStore::remove);
+        for (GameStateData.Combat combat : data.combat()) {
+            EntityCombatState state = new EntityCombatState(combat.currentShield(), combat.currentHealth());
+            state.setCoverValue(combat.coverValue());
+            state.setMarked(combat.marked());
+            state.setSuppressed(combat.suppressed());
+            combatStateStore.put(combat.entityId(), state);
+        }
+        this.unitStatusStore = UnitStatusStore.restore(data.statuses());
+        this.damageResolver = new DamageResolver(eventBus, combatStateStore, eventSequencer);
+        this.eventBus.register(new CoverMitigationListener(combatStateStore));
+        this.eventReactionRegistry = EventReactionRegistry.restore(
+                data.reactions(), this::playerIds, this::player, eventSequencer, undoLog
+        );
+        for (var listener : DiplomacyListener.defaultListeners(eventReactionRegistry)) {
+            this.eventBus.register(listener);
+        }
+        this.turnExecutor = new TurnExecutor(this);
+        this.campaignManager = CampaignManager.restore(this, random, data.campaign());
+        this.deploymentHandler = new DeploymentHandler(
+                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, campaignManager
+        );
+        this.combatHandler = new CombatHandler(
+                eventBus, cardRepository, battlefield, combatStateStore, unitStatusStore, damageResolver, campaignManager,
+                handleAllocator
+        );
+        this.turnFlowHandler = new TurnFlowHandler(
+                eventBus, battlefield, combatStateStore, unitStatusStore, campaignManager
+        );
+        this.winConditionEvaluator = WinConditionEvaluator.restore(
+                data.winConditions(), eventBus, battlefield, gameMode, teamRelations, undoLog
+        );
+
+        this.attackersUsedThisTurn.addAll(data.attackersUsedThisTurn());
+        this.globalTurnIndex = data.globalTurnIndex();
+        this.roundIndex = data.roundIndex();
+        this.activePlayerCursor = data.activePlayerCursor();
+        this.status = data.status();
+        this.phase = data.phase();
+        this.winnerPlayerId = data.winnerPlayerId();
+        this.winnerTeamId = data.winnerTeamId();
+
+        bindStateHash();
+        bindUndoLog();
+    }
+
+    /**
+     * Independent copy of the running match on a fresh {@link DeterministicEventBus}: board, combat
+     * state, unit statuses, player zones, reaction registry, campaign managers and their random
+     * generators. Actions on the fork never affect this match and vice versa, and the fork starts
+     * with the same {@link #stateHash()}. Card instances and positions are immutable and shared, so
+     * a fork costs one pass over the mutable state rather than a replay.
+     */
+    public GameStateManager fork() {
+        return fork(new DeterministicEventBus());
+    }
+
+    /**
+     * Like {@link #fork()}, publishing the fork's events on {@code eventBus}, which should have no
+     * game listeners registered yet.
+     */
+    public GameStateManager fork(EventBus eventBus) {
+        return new GameStateManager(this, eventBus);
+    }
+
+    /**
+     * A {@link #fork()} holding only what {@code observerId} knows for certain, for a bot to search
+     * without peeking: the other players' hands and libraries are dealt again at random from the
+     * cards each holds, keeping hand sizes, the observer's own library is shuffled, and every random
+     * stream restarts from {@code seed}, so the fork neither sees hidden cards nor foretells the dice.
+     *
+     * @param redealAllies whether allies' hands are redealt too; leave them as they are when the
+     *                     team shares its hands
+     */
+    public GameStateManager determinize(String observerId, boolean redealAllies, long seed) {
+        GameStateManager fork = fork();
+        MatchRandom random = new MatchRandom(seed);
+        SplitMixRandom shuffle = random.stream(MatchRandom.Stream.SHUFFLE);
+        for (String playerId : turnOrder) {
+            PlayerState player = fork.player(playerId);
+            if (playerId.equals(observerId)) {
+                player.shuffleLibrary(shuffle);
+            } else if (redealAllies || teamRelations.areOpponents(observerId, playerId)) {
+                player.redealHiddenZones(shuffle);
+            } else {
+                // An ally's library is hidden from the whole team.
+                player.shuffleLibrary(shuffle);
+            }
+        }
+        fork.campaignManager.reseed(random);
+        return fork;
+    }
+
+    /**
+     * Everything this match has changed since it started, as plain values that serialize to JSON.
+     * {@link #restoreState(GameStateData)} on a match started the same way rebuilds it with the
+     * same {@link #stateHash()}.
+     */
+    public GameStateData saveState() {
+        List<String> eliminatedPlayerIds = new ArrayList<>();
+        List<GameStateData.Player> players = new ArrayList<>(turnOrder.size());
+        for (String playerId : turnOrder) {
+            if (teamRelations.isEliminated(playerId)) {
+                eliminatedPlayerIds.add(playerId);
+            }
+            players.add(player(playerId).data());
+        }
+        List<GameStateData.Combat> combat = new ArrayList<>();
+        combatStateStore.forEach((entityId, state) -> combat.add(new GameStateData.Combat(entityId,
+                state.currentShield(), state.currentHealth(), state.coverValue(), state.marked(), state.suppressed())));
+        combat.sort(Comparator.comparing(GameStateData.Combat::entityId));
+        List<String> attackers = new ArrayList<>(attackersUsedThisTurn);
+        Collections.sort(attackers);
+        return new GameStateData(
+                globalTurnIndex, roundIndex, activePlayerCursor, status, phase, winnerPlayerId, winnerTeamId,
+                eventSequencer.current(), handleAllocator.allocated(), attackers, eliminatedPlayerIds, players,
+                battlefield.data(turnOrder), combat, unitStatusStore.data(), eventReactionRegistry.data(),
+                winConditionEvaluator.data(), campaignManager.saveState()
+        );
+    }
+
+    /**
+     * Independent match in the state {@code data} was saved in, on a fresh {@link DeterministicEventBus}.
+     * This match supplies the setup the saved state leaves out and is not changed, so it should have
+     * been started from the same card set, mode, seats and seed as the saved one.
+     *
+     * @throws IllegalArgumentException if {@code data} does not fit this match's seats or card set
+     */
+    public GameStateManager restoreState(GameStateData data) {
+        return new GameStateManager(this, data, new DeterministicEventBus());
+    }
+
+    /**
+     * Opens an undo mark. Until it is rolled back or released, every write to the match records its
+     * inverse, so {@link #rollbackTo(int)} can restore this exact state without copying it: an AI can
+     * apply a move, evaluate it and undo it, and a command that throws halfway can be rolled back.
+     * Marks nest.
+     *
+     * <p>Events take part in undo through a batch scope on the event bus that stays open as long as
+     * the mark. Reactions run as usual, but passive listeners such as the journal and the event
+     * stream only receive the events once the outermost mark is released; a rollback drops them.
+     * That is why the event sequence can rewind with the rest of the state: a sequence number handed
+     * out under a mark that is rolled back has never reached a journal or subscriber.
+     */
+    public int mark() {
+        int mark = undoLog.mark();
+        eventBus.beginBatch();
+        int globalTurnIndex = this.globalTurnIndex;
+        int roundIndex = this.roundIndex;
+        int activePlayerCursor = this.activePlayerCursor;
+        GameStatus status = this.status;
+        GamePhase phase = this.phase;
+        String winnerPlayerId = this.winnerPlayerId;
+        String winnerTeamId = this.winnerTeamId;
+        long eventSequence = eventSequencer.current();
+        int allocatedHandles = handleAllocator.allocated();
+        undoLog.record(() -> {
+            this.globalTurnIndex = globalTurnIndex;
+            this.roundIndex = roundIndex;
+            this.activePlayerCursor = activePlayerCursor;
+            this.status = status;
+            this.phase = phase;
+            this.winnerPlayerId = winnerPlayerId;
+            this.winnerTeamId = winnerTeamId;
+            eventSequencer.rewindTo(eventSequence);
+            handleAllocator.rewindTo(allocatedHandles);
+        });
+        return mark;
+    }
+
+    /**
+     * Restores the state at {@code mark} and closes it, along with any marks opened after it.
+     */
+    public void rollbackTo(int mark) {
+        int open = undoLog.openMarks();
+        undoLog.rollbackTo(mark);
+        for (int closed = mark; closed < open; closed++) {
+            eventBus.abortBatch();
+        }
+    }
+
+    /**
+     * Closes {@code mark}, along with any marks opened after it, keeping the changes made since.
+     */
+    public void release(int mark) {
+        int open = undoLog.openMarks();
+        undoLog.release(mark);
+        for (int closed = mark; closed < open; closed++) {
+            eventBus.commitBatch();
+        }
+    }
+
+    private void bindUndoLog() {
+        battlefield.bindUndoLog(undoLog);
+        combatStateStore.bindUndoLog(undoLog);
+        unitStatusStore.bindUndoLog(undoLog);
+        teamRelations.bindUndoLog(undoLog);
+        campaignManager.bindUndoLog(undoLog);
+        for (PlayerState player : playersById.values()) {
+            player.bindUndoLog(undoLog);
+        }
+    }
+
+    private void bindStateHash() {
+        battlefield.bindHash(stateHash);
+        combatStateStore.bindHash(stateHash);
+        unitStatusStore.bindHash(stateHash);
+        for (PlayerState player : playersById.values()) {
+            player.bindHash(stateHash);
+        }
     }
 
     public GameStatus status() {
@@ -136,6 +497,31 @@ public class GameStateManager {
         return gameMode;
     }
 
+    /**
+     * 64-bit Zobrist hash of the match: board, combat state, unit statuses, player resources and
+     * zones, turn position, the attackers already used this turn, eliminations, the winner and the
+     * lane control streaks. Equal states hash equal in any process, so the value can key
+     * transposition tables and be compared to detect desyncs. The board, combat, status and player
+     * parts are kept up to date by their mutators; the rest is folded in here.
+     * <p>
+     * Campaign scenario state and registered event reactions are not covered: matches differing
+     * only there hash equal. Compare {@link #saveState()} when they matter.
+     */
+    public long stateHash() {
+        long turnKey = ZobristHash.key(ZobristHash.TURN, globalTurnIndex, roundIndex);
+        turnKey = ZobristHash.chain(turnKey, activePlayerCursor);
+        turnKey = ZobristHash.chain(turnKey, status.ordinal());
+        turnKey = ZobristHash.chain(turnKey, phase.ordinal());
+        long outcomeKey = ZobristHash.key(ZobristHash.OUTCOME, teamRelations.aliveMask());
+        outcomeKey = ZobristHash.chain(outcomeKey, ZobristHash.idKey(winnerPlayerId));
+        outcomeKey = ZobristHash.chain(outcomeKey, ZobristHash.idKey(winnerTeamId));
+        long hash = stateHash.value() ^ turnKey ^ outcomeKey ^ winConditionEvaluator.hashKey();
+        for (String attackerId : attackersUsedThisTurn) {
+            hash ^= ZobristHash.key(ZobristHash.ATTACKED, ZobristHash.idKey(attackerId));
+        }
+        return hash;
+    }
+
     public GamePhase phase() {
         return phase;
     }
@@ -168,6 +554,21 @@ public class GameStateManager {
         return battlefield;
     }
 
+    CampaignManager campaignManager() {
+        return campaignManager;
+    }
+
+    /**
+     * Status of a unit, or {@code null} if nothing has been recorded for it yet (all fields at their defaults).
+     */
+    public UnitStatus findUnitStatus(CardInstance unit) {
+        return unitStatusStore.get(unit);
+    }
+
+    public boolean hasAttackedThisTurn(String instanceId) {
+        return attackersUsedThisTurn.contains(instanceId);
+    }
+
     public PlayerState player(String playerId) {
         PlayerState player = playersById.get(playerId);
         if (player == null) {
@@ -181,13 +582,30 @@ public class GameStateManager {
     }
 
     public List<String> alivePlayerIds() {
-        return turnOrder.stream().filter(this::isAlive).collect(Collectors.toList());
+        List<String> alive = new ArrayList<>(turnOrder.size());
+        for (String playerId : turnOrder) {
+            if (isAlive(playerId)) {
+                alive.add(playerId);
+            }
+        }
+        return alive;
     }
 
     public Map<String, PlayerState> playersSnapshot() {
         return Map.copyOf(playersById);
     }
 
+    public TeamRelations teamRelations() {
+        return teamRelations;
+    }
+
+    /**
+     * Seed of this match's {@link MatchRandom}; with the seats' decks it reproduces the match.
+     */
+    public long seed() {
+        return random.seed();
+    }
+
     public String teamIdOf(String playerId) {
         return teamOf(playerId);
     }
@@ -204,9 +622,14 @@ public class GameStateManager {
         }
 
         status = GameStatus.RUNNING;
-        emit(EventType.GAME_STARTED, null, Map.of("mode", gameMode.name()));
-        emit(EventType.ROUND_STARTED, activePlayerId(), Map.of("roundIndex", roundIndex));
-        startTurnInternal();
+        eventBus.beginBatch();
+        try {
+            emit(EventType.GAME_STARTED, null, EventPayload.of(Map.of("mode", gameMode.name())));
+            emit(EventType.ROUND_STARTED, activePlayerId(), TurnEventPayload.roundStarted(globalTurnIndex, roundIndex));
+            startTurnInternal();
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void advancePhase() {
@@ -220,10 +643,15 @@ public class GameStateManager {
         ensurePhase(GamePhase.DEPLOYMENT);
 
         PlayerState player = player(playerId);
-        deploymentHandler.deployUnitFromHand(
-                playerId, cardInstanceId, lane, row, player,
-                globalTurnIndex, roundIndex, activePlayerId(), ++eventSequence
-        );
+        eventBus.beginBatch();
+        try {
+            deploymentHandler.deployUnitFromHand(
+                    playerId, cardInstanceId, lane, row, player,
+                    globalTurnIndex, roundIndex, activePlayerId(), eventSequencer.next()
+            );
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void convertToBattery(String playerId, String cardInstanceId) {
@@ -234,35 +662,50 @@ public class GameStateManager {
         }
 
         PlayerState player = player(playerId);
-        deploymentHandler.convertToBattery(
-                playerId, cardInstanceId, player,
-                globalTurnIndex, roundIndex, activePlayerId(), ++eventSequence
-        );
+        eventBus.beginBatch();
+        try {
+            deploymentHandler.convertToBattery(
+                    playerId, cardInstanceId, player,
+                    globalTurnIndex, roundIndex, activePlayerId(), eventSequencer.next()
+            );
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public DamageResult declareAttack(String attackerInstanceId, String defenderInstanceId) {
         ensureStatus(GameStatus.RUNNING);
         ensurePhase(GamePhase.SKIRMISH);
 
-        DamageResult result = combatHandler.declareAttack(
-                attackerInstanceId, defenderInstanceId, activePlayerId(),
-                globalTurnIndex, roundIndex, ++eventSequence,
-                attackersUsedThisTurn, this::areOpponents, this::player
-        );
-
-        evaluateWinConditions(activePlayerId());
-        return result;
+        eventBus.beginBatch();
+        try {
+            DamageResult result = combatHandler.declareAttack(
+                    attackerInstanceId, defenderInstanceId, activePlayerId(),
+                    globalTurnIndex, roundIndex, eventSequencer.next(),
+                    attackersUsedThisTurn, teamRelations::areOpponents, this::player
+            );
+
+            evaluateWinConditions(activePlayerId());
+            return result;
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void attackBase(String attackerInstanceId, String targetPlayerId) {
         ensureStatus(GameStatus.RUNNING);
         ensurePhase(GamePhase.SKIRMISH);
 
-        combatHandler.attackBase(
-                attackerInstanceId, targetPlayerId, activePlayerId(),
-                globalTurnIndex, roundIndex, ++eventSequence,
-                attackersUsedThisTurn, this::areOpponents, this::alliesOf, this::damageBase
-        );
+        eventBus.beginBatch();
+        try {
+            combatHandler.attackBase(
+                    attackerInstanceId, targetPlayerId, activePlayerId(),
+                    globalTurnIndex, roundIndex, eventSequencer.next(),
+                    attackersUsedThisTurn, teamRelations::areOpponents, teamRelations::alliesOf, this::damageBase
+            );
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void hijackVehicle(String hijackerInstanceId, String targetVehicleInstanceId) {
@@ -272,11 +715,16 @@ public class GameStateManager {
         }
 
         PlayerState activePlayer = player(activePlayerId());
-        combatHandler.hijackVehicle(
-                hijackerInstanceId, targetVehicleInstanceId, activePlayerId(),
-                globalTurnIndex, roundIndex, ++eventSequence,
-                activePlayer, this::areOpponents
-        );
+        eventBus.beginBatch();
+        try {
+            combatHandler.hijackVehicle(
+                    hijackerInstanceId, targetVehicleInstanceId, activePlayerId(),
+                    globalTurnIndex, roundIndex, eventSequencer.next(),
+                    activePlayer, teamRelations::areOpponents
+            );
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void damageBase(String playerId, int damage) {
@@ -285,13 +733,14 @@ public class GameStateManager {
         PlayerState target = player(playerId);
         target.applyBaseDamage(damage);
 
-        emit(EventType.BASE_DAMAGED, activePlayerId(), Map.of(
-                "targetPlayerId", playerId,
-                "damage", damage,
-                "remainingBaseHealth", target.baseHealth()
-        ));
+        eventBus.beginBatch();
+        try {
+            emit(EventType.BASE_DAMAGED, activePlayerId(), new BaseDamagedPayload(playerId, damage, target.baseHealth()));
 
-        evaluateWinConditions(activePlayerId());
+            evaluateWinConditions(activePlayerId());
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     public void endTurn() {
@@ -307,27 +756,44 @@ public class GameStateManager {
         switch (phase) {
             case DRAW_RECHARGE -> throw new IllegalStateException("Draw/recharge is auto-resolved at turn start");
             case DEPLOYMENT -> {
-                emit(EventType.PHASE_DEPLOYMENT_ENDED, currentPlayerId, Map.of());
-                phase = GamePhase.SKIRMISH;
-                emit(EventType.PHASE_SKIRMISH_STARTED, currentPlayerId, Map.of());
+                eventBus.beginBatch();
+                try {
+                    emit(EventType.PHASE_DEPLOYMENT_ENDED, currentPlayerId, EventPayload.EMPTY);
+                    phase = GamePhase.SKIRMISH;
+                    emit(EventType.PHASE_SKIRMISH_STARTED, currentPlayerId, EventPayload.EMPTY);
+                } finally {
+                    eventBus.commitBatch();
+                }
             }
             case SKIRMISH -> {
-                emit(EventType.PHASE_SKIRMISH_ENDED, currentPlayerId, Map.of());
-                phase = GamePhase.ENDSTEP;
-                emit(EventType.PHASE_ENDSTEP_STARTED, currentPlayerId, Map.of());
-            }
-            case ENDSTEP -> {
-                emit(EventType.PHASE_ENDSTEP_ENDED, currentPlayerId, Map.of());
-                finishCurrentTurnAndRotate();
+                eventBus.beginBatch();
+                try {
+                    emit(EventType.PHASE_SKIRMISH_ENDED, currentPlayerId, EventPayload.EMPTY);
+                    phase = GamePhase.ENDSTEP;
+                    emit(EventType.PHASE_ENDSTEP_STARTED, currentPlayerId, EventPayload.EMPTY);
+                } finally {
+                    eventBus.commitBatch();
+                }
             }
+            case ENDSTEP -> finishCurrentTurnAndRotate();
         }
     }
 
+    /**
+     * Ends the current turn and starts the next one as two separate event batches: reactions to
+     * TURN_ENDED (e.g. survival-protocol resource aid) must be applied before the next turn refills supply.
+     */
     private void finishCurrentTurnAndRotate() {
         String endingPlayerId = activePlayerId();
-        turnFlowHandler.onTurnEnd(endingPlayerId, globalTurnIndex, roundIndex, ++eventSequence);
-
-        evaluateWinConditions(endingPlayerId);
+        eventBus.beginBatch();
+        try {
+            emit(EventType.PHASE_ENDSTEP_ENDED, endingPlayerId, EventPayload.EMPTY);
+            turnFlowHandler.onTurnEnd(endingPlayerId, globalTurnIndex, roundIndex, eventSequencer.next());
+
+            evaluateWinConditions(endingPlayerId);
+        } finally {
+            eventBus.commitBatch();
+        }
         if (status == GameStatus.FINISHED) {
             return;
         }
@@ -343,13 +809,18 @@ public class GameStateManager {
         activePlayerCursor = nextCursor;
 
         boolean wrappedRound = activePlayerCursor <= previousCursor;
-        if (wrappedRound) {
-            turnFlowHandler.onRoundEnd(endingPlayerId, roundIndex, globalTurnIndex, ++eventSequence);
-            roundIndex += 1;
-            turnFlowHandler.onRoundStart(roundIndex, activePlayerId(), globalTurnIndex, ++eventSequence);
-        }
+        eventBus.beginBatch();
+        try {
+            if (wrappedRound) {
+                turnFlowHandler.onRoundEnd(endingPlayerId, roundIndex, globalTurnIndex, eventSequencer.next());
+                roundIndex += 1;
+                turnFlowHandler.onRoundStart(roundIndex, activePlayerId(), globalTurnIndex, eventSequencer.next());
+            }
 
-        startTurnInternal();
+            startTurnInternal();
+        } finally {
+            eventBus.commitBatch();
+        }
     }
 
     private void startTurnInternal() {
@@ -361,16 +832,16 @@ public class GameStateManager {
         
         boolean skipDraw = globalTurnIndex == 1 && activePlayerCursor == 0;
         turnFlowHandler.onTurnStart(
-                currentPlayerId, active, globalTurnIndex, roundIndex, ++eventSequence,
+                currentPlayerId, active, globalTurnIndex, roundIndex, eventSequencer.next(),
                 skipDraw, activePlayerCursor
         );
 
         phase = GamePhase.DRAW_RECHARGE;
-        emit(EventType.PHASE_DRAW_RECHARGE_STARTED, currentPlayerId, Map.of());
-        emit(EventType.PHASE_DRAW_RECHARGE_ENDED, currentPlayerId, Map.of());
+        emit(EventType.PHASE_DRAW_RECHARGE_STARTED, currentPlayerId, EventPayload.EMPTY);
+        emit(EventType.PHASE_DRAW_RECHARGE_ENDED, currentPlayerId, EventPayload.EMPTY);
         
         phase = GamePhase.DEPLOYMENT;
-        emit(EventType.PHASE_DEPLOYMENT_STARTED, currentPlayerId, Map.of());
+        emit(EventType.PHASE_DEPLOYMENT_STARTED, currentPlayerId, EventPayload.EMPTY);
     }
 
     /**
@@ -384,7 +855,7 @@ public class GameStateManager {
     private void evaluateWinConditions(String currentPlayerId) {
         var result = winConditionEvaluator.evaluateWinConditions(
                 currentPlayerId, turnOrder, playersById,
-                globalTurnIndex, roundIndex, ++eventSequence
+                globalTurnIndex, roundIndex, eventSequencer.next()
         );
         
         if (result != null) {
@@ -394,86 +865,9 @@ public class GameStateManager {
         }
     }
 
-    private void refreshEliminationByBaseHealth() {
-        for (PlayerState player : playersById.values()) {
-            if (player.baseHealth() <= 0) {
-                eliminatedPlayers.add(player.playerId());
-            }
-        }
-    }
-
-    private void evaluateSingleWinnerByElimination() {
-        List<String> alive = alivePlayerIds();
-        if (alive.size() == 1) {
-            String winner = alive.get(0);
-            finishGame(winner, teamOf(winner), VictoryReason.LAST_PLAYER_STANDING);
-        }
-    }
-
-    private void evaluateTeamVictoryByElimination() {
-        Set<String> aliveTeams = alivePlayerIds().stream()
-                .map(this::teamOf)
-                .collect(Collectors.toSet());
-        if (aliveTeams.size() == 1) {
-            String winnerTeam = aliveTeams.iterator().next();
-            String winnerPlayer = alivePlayerIds().stream().findFirst().orElse(null);
-            finishGame(winnerPlayer, winnerTeam, VictoryReason.LAST_TEAM_STANDING);
-        }
-    }
-
-    private int controlledLaneCountForPlayer(String playerId) {
-        int count = 0;
-        List<String> own = List.of(playerId);
-        List<String> opponents = opponentsOf(playerId);
-        for (Lane lane : Lane.values()) {
-            int ownTotal = battlefield.laneUnitCount(lane, own);
-            int opponentTotal = battlefield.laneUnitCount(lane, opponents);
-            int opponentFrontline = battlefield.laneFrontlineCount(lane, opponents);
-            if (ownTotal > opponentTotal && opponentFrontline == 0) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    private int controlledLaneCountForTeam(String teamId) {
-        int count = 0;
-        List<String> own = alliesOfTeam(teamId);
-        List<String> opponents = opponentsOfTeam(teamId);
-        for (Lane lane : Lane.values()) {
-            int ownTotal = battlefield.laneUnitCount(lane, own);
-            int opponentTotal = battlefield.laneUnitCount(lane, opponents);
-            int opponentFrontline = battlefield.laneFrontlineCount(lane, opponents);
-            if (ownTotal > opponentTotal && opponentFrontline == 0) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    private void finishGame(String winnerPlayer, String teamId, VictoryReason reason) {
-        if (status == GameStatus.FINISHED) {
-            return;
-        }
-        winnerPlayerId = winnerPlayer;
-        winnerTeamId = teamId;
-        status = GameStatus.FINISHED;
-        String reasonName = reason.name();
-        emit(EventType.WIN_CONDITION_MET, winnerPlayer, Map.of(
-                "reason", reasonName,
-                "winnerPlayerId", winnerPlayer,
-                "winnerTeamId", teamId
-        ));
-        emit(EventType.GAME_ENDED, winnerPlayer, Map.of(
-                "winnerPlayerId", winnerPlayer,
-                "winnerTeamId", teamId,
-                "reason", reasonName
-        ));
-    }
- 
-     private void emit(EventType type, String sourcePlayerId, Map<String, Object> payload) {
+     private void emit(EventType type, String sourcePlayerId, EventPayload payload) {
          GameEvent event = new GameEvent(
-                 ++eventSequence,
+                 eventSequencer.next(),
                 type,
                 globalTurnIndex,
                 roundIndex,
@@ -499,70 +893,23 @@ public class GameStateManager {
     }
 
     private DamageType inferDamageType(CardInstance card) {
-        if (hasKeyword(card, "PLASMA")) {
+        if (HandlerUtils.hasKeyword(card, Keyword.PLASMA)) {
             return DamageType.PLASMA;
         }
-        if (hasKeyword(card, "BALLISTIC")) {
+        if (HandlerUtils.hasKeyword(card, Keyword.BALLISTIC)) {
             return DamageType.BALLISTIC;
         }
         return DamageType.TRUE;
     }
 
-    private static boolean hasKeyword(CardInstance card, String keyword) {
-        if (card.definition().keywords() == null) {
-            return false;
-        }
-        return card.definition().keywords().stream()
-                .map(KeywordInstance::name)
-                .anyMatch(keyword::equalsIgnoreCase);
-    }
 
     // Team management helpers
-    private void initializeTeamStreaks() {
-        for (String teamId : teamByPlayer.values()) {
-            teamControlStreak.put(teamId, 0);
-        }
-    }
-
     private String teamOf(String playerId) {
-        return teamByPlayer.getOrDefault(playerId, playerId);
-    }
-
-    private List<String> alliesOf(String playerId) {
-        String teamId = teamOf(playerId);
-        return alliesOfTeam(teamId);
-    }
-
-    private List<String> alliesOfTeam(String teamId) {
-        return turnOrder.stream()
-                .filter(id -> teamOf(id).equals(teamId))
-                .collect(Collectors.toList());
-    }
-
-    private List<String> opponentsOf(String playerId) {
-        return turnOrder.stream()
-                .filter(id -> areOpponents(playerId, id))
-                .collect(Collectors.toList());
-    }
-
-    private List<String> opponentsOfTeam(String teamId) {
-        return turnOrder.stream()
-                .filter(id -> !teamOf(id).equals(teamId))
-                .collect(Collectors.toList());
-    }
-
-    private boolean areOpponents(String playerA, String playerB) {
-        if (playerA.equals(playerB)) {
-            return false;
-        }
-        if (gameMode == GameMode.TEAM_2V2) {
-            return !teamOf(playerA).equals(teamOf(playerB));
-        }
-        return true;
+        return teamRelations.teamOf(playerId);
     }
 
     private boolean isAlive(String playerId) {
-        return !eliminatedPlayers.contains(playerId) && player(playerId).baseHealth() > 0;
+        return !teamRelations.isEliminated(playerId) && player(playerId).baseHealth() > 0;
     }
 
     private int findNextAliveCursor(int startCursor) {
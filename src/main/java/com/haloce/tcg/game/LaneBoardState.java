@@ -2,28 +2,79 @@ package com.haloce.tcg.game;
 
 import com.haloce.tcg.card.runtime.CardInstance;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * One player's side of a lane.
+ *
+ * <p>{@link #frontline()}, {@link #backline()}, {@link #unitsView()} and {@link #forEachUnit(Consumer)}
+ * read the live rows without copying. Views always show the current contents, but iterating one (or
+ * visiting) while the board changes throws {@link java.util.ConcurrentModificationException}; code
+ * that may deploy or remove units mid-loop must iterate {@link #allUnits()}, which is a snapshot.
+ */
 public class LaneBoardState {
     private static final int ROW_CAPACITY = 2;
 
     private final List<CardInstance> frontline = new ArrayList<>();
     private final List<CardInstance> backline = new ArrayList<>();
+    private final List<CardInstance> frontlineView = Collections.unmodifiableList(frontline);
+    private final List<CardInstance> backlineView = Collections.unmodifiableList(backline);
+    private final UnitsView unitsView = new UnitsView();
 
+    /**
+     * Independent copy of both rows. Units are immutable records and are shared.
+     */
+    public LaneBoardState copy() {
+        LaneBoardState copy = new LaneBoardState();
+        copy.frontline.addAll(frontline);
+        copy.backline.addAll(backline);
+        return copy;
+    }
+
+    /**
+     * Read-only live view of the frontline.
+     */
     public List<CardInstance> frontline() {
-        return List.copyOf(frontline);
+        return frontlineView;
     }
 
+    /**
+     * Read-only live view of the backline.
+     */
     public List<CardInstance> backline() {
-        return List.copyOf(backline);
+        return backlineView;
+    }
+
+    /**
+     * Read-only live view of the frontline followed by the backline.
+     */
+    public List<CardInstance> unitsView() {
+        return unitsView;
     }
 
+    /**
+     * Snapshot of the frontline followed by the backline, unaffected by later changes.
+     */
     public List<CardInstance> allUnits() {
-        List<CardInstance> units = new ArrayList<>(frontline);
-        units.addAll(backline);
-        return List.copyOf(units);
+        CardInstance[] units = new CardInstance[frontline.size() + backline.size()];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = unitAt(i);
+        }
+        return Collections.unmodifiableList(Arrays.asList(units));
+    }
+
+    /**
+     * Visits the frontline, then the backline, without allocating.
+     */
+    public void forEachUnit(Consumer<? super CardInstance> visitor) {
+        frontline.forEach(visitor);
+        backline.forEach(visitor);
     }
 
     public int frontlineCount() {
@@ -35,26 +86,26 @@ public class LaneBoardState {
     }
 
     public boolean contains(String instanceId) {
-        return frontline.stream().anyMatch(card -> card.instanceId().equals(instanceId))
-                || backline.stream().anyMatch(card -> card.instanceId().equals(instanceId));
+        return rowOf(instanceId) != null;
     }
 
     public GameRow rowOf(String instanceId) {
-        boolean inFrontline = frontline.stream().anyMatch(card -> card.instanceId().equals(instanceId));
-        if (inFrontline) {
+        if (indexOf(frontline, instanceId) >= 0) {
             return GameRow.FRONTLINE;
         }
-        boolean inBackline = backline.stream().anyMatch(card -> card.instanceId().equals(instanceId));
-        if (inBackline) {
+        if (indexOf(backline, instanceId) >= 0) {
             return GameRow.BACKLINE;
         }
         return null;
     }
 
     public CardInstance find(String instanceId) {
-        return frontline.stream().filter(card -> card.instanceId().equals(instanceId)).findFirst()
-                .or(() -> backline.stream().filter(card -> card.instanceId().equals(instanceId)).findFirst())
-                .orElse(null);
+        int index = indexOf(frontline, instanceId);
+        if (index >= 0) {
+            return frontline.get(index);
+        }
+        index = indexOf(backline, instanceId);
+        return index >= 0 ? backline.get(index) : null;
     }
 
     public boolean hasSpace(GameRow row) {
@@ -72,21 +123,87 @@ public class LaneBoardState {
             case FRONTLINE -> frontline.add(cardInstance);
             case BACKLINE -> backline.add(cardInstance);
         }
+        unitsView.modified();
     }
 
     public Optional<CardInstance> removeByInstanceId(String instanceId) {
-        for (CardInstance card : new ArrayList<>(frontline)) {
-            if (card.instanceId().equals(instanceId)) {
-                frontline.remove(card);
-                return Optional.of(card);
+        int index = indexOf(frontline, instanceId);
+        if (index >= 0) {
+            unitsView.modified();
+            return Optional.of(frontline.remove(index));
+        }
+        index = indexOf(backline, instanceId);
+        if (index >= 0) {
+            unitsView.modified();
+            return Optional.of(backline.remove(index));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes a unit whose row is already known. Rows hold at most {@link #ROW_CAPACITY} units.
+     */
+    public boolean remove(GameRow row, CardInstance cardInstance) {
+        List<CardInstance> units = row == GameRow.FRONTLINE ? frontline : backline;
+        for (int i = 0; i < units.size(); i++) {
+            if (units.get(i) == cardInstance) {
+                units.remove(i);
+                unitsView.modified();
+                return true;
             }
         }
-        for (CardInstance card : new ArrayList<>(backline)) {
-            if (card.instanceId().equals(instanceId)) {
-                backline.remove(card);
-                return Optional.of(card);
+        return false;
+    }
+
+    int indexOf(GameRow row, CardInstance cardInstance) {
+        List<CardInstance> units = row == GameRow.FRONTLINE ? frontline : backline;
+        for (int i = 0; i < units.size(); i++) {
+            if (units.get(i) == cardInstance) {
+                return i;
             }
         }
-        return Optional.empty();
+        return -1;
+    }
+
+    /**
+     * Puts a removed unit back at the index it had, so an undone removal keeps row order.
+     */
+    void restore(GameRow row, int index, CardInstance cardInstance) {
+        (row == GameRow.FRONTLINE ? frontline : backline).add(index, cardInstance);
+        unitsView.modified();
+    }
+
+    private static int indexOf(List<CardInstance> units, String instanceId) {
+        for (int i = 0; i < units.size(); i++) {
+            if (units.get(i).instanceId().equals(instanceId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private CardInstance unitAt(int index) {
+        int frontlineSize = frontline.size();
+        return index < frontlineSize ? frontline.get(index) : backline.get(index - frontlineSize);
+    }
+
+    private final class UnitsView extends AbstractList<CardInstance> {
+        @Override
+        public CardInstance get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            return unitAt(index);
+        }
+
+        @Override
+        public int size() {
+            return frontline.size() + backline.size();
+        }
+
+        // Lets this view's iterators fail fast like those of the rows it spans.
+        private void modified() {
+            modCount++;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed payload for {@code LANE_CONTROL_UPDATED}. {@code teamId} is set in team modes, where control
+ * is counted per team, and left out of the {@link #asMap()} view otherwise.
+ */
+public record LaneControlPayload(
+        String teamId,
+        int controlledLaneCount,
+        int fullControlStreak
+) implements EventPayload {
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "teamId" -> teamId;
+            case "controlledLaneCount" -> controlledLaneCount;
+            case "fullControlStreak" -> fullControlStreak;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (teamId != null) {
+            map.put("teamId", teamId);
+        }
+        map.put("controlledLaneCount", controlledLaneCount);
+        map.put("fullControlStreak", fullControlStreak);
+        return Collections.unmodifiableMap(map);
+    }
+}
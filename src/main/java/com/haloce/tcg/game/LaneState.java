@@ -3,10 +3,12 @@ package com.haloce.tcg.game;
 import com.haloce.tcg.card.runtime.CardInstance;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class LaneState {
     private final Map<String, LaneBoardState> sidesByPlayer = new LinkedHashMap<>();
@@ -17,6 +19,16 @@ public class LaneState {
         }
     }
 
+    private LaneState(LaneState source) {
+        for (Map.Entry<String, LaneBoardState> entry : source.sidesByPlayer.entrySet()) {
+            sidesByPlayer.put(entry.getKey(), entry.getValue().copy());
+        }
+    }
+
+    public LaneState copy() {
+        return new LaneState(this);
+    }
+
     public LaneBoardState side(String playerId) {
         LaneBoardState state = sidesByPlayer.get(playerId);
         if (state == null) {
@@ -88,14 +100,33 @@ public class LaneState {
         return side.allUnits();
     }
 
-    public List<CardInstance> unitsOfPlayers(List<String> playerIds) {
-        List<CardInstance> units = new ArrayList<>();
+    /**
+     * Read-only live view of a player's units in this lane; see {@link LaneBoardState} for when it may be iterated.
+     */
+    public List<CardInstance> unitsView(String playerId) {
+        return side(playerId).unitsView();
+    }
+
+    public void forEachUnitOf(String playerId, Consumer<? super CardInstance> visitor) {
+        side(playerId).forEachUnit(visitor);
+    }
+
+    /**
+     * Visits the units of the listed players in list order; players without a side here are skipped.
+     */
+    public void forEachUnitOfPlayers(List<String> playerIds, Consumer<? super CardInstance> visitor) {
         for (String playerId : playerIds) {
-            if (sidesByPlayer.containsKey(playerId)) {
-                units.addAll(unitsOf(playerId));
+            LaneBoardState side = sidesByPlayer.get(playerId);
+            if (side != null) {
+                side.forEachUnit(visitor);
             }
         }
-        return List.copyOf(units);
+    }
+
+    public List<CardInstance> unitsOfPlayers(List<String> playerIds) {
+        List<CardInstance> units = new ArrayList<>();
+        forEachUnitOfPlayers(playerIds, units::add);
+        return Collections.unmodifiableList(units);
     }
 
     public boolean isControlledBy(String playerId) {
@@ -1,9 +1,15 @@
 package com.haloce.tcg.game;
 
+import com.haloce.tcg.card.loader.CardRepository;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.random.SplitMixRandom;
+import com.haloce.tcg.core.undo.UndoLog;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +20,7 @@ public class PlayerState {
     private final String playerId;
     private final Deque<CardInstance> library;
     private final List<CardInstance> hand = new ArrayList<>();
+    private final List<CardInstance> handView = Collections.unmodifiableList(hand);
     private final List<CardInstance> discardPile = new ArrayList<>();
 
     private int baseHealth;
@@ -23,6 +30,10 @@ public class PlayerState {
     private boolean batteryConvertedThisTurn;
     private int controlledLaneCount;
     private int fullControlStreak;
+    private ZobristHash hash;
+    private long hashOwner;
+    private long scalarHashKey;
+    private UndoLog undoLog;
 
     public PlayerState(String playerId, int baseHealth, List<CardInstance> deck) {
         if (playerId == null || playerId.isBlank()) {
@@ -36,6 +47,58 @@ public class PlayerState {
         this.library = new ArrayDeque<>(deck);
     }
 
+    /**
+     * Independent copy of the zones and resources for a forked match, not bound to any hash. Card
+     * instances are immutable and shared.
+     */
+    public PlayerState copy() {
+        PlayerState copy = new PlayerState(playerId, 1, List.of());
+        copy.library.addAll(library);
+        copy.baseHealth = baseHealth;
+        copy.hand.addAll(hand);
+        copy.discardPile.addAll(discardPile);
+        copy.supplyCap = supplyCap;
+        copy.currentSupply = currentSupply;
+        copy.battery = battery;
+        copy.batteryConvertedThisTurn = batteryConvertedThisTurn;
+        copy.controlledLaneCount = controlledLaneCount;
+        copy.fullControlStreak = fullControlStreak;
+        return copy;
+    }
+
+    /**
+     * This player's zones and resources as plain values, for {@link GameStateData}.
+     */
+    public GameStateData.Player data() {
+        return new GameStateData.Player(playerId, baseHealth, supplyCap, currentSupply, battery,
+                batteryConvertedThisTurn, controlledLaneCount, fullControlStreak, cards(hand), cards(library),
+                cards(discardPile));
+    }
+
+    /**
+     * Player rebuilt from {@link #data()}, not bound to any hash.
+     */
+    public static PlayerState restore(GameStateData.Player data, CardRepository cardRepository) {
+        PlayerState player = new PlayerState(data.playerId(), 1, List.of());
+        data.library().forEach(card -> player.library.add(card.resolve(cardRepository)));
+        data.hand().forEach(card -> player.hand.add(card.resolve(cardRepository)));
+        data.discardPile().forEach(card -> player.discardPile.add(card.resolve(cardRepository)));
+        player.baseHealth = data.baseHealth();
+        player.supplyCap = data.supplyCap();
+        player.currentSupply = data.currentSupply();
+        player.battery = data.battery();
+        player.batteryConvertedThisTurn = data.batteryConvertedThisTurn();
+        player.controlledLaneCount = data.controlledLaneCount();
+        player.fullControlStreak = data.fullControlStreak();
+        return player;
+    }
+
+    private static List<GameStateData.Card> cards(Collection<CardInstance> zone) {
+        List<GameStateData.Card> cards = new ArrayList<>(zone.size());
+        zone.forEach(card -> cards.add(GameStateData.Card.of(card)));
+        return cards;
+    }
+
     public String playerId() {
         return playerId;
     }
@@ -56,6 +119,10 @@ public class PlayerState {
         return battery;
     }
 
+    public boolean batteryConvertedThisTurn() {
+        return batteryConvertedThisTurn;
+    }
+
     public int handSize() {
         return hand.size();
     }
@@ -80,22 +147,36 @@ public class PlayerState {
         return List.copyOf(hand);
     }
 
+    /**
+     * Read-only live view of the hand. Iterating it while cards are drawn or played throws
+     * {@link java.util.ConcurrentModificationException}; use {@link #hand()} for a snapshot.
+     */
+    public List<CardInstance> handView() {
+        return handView;
+    }
+
     public void startTurnResourceStep() {
+        journalScalars();
         supplyCap = Math.min(MAX_SUPPLY_CAP, supplyCap + 1);
         currentSupply = supplyCap;
         batteryConvertedThisTurn = false;
+        rehashScalars();
     }
 
     public void setStartingSupplyCap(int startingSupplyCap) {
+        journalScalars();
         this.supplyCap = Math.max(0, Math.min(MAX_SUPPLY_CAP, startingSupplyCap));
         this.currentSupply = this.supplyCap;
+        rehashScalars();
     }
 
     public void grantSupply(int amount) {
         if (amount <= 0) {
             return;
         }
+        journalScalars();
         currentSupply = Math.min(supplyCap, currentSupply + amount);
+        rehashScalars();
     }
 
     public boolean consumeSupply(int amount) {
@@ -105,7 +186,9 @@ public class PlayerState {
         if (currentSupply < amount) {
             return false;
         }
+        journalScalars();
         currentSupply -= amount;
+        rehashScalars();
         return true;
     }
 
@@ -118,17 +201,62 @@ public class PlayerState {
             }
             hand.add(card);
             drawn.add(card);
+            toggleCard(ZobristHash.LIBRARY, card, library.size());
+            toggleCard(ZobristHash.HAND, card, 0);
+            if (journaling()) {
+                undoLog.record(() -> {
+                    hand.remove(hand.size() - 1);
+                    toggleCard(ZobristHash.HAND, card, 0);
+                    toggleCard(ZobristHash.LIBRARY, card, library.size());
+                    library.addFirst(card);
+                });
+            }
         }
         return drawn;
     }
 
+    /**
+     * Deals the hand and library again at random from the cards they hold together, keeping the
+     * hand's size: what another player, who sees neither, has to assume they might be.
+     */
+    public void redealHiddenZones(SplitMixRandom random) {
+        List<CardInstance> cards = new ArrayList<>(hand);
+        cards.addAll(library);
+        random.shuffle(cards);
+        replaceHiddenZones(cards.subList(0, hand.size()), cards.subList(hand.size(), cards.size()));
+    }
+
+    /**
+     * Shuffles the library, which not even this player can see.
+     */
+    public void shuffleLibrary(SplitMixRandom random) {
+        List<CardInstance> cards = new ArrayList<>(library);
+        random.shuffle(cards);
+        replaceHiddenZones(List.copyOf(hand), cards);
+    }
+
     public Optional<CardInstance> findHandCard(String instanceId) {
-        return hand.stream().filter(card -> card.instanceId().equals(instanceId)).findFirst();
+        for (CardInstance card : hand) {
+            if (card.instanceId().equals(instanceId)) {
+                return Optional.of(card);
+            }
+        }
+        return Optional.empty();
     }
 
     public Optional<CardInstance> removeFromHand(String instanceId) {
         Optional<CardInstance> cardOpt = findHandCard(instanceId);
-        cardOpt.ifPresent(hand::remove);
+        cardOpt.ifPresent(card -> {
+            int index = hand.indexOf(card);
+            hand.remove(index);
+            toggleCard(ZobristHash.HAND, card, 0);
+            if (journaling()) {
+                undoLog.record(() -> {
+                    hand.add(index, card);
+                    toggleCard(ZobristHash.HAND, card, 0);
+                });
+            }
+        });
         return cardOpt;
     }
 
@@ -139,8 +267,10 @@ public class PlayerState {
         if (currentSupply < supplyCost || battery < batteryCost) {
             return false;
         }
+        journalScalars();
         currentSupply -= supplyCost;
         battery -= batteryCost;
+        rehashScalars();
         return true;
     }
 
@@ -150,28 +280,159 @@ public class PlayerState {
         }
         CardInstance card = removeFromHand(instanceId)
                 .orElseThrow(() -> new IllegalArgumentException("Card not found in hand: " + instanceId));
-        discardPile.add(card);
+        addToDiscard(card);
+        journalScalars();
         battery += 1;
         batteryConvertedThisTurn = true;
+        rehashScalars();
     }
 
     public void putToDiscard(CardInstance card) {
+        addToDiscard(card);
+    }
+
+    private void addToDiscard(CardInstance card) {
         discardPile.add(card);
+        toggleCard(ZobristHash.DISCARD, card, 0);
+        if (journaling()) {
+            undoLog.record(() -> {
+                discardPile.remove(discardPile.size() - 1);
+                toggleCard(ZobristHash.DISCARD, card, 0);
+            });
+        }
     }
 
     public void applyBaseDamage(int amount) {
         if (amount < 0) {
             throw new IllegalArgumentException("Damage must be >= 0");
         }
+        journalScalars();
         baseHealth = Math.max(0, baseHealth - amount);
+        rehashScalars();
     }
 
     public void setLaneControl(int laneCount) {
+        journalScalars();
         this.controlledLaneCount = Math.max(0, laneCount);
         if (controlledLaneCount == Lane.values().length) {
             fullControlStreak += 1;
         } else {
             fullControlStreak = 0;
         }
+        rehashScalars();
+    }
+
+    /**
+     * Makes this player's resources and zones contribute to {@code hash}, withdrawing them from any
+     * hash they were bound to before. Pass {@code null} to unbind. Hand and discard hash as sets;
+     * the library hashes each card with its distance from the bottom, so draw order counts.
+     */
+    public void bindHash(ZobristHash hash) {
+        if (this.hash != null) {
+            toggleAll();
+        }
+        this.hash = hash;
+        this.hashOwner = ZobristHash.idKey(playerId);
+        if (hash != null) {
+            scalarHashKey = scalarHashKey();
+            toggleAll();
+        }
+    }
+
+    /**
+     * Records the inverse of every later write in {@code undoLog}. Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    private boolean journaling() {
+        return undoLog != null && undoLog.recording();
+    }
+
+    private void journalScalars() {
+        if (!journaling()) {
+            return;
+        }
+        int baseHealth = this.baseHealth;
+        int supplyCap = this.supplyCap;
+        int currentSupply = this.currentSupply;
+        int battery = this.battery;
+        boolean batteryConvertedThisTurn = this.batteryConvertedThisTurn;
+        int controlledLaneCount = this.controlledLaneCount;
+        int fullControlStreak = this.fullControlStreak;
+        undoLog.record(() -> {
+            this.baseHealth = baseHealth;
+            this.supplyCap = supplyCap;
+            this.currentSupply = currentSupply;
+            this.battery = battery;
+            this.batteryConvertedThisTurn = batteryConvertedThisTurn;
+            this.controlledLaneCount = controlledLaneCount;
+            this.fullControlStreak = fullControlStreak;
+            rehashScalars();
+        });
+    }
+
+    private void replaceHiddenZones(List<CardInstance> newHand, List<CardInstance> newLibrary) {
+        if (journaling()) {
+            List<CardInstance> oldHand = List.copyOf(hand);
+            List<CardInstance> oldLibrary = List.copyOf(library);
+            undoLog.record(() -> setHiddenZones(oldHand, oldLibrary));
+        }
+        setHiddenZones(newHand, newLibrary);
+    }
+
+    private void setHiddenZones(List<CardInstance> newHand, List<CardInstance> newLibrary) {
+        toggleHiddenZones();
+        hand.clear();
+        hand.addAll(newHand);
+        library.clear();
+        library.addAll(newLibrary);
+        toggleHiddenZones();
+    }
+
+    private void toggleAll() {
+        hash.toggle(scalarHashKey);
+        for (CardInstance card : discardPile) {
+            toggleCard(ZobristHash.DISCARD, card, 0);
+        }
+        toggleHiddenZones();
+    }
+
+    private void toggleHiddenZones() {
+        for (CardInstance card : hand) {
+            toggleCard(ZobristHash.HAND, card, 0);
+        }
+        int depth = library.size();
+        for (CardInstance card : library) {
+            toggleCard(ZobristHash.LIBRARY, card, --depth);
+        }
+    }
+
+    private void toggleCard(int zone, CardInstance card, int position) {
+        if (hash != null) {
+            // Instance ids follow library order, so the card id is what tells two libraries apart.
+            long cardKey = ZobristHash.chain(ZobristHash.idKey(card.instanceId()), ZobristHash.idKey(card.definition().id()));
+            hash.toggle(ZobristHash.key(zone, hashOwner, ZobristHash.chain(cardKey, position)));
+        }
+    }
+
+    private void rehashScalars() {
+        if (hash == null) {
+            return;
+        }
+        long key = scalarHashKey();
+        hash.replace(scalarHashKey, key);
+        scalarHashKey = key;
+    }
+
+    private long scalarHashKey() {
+        long key = ZobristHash.key(ZobristHash.PLAYER, hashOwner, baseHealth);
+        key = ZobristHash.chain(key, supplyCap);
+        key = ZobristHash.chain(key, currentSupply);
+        key = ZobristHash.chain(key, battery);
+        key = ZobristHash.chain(key, batteryConvertedThisTurn ? 1 : 0);
+        key = ZobristHash.chain(key, controlledLaneCount);
+        return ZobristHash.chain(key, fullControlStreak);
     }
 }
@@ -0,0 +1,38 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+
+import java.util.Map;
+
+/**
+ * Typed payload for the {@code STATUS_REFRESHED} event of a shield recharging at the start of its
+ * owner's turn, which shows as {@code status=SHIELD_RECHARGE}.
+ */
+public record ShieldRechargePayload(
+        String targetInstanceId,
+        int from,
+        int to
+) implements EventPayload {
+    private static final String STATUS = "SHIELD_RECHARGE";
+
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "targetInstanceId" -> targetInstanceId;
+            case "status" -> STATUS;
+            case "from" -> from;
+            case "to" -> to;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return Map.of(
+                "targetInstanceId", targetInstanceId,
+                "status", STATUS,
+                "from", from,
+                "to", to
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+
+import java.util.Map;
+
+/**
+ * Typed payload for the supply step of a turn: the new cap for {@code SUPPLY_CAP_INCREASED}, the
+ * refilled supply for {@code SUPPLY_REFILLED}.
+ */
+public record SupplyEventPayload(
+        EventType stage,
+        int supply
+) implements EventPayload {
+    public static SupplyEventPayload capIncreased(int supplyCap) {
+        return new SupplyEventPayload(EventType.SUPPLY_CAP_INCREASED, supplyCap);
+    }
+
+    public static SupplyEventPayload refilled(int currentSupply) {
+        return new SupplyEventPayload(EventType.SUPPLY_REFILLED, currentSupply);
+    }
+
+    private String key() {
+        return stage == EventType.SUPPLY_CAP_INCREASED ? "supplyCap" : "currentSupply";
+    }
+
+    @Override
+    public Object get(String key) {
+        return key().equals(key) ? supply : null;
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return Map.of(key(), supply);
+    }
+}
@@ -0,0 +1,191 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.undo.UndoLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seat-indexed ally and opponent tables for one match, compiled from the turn order and team
+ * assignment when the match starts. Seat {@code i} is {@code turnOrder.get(i)}; masks have bit
+ * {@code i} set for that seat. Queries do not allocate.
+ *
+ * <p>Membership never changes during a match, so eliminated players stay in ally and opponent
+ * lists; the alive masks are what track elimination.
+ */
+public class TeamRelations {
+    private final List<String> seats;
+    private final Map<String, Integer> seatByPlayer = new HashMap<>();
+    private final String[] teamBySeat;
+    private final long[] allyMask;
+    private final long[] opponentMask;
+    private final List<List<String>> alliesBySeat;
+    private final List<List<String>> opponentsBySeat;
+    private final Map<String, List<String>> alliesByTeam = new LinkedHashMap<>();
+    private long eliminatedMask;
+    private UndoLog undoLog;
+
+    public TeamRelations(List<String> turnOrder, GameMode gameMode, Map<String, String> teamByPlayer) {
+        if (turnOrder.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " players are supported");
+        }
+        this.seats = List.copyOf(turnOrder);
+        int seatCount = seats.size();
+        this.teamBySeat = new String[seatCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            String playerId = seats.get(seat);
+            if (seatByPlayer.put(playerId, seat) != null) {
+                throw new IllegalArgumentException("Duplicate player in turn order: " + playerId);
+            }
+            teamBySeat[seat] = teamByPlayer.getOrDefault(playerId, playerId);
+        }
+
+        this.allyMask = new long[seatCount];
+        this.opponentMask = new long[seatCount];
+        for (int seat = 0; seat < seatCount; seat++) {
+            for (int other = 0; other < seatCount; other++) {
+                boolean sameTeam = teamBySeat[seat].equals(teamBySeat[other]);
+                if (sameTeam) {
+                    allyMask[seat] |= 1L << other;
+                }
+                boolean opponent = seat != other && (gameMode != GameMode.TEAM_2V2 || !sameTeam);
+                if (opponent) {
+                    opponentMask[seat] |= 1L << other;
+                }
+            }
+        }
+
+        this.alliesBySeat = new ArrayList<>(seatCount);
+        this.opponentsBySeat = new ArrayList<>(seatCount);
+        for (int seat = 0; seat < seatCount; seat++) {
+            List<String> allies = playersIn(allyMask[seat]);
+            alliesBySeat.add(allies);
+            opponentsBySeat.add(playersIn(opponentMask[seat]));
+            alliesByTeam.putIfAbsent(teamBySeat[seat], allies);
+        }
+    }
+
+    private TeamRelations(TeamRelations source) {
+        this.seats = source.seats;
+        this.seatByPlayer.putAll(source.seatByPlayer);
+        this.teamBySeat = source.teamBySeat;
+        this.allyMask = source.allyMask;
+        this.opponentMask = source.opponentMask;
+        this.alliesBySeat = source.alliesBySeat;
+        this.opponentsBySeat = source.opponentsBySeat;
+        this.alliesByTeam.putAll(source.alliesByTeam);
+        this.eliminatedMask = source.eliminatedMask;
+    }
+
+    /**
+     * Independent copy for a forked match. The membership tables never change, so they are shared;
+     * only the elimination state is copied.
+     */
+    public TeamRelations copy() {
+        return new TeamRelations(this);
+    }
+
+    public int seatCount() {
+        return seats.size();
+    }
+
+    public int seatOf(String playerId) {
+        Integer seat = seatByPlayer.get(playerId);
+        if (seat == null) {
+            throw new IllegalArgumentException("Unknown player: " + playerId);
+        }
+        return seat;
+    }
+
+    /**
+     * Team id of a player; players without a team assignment are a team of their own.
+     */
+    public String teamOf(String playerId) {
+        Integer seat = seatByPlayer.get(playerId);
+        return seat == null ? playerId : teamBySeat[seat];
+    }
+
+    public boolean areOpponents(String playerA, String playerB) {
+        Integer seatA = seatByPlayer.get(playerA);
+        Integer seatB = seatByPlayer.get(playerB);
+        if (seatA == null || seatB == null) {
+            return false;
+        }
+        return (opponentMask[seatA] & (1L << seatB)) != 0;
+    }
+
+    /**
+     * The player's team, the player included, in turn order.
+     */
+    public List<String> alliesOf(String playerId) {
+        return alliesBySeat.get(seatOf(playerId));
+    }
+
+    public List<String> alliesOfTeam(String teamId) {
+        return alliesByTeam.getOrDefault(teamId, List.of());
+    }
+
+    /**
+     * Everyone the player may attack, in turn order: all other players, or other teams in team modes.
+     */
+    public List<String> opponentsOf(String playerId) {
+        return opponentsBySeat.get(seatOf(playerId));
+    }
+
+    public long allyMask(String playerId) {
+        return allyMask[seatOf(playerId)];
+    }
+
+    public long opponentMask(String playerId) {
+        return opponentMask[seatOf(playerId)];
+    }
+
+    public void markEliminated(String playerId) {
+        long previous = eliminatedMask;
+        eliminatedMask |= 1L << seatOf(playerId);
+        if (undoLog != null && undoLog.recording()) {
+            undoLog.record(() -> eliminatedMask = previous);
+        }
+    }
+
+    /**
+     * Records the inverse of every later elimination in {@code undoLog}. Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    public boolean isEliminated(String playerId) {
+        return (eliminatedMask & (1L << seatOf(playerId))) != 0;
+    }
+
+    public long aliveMask() {
+        long all = seats.size() == Long.SIZE ? -1L : (1L << seats.size()) - 1;
+        return all & ~eliminatedMask;
+    }
+
+    /**
+     * Number of teams with at least one player not yet eliminated.
+     */
+    public int aliveTeamCount() {
+        long remaining = aliveMask();
+        int teams = 0;
+        while (remaining != 0) {
+            int seat = Long.numberOfTrailingZeros(remaining);
+            remaining &= ~allyMask[seat];
+            teams++;
+        }
+        return teams;
+    }
+
+    private List<String> playersIn(long mask) {
+        List<String> players = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            players.add(seats.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        return List.copyOf(players);
+    }
+}
@@ -0,0 +1,64 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed payload for turn and round boundaries. {@code TURN_STARTED} carries both indexes,
+ * {@code TURN_ENDED} the turn index and the round events the round index; the other field is left out
+ * of the {@link #asMap()} view.
+ */
+public record TurnEventPayload(
+        EventType stage,
+        int globalTurnIndex,
+        int roundIndex
+) implements EventPayload {
+    public static TurnEventPayload turnStarted(int globalTurnIndex, int roundIndex) {
+        return new TurnEventPayload(EventType.TURN_STARTED, globalTurnIndex, roundIndex);
+    }
+
+    public static TurnEventPayload turnEnded(int globalTurnIndex, int roundIndex) {
+        return new TurnEventPayload(EventType.TURN_ENDED, globalTurnIndex, roundIndex);
+    }
+
+    public static TurnEventPayload roundStarted(int globalTurnIndex, int roundIndex) {
+        return new TurnEventPayload(EventType.ROUND_STARTED, globalTurnIndex, roundIndex);
+    }
+
+    public static TurnEventPayload roundEnded(int globalTurnIndex, int roundIndex) {
+        return new TurnEventPayload(EventType.ROUND_ENDED, globalTurnIndex, roundIndex);
+    }
+
+    private boolean hasTurn() {
+        return stage == EventType.TURN_STARTED || stage == EventType.TURN_ENDED;
+    }
+
+    private boolean hasRound() {
+        return stage != EventType.TURN_ENDED;
+    }
+
+    @Override
+    public Object get(String key) {
+        return switch (key) {
+            case "globalTurnIndex" -> hasTurn() ? globalTurnIndex : null;
+            case "roundIndex" -> hasRound() ? roundIndex : null;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (hasTurn()) {
+            map.put("globalTurnIndex", globalTurnIndex);
+        }
+        if (hasRound()) {
+            map.put("roundIndex", roundIndex);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -1,5 +1,8 @@
 package com.haloce.tcg.game;
 
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
+
 public class UnitStatus {
     private int summonedTurnIndex = -1;
     private int plasmaTaggedTurnIndex = -1;
@@ -10,13 +13,56 @@ public class UnitStatus {
     private int cannotAttackUntilTurn = -1;
     private int cannotMoveUntilTurn = -1;
     private boolean hasCamoThisTurn;
+    private ZobristHash hash;
+    private long hashOwner;
+    private long hashKey;
+    private UndoLog undoLog;
+
+    /**
+     * Copy of every field, not bound to any hash.
+     */
+    public UnitStatus copy() {
+        UnitStatus copy = new UnitStatus();
+        copy.summonedTurnIndex = summonedTurnIndex;
+        copy.plasmaTaggedTurnIndex = plasmaTaggedTurnIndex;
+        copy.noobComboTriggeredTurnIndex = noobComboTriggeredTurnIndex;
+        copy.attackedTurnIndex = attackedTurnIndex;
+        copy.damagedTurnIndex = damagedTurnIndex;
+        copy.damagedByPlayerId = damagedByPlayerId;
+        copy.cannotAttackUntilTurn = cannotAttackUntilTurn;
+        copy.cannotMoveUntilTurn = cannotMoveUntilTurn;
+        copy.hasCamoThisTurn = hasCamoThisTurn;
+        return copy;
+    }
+
+    GameStateData.Status data(int handle) {
+        return new GameStateData.Status(handle, summonedTurnIndex, plasmaTaggedTurnIndex, noobComboTriggeredTurnIndex,
+                attackedTurnIndex, damagedTurnIndex, damagedByPlayerId, cannotAttackUntilTurn, cannotMoveUntilTurn,
+                hasCamoThisTurn);
+    }
+
+    static UnitStatus restore(GameStateData.Status data) {
+        UnitStatus status = new UnitStatus();
+        status.summonedTurnIndex = data.summonedTurnIndex();
+        status.plasmaTaggedTurnIndex = data.plasmaTaggedTurnIndex();
+        status.noobComboTriggeredTurnIndex = data.noobComboTriggeredTurnIndex();
+        status.attackedTurnIndex = data.attackedTurnIndex();
+        status.damagedTurnIndex = data.damagedTurnIndex();
+        status.damagedByPlayerId = data.damagedByPlayerId();
+        status.cannotAttackUntilTurn = data.cannotAttackUntilTurn();
+        status.cannotMoveUntilTurn = data.cannotMoveUntilTurn();
+        status.hasCamoThisTurn = data.hasCamoThisTurn();
+        return status;
+    }
 
     public int summonedTurnIndex() {
         return summonedTurnIndex;
     }
 
     public void setSummonedTurnIndex(int summonedTurnIndex) {
+        journal();
         this.summonedTurnIndex = summonedTurnIndex;
+        rehash();
     }
 
     public int plasmaTaggedTurnIndex() {
@@ -24,7 +70,9 @@ public class UnitStatus {
     }
 
     public void setPlasmaTaggedTurnIndex(int plasmaTaggedTurnIndex) {
+        journal();
         this.plasmaTaggedTurnIndex = plasmaTaggedTurnIndex;
+        rehash();
     }
 
     public int noobComboTriggeredTurnIndex() {
@@ -32,7 +80,9 @@ public class UnitStatus {
     }
 
     public void setNoobComboTriggeredTurnIndex(int noobComboTriggeredTurnIndex) {
+        journal();
         this.noobComboTriggeredTurnIndex = noobComboTriggeredTurnIndex;
+        rehash();
     }
 
     public int attackedTurnIndex() {
@@ -40,7 +90,9 @@ public class UnitStatus {
     }
 
     public void setAttackedTurnIndex(int attackedTurnIndex) {
+        journal();
         this.attackedTurnIndex = attackedTurnIndex;
+        rehash();
     }
 
     public int damagedTurnIndex() {
@@ -52,8 +104,10 @@ public class UnitStatus {
     }
 
     public void markDamaged(int turnIndex, String byPlayerId) {
+        journal();
         this.damagedTurnIndex = turnIndex;
         this.damagedByPlayerId = byPlayerId;
+        rehash();
     }
 
     public int cannotAttackUntilTurn() {
@@ -61,7 +115,9 @@ public class UnitStatus {
     }
 
     public void setCannotAttackUntilTurn(int cannotAttackUntilTurn) {
+        journal();
         this.cannotAttackUntilTurn = cannotAttackUntilTurn;
+        rehash();
     }
 
     public int cannotMoveUntilTurn() {
@@ -69,7 +125,9 @@ public class UnitStatus {
     }
 
     public void setCannotMoveUntilTurn(int cannotMoveUntilTurn) {
+        journal();
         this.cannotMoveUntilTurn = cannotMoveUntilTurn;
+        rehash();
     }
 
     public boolean hasCamoThisTurn() {
@@ -77,7 +135,51 @@ public class UnitStatus {
     }
 
     public void setHasCamoThisTurn(boolean hasCamoThisTurn) {
+        journal();
         this.hasCamoThisTurn = hasCamoThisTurn;
+        rehash();
+    }
+
+    /**
+     * Makes this status contribute to {@code hash} under {@code owner}, withdrawing it from any hash
+     * it was bound to before. Pass {@code null} to unbind.
+     */
+    public void bindHash(ZobristHash hash, long owner) {
+        if (this.hash != null) {
+            this.hash.toggle(hashKey);
+        }
+        this.hash = hash;
+        this.hashOwner = owner;
+        if (hash != null) {
+            hashKey = computeHashKey();
+            hash.toggle(hashKey);
+        }
+    }
+
+    /**
+     * Records the inverse of every later write in {@code undoLog}. Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+    }
+
+    private void journal() {
+        if (undoLog == null || !undoLog.recording()) {
+            return;
+        }
+        UnitStatus before = copy();
+        undoLog.record(() -> {
+            summonedTurnIndex = before.summonedTurnIndex;
+            plasmaTaggedTurnIndex = before.plasmaTaggedTurnIndex;
+            noobComboTriggeredTurnIndex = before.noobComboTriggeredTurnIndex;
+            attackedTurnIndex = before.attackedTurnIndex;
+            damagedTurnIndex = before.damagedTurnIndex;
+            damagedByPlayerId = before.damagedByPlayerId;
+            cannotAttackUntilTurn = before.cannotAttackUntilTurn;
+            cannotMoveUntilTurn = before.cannotMoveUntilTurn;
+            hasCamoThisTurn = before.hasCamoThisTurn;
+            rehash();
+        });
     }
 
     public boolean damagedLastOpponentTurn(String ownerPlayerId, int currentTurnIndex) {
@@ -85,4 +187,31 @@ public class UnitStatus {
                 && damagedByPlayerId != null
                 && !damagedByPlayerId.equals(ownerPlayerId);
     }
+
+    private void rehash() {
+        if (hash == null) {
+            return;
+        }
+        long key = computeHashKey();
+        hash.replace(hashKey, key);
+        hashKey = key;
+    }
+
+    // A status nobody has written yet hashes to 0, so creating one on first lookup does not change the hash.
+    private long computeHashKey() {
+        if (summonedTurnIndex == -1 && plasmaTaggedTurnIndex == -1 && noobComboTriggeredTurnIndex == -1
+                && attackedTurnIndex == -1 && damagedTurnIndex == -1 && damagedByPlayerId == null
+                && cannotAttackUntilTurn == -1 && cannotMoveUntilTurn == -1 && !hasCamoThisTurn) {
+            return 0L;
+        }
+        long key = ZobristHash.key(ZobristHash.STATUS, hashOwner, summonedTurnIndex);
+        key = ZobristHash.chain(key, plasmaTaggedTurnIndex);
+        key = ZobristHash.chain(key, noobComboTriggeredTurnIndex);
+        key = ZobristHash.chain(key, attackedTurnIndex);
+        key = ZobristHash.chain(key, damagedTurnIndex);
+        key = ZobristHash.chain(key, ZobristHash.idKey(damagedByPlayerId));
+        key = ZobristHash.chain(key, cannotAttackUntilTurn);
+        key = ZobristHash.chain(key, cannotMoveUntilTurn);
+        return ZobristHash.chain(key, hasCamoThisTurn ? 1 : 0);
+    }
 }
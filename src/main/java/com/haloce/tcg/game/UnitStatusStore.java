@@ -1,20 +1,148 @@
 package com.haloce.tcg.game;
 
-import java.util.HashMap;
-import java.util.Map;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.UndoLog;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-unit statuses, indexed by {@link CardInstance#handle()}.
+ */
 public class UnitStatusStore {
-    private final Map<String, UnitStatus> statuses = new HashMap<>();
+    private UnitStatus[] statusesByHandle = new UnitStatus[64];
+    private ZobristHash hash;
+    private UndoLog undoLog;
+
+    /**
+     * Independent copy of every status, not bound to any hash.
+     */
+    public UnitStatusStore copy() {
+        UnitStatusStore copy = new UnitStatusStore();
+        copy.statusesByHandle = new UnitStatus[statusesByHandle.length];
+        for (int handle = 0; handle < statusesByHandle.length; handle++) {
+            if (statusesByHandle[handle] != null) {
+                copy.statusesByHandle[handle] = statusesByHandle[handle].copy();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Every status by handle, for {@link GameStateData}.
+     */
+    public List<GameStateData.Status> data() {
+        List<GameStateData.Status> statuses = new ArrayList<>();
+        for (int handle = 0; handle < statusesByHandle.length; handle++) {
+            if (statusesByHandle[handle] != null) {
+                statuses.add(statusesByHandle[handle].data(handle));
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Store rebuilt from {@link #data()}, not bound to any hash.
+     */
+    public static UnitStatusStore restore(List<GameStateData.Status> statuses) {
+        UnitStatusStore store = new UnitStatusStore();
+        for (GameStateData.Status status : statuses) {
+            int handle = status.handle();
+            if (handle >= store.statusesByHandle.length) {
+                store.statusesByHandle = Arrays.copyOf(store.statusesByHandle,
+                        Math.max(handle + 1, store.statusesByHandle.length * 2));
+            }
+            store.statusesByHandle[handle] = UnitStatus.restore(status);
+        }
+        return store;
+    }
+
+    public UnitStatus getOrCreate(CardInstance unit) {
+        int handle = unit.handle();
+        if (handle >= statusesByHandle.length) {
+            statusesByHandle = Arrays.copyOf(statusesByHandle, Math.max(handle + 1, statusesByHandle.length * 2));
+        }
+        UnitStatus status = statusesByHandle[handle];
+        if (status == null) {
+            status = newStatus(handle);
+            statusesByHandle[handle] = status;
+        }
+        return status;
+    }
+
+    public UnitStatus get(CardInstance unit) {
+        int handle = unit.handle();
+        return handle < statusesByHandle.length ? statusesByHandle[handle] : null;
+    }
+
+    public void remove(CardInstance unit) {
+        remove(unit.handle());
+    }
+
+    /**
+     * Records the inverse of every later creation, removal and status write in {@code undoLog}.
+     * Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+        for (UnitStatus status : statusesByHandle) {
+            if (status != null) {
+                status.bindUndoLog(undoLog);
+            }
+        }
+    }
+
+    /**
+     * Makes every status, existing or created later, contribute to {@code hash} until it is removed.
+     */
+    public void bindHash(ZobristHash hash) {
+        this.hash = hash;
+        for (int handle = 0; handle < statusesByHandle.length; handle++) {
+            if (statusesByHandle[handle] != null) {
+                statusesByHandle[handle].bindHash(hash, hashKey(handle));
+            }
+        }
+    }
+
+    private void remove(int handle) {
+        if (handle >= statusesByHandle.length || statusesByHandle[handle] == null) {
+            return;
+        }
+        UnitStatus removed = statusesByHandle[handle];
+        statusesByHandle[handle] = null;
+        removed.bindHash(null, 0L);
+        removed.bindUndoLog(null);
+        journal(() -> put(handle, removed));
+    }
+
+    private UnitStatus newStatus(int handle) {
+        UnitStatus status = new UnitStatus();
+        if (hash != null) {
+            status.bindHash(hash, hashKey(handle));
+        }
+        status.bindUndoLog(undoLog);
+        journal(() -> remove(handle));
+        return status;
+    }
 
-    public UnitStatus getOrCreate(String instanceId) {
-        return statuses.computeIfAbsent(instanceId, key -> new UnitStatus());
+    private void put(int handle, UnitStatus status) {
+        statusesByHandle[handle] = status;
+        if (hash != null) {
+            status.bindHash(hash, hashKey(handle));
+        }
+        status.bindUndoLog(undoLog);
     }
 
-    public UnitStatus get(String instanceId) {
-        return statuses.get(instanceId);
+    private static long hashKey(int handle) {
+        return ZobristHash.idKey(InstanceHandleAllocator.instanceId(handle));
     }
 
-    public void remove(String instanceId) {
-        statuses.remove(instanceId);
+    private void journal(Runnable inverse) {
+        if (undoLog != null && undoLog.recording()) {
+            undoLog.record(inverse);
+        }
     }
 }
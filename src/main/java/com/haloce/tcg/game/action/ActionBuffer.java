@@ -0,0 +1,151 @@
+package com.haloce.tcg.game.action;
+
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.game.GameRow;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.Lane;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of actions filled by {@link ActionGenerator}, stored as parallel arrays so a search
+ * loop can regenerate into the same buffer without allocating. Entries hold references into the
+ * state they were generated from and are only meaningful until that state changes.
+ */
+public class ActionBuffer {
+    private static final int INITIAL_CAPACITY = 32;
+
+    private ActionType[] types = new ActionType[INITIAL_CAPACITY];
+    private CardInstance[] cards = new CardInstance[INITIAL_CAPACITY];
+    private CardInstance[] targets = new CardInstance[INITIAL_CAPACITY];
+    private String[] targetPlayerIds = new String[INITIAL_CAPACITY];
+    private Lane[] lanes = new Lane[INITIAL_CAPACITY];
+    private GameRow[] rows = new GameRow[INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        // Drop references so a buffer kept between games does not pin old states.
+        Arrays.fill(cards, 0, size, null);
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(targetPlayerIds, 0, size, null);
+        size = 0;
+    }
+
+    public ActionType type(int index) {
+        checkIndex(index);
+        return types[index];
+    }
+
+    /**
+     * Card the action is taken with: the hand card for {@code DEPLOY} and {@code CONVERT_TO_BATTERY},
+     * the attacker or hijacker otherwise; {@code null} for phase actions.
+     */
+    public CardInstance card(int index) {
+        checkIndex(index);
+        return cards[index];
+    }
+
+    /**
+     * Defending unit for {@code ATTACK_UNIT}, vehicle for {@code HIJACK}; {@code null} otherwise.
+     */
+    public CardInstance target(int index) {
+        checkIndex(index);
+        return targets[index];
+    }
+
+    /**
+     * Player whose base is attacked for {@code ATTACK_BASE}; {@code null} otherwise.
+     */
+    public String targetPlayerId(int index) {
+        checkIndex(index);
+        return targetPlayerIds[index];
+    }
+
+    /**
+     * Destination lane for {@code DEPLOY}; {@code null} otherwise.
+     */
+    public Lane lane(int index) {
+        checkIndex(index);
+        return lanes[index];
+    }
+
+    /**
+     * Destination row for {@code DEPLOY}; {@code null} otherwise.
+     */
+    public GameRow row(int index) {
+        checkIndex(index);
+        return rows[index];
+    }
+
+    /**
+     * Performs the action on {@code game}, which must be the state it was generated from or a
+     * {@link GameStateManager#fork() fork} of it taken before anything else changed.
+     */
+    public void apply(int index, GameStateManager game) {
+        checkIndex(index);
+        switch (types[index]) {
+            case DEPLOY -> game.deployUnitFromHand(game.activePlayerId(), cards[index].instanceId(), lanes[index], rows[index]);
+            case CONVERT_TO_BATTERY -> game.convertToBattery(game.activePlayerId(), cards[index].instanceId());
+            case HIJACK -> game.hijackVehicle(cards[index].instanceId(), targets[index].instanceId());
+            case ATTACK_UNIT -> game.declareAttack(cards[index].instanceId(), targets[index].instanceId());
+            case ATTACK_BASE -> game.attackBase(cards[index].instanceId(), targetPlayerIds[index]);
+            case ADVANCE_PHASE -> game.advancePhase();
+            case END_TURN -> game.endTurn();
+        }
+    }
+
+    public String describe(int index) {
+        checkIndex(index);
+        StringBuilder text = new StringBuilder(types[index].name());
+        if (cards[index] != null) {
+            text.append(' ').append(cards[index].instanceId());
+        }
+        if (targets[index] != null) {
+            text.append(" -> ").append(targets[index].instanceId());
+        }
+        if (targetPlayerIds[index] != null) {
+            text.append(" -> base ").append(targetPlayerIds[index]);
+        }
+        if (lanes[index] != null) {
+            text.append(' ').append(lanes[index]).append('/').append(rows[index]);
+        }
+        return text.toString();
+    }
+
+    void add(ActionType type, CardInstance card, CardInstance target, String targetPlayerId, Lane lane, GameRow row) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        cards[size] = card;
+        targets[size] = target;
+        targetPlayerIds[size] = targetPlayerId;
+        lanes[size] = lane;
+        rows[size] = row;
+        size++;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        cards = Arrays.copyOf(cards, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        targetPlayerIds = Arrays.copyOf(targetPlayerIds, capacity);
+        lanes = Arrays.copyOf(lanes, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+}
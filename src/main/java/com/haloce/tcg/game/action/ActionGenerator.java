@@ -0,0 +1,198 @@
+package com.haloce.tcg.game.action;
+
+import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.model.Keyword;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.CompiledCard;
+import com.haloce.tcg.game.BattlefieldState;
+import com.haloce.tcg.game.GameRow;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.LaneBoardState;
+import com.haloce.tcg.game.LaneState;
+import com.haloce.tcg.game.PlayerState;
+import com.haloce.tcg.game.TeamRelations;
+import com.haloce.tcg.game.UnitStatus;
+
+import java.util.List;
+
+/**
+ * Enumerates every action the active player may legally take, applying the same checks as the
+ * deployment and combat handlers: phase, supply and battery, row capacity, the RANGED rule for
+ * backline targets, one attack per unit per turn and summoning sickness. Every generated action
+ * succeeds when applied to the state it was generated from.
+ *
+ * <p>Generation reads the live board and hand views and only allocates when the buffer grows.
+ * Hijacks are only offered with 2 supply available, since a successful attempt spends it.
+ */
+public class ActionGenerator {
+    private static final Lane[] LANES = Lane.values();
+    private static final GameRow[] ROWS = GameRow.values();
+    private static final int HIJACK_SUPPLY_COST = 2;
+    private static final int MAX_SQUAD_BONUS = 2;
+
+    /**
+     * Replaces the contents of {@code out} with the legal actions in {@code game}.
+     *
+     * @return number of actions generated; 0 once the match is not running
+     */
+    public int generate(GameStateManager game, ActionBuffer out) {
+        out.clear();
+        if (game.status() != GameStatus.RUNNING) {
+            return 0;
+        }
+        String playerId = game.activePlayerId();
+        PlayerState player = game.player(playerId);
+        switch (game.phase()) {
+            case DEPLOYMENT -> {
+                addDeployments(game, playerId, player, out);
+                addBatteryConversions(player, out);
+                addHijacks(game, playerId, player, out);
+                out.add(ActionType.ADVANCE_PHASE, null, null, null, null, null);
+            }
+            case SKIRMISH -> {
+                addBatteryConversions(player, out);
+                addHijacks(game, playerId, player, out);
+                addAttacks(game, playerId, out);
+                out.add(ActionType.ADVANCE_PHASE, null, null, null, null, null);
+            }
+            case ENDSTEP -> out.add(ActionType.END_TURN, null, null, null, null, null);
+            case DRAW_RECHARGE -> {
+                // Resolved automatically at turn start; never observable between calls.
+            }
+        }
+        return out.size();
+    }
+
+    private void addDeployments(GameStateManager game, String playerId, PlayerState player, ActionBuffer out) {
+        BattlefieldState battlefield = game.battlefield();
+        List<CardInstance> hand = player.handView();
+        for (int i = 0; i < hand.size(); i++) {
+            CardInstance card = hand.get(i);
+            CompiledCard compiled = card.card();
+            CardType type = card.definition().cardType();
+            if (type != CardType.UNIT && type != CardType.TOKEN) {
+                continue;
+            }
+            if (compiled.supplyCost() > player.currentSupply() || compiled.batteryCost() > player.battery()) {
+                continue;
+            }
+            for (Lane lane : LANES) {
+                for (GameRow row : ROWS) {
+                    if (battlefield.hasSpace(lane, playerId, row)) {
+                        out.add(ActionType.DEPLOY, card, null, null, lane, row);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addBatteryConversions(PlayerState player, ActionBuffer out) {
+        if (player.batteryConvertedThisTurn()) {
+            return;
+        }
+        List<CardInstance> hand = player.handView();
+        for (int i = 0; i < hand.size(); i++) {
+            out.add(ActionType.CONVERT_TO_BATTERY, hand.get(i), null, null, null, null);
+        }
+    }
+
+    private void addHijacks(GameStateManager game, String playerId, PlayerState player, ActionBuffer out) {
+        if (player.currentSupply() < HIJACK_SUPPLY_COST) {
+            return;
+        }
+        List<String> opponents = game.teamRelations().opponentsOf(playerId);
+        for (Lane lane : LANES) {
+            LaneState laneState = game.battlefield().lane(lane);
+            LaneBoardState own = laneState.side(playerId);
+            List<CardInstance> units = own.unitsView();
+            for (int i = 0; i < units.size(); i++) {
+                CardInstance hijacker = units.get(i);
+                if (!hijacker.card().hasKeyword(Keyword.HIJACK)) {
+                    continue;
+                }
+                for (int o = 0; o < opponents.size(); o++) {
+                    LaneBoardState side = laneState.side(opponents.get(o));
+                    if (own.hasSpace(GameRow.FRONTLINE)) {
+                        addHijackTargets(hijacker, side.frontline(), out);
+                    }
+                    if (own.hasSpace(GameRow.BACKLINE)) {
+                        addHijackTargets(hijacker, side.backline(), out);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addHijackTargets(CardInstance hijacker, List<CardInstance> row, ActionBuffer out) {
+        for (int i = 0; i < row.size(); i++) {
+            CardInstance target = row.get(i);
+            if (target.card().isVehicle()) {
+                out.add(ActionType.HIJACK, hijacker, target, null, null, null);
+            }
+        }
+    }
+
+    private void addAttacks(GameStateManager game, String playerId, ActionBuffer out) {
+        TeamRelations teamRelations = game.teamRelations();
+        List<String> opponents = teamRelations.opponentsOf(playerId);
+        int turn = game.globalTurnIndex();
+        for (Lane lane : LANES) {
+            LaneState laneState = game.battlefield().lane(lane);
+            List<CardInstance> units = laneState.unitsView(playerId);
+            int infantry = 0;
+            for (int i = 0; i < units.size(); i++) {
+                if (units.get(i).card().isInfantry()) {
+                    infantry++;
+                }
+            }
+            for (int i = 0; i < units.size(); i++) {
+                CardInstance attacker = units.get(i);
+                CompiledCard compiled = attacker.card();
+                if (game.hasAttackedThisTurn(attacker.instanceId()) || !canAttack(game.findUnitStatus(attacker), compiled, turn)) {
+                    continue;
+                }
+                int baseAttack = compiled.attack();
+                int unitAttack = baseAttack;
+                if (compiled.hasKeyword(Keyword.SQUAD) && compiled.isInfantry()) {
+                    unitAttack += Math.min(MAX_SQUAD_BONUS, infantry - 1);
+                }
+                boolean ranged = compiled.hasKeyword(Keyword.RANGED);
+                for (int o = 0; o < opponents.size(); o++) {
+                    String opponentId = opponents.get(o);
+                    if (unitAttack > 0) {
+                        LaneBoardState side = laneState.side(opponentId);
+                        addAttackTargets(attacker, side.frontline(), out);
+                        if (ranged || side.frontlineCount() == 0) {
+                            addAttackTargets(attacker, side.backline(), out);
+                        }
+                    }
+                    if (baseAttack > 0 && game.battlefield().laneUnitCount(lane, teamRelations.alliesOf(opponentId)) == 0) {
+                        out.add(ActionType.ATTACK_BASE, attacker, null, opponentId, null, null);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addAttackTargets(CardInstance attacker, List<CardInstance> row, ActionBuffer out) {
+        for (int i = 0; i < row.size(); i++) {
+            CardInstance defender = row.get(i);
+            // Only units with stats have combat state to take damage.
+            if (defender.card().hasStats()) {
+                out.add(ActionType.ATTACK_UNIT, attacker, defender, null, null, null);
+            }
+        }
+    }
+
+    private static boolean canAttack(UnitStatus status, CompiledCard card, int turn) {
+        if (status == null) {
+            return true;
+        }
+        if (status.summonedTurnIndex() == turn && !card.hasKeyword(Keyword.DROP_POD)) {
+            return false;
+        }
+        return status.cannotAttackUntilTurn() < turn;
+    }
+}
@@ -0,0 +1,14 @@
+package com.haloce.tcg.game.action;
+
+/**
+ * Kinds of action the active player can take; each maps to one {@link com.haloce.tcg.game.GameStateManager} call.
+ */
+public enum ActionType {
+    DEPLOY,
+    CONVERT_TO_BATTERY,
+    HIJACK,
+    ATTACK_UNIT,
+    ATTACK_BASE,
+    ADVANCE_PHASE,
+    END_TURN
+}
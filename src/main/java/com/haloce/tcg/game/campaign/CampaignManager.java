@@ -1,9 +1,20 @@
 package com.haloce.tcg.game.campaign;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.haloce.tcg.core.random.MatchRandom;
+import com.haloce.tcg.core.undo.UndoLog;
 import com.haloce.tcg.game.GameStateManager;
 import com.haloce.tcg.game.Lane;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -11,39 +22,55 @@ import java.util.Map;
  * Tracks Story Objectives, Turn Limits, and Scripted Events.
  */
 public class CampaignManager {
+    // Reads and writes the managers' fields directly, so they need no getters or annotations.
+    private static final ObjectMapper STATE_MAPPER = JsonMapper.builder()
+            .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .defaultMergeable(true)
+            .build();
+
     private final GameStateManager game;
-    private final PopulationManager p1Pop;
+    // Not final: rolling back an undo mark swaps in the snapshot taken when campaign state was first
+    // touched under that mark.
+    private PopulationManager p1Pop;
     @SuppressWarnings("unused")
-    private final PopulationManager p2Pop;
+    private PopulationManager p2Pop;
     private final Map<String, FactoryLogic> factories = new HashMap<>(); // Key: sourceInstanceId
     @SuppressWarnings("unused")
-    private final OrbitalManager orbital = new OrbitalManager();
-    private final CovenantDeployManager covenantDeployManager = new CovenantDeployManager();
-    private final CovenantZealotryManager covenantZealotryManager = new CovenantZealotryManager();
-    private final CovenantFaithManager covenantFaithManager = new CovenantFaithManager();
-    private final CovenantWeaponManager covenantWeaponManager = new CovenantWeaponManager();
-    private final CovenantOrbitalDominanceManager covenantOrbitalDominanceManager = new CovenantOrbitalDominanceManager();
-    private final UNSCTacticalProtocol unscTacticalProtocol = new UNSCTacticalProtocol();
-    private final UNSCDropPodManager unscDropPodManager = new UNSCDropPodManager();
-    private final UNSCSalvageManager unscSalvageManager = new UNSCSalvageManager();
-    private final SpartanHeroManager spartanHeroManager = new SpartanHeroManager();
-    private final UNSCTacticalProtocolExecutor unscProtocolExecutor = new UNSCTacticalProtocolExecutor();
+    private OrbitalManager orbital;
+    private CovenantDeployManager covenantDeployManager;
+    private CovenantZealotryManager covenantZealotryManager;
+    private CovenantFaithManager covenantFaithManager;
+    private CovenantWeaponManager covenantWeaponManager;
+    private CovenantOrbitalDominanceManager covenantOrbitalDominanceManager;
+    private UNSCTacticalProtocol unscTacticalProtocol;
+    private UNSCDropPodManager unscDropPodManager;
+    private UNSCSalvageManager unscSalvageManager;
+    private SpartanHeroManager spartanHeroManager;
+    private UNSCTacticalProtocolExecutor unscProtocolExecutor;
     
     // Forerunner Campaign Managers - 先行者系统
-    private final ForerunnerVacuumEnergyManager forerunnerVacuumEnergy = new ForerunnerVacuumEnergyManager();
-    private final ForerunnerSentinelNetworkManager forerunnerSentinelNetwork = new ForerunnerSentinelNetworkManager();
-    private final ForerunnerPrometheanManager forerunnerPromethean = new ForerunnerPrometheanManager();
-    private final ForerunnerHaloArrayManager forerunnerHaloArray = new ForerunnerHaloArrayManager();
-    private final ForerunnerSlipspaceManager forerunnerSlipspace = new ForerunnerSlipspaceManager();
-    private final ForerunnerHardlightWeaponManager forerunnerHardlight = new ForerunnerHardlightWeaponManager();
+    private ForerunnerVacuumEnergyManager forerunnerVacuumEnergy;
+    private ForerunnerSentinelNetworkManager forerunnerSentinelNetwork;
+    private ForerunnerPrometheanManager forerunnerPromethean;
+    private ForerunnerHaloArrayManager forerunnerHaloArray;
+    private ForerunnerSlipspaceManager forerunnerSlipspace;
+    private ForerunnerHardlightWeaponManager forerunnerHardlight;
     @SuppressWarnings("unused")
-    private final ForerunnerComposerManager forerunnerComposer = new ForerunnerComposerManager();
+    private ForerunnerComposerManager forerunnerComposer;
 
     private int turnLimit;
     private String scenarioName;
     private int currentScenarioTurn = 0;
+    private UndoLog undoLog;
+    private long journaledEpoch = -1;
 
-    public CampaignManager(GameStateManager game) {
+    /**
+     * @param random the match's random service; each manager that rolls dice takes its own stream
+     */
+    public CampaignManager(GameStateManager game, MatchRandom random) {
         this.game = game;
         this.scenarioName = "SAMPLE_SCENARIO";
         this.turnLimit = 20;
@@ -51,10 +78,193 @@ public class CampaignManager {
         // Assume default max pop of 20 for campaign
         this.p1Pop = new PopulationManager(20);
         this.p2Pop = new PopulationManager(20);
+
+        this.orbital = new OrbitalManager(random.stream(MatchRandom.Stream.INTERCEPTION));
+        this.covenantDeployManager = new CovenantDeployManager();
+        this.covenantZealotryManager = new CovenantZealotryManager(random.stream(MatchRandom.Stream.ZEALOTRY));
+        this.covenantFaithManager = new CovenantFaithManager();
+        this.covenantWeaponManager = new CovenantWeaponManager(random.stream(MatchRandom.Stream.OVERHEAT));
+        this.covenantOrbitalDominanceManager = new CovenantOrbitalDominanceManager();
+        this.unscTacticalProtocol = new UNSCTacticalProtocol();
+        this.unscDropPodManager = new UNSCDropPodManager();
+        this.unscSalvageManager = new UNSCSalvageManager();
+        this.spartanHeroManager = new SpartanHeroManager(random.stream(MatchRandom.Stream.HIJACK));
+        this.unscProtocolExecutor = new UNSCTacticalProtocolExecutor();
+        this.forerunnerVacuumEnergy = new ForerunnerVacuumEnergyManager();
+        this.forerunnerSentinelNetwork = new ForerunnerSentinelNetworkManager();
+        this.forerunnerPromethean = new ForerunnerPrometheanManager();
+        this.forerunnerHaloArray = new ForerunnerHaloArrayManager();
+        this.forerunnerSlipspace = new ForerunnerSlipspaceManager();
+        this.forerunnerHardlight = new ForerunnerHardlightWeaponManager();
+        this.forerunnerComposer = new ForerunnerComposerManager();
     }
-    
+
+    private CampaignManager(GameStateManager game, CampaignManager source) {
+        this.game = game;
+        this.scenarioName = source.scenarioName;
+        this.turnLimit = source.turnLimit;
+        this.currentScenarioTurn = source.currentScenarioTurn;
+        this.p1Pop = source.p1Pop.copy();
+        this.p2Pop = source.p2Pop.copy();
+        source.factories.forEach((sourceInstanceId, factory) -> factories.put(sourceInstanceId, factory.copy()));
+
+        this.orbital = source.orbital.copy();
+        this.covenantDeployManager = source.covenantDeployManager; // stateless
+        this.covenantZealotryManager = source.covenantZealotryManager.copy();
+        this.covenantFaithManager = source.covenantFaithManager.copy();
+        this.covenantWeaponManager = source.covenantWeaponManager.copy();
+        this.covenantOrbitalDominanceManager = source.covenantOrbitalDominanceManager.copy();
+        this.unscTacticalProtocol = source.unscTacticalProtocol.copy();
+        this.unscDropPodManager = source.unscDropPodManager.copy();
+        this.unscSalvageManager = source.unscSalvageManager.copy();
+        this.spartanHeroManager = source.spartanHeroManager.copy();
+        this.unscProtocolExecutor = source.unscProtocolExecutor.copy();
+        this.forerunnerVacuumEnergy = source.forerunnerVacuumEnergy.copy();
+        this.forerunnerSentinelNetwork = source.forerunnerSentinelNetwork.copy();
+        this.forerunnerPromethean = source.forerunnerPromethean.copy();
+        this.forerunnerHaloArray = source.forerunnerHaloArray.copy();
+        this.forerunnerSlipspace = source.forerunnerSlipspace.copy();
+        this.forerunnerHardlight = source.forerunnerHardlight.copy();
+        this.forerunnerComposer = source.forerunnerComposer.copy();
+    }
+
+    /**
+     * Independent copy of every campaign manager for a forked match, including the state of their
+     * random generators.
+     */
+    public CampaignManager copyFor(GameStateManager game) {
+        return new CampaignManager(game, this);
+    }
+
+    /**
+     * Every manager's fields, their random generators' included, as JSON, for a saved match.
+     *
+     * @throws IllegalStateException if a factory is running; factories hold live card instances
+     */
+    public JsonNode saveState() {
+        if (!factories.isEmpty()) {
+            throw new IllegalStateException("Campaign factories cannot be saved");
+        }
+        ObjectNode state = STATE_MAPPER.createObjectNode();
+        state.put("turnLimit", turnLimit);
+        state.put("scenarioName", scenarioName);
+        state.put("currentScenarioTurn", currentScenarioTurn);
+        ObjectNode managers = state.putObject("managers");
+        managers().forEach((name, manager) -> managers.set(name, STATE_MAPPER.valueToTree(manager)));
+        return state;
+    }
+
+    /**
+     * Campaign rebuilt from {@link #saveState()} for {@code game}, a match restored from the same
+     * saved state and started like the saved one.
+     */
+    public static CampaignManager restore(GameStateManager game, MatchRandom random, JsonNode state) {
+        CampaignManager campaign = new CampaignManager(game, random);
+        campaign.turnLimit = state.path("turnLimit").asInt(campaign.turnLimit);
+        campaign.scenarioName = state.path("scenarioName").asText(campaign.scenarioName);
+        campaign.currentScenarioTurn = state.path("currentScenarioTurn").asInt();
+        JsonNode managers = state.path("managers");
+        campaign.managers().forEach((name, manager) -> {
+            JsonNode fields = managers.get(name);
+            if (fields == null) {
+                throw new IllegalArgumentException("Saved campaign state has no " + name);
+            }
+            try {
+                // Merges into the fresh manager, so final maps and random generators are filled in place.
+                STATE_MAPPER.readerForUpdating(manager).readValue(fields);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid saved campaign state for " + name, e);
+            }
+        });
+        return campaign;
+    }
+
+    private Map<String, Object> managers() {
+        Map<String, Object> managers = new LinkedHashMap<>();
+        managers.put("p1Pop", p1Pop);
+        managers.put("p2Pop", p2Pop);
+        managers.put("orbital", orbital);
+        managers.put("covenantZealotry", covenantZealotryManager);
+        managers.put("covenantFaith", covenantFaithManager);
+        managers.put("covenantWeapon", covenantWeaponManager);
+        managers.put("covenantOrbitalDominance", covenantOrbitalDominanceManager);
+        managers.put("unscTactical", unscTacticalProtocol);
+        managers.put("unscDropPod", unscDropPodManager);
+        managers.put("unscSalvage", unscSalvageManager);
+        managers.put("spartanHero", spartanHeroManager);
+        managers.put("unscProtocolExecutor", unscProtocolExecutor);
+        managers.put("forerunnerVacuumEnergy", forerunnerVacuumEnergy);
+        managers.put("forerunnerSentinelNetwork", forerunnerSentinelNetwork);
+        managers.put("forerunnerPromethean", forerunnerPromethean);
+        managers.put("forerunnerHaloArray", forerunnerHaloArray);
+        managers.put("forerunnerSlipspace", forerunnerSlipspace);
+        managers.put("forerunnerHardlight", forerunnerHardlight);
+        managers.put("forerunnerComposer", forerunnerComposer);
+        return managers;
+    }
+
+    /**
+     * Restarts every manager's random stream from {@code random}, keeping the rest of their state, so
+     * a forked match stops rolling the dice the original will roll.
+     */
+    public void reseed(MatchRandom random) {
+        journal();
+        this.orbital = new OrbitalManager(random.stream(MatchRandom.Stream.INTERCEPTION));
+        this.covenantZealotryManager = new CovenantZealotryManager(random.stream(MatchRandom.Stream.ZEALOTRY));
+        this.covenantWeaponManager = new CovenantWeaponManager(random.stream(MatchRandom.Stream.OVERHEAT));
+        this.spartanHeroManager = spartanHeroManager.copyWith(random.stream(MatchRandom.Stream.HIJACK));
+    }
+
+    /**
+     * Journals campaign state in {@code undoLog}. The managers keep many small nested maps, so rather
+     * than record each write, the first access under an open mark snapshots every manager and the
+     * inverse swaps the snapshot back in. Pass {@code null} to stop.
+     */
+    public void bindUndoLog(UndoLog undoLog) {
+        this.undoLog = undoLog;
+        this.journaledEpoch = -1;
+    }
+
+    private void journal() {
+        if (undoLog == null || !undoLog.recording() || journaledEpoch == undoLog.epoch()) {
+            return;
+        }
+        journaledEpoch = undoLog.epoch();
+        CampaignManager snapshot = new CampaignManager(game, this);
+        undoLog.record(() -> restoreFrom(snapshot));
+    }
+
+    private void restoreFrom(CampaignManager snapshot) {
+        this.turnLimit = snapshot.turnLimit;
+        this.scenarioName = snapshot.scenarioName;
+        this.currentScenarioTurn = snapshot.currentScenarioTurn;
+        factories.clear();
+        factories.putAll(snapshot.factories);
+        this.p1Pop = snapshot.p1Pop;
+        this.p2Pop = snapshot.p2Pop;
+        this.orbital = snapshot.orbital;
+        this.covenantDeployManager = snapshot.covenantDeployManager;
+        this.covenantZealotryManager = snapshot.covenantZealotryManager;
+        this.covenantFaithManager = snapshot.covenantFaithManager;
+        this.covenantWeaponManager = snapshot.covenantWeaponManager;
+        this.covenantOrbitalDominanceManager = snapshot.covenantOrbitalDominanceManager;
+        this.unscTacticalProtocol = snapshot.unscTacticalProtocol;
+        this.unscDropPodManager = snapshot.unscDropPodManager;
+        this.unscSalvageManager = snapshot.unscSalvageManager;
+        this.spartanHeroManager = snapshot.spartanHeroManager;
+        this.unscProtocolExecutor = snapshot.unscProtocolExecutor;
+        this.forerunnerVacuumEnergy = snapshot.forerunnerVacuumEnergy;
+        this.forerunnerSentinelNetwork = snapshot.forerunnerSentinelNetwork;
+        this.forerunnerPromethean = snapshot.forerunnerPromethean;
+        this.forerunnerHaloArray = snapshot.forerunnerHaloArray;
+        this.forerunnerSlipspace = snapshot.forerunnerSlipspace;
+        this.forerunnerHardlight = snapshot.forerunnerHardlight;
+        this.forerunnerComposer = snapshot.forerunnerComposer;
+    }
+
     // Called by GameStateManager on ROUND_STARTED
     public void onTurnStart(String activePlayerId) {
+        journal();
         currentScenarioTurn = game.globalTurnIndex();
 
         // 1. Process Factories
@@ -113,67 +323,83 @@ public class CampaignManager {
     }
 
     public CovenantZealotryManager covenantZealotry() {
+        journal();
         return covenantZealotryManager;
     }
 
     public CovenantFaithManager covenantFaith() {
+        journal();
         return covenantFaithManager;
     }
 
     public CovenantWeaponManager covenantWeapon() {
+        journal();
         return covenantWeaponManager;
     }
 
     public CovenantOrbitalDominanceManager covenantOrbital() {
+        journal();
         return covenantOrbitalDominanceManager;
     }
 
     public UNSCTacticalProtocol unscTactical() {
+        journal();
         return unscTacticalProtocol;
     }
 
     public UNSCDropPodManager unscDropPod() {
+        journal();
         return unscDropPodManager;
     }
 
     public UNSCSalvageManager unscSalvage() {
+        journal();
         return unscSalvageManager;
     }
 
     public SpartanHeroManager spartanHero() {
+        journal();
         return spartanHeroManager;
     }
 
     public UNSCTacticalProtocolExecutor unscProtocolExecutor() {
+        journal();
         return unscProtocolExecutor;
     }
     
     // Forerunner accessors - 先行者访问器
     public ForerunnerVacuumEnergyManager forerunnerVacuumEnergy() {
+        journal();
         return forerunnerVacuumEnergy;
     }
     
     public ForerunnerSentinelNetworkManager forerunnerSentinelNetwork() {
+        journal();
         return forerunnerSentinelNetwork;
     }
     
     public ForerunnerPrometheanManager forerunnerPromethean() {
+        journal();
         return forerunnerPromethean;
     }
     
     public ForerunnerHaloArrayManager forerunnerHaloArray() {
+        journal();
         return forerunnerHaloArray;
     }
     
     public ForerunnerSlipspaceManager forerunnerSlipspace() {
+        journal();
         return forerunnerSlipspace;
     }
     
     public ForerunnerHardlightWeaponManager forerunnerHardlight() {
+        journal();
         return forerunnerHardlight;
     }
     
     public ForerunnerComposerManager forerunnerComposer() {
+        journal();
         return forerunnerComposer;
     }
 }
@@ -44,4 +44,14 @@ public class CovenantFaithManager {
     public void recordKill(String playerId, String cardDefId) {
         onEnemyKilled(playerId);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    CovenantFaithManager copy() {
+        CovenantFaithManager copy = new CovenantFaithManager();
+        copy.faithByPlayer.putAll(faithByPlayer);
+        copy.antiOverheatTurnByPlayer.putAll(antiOverheatTurnByPlayer);
+        return copy;
+    }
 }
@@ -55,4 +55,14 @@ public class CovenantOrbitalDominanceManager {
     public void processGlassingMarks(String playerId, int globalTurnIndex) {
         // Placeholder for processing glassing marks
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    CovenantOrbitalDominanceManager copy() {
+        CovenantOrbitalDominanceManager copy = new CovenantOrbitalDominanceManager();
+        glassingMarksByEnemy.forEach((enemy, byLane) -> copy.glassingMarksByEnemy.put(enemy, new HashMap<>(byLane)));
+        copy.boardingTokensByShip.putAll(boardingTokensByShip);
+        return copy;
+    }
 }
@@ -1,18 +1,14 @@
 package com.haloce.tcg.game.campaign;
 
-import java.util.Random;
+import com.haloce.tcg.core.random.SplitMixRandom;
 
 public class CovenantWeaponManager {
-    private final Random random;
+    private final SplitMixRandom random;
 
-    public CovenantWeaponManager(Random random) {
+    public CovenantWeaponManager(SplitMixRandom random) {
         this.random = random;
     }
 
-    public CovenantWeaponManager() {
-        this(new Random());
-    }
-
     public int overwhelmingFirepower(int baseDamage) {
         return (int) Math.ceil(baseDamage * 1.25);
     }
@@ -33,4 +29,8 @@ public class CovenantWeaponManager {
         // Placeholder - could track player state for firepower bonus
         return false;
     }
+
+    CovenantWeaponManager copy() {
+        return new CovenantWeaponManager(random.copy());
+    }
 }
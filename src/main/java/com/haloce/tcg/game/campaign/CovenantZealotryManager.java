@@ -1,27 +1,23 @@
 package com.haloce.tcg.game.campaign;
 
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.random.SplitMixRandom;
 
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 public class CovenantZealotryManager {
     private static final double DEFAULT_SCHISM_CHANCE = 0.10;
     private static final double DEFAULT_DAMAGE_TAKEN_MULTIPLIER = 1.20;
-    private final Random random;
+    private final SplitMixRandom random;
 
-    public CovenantZealotryManager(Random random) {
+    public CovenantZealotryManager(SplitMixRandom random) {
         this.random = Objects.requireNonNull(random);
     }
 
-    public CovenantZealotryManager() {
-        this(new Random());
-    }
-
     public CovenantRank rankOf(CardInstance unit) {
         if (unit == null || unit.definition() == null || unit.definition().tags() == null) {
             return CovenantRank.NON_COVENANT;
@@ -101,4 +97,8 @@ public class CovenantZealotryManager {
     public void recordDeployment(String playerId, String cardDefId) {
         // Placeholder for future zealotry tracking
     }
+
+    CovenantZealotryManager copy() {
+        return new CovenantZealotryManager(random.copy());
+    }
 }
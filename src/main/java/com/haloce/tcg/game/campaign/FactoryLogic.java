@@ -38,4 +38,10 @@ public class FactoryLogic {
     }
 
     public int cooldown() { return cooldown; }
+
+    FactoryLogic copy() {
+        FactoryLogic copy = new FactoryLogic(parentVessel, spawnTokenId, spawnInterval);
+        copy.cooldown = cooldown;
+        return copy;
+    }
 }
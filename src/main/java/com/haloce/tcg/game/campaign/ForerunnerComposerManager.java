@@ -219,4 +219,15 @@ public class ForerunnerComposerManager {
         // Placeholder for checking upgrade completion
         return List.of();
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerComposerManager copy() {
+        ForerunnerComposerManager copy = new ForerunnerComposerManager();
+        copy.composerLabBuilt.putAll(composerLabBuilt);
+        copy.biologicalDataByPlayer.putAll(biologicalDataByPlayer);
+        copy.sentinelUpgradeQueue.putAll(sentinelUpgradeQueue);
+        return copy;
+    }
 }
@@ -182,4 +182,15 @@ public class ForerunnerHaloArrayManager {
             return PulseEffectType.LANE_CLEAR;
         }
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerHaloArrayManager copy() {
+        ForerunnerHaloArrayManager copy = new ForerunnerHaloArrayManager();
+        indexCollectionByPlayer.forEach((playerId, indices) -> copy.indexCollectionByPlayer.put(playerId, new HashSet<>(indices)));
+        copy.activeTerminals.putAll(activeTerminals);
+        copy.pulseChargeProgress.putAll(pulseChargeProgress);
+        return copy;
+    }
 }
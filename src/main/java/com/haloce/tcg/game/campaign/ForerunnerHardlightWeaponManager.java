@@ -181,4 +181,16 @@ public class ForerunnerHardlightWeaponManager {
     public boolean isVulnerableToEMP(String instanceId) {
         return hasActiveShield(instanceId);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerHardlightWeaponManager copy() {
+        ForerunnerHardlightWeaponManager copy = new ForerunnerHardlightWeaponManager();
+        copy.hardlightEquippedUnits.addAll(hardlightEquippedUnits);
+        copy.hardlightShieldLayers.putAll(hardlightShieldLayers);
+        copy.lightbladeCharged.putAll(lightbladeCharged);
+        copy.weaponTypeByInstance.putAll(weaponTypeByInstance);
+        return copy;
+    }
 }
@@ -172,4 +172,18 @@ public class ForerunnerPrometheanManager {
             case MOBILE -> 1.0;         // 机动：标准伤害
         };
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerPrometheanManager copy() {
+        ForerunnerPrometheanManager copy = new ForerunnerPrometheanManager();
+        copy.dataRemnantByInstance.putAll(dataRemnantByInstance);
+        copy.watcherToKnight.putAll(watcherToKnight);
+        copy.knightCarriedWatcher.putAll(knightCarriedWatcher);
+        copy.watcherReviveCooldown.putAll(watcherReviveCooldown);
+        copy.crawlerInstances.addAll(crawlerInstances);
+        copy.knightStance.putAll(knightStance);
+        return copy;
+    }
 }
@@ -211,4 +211,17 @@ public class ForerunnerSentinelNetworkManager {
         }
         return null;
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerSentinelNetworkManager copy() {
+        ForerunnerSentinelNetworkManager copy = new ForerunnerSentinelNetworkManager();
+        copy.sentinelManufactoryByInstance.putAll(sentinelManufactoryByInstance);
+        copy.sentinelToManufactory.putAll(sentinelToManufactory);
+        commandNodeToSentinels.forEach((node, sentinels) -> copy.commandNodeToSentinels.put(node, new HashSet<>(sentinels)));
+        copy.suppressorFieldActive.putAll(suppressorFieldActive);
+        repairQueueByLane.forEach((lane, queue) -> copy.repairQueueByLane.put(lane, new ArrayList<>(queue)));
+        return copy;
+    }
 }
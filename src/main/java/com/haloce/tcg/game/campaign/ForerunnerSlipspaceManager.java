@@ -163,4 +163,16 @@ public class ForerunnerSlipspaceManager {
     public boolean isLaneJammed(Lane lane) {
         return spatialJamming.getOrDefault(lane, false);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerSlipspaceManager copy() {
+        ForerunnerSlipspaceManager copy = new ForerunnerSlipspaceManager();
+        copy.slipspaceGateNetwork.putAll(slipspaceGateNetwork);
+        copy.gravityWellActive.putAll(gravityWellActive);
+        copy.teleportCooldown.putAll(teleportCooldown);
+        copy.spatialJamming.putAll(spatialJamming);
+        return copy;
+    }
 }
@@ -103,4 +103,14 @@ public class ForerunnerVacuumEnergyManager {
         // 先行者单位（普罗米修斯骑士）可以根据Lane切换形态
         return unitCostByInstanceId.containsKey(instanceId);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    ForerunnerVacuumEnergyManager copy() {
+        ForerunnerVacuumEnergyManager copy = new ForerunnerVacuumEnergyManager();
+        copy.powerLevelByPlayer.putAll(powerLevelByPlayer);
+        copy.unitCostByInstanceId.putAll(unitCostByInstanceId);
+        return copy;
+    }
 }
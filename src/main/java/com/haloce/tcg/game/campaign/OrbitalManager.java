@@ -1,16 +1,23 @@
 package com.haloce.tcg.game.campaign;
 
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.random.SplitMixRandom;
 import com.haloce.tcg.game.Lane;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Handles Ship-to-Ship combat and Blockade mechanics.
  */
 public class OrbitalManager {
-    private final Random random = new Random();
+    private final SplitMixRandom random;
+
+    /**
+     * @param random the match's {@link com.haloce.tcg.core.random.MatchRandom.Stream#INTERCEPTION} stream
+     */
+    public OrbitalManager(SplitMixRandom random) {
+        this.random = random;
+    }
 
     /**
      * Checks if a drop pod token is intercepted by enemy orbital presence.
@@ -32,4 +39,8 @@ public class OrbitalManager {
         // Check if ship is Capital Class?
         return true; 
     }
+
+    OrbitalManager copy() {
+        return new OrbitalManager(random.copy());
+    }
 }
@@ -72,4 +72,11 @@ public class PopulationManager {
 
     public int currentPop() { return currentPop; }
     public int maxPop() { return maxPop; }
+
+    PopulationManager copy() {
+        PopulationManager copy = new PopulationManager(maxPop);
+        copy.currentPop = currentPop;
+        slotUsage.forEach((lane, usage) -> copy.slotUsage.get(lane).putAll(usage));
+        return copy;
+    }
 }
@@ -1,5 +1,7 @@
 package com.haloce.tcg.game.campaign;
 
+import com.haloce.tcg.core.random.SplitMixRandom;
+
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -13,6 +15,11 @@ public class SpartanHeroManager {
     private final Map<String, Integer> miaRecoverTurnByHero = new HashMap<>();
     private final Map<String, Integer> heroExperience = new HashMap<>();
     private final Set<String> uniqueSpartanOwners = new HashSet<>();
+    private final SplitMixRandom random;
+
+    public SpartanHeroManager(SplitMixRandom random) {
+        this.random = random;
+    }
 
     public boolean canUseFreeMove(String heroInstanceId) {
         return heroInstanceId != null && !freeMoveUsedThisTurn.contains(heroInstanceId);
@@ -83,7 +90,7 @@ public class SpartanHeroManager {
 
     public boolean tryVehicleHijack(double successChance) {
         double clamped = Math.max(0.0, Math.min(1.0, successChance));
-        return Math.random() < clamped;
+        return random.nextDouble() < clamped;
     }
 
     public int lastStandBuffAmount() {
@@ -111,4 +118,23 @@ public class SpartanHeroManager {
     public void enterMIA(String playerId, String instanceId, int globalTurnIndex) {
         triggerMia(instanceId, globalTurnIndex);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    SpartanHeroManager copy() {
+        return copyWith(random.copy());
+    }
+
+    /**
+     * Like {@link #copy()}, rolling from {@code random} instead of where this manager's stream stands.
+     */
+    SpartanHeroManager copyWith(SplitMixRandom random) {
+        SpartanHeroManager copy = new SpartanHeroManager(random);
+        copy.freeMoveUsedThisTurn.addAll(freeMoveUsedThisTurn);
+        copy.miaRecoverTurnByHero.putAll(miaRecoverTurnByHero);
+        copy.heroExperience.putAll(heroExperience);
+        copy.uniqueSpartanOwners.addAll(uniqueSpartanOwners);
+        return copy;
+    }
 }
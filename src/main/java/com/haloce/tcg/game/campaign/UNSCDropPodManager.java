@@ -7,23 +7,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 public class UNSCDropPodManager {
     private final Map<String, Integer> commandPointByPlayer = new HashMap<>();
     private final Map<String, Lane> activeSupplyCrateByInstance = new HashMap<>();
     private final Map<String, List<DropPodRecord>> dropPodsByPlayer = new HashMap<>();
+    private int supplyCrateCount;
     
-    private static class DropPodRecord {
-        @SuppressWarnings("unused")
-        String instanceId;
-        @SuppressWarnings("unused")
-        Lane lane;
-        
-        DropPodRecord(String instanceId, Lane lane) {
-            this.instanceId = instanceId;
-            this.lane = lane;
-        }
+    private record DropPodRecord(String instanceId, Lane lane) {
     }
 
     public void grantCommandPoint(String playerId, int amount) {
@@ -54,7 +45,7 @@ public class UNSCDropPodManager {
     }
 
     public String deploySupplyCrate(String ownerPlayerId, Lane lane) {
-        String crateId = "SUPPLY-CRATE-" + UUID.randomUUID();
+        String crateId = "SUPPLY-CRATE-" + (++supplyCrateCount);
         activeSupplyCrateByInstance.put(crateId, lane);
         return crateId;
     }
@@ -82,4 +73,16 @@ public class UNSCDropPodManager {
     public void processHangarQueue(String playerId, int globalTurnIndex) {
         // Placeholder for future implementation
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    UNSCDropPodManager copy() {
+        UNSCDropPodManager copy = new UNSCDropPodManager();
+        copy.commandPointByPlayer.putAll(commandPointByPlayer);
+        copy.activeSupplyCrateByInstance.putAll(activeSupplyCrateByInstance);
+        dropPodsByPlayer.forEach((playerId, pods) -> copy.dropPodsByPlayer.put(playerId, new ArrayList<>(pods)));
+        copy.supplyCrateCount = supplyCrateCount;
+        return copy;
+    }
 }
@@ -34,4 +34,13 @@ public class UNSCSalvageManager {
         // Extract vehicle type from instance ID or use a simplified approach
         recoverVehicleCore(instanceId);
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    UNSCSalvageManager copy() {
+        UNSCSalvageManager copy = new UNSCSalvageManager();
+        copy.recoveredCoreByVehicleType.putAll(recoveredCoreByVehicleType);
+        return copy;
+    }
 }
@@ -32,23 +32,21 @@ public class UNSCTacticalProtocol {
         }
         
         com.haloce.tcg.game.BattlefieldState bf = (com.haloce.tcg.game.BattlefieldState) battlefield;
-        List<CardInstance> unitsInLane = bf.lane(lane).unitsOf(playerId);
+        // 只读视图，不复制
+        List<CardInstance> unitsInLane = bf.lane(lane).unitsView(playerId);
         
-        if (unitsInLane.isEmpty()) {
-            return false;
+        // 检查是否有炮兵或舰船单位，以及是否有步兵作为侦察单位
+        boolean hasArtilleryOrVessel = false;
+        boolean hasInfantrySpotter = false;
+        for (CardInstance unit : unitsInLane) {
+            UNSCUnitRole role = roleOf(unit);
+            if (role == UNSCUnitRole.MOBILE_ARTILLERY || role == UNSCUnitRole.VESSEL) {
+                hasArtilleryOrVessel = true;
+            } else if (role == UNSCUnitRole.INFANTRY) {
+                hasInfantrySpotter = true;
+            }
         }
         
-        // 检查是否有炮兵或舰船单位
-        boolean hasArtilleryOrVessel = unitsInLane.stream()
-            .anyMatch(unit -> {
-                UNSCUnitRole role = roleOf(unit);
-                return role == UNSCUnitRole.MOBILE_ARTILLERY || role == UNSCUnitRole.VESSEL;
-            });
-        
-        // 检查是否有步兵作为侦察单位
-        boolean hasInfantrySpotter = unitsInLane.stream()
-            .anyMatch(unit -> roleOf(unit) == UNSCUnitRole.INFANTRY);
-        
         return hasArtilleryOrVessel && hasInfantrySpotter;
     }
 
@@ -161,4 +159,14 @@ public class UNSCTacticalProtocol {
 
     public record SynergyResult(double attackMultiplier, boolean ignoreCover) {
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    UNSCTacticalProtocol copy() {
+        UNSCTacticalProtocol copy = new UNSCTacticalProtocol();
+        copy.macChargeByEntity.putAll(macChargeByEntity);
+        copy.coleProtocolBurnedLane.putAll(coleProtocolBurnedLane);
+        return copy;
+    }
 }
@@ -44,4 +44,13 @@ public class UNSCTacticalProtocolExecutor {
             double macBoost
     ) {
     }
+
+    /**
+     * Independent copy of this manager's state for a forked match.
+     */
+    UNSCTacticalProtocolExecutor copy() {
+        UNSCTacticalProtocolExecutor copy = new UNSCTacticalProtocolExecutor();
+        copy.activePresetByPlayer.putAll(activePresetByPlayer);
+        return copy;
+    }
 }
@@ -1,18 +1,23 @@
 package com.haloce.tcg.game.handlers;
 
 import com.haloce.tcg.card.loader.CardRepository;
-import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.model.Stats;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.CardTags;
+import com.haloce.tcg.card.runtime.CompiledCard;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.combat.CombatStateStore;
 import com.haloce.tcg.combat.DamageContext;
 import com.haloce.tcg.combat.DamageResolver;
 import com.haloce.tcg.combat.DamageResult;
 import com.haloce.tcg.combat.DamageType;
 import com.haloce.tcg.combat.EntityCombatState;
-import com.haloce.tcg.combat.InMemoryCombatStateStore;
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventPayload;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.game.AttackEventPayload;
 import com.haloce.tcg.game.BattlefieldState;
 import com.haloce.tcg.game.GameRow;
 import com.haloce.tcg.game.Lane;
@@ -24,9 +29,7 @@ import com.haloce.tcg.game.campaign.CampaignManager;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 /**
  * Handles combat and attack logic with faction-specific integrations
@@ -35,19 +38,21 @@ public class CombatHandler {
     private final EventBus eventBus;
     private final CardRepository cardRepository;
     private final BattlefieldState battlefield;
-    private final InMemoryCombatStateStore combatStateStore;
+    private final CombatStateStore combatStateStore;
     private final UnitStatusStore unitStatusStore;
     private final DamageResolver damageResolver;
     private final CampaignManager campaignManager;
+    private final InstanceHandleAllocator handleAllocator;
 
     public CombatHandler(
             EventBus eventBus,
             CardRepository cardRepository,
             BattlefieldState battlefield,
-            InMemoryCombatStateStore combatStateStore,
+            CombatStateStore combatStateStore,
             UnitStatusStore unitStatusStore,
             DamageResolver damageResolver,
-            CampaignManager campaignManager
+            CampaignManager campaignManager,
+            InstanceHandleAllocator handleAllocator
     ) {
         this.eventBus = eventBus;
         this.cardRepository = cardRepository;
@@ -56,6 +61,7 @@ public class CombatHandler {
         this.unitStatusStore = unitStatusStore;
         this.damageResolver = damageResolver;
         this.campaignManager = campaignManager;
+        this.handleAllocator = handleAllocator;
     }
 
     public DamageResult declareAttack(
@@ -87,7 +93,7 @@ public class CombatHandler {
 
         ensureCanAttack(attackerPos.card(), globalTurnIndex);
 
-        boolean attackerRanged = HandlerUtils.hasKeyword(attackerPos.card(), "RANGED");
+        boolean attackerRanged = HandlerUtils.hasKeyword(attackerPos.card(), Keyword.RANGED);
         int defenderFrontlineCount = battlefield.lane(defenderPos.lane()).frontlineCount(defenderPos.playerId());
         if (defenderPos.row() == GameRow.BACKLINE && defenderFrontlineCount > 0 && !attackerRanged) {
             throw new IllegalStateException("Must target frontline first unless attacker has RANGED");
@@ -99,11 +105,11 @@ public class CombatHandler {
         // Campaign integration: UNSC Combined Arms
         if (campaignManager.unscTactical().checkCombinedArms(attackerPos.playerId(), attackerPos.lane(), battlefield)) {
             baseDamage = (int) Math.ceil(baseDamage * 1.2);
-            emit(EventType.UNSC_COMBINED_ARMS_TRIGGERED, attackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.UNSC_COMBINED_ARMS_TRIGGERED, attackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "attackerInstanceId", attackerInstanceId,
                     "lane", attackerPos.lane().name(),
                     "bonusDamage", (int) (baseDamage * 0.2)
-            ));
+            )));
         }
 
         // Campaign integration: Covenant Weapon overwhelming firepower
@@ -114,7 +120,7 @@ public class CombatHandler {
         // Campaign integration: Forerunner Hardlight Weapon damage modifier (硬光武器加成)
         if (campaignManager.forerunnerHardlight().hasHardlightWeapon(attackerInstanceId)) {
             var weaponType = campaignManager.forerunnerHardlight().getWeaponType(attackerInstanceId);
-            boolean isRanged = HandlerUtils.hasKeyword(attackerPos.card(), "RANGED");
+            boolean isRanged = HandlerUtils.hasKeyword(attackerPos.card(), Keyword.RANGED);
             double modifier = campaignManager.forerunnerHardlight().getWeaponDamageModifier(weaponType, isRanged);
             baseDamage = (int) Math.ceil(baseDamage * modifier);
         }
@@ -123,27 +129,20 @@ public class CombatHandler {
             throw new IllegalStateException("Attacker has no valid attack value");
         }
 
-        emit(EventType.ATTACK_DECLARED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                "attackerInstanceId", attackerInstanceId,
-                "defenderInstanceId", defenderInstanceId,
-                "lane", attackerPos.lane().name()
-        ));
-        emit(EventType.TARGET_LOCKED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                "attackerInstanceId", attackerInstanceId,
-                "defenderInstanceId", defenderInstanceId
-        ));
+        emit(EventType.ATTACK_DECLARED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, AttackEventPayload.unitAttacked(attackerInstanceId, defenderInstanceId, attackerPos.lane()));
+        emit(EventType.TARGET_LOCKED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, AttackEventPayload.targetLocked(attackerInstanceId, defenderInstanceId));
 
         DamageType damageType = inferDamageType(attackerPos.card());
         int finalDamageMultiplier = 1;
-        UnitStatus defenderStatus = unitStatusStore.getOrCreate(defenderInstanceId);
+        UnitStatus defenderStatus = unitStatusStore.getOrCreate(defenderPos.card());
         EntityCombatState defenderCombatState = combatStateStore.get(defenderInstanceId);
 
-        if (HandlerUtils.hasKeyword(attackerPos.card(), "HEADSHOT") && defenderCombatState.currentShield() <= 0) {
+        if (HandlerUtils.hasKeyword(attackerPos.card(), Keyword.HEADSHOT) && defenderCombatState.currentShield() <= 0) {
             finalDamageMultiplier *= 2;
-            emit(EventType.HEADSHOT_TRIGGERED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.HEADSHOT_TRIGGERED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "attackerInstanceId", attackerInstanceId,
                     "defenderInstanceId", defenderInstanceId
-            ));
+            )));
         }
 
         if (damageType == DamageType.BALLISTIC
@@ -153,7 +152,7 @@ public class CombatHandler {
             defenderStatus.setNoobComboTriggeredTurnIndex(globalTurnIndex);
         }
 
-        boolean ignoreShield = HandlerUtils.hasKeyword(attackerPos.card(), "SENTINEL");
+        boolean ignoreShield = HandlerUtils.hasKeyword(attackerPos.card(), Keyword.SENTINEL);
 
         DamageResult result = damageResolver.resolve(
                 new DamageContext(attackerInstanceId, defenderInstanceId, baseDamage, damageType, false, false, finalDamageMultiplier, ignoreShield),
@@ -162,7 +161,7 @@ public class CombatHandler {
                 activePlayerId
         );
 
-        UnitStatus attackerStatus = unitStatusStore.getOrCreate(attackerInstanceId);
+        UnitStatus attackerStatus = unitStatusStore.getOrCreate(attackerPos.card());
         attackerStatus.setAttackedTurnIndex(globalTurnIndex);
         attackerStatus.setHasCamoThisTurn(false);
 
@@ -172,10 +171,10 @@ public class CombatHandler {
             defenderStatus.markDamaged(globalTurnIndex, activePlayerId);
             if (damageType == DamageType.PLASMA) {
                 defenderStatus.setPlasmaTaggedTurnIndex(globalTurnIndex);
-                emit(EventType.PLASMA_TAG_APPLIED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+                emit(EventType.PLASMA_TAG_APPLIED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                         "targetInstanceId", defenderInstanceId,
                         "turnIndex", globalTurnIndex
-                ));
+                )));
             }
         }
 
@@ -194,11 +193,11 @@ public class CombatHandler {
             );
             if (penetrationDamage > 0) {
                 // 穿透到后排单位 - 需要找到后排目标
-                emit(EventType.HARDLIGHT_PENETRATION_TRIGGERED, attackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+                emit(EventType.HARDLIGHT_PENETRATION_TRIGGERED, attackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "attackerInstanceId", attackerInstanceId,
                     "penetrationDamage", penetrationDamage,
                     "lane", attackerPos.lane().name()
-                ));
+                )));
             }
         }
 
@@ -247,14 +246,10 @@ public class CombatHandler {
             throw new IllegalStateException("Attacker has no valid attack value");
         }
 
-        emit(EventType.ATTACK_DECLARED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                "attackerInstanceId", attackerInstanceId,
-                "targetPlayerId", targetPlayerId,
-                "target", "BASE"
-        ));
+        emit(EventType.ATTACK_DECLARED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, AttackEventPayload.baseAttacked(attackerInstanceId, targetPlayerId));
 
         damageBaseFunc.accept(targetPlayerId, damage);
-        UnitStatus attackerStatus = unitStatusStore.getOrCreate(attackerInstanceId);
+        UnitStatus attackerStatus = unitStatusStore.getOrCreate(attackerPos.card());
         attackerStatus.setAttackedTurnIndex(globalTurnIndex);
         attackerStatus.setHasCamoThisTurn(false);
         attackersUsedThisTurn.add(attackerInstanceId);
@@ -282,7 +277,7 @@ public class CombatHandler {
         if (hijackerPos.lane() != targetPos.lane()) {
             throw new IllegalArgumentException("Hijacker and target vehicle must be in the same lane");
         }
-        if (!HandlerUtils.hasKeyword(hijackerPos.card(), "HIJACK")) {
+        if (!HandlerUtils.hasKeyword(hijackerPos.card(), Keyword.HIJACK)) {
             throw new IllegalStateException("Hijacker does not have HIJACK keyword");
         }
         if (!HandlerUtils.isVehicle(targetPos.card())) {
@@ -292,43 +287,40 @@ public class CombatHandler {
         if (!battlefield.hasSpace(hijackerPos.lane(), hijackerPos.playerId(), targetPos.row())) {
             throw new IllegalStateException("No space to seize target vehicle at this row");
         }
+        // Checked before the roll so a rejected hijack does not advance the HIJACK stream; the
+        // supply is only spent if the attempt succeeds.
+        if (activePlayer.currentSupply() < 2) {
+            throw new IllegalStateException("Insufficient supply to execute hijack");
+        }
 
         // Campaign integration: Spartan hijack probability
         boolean succeeded = campaignManager.spartanHero().attemptHijack(hijackerInstanceId, targetVehicleInstanceId);
         if (!succeeded) {
-            emit(EventType.SPARTAN_HIJACK_ATTEMPTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.SPARTAN_HIJACK_ATTEMPTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "hijackerInstanceId", hijackerInstanceId,
                     "targetVehicleInstanceId", targetVehicleInstanceId,
                     "result", "FAILED"
-            ));
+            )));
             return;
         }
 
-        if (!activePlayer.spendResources(2, 0)) {
-            throw new IllegalStateException("Insufficient supply to execute hijack");
-        }
+        activePlayer.spendResources(2, 0);
 
         CardInstance removed = battlefield.removeUnit(targetVehicleInstanceId)
                 .orElseThrow(() -> new IllegalStateException("Failed to remove target vehicle for hijack"));
-        CardInstance seized = new CardInstance(
-                removed.instanceId(),
-                removed.definition(),
-                hijackerPos.playerId(),
-                removed.sourceEventSequence(),
-                removed.sourceCardId()
-        );
+        CardInstance seized = removed.withOwner(hijackerPos.playerId());
         battlefield.deploy(hijackerPos.playerId(), hijackerPos.lane(), targetPos.row(), seized);
 
-        emit(EventType.HIJACK_EXECUTED, hijackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.HIJACK_EXECUTED, hijackerPos.playerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "hijackerInstanceId", hijackerInstanceId,
                 "targetVehicleInstanceId", targetVehicleInstanceId,
                 "lane", hijackerPos.lane().name(),
                 "row", targetPos.row().name()
-        ));
-        emit(EventType.SPARTAN_HIJACK_SUCCEEDED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        )));
+        emit(EventType.SPARTAN_HIJACK_SUCCEEDED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "hijackerInstanceId", hijackerInstanceId,
                 "targetVehicleInstanceId", targetVehicleInstanceId
-        ));
+        )));
     }
 
     private void handleUnitDeath(
@@ -344,15 +336,15 @@ public class CombatHandler {
         CardInstance dead = battlefield.removeUnit(defenderInstanceId)
                 .orElseThrow(() -> new IllegalStateException("Failed to remove defeated unit"));
         combatStateStore.remove(defenderInstanceId);
-        unitStatusStore.remove(defenderInstanceId);
+        unitStatusStore.remove(dead);
 
         // Campaign integration: Spartan MIA system
-        if (HandlerUtils.hasTag(dead, "SPARTAN")) {
+        if (HandlerUtils.hasTag(dead, CardTags.SPARTAN)) {
             campaignManager.spartanHero().enterMIA(dead.ownerPlayerId(), dead.instanceId(), globalTurnIndex);
-            emit(EventType.SPARTAN_MIA_ENTERED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.SPARTAN_MIA_ENTERED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "spartanInstanceId", dead.instanceId(),
                     "recoveryTurn", globalTurnIndex + 4
-            ));
+            )));
         } else {
             // Normal death - to discard
             PlayerState owner = playerStateAccessor.apply(dead.ownerPlayerId());
@@ -366,39 +358,39 @@ public class CombatHandler {
         resolveOnKillTriggers(attackerPos.card(), dead, attackerPos.lane(), activePlayerId, globalTurnIndex, roundIndex, eventSequence);
 
         // Campaign integration: UNSC Salvage
-        if (HandlerUtils.hasTag(dead, "VEHICLE")) {
+        if (HandlerUtils.hasTag(dead, CardTags.VEHICLE)) {
             campaignManager.unscSalvage().recordVehicleDestruction(attackerPos.playerId(), dead.instanceId());
         }
         
         // Campaign integration: Forerunner Matter Reconfiguration (物质重组)
-        if (HandlerUtils.hasTag(dead, "FORERUNNER")) {
+        if (HandlerUtils.hasTag(dead, CardTags.FORERUNNER)) {
             int refund = campaignManager.forerunnerVacuumEnergy().reconfigureMatter(
                 dead.ownerPlayerId(), dead.instanceId()
             );
             if (refund > 0) {
-                emit(EventType.FORERUNNER_MATTER_RECONFIGURED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+                emit(EventType.FORERUNNER_MATTER_RECONFIGURED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "instanceId", dead.instanceId(),
                     "energyRefund", refund
-                ));
+                )));
             }
         }
         
         // Campaign integration: Forerunner Promethean Data Remnant (数据残影)
-        if (HandlerUtils.hasTag(dead, "PROMETHEAN")) {
+        if (HandlerUtils.hasTag(dead, CardTags.PROMETHEAN)) {
             campaignManager.forerunnerPromethean().recordDeath(
                 dead.instanceId(), defenderPos.lane(), globalTurnIndex,
                 dead.definition().id(), dead.ownerPlayerId()
             );
-            emit(EventType.PROMETHEAN_DATA_REMNANT_CREATED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.PROMETHEAN_DATA_REMNANT_CREATED, dead.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "instanceId", dead.instanceId(),
                 "lane", defenderPos.lane().name()
-            ));
+            )));
         }
         
         // Campaign integration: Forerunner Composer - Collect biological data (合成器收集数据)
-        if (!HandlerUtils.hasTag(dead, "FORERUNNER") && !HandlerUtils.hasTag(dead, "VEHICLE")) {
+        if (!HandlerUtils.hasTag(dead, CardTags.FORERUNNER) && !HandlerUtils.hasTag(dead, CardTags.VEHICLE)) {
             // 攻击方如果是先行者，收集生物数据
-            if (HandlerUtils.hasTag(attackerPos.card(), "FORERUNNER")) {
+            if (HandlerUtils.hasTag(attackerPos.card(), CardTags.FORERUNNER)) {
                 campaignManager.forerunnerComposer().collectBiologicalData(
                     attackerPos.playerId(), dead.definition().id()
                 );
@@ -407,7 +399,7 @@ public class CombatHandler {
     }
 
     private void resolveOnKillTriggers(CardInstance attacker, CardInstance deadDefender, Lane lane, String activePlayerId, int globalTurnIndex, int roundIndex, long eventSequence) {
-        if (!HandlerUtils.hasKeyword(attacker, "INFECT") || HandlerUtils.isVehicle(deadDefender)) {
+        if (!HandlerUtils.hasKeyword(attacker, Keyword.INFECT) || HandlerUtils.isVehicle(deadDefender)) {
             return;
         }
 
@@ -415,15 +407,13 @@ public class CombatHandler {
             return;
         }
 
-        Optional<CardDef> tokenOpt = Optional.ofNullable(cardRepository.get("TOKEN-COMBAT-FORM"));
-        if (tokenOpt.isEmpty()) {
+        CompiledCard tokenCard = cardRepository.compiled("TOKEN-COMBAT-FORM");
+        if (tokenCard == null) {
             return;
         }
 
-        CardDef tokenDef = tokenOpt.get();
-        CardInstance token = new CardInstance(
-                UUID.randomUUID().toString(),
-                tokenDef,
+        CardInstance token = handleAllocator.create(
+                tokenCard,
                 attacker.ownerPlayerId(),
                 eventSequence,
                 attacker.definition().id()
@@ -434,40 +424,40 @@ public class CombatHandler {
         if (stats != null) {
             combatStateStore.put(token.instanceId(), new EntityCombatState(stats.shieldCap(), stats.healthCap()));
         }
-        UnitStatus status = unitStatusStore.getOrCreate(token.instanceId());
+        UnitStatus status = unitStatusStore.getOrCreate(token);
         status.setSummonedTurnIndex(globalTurnIndex);
-        status.setHasCamoThisTurn(HandlerUtils.hasKeyword(token, "CAMO"));
+        status.setHasCamoThisTurn(HandlerUtils.hasKeyword(token, Keyword.CAMO));
 
-        emit(EventType.INFECT_TRIGGERED, attacker.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.INFECT_TRIGGERED, attacker.ownerPlayerId(), globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "sourceInstanceId", attacker.instanceId(),
                 "tokenId", token.definition().id(),
                 "tokenInstanceId", token.instanceId(),
                 "lane", lane.name(),
                 "row", GameRow.BACKLINE.name()
-        ));
+        )));
 
         // Campaign integration: Flood Biomass
         campaignManager.covenantFaith().recordKill(attacker.ownerPlayerId(), deadDefender.definition().id());
     }
 
     private void applyEmpIfNeeded(CardInstance attacker, CardInstance defender, String defenderInstanceId, String activePlayerId, int globalTurnIndex, int roundIndex, long eventSequence) {
-        if (!HandlerUtils.hasKeyword(attacker, "EMP") || !HandlerUtils.isVehicle(defender)) {
+        if (!HandlerUtils.hasKeyword(attacker, Keyword.EMP) || !HandlerUtils.isVehicle(defender)) {
             return;
         }
-        UnitStatus defenderStatus = unitStatusStore.getOrCreate(defenderInstanceId);
+        UnitStatus defenderStatus = unitStatusStore.getOrCreate(defender);
         defenderStatus.setCannotAttackUntilTurn(globalTurnIndex + 1);
         defenderStatus.setCannotMoveUntilTurn(globalTurnIndex + 1);
 
-        emit(EventType.EMP_APPLIED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.EMP_APPLIED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "targetInstanceId", defenderInstanceId,
                 "cannotAttackUntilTurn", defenderStatus.cannotAttackUntilTurn(),
                 "cannotMoveUntilTurn", defenderStatus.cannotMoveUntilTurn()
-        ));
+        )));
     }
 
     private void ensureCanAttack(CardInstance attacker, int globalTurnIndex) {
-        UnitStatus status = unitStatusStore.getOrCreate(attacker.instanceId());
-        if (status.summonedTurnIndex() == globalTurnIndex && !HandlerUtils.hasKeyword(attacker, "DROP_POD")) {
+        UnitStatus status = unitStatusStore.getOrCreate(attacker);
+        if (status.summonedTurnIndex() == globalTurnIndex && !HandlerUtils.hasKeyword(attacker, Keyword.DROP_POD)) {
             throw new IllegalStateException("Unit has summoning sickness this turn");
         }
         if (status.cannotAttackUntilTurn() >= globalTurnIndex) {
@@ -476,22 +466,23 @@ public class CombatHandler {
     }
 
     private int squadBonus(UnitPosition attackerPos) {
-        if (!HandlerUtils.hasKeyword(attackerPos.card(), "SQUAD") || !HandlerUtils.isInfantry(attackerPos.card())) {
+        if (!HandlerUtils.hasKeyword(attackerPos.card(), Keyword.SQUAD) || !HandlerUtils.isInfantry(attackerPos.card())) {
             return 0;
         }
-        List<CardInstance> alliesInLane = battlefield.lane(attackerPos.lane()).unitsOf(attackerPos.playerId());
-        long otherInfantry = alliesInLane.stream()
-                .filter(unit -> !unit.instanceId().equals(attackerPos.card().instanceId()))
-                .filter(HandlerUtils::isInfantry)
-                .count();
-        return Math.min(2, (int) otherInfantry);
+        int otherInfantry = 0;
+        for (CardInstance unit : battlefield.lane(attackerPos.lane()).unitsView(attackerPos.playerId())) {
+            if (!unit.instanceId().equals(attackerPos.card().instanceId()) && HandlerUtils.isInfantry(unit)) {
+                otherInfantry++;
+            }
+        }
+        return Math.min(2, otherInfantry);
     }
 
     private DamageType inferDamageType(CardInstance card) {
-        if (HandlerUtils.hasKeyword(card, "PLASMA")) {
+        if (HandlerUtils.hasKeyword(card, Keyword.PLASMA)) {
             return DamageType.PLASMA;
         }
-        if (HandlerUtils.hasKeyword(card, "BALLISTIC")) {
+        if (HandlerUtils.hasKeyword(card, Keyword.BALLISTIC)) {
             return DamageType.BALLISTIC;
         }
         return DamageType.TRUE;
@@ -505,7 +496,7 @@ public class CombatHandler {
         return position;
     }
 
-    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, Map<String, Object> payload) {
+    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, EventPayload payload) {
         GameEvent event = new GameEvent(
                 eventSequence,
                 type,
@@ -2,14 +2,18 @@ package com.haloce.tcg.game.handlers;
 
 import com.haloce.tcg.card.loader.CardRepository;
 import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.model.Stats;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.CardTags;
+import com.haloce.tcg.combat.CombatStateStore;
 import com.haloce.tcg.combat.EntityCombatState;
-import com.haloce.tcg.combat.InMemoryCombatStateStore;
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventPayload;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
 import com.haloce.tcg.game.BattlefieldState;
+import com.haloce.tcg.game.CardEventPayload;
 import com.haloce.tcg.game.GameRow;
 import com.haloce.tcg.game.Lane;
 import com.haloce.tcg.game.PlayerState;
@@ -27,7 +31,7 @@ public class DeploymentHandler {
     @SuppressWarnings("unused")
     private final CardRepository cardRepository;
     private final BattlefieldState battlefield;
-    private final InMemoryCombatStateStore combatStateStore;
+    private final CombatStateStore combatStateStore;
     private final UnitStatusStore unitStatusStore;
     private final CampaignManager campaignManager;
 
@@ -35,7 +39,7 @@ public class DeploymentHandler {
             EventBus eventBus,
             CardRepository cardRepository,
             BattlefieldState battlefield,
-            InMemoryCombatStateStore combatStateStore,
+            CombatStateStore combatStateStore,
             UnitStatusStore unitStatusStore,
             CampaignManager campaignManager
     ) {
@@ -82,19 +86,14 @@ public class DeploymentHandler {
             combatStateStore.put(deployed.instanceId(), new EntityCombatState(stats.shieldCap(), stats.healthCap()));
         }
 
-        UnitStatus status = unitStatusStore.getOrCreate(deployed.instanceId());
+        UnitStatus status = unitStatusStore.getOrCreate(deployed);
         status.setSummonedTurnIndex(globalTurnIndex);
-        status.setHasCamoThisTurn(hasKeyword(deployed, "CAMO"));
+        status.setHasCamoThisTurn(HandlerUtils.hasKeyword(deployed, Keyword.CAMO));
 
-        emit(EventType.UNIT_DEPLOYED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                "cardId", deployed.definition().id(),
-                "cardInstanceId", deployed.instanceId(),
-                "lane", lane.name(),
-                "row", row.name()
-        ));
+        emit(EventType.UNIT_DEPLOYED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, CardEventPayload.deployed(deployed, lane, row));
 
         // Campaign integration: UNSC Drop Pod tracking
-        if (hasKeyword(deployed, "DROP_POD")) {
+        if (HandlerUtils.hasKeyword(deployed, Keyword.DROP_POD)) {
             campaignManager.unscDropPod().recordDropPodDeployment(playerId, deployed.instanceId(), lane);
         }
 
@@ -102,7 +101,7 @@ public class DeploymentHandler {
         campaignManager.covenantZealotry().recordDeployment(playerId, deployed.definition().id());
 
         // Campaign integration: Forerunner unit cost tracking for matter reconfiguration
-        if (HandlerUtils.hasTag(deployed, "FORERUNNER")) {
+        if (HandlerUtils.hasTag(deployed, CardTags.FORERUNNER)) {
             campaignManager.forerunnerVacuumEnergy().recordUnitCost(
                 playerId, deployed.instanceId(), supplyCost
             );
@@ -121,10 +120,10 @@ public class DeploymentHandler {
     public void convertToBattery(String playerId, String cardInstanceId, PlayerState player, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence) {
         player.convertHandCardToBattery(cardInstanceId);
 
-        emit(EventType.BATTERY_GENERATED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.BATTERY_GENERATED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "cardInstanceId", cardInstanceId,
                 "battery", player.battery()
-        ));
+        )));
     }
 
     private void resolveOnDeployTriggers(CardInstance deployed, Lane lane, String playerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence) {
@@ -149,15 +148,15 @@ public class DeploymentHandler {
             return;
         }
 
-        emit(EventType.STATUS_APPLIED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.STATUS_APPLIED, playerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "sourceInstanceId", deployed.instanceId(),
                 "targetInstanceId", ally.card().instanceId(),
                 "status", "HEAL",
                 "amount", healed
-        ));
+        )));
     }
 
-    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, Map<String, Object> payload) {
+    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, EventPayload payload) {
         GameEvent event = new GameEvent(
                 eventSequence,
                 type,
@@ -176,12 +175,4 @@ public class DeploymentHandler {
         eventBus.processQueue();
     }
 
-    private static boolean hasKeyword(CardInstance card, String keyword) {
-        if (card.definition().keywords() == null) {
-            return false;
-        }
-        return card.definition().keywords().stream()
-                .map(k -> k.name())
-                .anyMatch(keyword::equalsIgnoreCase);
-    }
 }
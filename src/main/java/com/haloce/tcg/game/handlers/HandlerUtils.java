@@ -1,13 +1,14 @@
 package com.haloce.tcg.game.handlers;
 
-import com.haloce.tcg.card.model.CardType;
-import com.haloce.tcg.card.model.KeywordInstance;
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.model.Stats;
 import com.haloce.tcg.card.runtime.CardInstance;
 import com.haloce.tcg.combat.EntityCombatState;
-import com.haloce.tcg.combat.InMemoryCombatStateStore;
+import com.haloce.tcg.combat.CombatStateStore;
 import com.haloce.tcg.game.BattlefieldState;
+import com.haloce.tcg.game.GameRow;
 import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.LaneBoardState;
 import com.haloce.tcg.game.UnitPosition;
 
 import java.util.List;
@@ -18,41 +19,35 @@ import java.util.Optional;
  */
 public class HandlerUtils {
 
+    public static boolean hasKeyword(CardInstance card, Keyword keyword) {
+        return card.card().hasKeyword(keyword);
+    }
+
     public static boolean hasKeyword(CardInstance card, String keyword) {
-        if (card.definition().keywords() == null) {
-            return false;
-        }
-        return card.definition().keywords().stream()
-                .map(KeywordInstance::name)
-                .anyMatch(keyword::equalsIgnoreCase);
+        return card.card().hasKeyword(keyword);
+    }
+
+    /**
+     * @param tagIndex index from {@link com.haloce.tcg.card.runtime.CardTags}
+     */
+    public static boolean hasTag(CardInstance card, int tagIndex) {
+        return card.card().hasTag(tagIndex);
     }
 
     public static boolean hasTag(CardInstance card, String tag) {
-        if (card.definition().tags() == null) {
-            return false;
-        }
-        return card.definition().tags().stream().anyMatch(tag::equalsIgnoreCase);
+        return card.card().hasTag(tag);
     }
 
     public static boolean isVehicle(CardInstance card) {
-        return card.definition().cardType() == CardType.VESSEL
-                || hasKeyword(card, "VEHICLE")
-                || hasTag(card, "VEHICLE")
-                || hasTag(card, "VESSEL");
+        return card.card().isVehicle();
     }
 
     public static boolean isInfantry(CardInstance card) {
-        return card.definition().cardType() == CardType.UNIT
-                && !isVehicle(card)
-                && (hasTag(card, "INFANTRY") || !hasTag(card, "VEHICLE"));
+        return card.card().isInfantry();
     }
 
     public static int attackValue(CardInstance card) {
-        Stats stats = card.definition().stats();
-        if (stats == null) {
-            return 0;
-        }
-        return stats.attack();
+        return card.card().attack();
     }
 
     public static Optional<UnitPosition> findMostDamagedAlly(
@@ -60,27 +55,30 @@ public class HandlerUtils {
             Lane preferredLane,
             String excludeInstanceId,
             BattlefieldState battlefield,
-            InMemoryCombatStateStore combatStateStore
+            CombatStateStore combatStateStore
     ) {
         UnitPosition selected = null;
         int maxMissing = 0;
 
         List<Lane> laneOrder = List.of(preferredLane, Lane.ALPHA, Lane.BRAVO, Lane.CHARLIE);
         for (Lane lane : laneOrder) {
-            List<CardInstance> allies = battlefield.lane(lane).unitsOf(ownerPlayerId);
-            for (CardInstance ally : allies) {
-                if (ally.instanceId().equals(excludeInstanceId)) {
-                    continue;
-                }
-                Stats stats = ally.definition().stats();
-                if (stats == null || stats.healthCap() <= 0) {
-                    continue;
-                }
-                EntityCombatState state = combatStateStore.get(ally.instanceId());
-                int missing = stats.healthCap() - state.currentHealth();
-                if (missing > maxMissing) {
-                    maxMissing = missing;
-                    selected = new UnitPosition(ownerPlayerId, lane, battlefield.lane(lane).locate(ally.instanceId(), lane).row(), ally);
+            LaneBoardState side = battlefield.lane(lane).side(ownerPlayerId);
+            for (GameRow row : GameRow.values()) {
+                List<CardInstance> allies = row == GameRow.FRONTLINE ? side.frontline() : side.backline();
+                for (CardInstance ally : allies) {
+                    if (ally.instanceId().equals(excludeInstanceId)) {
+                        continue;
+                    }
+                    Stats stats = ally.definition().stats();
+                    if (stats == null || stats.healthCap() <= 0) {
+                        continue;
+                    }
+                    EntityCombatState state = combatStateStore.get(ally.instanceId());
+                    int missing = stats.healthCap() - state.currentHealth();
+                    if (missing > maxMissing) {
+                        maxMissing = missing;
+                        selected = new UnitPosition(ownerPlayerId, lane, row, ally);
+                    }
                 }
             }
             if (selected != null) {
@@ -1,18 +1,24 @@
 package com.haloce.tcg.game.handlers;
 
+import com.haloce.tcg.card.model.Keyword;
 import com.haloce.tcg.card.model.Stats;
 import com.haloce.tcg.card.runtime.CardInstance;
-import com.haloce.tcg.combat.EntityCombatState;
-import com.haloce.tcg.combat.InMemoryCombatStateStore;
+import com.haloce.tcg.combat.CombatStateStore;
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventPayload;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
 import com.haloce.tcg.game.BattlefieldState;
+import com.haloce.tcg.game.CardEventPayload;
 import com.haloce.tcg.game.PlayerState;
+import com.haloce.tcg.game.ShieldRechargePayload;
+import com.haloce.tcg.game.SupplyEventPayload;
+import com.haloce.tcg.game.TurnEventPayload;
 import com.haloce.tcg.game.UnitStatus;
 import com.haloce.tcg.game.UnitStatusStore;
 import com.haloce.tcg.game.campaign.CampaignManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,16 +26,18 @@ import java.util.Map;
  * Handles turn flow, phase transitions, and turn-based triggers
  */
 public class TurnFlowHandler {
+    private static final EventPayload TURN_END_EXPIRY = EventPayload.of(Map.of("scope", "TURN_END"));
+
     private final EventBus eventBus;
     private final BattlefieldState battlefield;
-    private final InMemoryCombatStateStore combatStateStore;
+    private final CombatStateStore combatStateStore;
     private final UnitStatusStore unitStatusStore;
     private final CampaignManager campaignManager;
 
     public TurnFlowHandler(
             EventBus eventBus,
             BattlefieldState battlefield,
-            InMemoryCombatStateStore combatStateStore,
+            CombatStateStore combatStateStore,
             UnitStatusStore unitStatusStore,
             CampaignManager campaignManager
     ) {
@@ -54,31 +62,25 @@ public class TurnFlowHandler {
 
         activePlayer.startTurnResourceStep();
 
-        emit(EventType.TURN_STARTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                "globalTurnIndex", globalTurnIndex,
-                "roundIndex", roundIndex
-        ));
+        emit(EventType.TURN_STARTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, TurnEventPayload.turnStarted(globalTurnIndex, roundIndex));
 
         if (!skipDraw) {
             List<CardInstance> drawn = activePlayer.draw(1);
             if (!drawn.isEmpty()) {
                 CardInstance card = drawn.get(0);
-                emit(EventType.CARD_DRAWN, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
-                        "cardId", card.definition().id(),
-                        "cardInstanceId", card.instanceId()
-                ));
+                emit(EventType.CARD_DRAWN, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, CardEventPayload.drawn(card));
             }
         }
 
-        emit(EventType.SUPPLY_CAP_INCREASED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of("supplyCap", activePlayer.supplyCap()));
-        emit(EventType.SUPPLY_REFILLED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of("currentSupply", activePlayer.currentSupply()));
+        emit(EventType.SUPPLY_CAP_INCREASED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, SupplyEventPayload.capIncreased(activePlayer.supplyCap()));
+        emit(EventType.SUPPLY_REFILLED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, SupplyEventPayload.refilled(activePlayer.currentSupply()));
 
         // Campaign integration: Check for Spartan MIA recovery
         List<String> recoveredSpartans = campaignManager.spartanHero().checkMIARecovery(activePlayerId, globalTurnIndex);
         for (String spartanId : recoveredSpartans) {
-            emit(EventType.SPARTAN_MIA_RECOVERED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.SPARTAN_MIA_RECOVERED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "spartanInstanceId", spartanId
-            ));
+            )));
         }
 
         // Campaign integration: Covenant Deploy mass deploy check
@@ -89,10 +91,10 @@ public class TurnFlowHandler {
 
         // Campaign integration: Forerunner power level increment
         campaignManager.forerunnerVacuumEnergy().incrementPowerLevel(activePlayerId);
-        emit(EventType.FORERUNNER_POWER_LEVEL_INCREASED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+        emit(EventType.FORERUNNER_POWER_LEVEL_INCREASED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                 "playerId", activePlayerId,
                 "newPowerLevel", campaignManager.forerunnerVacuumEnergy().getPowerLevel(activePlayerId)
-        ));
+        )));
     }
 
     public void onTurnEnd(
@@ -102,7 +104,7 @@ public class TurnFlowHandler {
             long eventSequence
     ) {
         resolveOnTurnEndedTriggers(endingPlayerId, globalTurnIndex, roundIndex, eventSequence);
-        emit(EventType.TURN_ENDED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, Map.of("globalTurnIndex", globalTurnIndex));
+        emit(EventType.TURN_ENDED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, TurnEventPayload.turnEnded(globalTurnIndex, roundIndex));
 
         // Campaign integration: Covenant Faith ritual check
         campaignManager.covenantFaith().checkRitualOverdrive(endingPlayerId, globalTurnIndex);
@@ -113,86 +115,86 @@ public class TurnFlowHandler {
         // Campaign integration: Forerunner Sentinel auto-repair queue processing
         List<String> repairedSentinels = campaignManager.forerunnerSentinelNetwork().processRepairQueue(endingPlayerId, globalTurnIndex);
         for (String sentinelId : repairedSentinels) {
-            emit(EventType.SENTINEL_AUTO_REPAIRED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, Map.of(
+            emit(EventType.SENTINEL_AUTO_REPAIRED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, EventPayload.of(Map.of(
                     "sentinelInstanceId", sentinelId
-            ));
+            )));
         }
 
         // Campaign integration: Forerunner Composer upgrade progress check
         List<String> completedUpgrades = campaignManager.forerunnerComposer().checkUpgradeCompletion(endingPlayerId, globalTurnIndex);
         for (String sentinelId : completedUpgrades) {
-            emit(EventType.SENTINEL_UPGRADE_COMPLETED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, Map.of(
+            emit(EventType.SENTINEL_UPGRADE_COMPLETED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, EventPayload.of(Map.of(
                     "sentinelInstanceId", sentinelId
-            ));
+            )));
         }
     }
 
     public void onRoundStart(int roundIndex, String activePlayerId, int globalTurnIndex, long eventSequence) {
-        emit(EventType.ROUND_STARTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of("roundIndex", roundIndex));
+        emit(EventType.ROUND_STARTED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, TurnEventPayload.roundStarted(globalTurnIndex, roundIndex));
 
         // Campaign integration: Forerunner Sentinel Network manufactory token production
         List<String> manufacturedSentinels = campaignManager.forerunnerSentinelNetwork().produceManufactoryTokens(activePlayerId, globalTurnIndex);
         for (String sentinelId : manufacturedSentinels) {
-            emit(EventType.SENTINEL_MANUFACTURED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, Map.of(
+            emit(EventType.SENTINEL_MANUFACTURED, activePlayerId, globalTurnIndex, roundIndex, activePlayerId, eventSequence, EventPayload.of(Map.of(
                     "sentinelInstanceId", sentinelId,
                     "playerId", activePlayerId
-            ));
+            )));
         }
     }
 
     public void onRoundEnd(String endingPlayerId, int roundIndex, int globalTurnIndex, long eventSequence) {
-        emit(EventType.ROUND_ENDED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, Map.of("roundIndex", roundIndex));
+        emit(EventType.ROUND_ENDED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, TurnEventPayload.roundEnded(globalTurnIndex, roundIndex));
 
         // Campaign integration: Covenant Orbital Dominance glassing check
         campaignManager.covenantOrbital().processGlassingMarks(endingPlayerId, globalTurnIndex);
     }
 
     private void refreshTurnStatuses(String activePlayerId) {
-        for (CardInstance unit : battlefield.unitsOfPlayer(activePlayerId)) {
-            UnitStatus status = unitStatusStore.getOrCreate(unit.instanceId());
-            status.setHasCamoThisTurn(HandlerUtils.hasKeyword(unit, "CAMO"));
-        }
+        battlefield.forEachUnitOf(activePlayerId, unit -> {
+            UnitStatus status = unitStatusStore.getOrCreate(unit);
+            status.setHasCamoThisTurn(HandlerUtils.hasKeyword(unit, Keyword.CAMO));
+        });
     }
 
     private void rechargeShieldsAtTurnStart(String activePlayerId, int globalTurnIndex, int roundIndex, String activePlayer, long eventSequence) {
-        for (CardInstance unit : battlefield.unitsOfPlayer(activePlayerId)) {
+        int unitCount = battlefield.unitCountOf(activePlayerId);
+        List<String> rechargedIds = new ArrayList<>(unitCount);
+        int[] targets = new int[unitCount];
+
+        // Campaign integration: UNSC morale multiplier
+        double rechargeMultiplier = campaignManager.unscTactical().getMoraleRechargeMultiplier(activePlayerId);
+        battlefield.forEachUnitOf(activePlayerId, unit -> {
             Stats stats = unit.definition().stats();
             if (stats == null || stats.shieldCap() <= 0) {
-                continue;
+                return;
             }
 
-            UnitStatus status = unitStatusStore.getOrCreate(unit.instanceId());
+            UnitStatus status = unitStatusStore.getOrCreate(unit);
             if (status.damagedLastOpponentTurn(activePlayerId, globalTurnIndex)) {
-                continue;
+                return;
             }
 
-            EntityCombatState state = combatStateStore.get(unit.instanceId());
-            int before = state.currentShield();
-
-            // Campaign integration: UNSC morale multiplier
-            double rechargeMultiplier = campaignManager.unscTactical().getMoraleRechargeMultiplier(activePlayerId);
             int rechargeAmount = (int) Math.ceil(stats.shieldCap() * rechargeMultiplier);
+            targets[rechargedIds.size()] = Math.min(stats.shieldCap(), rechargeAmount);
+            rechargedIds.add(unit.instanceId());
+        });
+
+        int[] before = new int[rechargedIds.size()];
+        combatStateStore.rechargeShields(rechargedIds, targets, before);
 
-            state.rechargeShieldTo(Math.min(stats.shieldCap(), rechargeAmount));
-            
-            if (state.currentShield() != before) {
-                emit(EventType.STATUS_REFRESHED, activePlayerId, globalTurnIndex, roundIndex, activePlayer, eventSequence, Map.of(
-                        "targetInstanceId", unit.instanceId(),
-                        "status", "SHIELD_RECHARGE",
-                        "from", before,
-                        "to", state.currentShield()
-                ));
+        for (int i = 0; i < rechargedIds.size(); i++) {
+            int after = Math.max(0, targets[i]);
+            if (after != before[i]) {
+                emit(EventType.STATUS_REFRESHED, activePlayerId, globalTurnIndex, roundIndex, activePlayer, eventSequence, new ShieldRechargePayload(rechargedIds.get(i), before[i], after));
             }
         }
     }
 
     private void resolveOnTurnEndedTriggers(String endingPlayerId, int globalTurnIndex, int roundIndex, long eventSequence) {
-        emit(EventType.STATUS_EXPIRED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, Map.of(
-                "scope", "TURN_END"
-        ));
+        emit(EventType.STATUS_EXPIRED, endingPlayerId, globalTurnIndex, roundIndex, endingPlayerId, eventSequence, TURN_END_EXPIRY);
     }
 
-    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, Map<String, Object> payload) {
+    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, EventPayload payload) {
         GameEvent event = new GameEvent(
                 eventSequence,
                 type,
@@ -1,20 +1,23 @@
 package com.haloce.tcg.game.handlers;
 
 import com.haloce.tcg.core.event.EventBus;
+import com.haloce.tcg.core.event.EventPayload;
 import com.haloce.tcg.core.event.EventType;
 import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.core.hash.ZobristHash;
+import com.haloce.tcg.core.undo.JournaledMap;
+import com.haloce.tcg.core.undo.UndoLog;
 import com.haloce.tcg.game.BattlefieldState;
 import com.haloce.tcg.game.GameMode;
 import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.LaneControlPayload;
 import com.haloce.tcg.game.PlayerState;
+import com.haloce.tcg.game.TeamRelations;
 import com.haloce.tcg.game.VictoryReason;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 /**
  * Evaluates and enforces win conditions
@@ -23,23 +26,89 @@ public class WinConditionEvaluator {
     private final EventBus eventBus;
     private final BattlefieldState battlefield;
     private final GameMode gameMode;
-    private final Map<String, String> teamByPlayer;
+    private final TeamRelations teamRelations;
     private final Map<String, Integer> teamControlStreak;
-    private final Set<String> eliminatedPlayers;
+    // Last (controlledLaneCount, fullControlStreak) announced per player or team; only changes are emitted.
+    private final Map<String, LaneControl> announcedLaneControl;
 
     public WinConditionEvaluator(
             EventBus eventBus,
             BattlefieldState battlefield,
             GameMode gameMode,
-            Map<String, String> teamByPlayer
+            TeamRelations teamRelations
+    ) {
+        this(eventBus, battlefield, gameMode, teamRelations, new UndoLog());
+    }
+
+    public WinConditionEvaluator(
+            EventBus eventBus,
+            BattlefieldState battlefield,
+            GameMode gameMode,
+            TeamRelations teamRelations,
+            UndoLog undoLog
     ) {
         this.eventBus = eventBus;
         this.battlefield = battlefield;
         this.gameMode = gameMode;
-        this.teamByPlayer = teamByPlayer;
-        this.teamControlStreak = new HashMap<>();
-        this.eliminatedPlayers = new HashSet<>();
-        initializeTeamStreaks();
+        this.teamRelations = teamRelations;
+        this.teamControlStreak = new JournaledMap<>(undoLog);
+        this.announcedLaneControl = new JournaledMap<>(undoLog);
+    }
+
+    /**
+     * Evaluator for a forked match: same streaks and announced lane control, wired to the fork's
+     * bus, board and team relations.
+     */
+    public WinConditionEvaluator copy(
+            EventBus eventBus,
+            BattlefieldState battlefield,
+            TeamRelations teamRelations,
+            UndoLog undoLog
+    ) {
+        WinConditionEvaluator copy = new WinConditionEvaluator(eventBus, battlefield, gameMode, teamRelations, undoLog);
+        copy.teamControlStreak.putAll(teamControlStreak);
+        copy.announcedLaneControl.putAll(announcedLaneControl);
+        return copy;
+    }
+
+    /**
+     * Zobrist key of the streaks and announced lane control, independent of map order.
+     */
+    public long hashKey() {
+        long key = 0L;
+        for (Map.Entry<String, Integer> streak : teamControlStreak.entrySet()) {
+            key ^= ZobristHash.key(ZobristHash.CONTROL_STREAK, ZobristHash.idKey(streak.getKey()), streak.getValue());
+        }
+        for (Map.Entry<String, LaneControl> control : announcedLaneControl.entrySet()) {
+            key ^= ZobristHash.chain(ZobristHash.key(ZobristHash.LANE_CONTROL, ZobristHash.idKey(control.getKey()),
+                    control.getValue().controlledLaneCount()), control.getValue().fullControlStreak());
+        }
+        return key;
+    }
+
+    /**
+     * Streaks and announced lane control as plain values, for a saved match.
+     */
+    public Data data() {
+        return new Data(new TreeMap<>(teamControlStreak), new TreeMap<>(announcedLaneControl));
+    }
+
+    /**
+     * Evaluator rebuilt from {@link #data()}, wired to the restored match's bus, board and team
+     * relations.
+     */
+    public static WinConditionEvaluator restore(
+            Data data,
+            EventBus eventBus,
+            BattlefieldState battlefield,
+            GameMode gameMode,
+            TeamRelations teamRelations,
+            UndoLog undoLog
+    ) {
+        WinConditionEvaluator evaluator = new WinConditionEvaluator(eventBus, battlefield, gameMode, teamRelations, undoLog);
+        evaluator.teamControlStreak.putAll(data.teamControlStreak());
+        evaluator.announcedLaneControl.putAll(data.announcedLaneControl());
+        return evaluator;
     }
 
     public WinResult evaluateWinConditions(
@@ -68,29 +137,26 @@ public class WinConditionEvaluator {
         // Priority 2: Full lane control streak
         if (gameMode == GameMode.TEAM_2V2) {
             String teamId = teamOf(currentPlayerId);
-            int controlled = controlledLaneCountForTeam(teamId, turnOrder);
+            int controlled = battlefield.controlledLaneCountForTeam(teamId);
             int streak = controlled == Lane.values().length
                     ? teamControlStreak.compute(teamId, (k, v) -> v == null ? 1 : v + 1)
                     : teamControlStreak.compute(teamId, (k, v) -> 0);
 
-            emit(EventType.LANE_CONTROL_UPDATED, currentPlayerId, globalTurnIndex, roundIndex, currentPlayerId, eventSequence, Map.of(
-                    "teamId", teamId,
-                    "controlledLaneCount", controlled,
-                    "fullControlStreak", streak
-            ));
+            if (laneControlChanged(teamId, controlled, streak)) {
+                emit(EventType.LANE_CONTROL_UPDATED, currentPlayerId, globalTurnIndex, roundIndex, currentPlayerId, eventSequence, new LaneControlPayload(teamId, controlled, streak));
+            }
 
             if (streak >= 2) {
                 return finishGame(currentPlayerId, teamId, VictoryReason.TEAM_FULL_CONTROL_STREAK, globalTurnIndex, roundIndex, eventSequence);
             }
         } else {
             PlayerState current = playersById.get(currentPlayerId);
-            int controlled = controlledLaneCountForPlayer(currentPlayerId, turnOrder);
+            int controlled = battlefield.controlledLaneCountForPlayer(currentPlayerId);
             current.setLaneControl(controlled);
 
-            emit(EventType.LANE_CONTROL_UPDATED, currentPlayerId, globalTurnIndex, roundIndex, currentPlayerId, eventSequence, Map.of(
-                    "controlledLaneCount", controlled,
-                    "fullControlStreak", current.fullControlStreak()
-            ));
+            if (laneControlChanged(currentPlayerId, controlled, current.fullControlStreak())) {
+                emit(EventType.LANE_CONTROL_UPDATED, currentPlayerId, globalTurnIndex, roundIndex, currentPlayerId, eventSequence, new LaneControlPayload(null, controlled, current.fullControlStreak()));
+            }
 
             if (current.fullControlStreak() >= 2) {
                 return finishGame(currentPlayerId, teamOf(currentPlayerId), VictoryReason.FULL_CONTROL_STREAK, globalTurnIndex, roundIndex, eventSequence);
@@ -101,126 +167,61 @@ public class WinConditionEvaluator {
     }
 
     public boolean isPlayerEliminated(String playerId) {
-        return eliminatedPlayers.contains(playerId);
+        return teamRelations.isEliminated(playerId);
     }
 
     private void refreshEliminationByBaseHealth(Map<String, PlayerState> playersById) {
         for (PlayerState player : playersById.values()) {
             if (player.baseHealth() <= 0) {
-                eliminatedPlayers.add(player.playerId());
+                teamRelations.markEliminated(player.playerId());
             }
         }
     }
 
     private WinResult evaluateSingleWinnerByElimination(List<String> turnOrder, int globalTurnIndex, int roundIndex, String currentPlayerId, long eventSequence) {
-        List<String> alive = alivePlayerIds(turnOrder);
-        if (alive.size() == 1) {
-            String winner = alive.get(0);
+        long alive = teamRelations.aliveMask();
+        if (Long.bitCount(alive) == 1) {
+            String winner = turnOrder.get(Long.numberOfTrailingZeros(alive));
             return finishGame(winner, teamOf(winner), VictoryReason.LAST_PLAYER_STANDING, globalTurnIndex, roundIndex, eventSequence);
         }
         return null;
     }
 
     private WinResult evaluateTeamVictoryByElimination(List<String> turnOrder, int globalTurnIndex, int roundIndex, String currentPlayerId, long eventSequence) {
-        Set<String> aliveTeams = alivePlayerIds(turnOrder).stream()
-                .map(this::teamOf)
-                .collect(Collectors.toSet());
-        if (aliveTeams.size() == 1) {
-            String winnerTeam = aliveTeams.iterator().next();
-            String winnerPlayer = alivePlayerIds(turnOrder).stream().findFirst().orElse(null);
+        long alive = teamRelations.aliveMask();
+        if (alive != 0 && teamRelations.aliveTeamCount() == 1) {
+            String winnerPlayer = turnOrder.get(Long.numberOfTrailingZeros(alive));
+            String winnerTeam = teamOf(winnerPlayer);
             return finishGame(winnerPlayer, winnerTeam, VictoryReason.LAST_TEAM_STANDING, globalTurnIndex, roundIndex, eventSequence);
         }
         return null;
     }
 
-    private int controlledLaneCountForPlayer(String playerId, List<String> turnOrder) {
-        int count = 0;
-        List<String> own = List.of(playerId);
-        List<String> opponents = opponentsOf(playerId, turnOrder);
-        for (Lane lane : Lane.values()) {
-            int ownTotal = battlefield.laneUnitCount(lane, own);
-            int opponentTotal = battlefield.laneUnitCount(lane, opponents);
-            int opponentFrontline = battlefield.laneFrontlineCount(lane, opponents);
-            if (ownTotal > opponentTotal && opponentFrontline == 0) {
-                count++;
-            }
-        }
-        return count;
-    }
-
-    private int controlledLaneCountForTeam(String teamId, List<String> turnOrder) {
-        int count = 0;
-        List<String> own = alliesOfTeam(teamId, turnOrder);
-        List<String> opponents = opponentsOfTeam(teamId, turnOrder);
-        for (Lane lane : Lane.values()) {
-            int ownTotal = battlefield.laneUnitCount(lane, own);
-            int opponentTotal = battlefield.laneUnitCount(lane, opponents);
-            int opponentFrontline = battlefield.laneFrontlineCount(lane, opponents);
-            if (ownTotal > opponentTotal && opponentFrontline == 0) {
-                count++;
-            }
-        }
-        return count;
+    private boolean laneControlChanged(String key, int controlled, int streak) {
+        LaneControl current = new LaneControl(controlled, streak);
+        return !current.equals(announcedLaneControl.put(key, current));
     }
 
     private WinResult finishGame(String winnerPlayer, String teamId, VictoryReason reason, int globalTurnIndex, int roundIndex, long eventSequence) {
         String reasonName = reason.name();
-        emit(EventType.WIN_CONDITION_MET, winnerPlayer, globalTurnIndex, roundIndex, winnerPlayer, eventSequence, Map.of(
+        emit(EventType.WIN_CONDITION_MET, winnerPlayer, globalTurnIndex, roundIndex, winnerPlayer, eventSequence, EventPayload.of(Map.of(
                 "reason", reasonName,
                 "winnerPlayerId", winnerPlayer,
                 "winnerTeamId", teamId
-        ));
-        emit(EventType.GAME_ENDED, winnerPlayer, globalTurnIndex, roundIndex, winnerPlayer, eventSequence, Map.of(
+        )));
+        emit(EventType.GAME_ENDED, winnerPlayer, globalTurnIndex, roundIndex, winnerPlayer, eventSequence, EventPayload.of(Map.of(
                 "winnerPlayerId", winnerPlayer,
                 "winnerTeamId", teamId,
                 "reason", reasonName
-        ));
+        )));
         return new WinResult(winnerPlayer, teamId, reason);
     }
 
-    private void initializeTeamStreaks() {
-        for (String teamId : teamByPlayer.values()) {
-            teamControlStreak.put(teamId, 0);
-        }
-    }
-
     private String teamOf(String playerId) {
-        return teamByPlayer.getOrDefault(playerId, playerId);
-    }
-
-    private List<String> alliesOfTeam(String teamId, List<String> turnOrder) {
-        return turnOrder.stream()
-                .filter(id -> teamOf(id).equals(teamId))
-                .collect(Collectors.toList());
-    }
-
-    private List<String> opponentsOf(String playerId, List<String> turnOrder) {
-        return turnOrder.stream()
-                .filter(id -> areOpponents(playerId, id))
-                .collect(Collectors.toList());
-    }
-
-    private List<String> opponentsOfTeam(String teamId, List<String> turnOrder) {
-        return turnOrder.stream()
-                .filter(id -> !teamOf(id).equals(teamId))
-                .collect(Collectors.toList());
-    }
-
-    private boolean areOpponents(String playerA, String playerB) {
-        if (playerA.equals(playerB)) {
-            return false;
-        }
-        if (gameMode == GameMode.TEAM_2V2) {
-            return !teamOf(playerA).equals(teamOf(playerB));
-        }
-        return true;
-    }
-
-    private List<String> alivePlayerIds(List<String> turnOrder) {
-        return turnOrder.stream().filter(id -> !eliminatedPlayers.contains(id)).collect(Collectors.toList());
+        return teamRelations.teamOf(playerId);
     }
 
-    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, Map<String, Object> payload) {
+    private void emit(EventType type, String sourcePlayerId, int globalTurnIndex, int roundIndex, String activePlayerId, long eventSequence, EventPayload payload) {
         GameEvent event = new GameEvent(
                 eventSequence,
                 type,
@@ -239,5 +240,9 @@ public class WinConditionEvaluator {
         eventBus.processQueue();
     }
 
+    public record LaneControl(int controlledLaneCount, int fullControlStreak) {}
+
+    public record Data(Map<String, Integer> teamControlStreak, Map<String, LaneControl> announcedLaneControl) {}
+
     public record WinResult(String winnerPlayerId, String winnerTeamId, VictoryReason reason) {}
 }
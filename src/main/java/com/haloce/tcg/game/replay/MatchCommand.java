@@ -0,0 +1,89 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.game.GameRow;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionType;
+
+/**
+ * One command applied to a match, in the form a {@link MatchRecording} stores it. Fields a command
+ * type does not use are {@code null}.
+ *
+ * @param actorId          player who issued the command; required for {@code DEPLOY} and
+ *                         {@code CONVERT_TO_BATTERY}
+ * @param cardInstanceId   hand card, attacker or hijacker
+ * @param targetInstanceId defending unit or hijacked vehicle
+ * @param targetPlayerId   player whose base is attacked
+ */
+public record MatchCommand(
+        ActionType type,
+        String actorId,
+        String cardInstanceId,
+        String targetInstanceId,
+        String targetPlayerId,
+        Lane lane,
+        GameRow row
+) {
+    public MatchCommand {
+        if (type == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+    }
+
+    public static MatchCommand deploy(String actorId, String cardInstanceId, Lane lane, GameRow row) {
+        return new MatchCommand(ActionType.DEPLOY, actorId, cardInstanceId, null, null, lane, row);
+    }
+
+    public static MatchCommand convertToBattery(String actorId, String cardInstanceId) {
+        return new MatchCommand(ActionType.CONVERT_TO_BATTERY, actorId, cardInstanceId, null, null, null, null);
+    }
+
+    public static MatchCommand hijack(String actorId, String hijackerInstanceId, String targetVehicleInstanceId) {
+        return new MatchCommand(ActionType.HIJACK, actorId, hijackerInstanceId, targetVehicleInstanceId, null, null, null);
+    }
+
+    public static MatchCommand attackUnit(String attackerInstanceId, String defenderInstanceId) {
+        return new MatchCommand(ActionType.ATTACK_UNIT, null, attackerInstanceId, defenderInstanceId, null, null, null);
+    }
+
+    public static MatchCommand attackBase(String attackerInstanceId, String targetPlayerId) {
+        return new MatchCommand(ActionType.ATTACK_BASE, null, attackerInstanceId, null, targetPlayerId, null, null);
+    }
+
+    public static MatchCommand advancePhase() {
+        return new MatchCommand(ActionType.ADVANCE_PHASE, null, null, null, null, null, null);
+    }
+
+    public static MatchCommand endTurn() {
+        return new MatchCommand(ActionType.END_TURN, null, null, null, null, null, null);
+    }
+
+    /**
+     * The command for a generated action, taken by {@code actorId}; read it before the action is
+     * applied, while the buffer is still current.
+     */
+    public static MatchCommand of(ActionBuffer actions, int index, String actorId) {
+        return new MatchCommand(
+                actions.type(index),
+                actorId,
+                actions.card(index) == null ? null : actions.card(index).instanceId(),
+                actions.target(index) == null ? null : actions.target(index).instanceId(),
+                actions.targetPlayerId(index),
+                actions.lane(index),
+                actions.row(index)
+        );
+    }
+
+    public void applyTo(GameStateManager game) {
+        switch (type) {
+            case DEPLOY -> game.deployUnitFromHand(actorId, cardInstanceId, lane, row);
+            case CONVERT_TO_BATTERY -> game.convertToBattery(actorId, cardInstanceId);
+            case HIJACK -> game.hijackVehicle(cardInstanceId, targetInstanceId);
+            case ATTACK_UNIT -> game.declareAttack(cardInstanceId, targetInstanceId);
+            case ATTACK_BASE -> game.attackBase(cardInstanceId, targetPlayerId);
+            case ADVANCE_PHASE -> game.advancePhase();
+            case END_TURN -> game.endTurn();
+        }
+    }
+}
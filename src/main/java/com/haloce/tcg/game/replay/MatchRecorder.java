@@ -0,0 +1,62 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.PlayerSeat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the {@link MatchRecording} of a live match. Call {@link #record} after each command that
+ * succeeded, under the same lock that guards the game.
+ */
+public class MatchRecorder {
+    private final GameMode mode;
+    private final List<PlayerSeat> seats;
+    private final GameStateManager game;
+    private final List<MatchCommand> commands = new ArrayList<>();
+    private final List<TurnCheckpoint> checkpoints = new ArrayList<>();
+    private int lastTurnIndex;
+    private GameStatus lastStatus;
+
+    /**
+     * @param game a match just started from {@code seats}, before any command
+     */
+    public MatchRecorder(GameMode mode, List<PlayerSeat> seats, GameStateManager game) {
+        this.mode = mode;
+        this.seats = List.copyOf(seats);
+        this.game = game;
+        checkpoint();
+    }
+
+    public synchronized void record(MatchCommand command) {
+        commands.add(command);
+        if (game.globalTurnIndex() != lastTurnIndex || game.status() != lastStatus) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Applies {@code command} to the game and records it if it succeeds.
+     */
+    public void apply(MatchCommand command) {
+        command.applyTo(game);
+        record(command);
+    }
+
+    public synchronized int commandCount() {
+        return commands.size();
+    }
+
+    public synchronized MatchRecording recording() {
+        return new MatchRecording(mode, seats, game.seed(), commands, checkpoints);
+    }
+
+    private void checkpoint() {
+        lastTurnIndex = game.globalTurnIndex();
+        lastStatus = game.status();
+        checkpoints.add(new TurnCheckpoint(commands.size(), lastTurnIndex, game.stateHash()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.PlayerSeat;
+
+import java.util.List;
+
+/**
+ * Everything needed to replay a match: how it was set up, its seed and the commands applied to it
+ * in order, plus the state hash at each turn boundary to check the replay against.
+ */
+public record MatchRecording(
+        GameMode mode,
+        List<PlayerSeat> seats,
+        long seed,
+        List<MatchCommand> commands,
+        List<TurnCheckpoint> checkpoints
+) {
+    public MatchRecording {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode is required");
+        }
+        if (seats == null || seats.size() < 2) {
+            throw new IllegalArgumentException("At least 2 seats are required");
+        }
+        seats = List.copyOf(seats);
+        commands = commands == null ? List.of() : List.copyOf(commands);
+        checkpoints = checkpoints == null ? List.of() : List.copyOf(checkpoints);
+    }
+}
@@ -0,0 +1,52 @@
+package com.haloce.tcg.game.replay;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads and writes {@link MatchRecording}s and {@link SavedTimeline}s as JSON files.
+ */
+public class MatchRecordingIO {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    public MatchRecording read(Path path) {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return mapper.readValue(stream, MatchRecording.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read match recording: " + path, e);
+        }
+    }
+
+    public void write(MatchRecording recording, Path path) {
+        try (OutputStream stream = Files.newOutputStream(path)) {
+            mapper.writeValue(stream, recording);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write match recording: " + path, e);
+        }
+    }
+
+    public SavedTimeline readTimeline(Path path) {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return mapper.readValue(stream, SavedTimeline.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read replay timeline: " + path, e);
+        }
+    }
+
+    public void writeTimeline(SavedTimeline timeline, Path path) {
+        try (OutputStream stream = Files.newOutputStream(path)) {
+            mapper.writeValue(stream, timeline);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write replay timeline: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.haloce.tcg.game.replay;
+
+/**
+ * First point at which a replay stopped matching its recording.
+ *
+ * @param commandCount commands applied when the divergence was found
+ * @param expected     checkpoint the recording has there; {@code null} if it has none
+ * @param actualHash   state hash of the replayed match
+ */
+public record ReplayDivergence(
+        int commandCount,
+        int globalTurnIndex,
+        TurnCheckpoint expected,
+        long actualHash,
+        String reason
+) {
+    @Override
+    public String toString() {
+        return "Diverged after " + commandCount + " commands on turn " + globalTurnIndex + ": " + reason;
+    }
+}
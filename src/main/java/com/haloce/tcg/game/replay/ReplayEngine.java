@@ -0,0 +1,153 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.card.loader.CardLoader;
+import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Replays a {@link MatchRecording} headlessly: starts the match from its seats and seed, applies
+ * the recorded commands and compares the state hash at every turn boundary with the recorded one,
+ * stopping at the first mismatch.
+ *
+ * <p>Usage: {@code ReplayEngine <recording.json> [...]}; exits with status 1 if any recording
+ * diverges.
+ */
+public class ReplayEngine {
+    private final CardRepository cardRepository;
+    private final DeckValidator deckValidator = new DeckValidator();
+
+    public ReplayEngine(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    public ReplayResult replay(MatchRecording recording) {
+        return replay(recording, (checkpoint, game) -> {
+        });
+    }
+
+    /**
+     * Builds a timeline of {@code recording} with a keyframe every {@code keyframeTurns} turns.
+     *
+     * @throws IllegalStateException if the recording does not replay
+     */
+    public ReplayTimeline timeline(MatchRecording recording, int keyframeTurns) {
+        if (keyframeTurns <= 0) {
+            throw new IllegalArgumentException("keyframeTurns must be > 0");
+        }
+        List<ReplayTimeline.Keyframe> keyframes = new ArrayList<>();
+        ReplayResult result = replay(recording, (checkpoint, game) -> {
+            if (keyframes.isEmpty()
+                    || game.globalTurnIndex() - keyframes.get(keyframes.size() - 1).checkpoint().globalTurnIndex() >= keyframeTurns) {
+                keyframes.add(new ReplayTimeline.Keyframe(checkpoint, game.saveState()));
+            }
+        });
+        if (!result.verified()) {
+            throw new IllegalStateException("Recording does not replay: " + result.divergence());
+        }
+        return new ReplayTimeline(recording, start(recording), keyframes);
+    }
+
+    /**
+     * Loads a timeline written by {@link MatchRecordingIO#writeTimeline}, without replaying it.
+     *
+     * @throws IllegalStateException if a keyframe does not restore to the state hash recorded for it
+     */
+    public ReplayTimeline timeline(SavedTimeline saved) {
+        return new ReplayTimeline(saved.recording(), start(saved.recording()), saved.keyframes());
+    }
+
+    private GameStateManager start(MatchRecording recording) {
+        GameEngine engine = new GameEngine(cardRepository, new DeterministicEventBus(), deckValidator, recording.seed());
+        return engine.initializeMatchWithSeats(recording.mode(), recording.seats(), recording.seed());
+    }
+
+    private ReplayResult replay(MatchRecording recording, BiConsumer<TurnCheckpoint, GameStateManager> onCheckpoint) {
+        long started = System.nanoTime();
+        GameStateManager game = start(recording);
+
+        List<MatchCommand> commands = recording.commands();
+        List<TurnCheckpoint> checkpoints = recording.checkpoints();
+        ReplayDivergence divergence = verify(game, 0, checkpoints, 0);
+        if (divergence == null) {
+            onCheckpoint.accept(checkpoints.get(0), game);
+        }
+        int nextCheckpoint = 1;
+        int applied = 0;
+        int lastTurnIndex = game.globalTurnIndex();
+        GameStatus lastStatus = game.status();
+        while (divergence == null && applied < commands.size()) {
+            MatchCommand command = commands.get(applied);
+            try {
+                command.applyTo(game);
+            } catch (RuntimeException e) {
+                divergence = new ReplayDivergence(applied, game.globalTurnIndex(), null, game.stateHash(),
+                        command.type() + " failed: " + e.getMessage());
+                break;
+            }
+            applied++;
+            if (game.globalTurnIndex() != lastTurnIndex || game.status() != lastStatus) {
+                lastTurnIndex = game.globalTurnIndex();
+                lastStatus = game.status();
+                divergence = verify(game, applied, checkpoints, nextCheckpoint);
+                if (divergence == null) {
+                    onCheckpoint.accept(checkpoints.get(nextCheckpoint), game);
+                }
+                nextCheckpoint++;
+            }
+        }
+        if (divergence == null && nextCheckpoint < checkpoints.size()) {
+            TurnCheckpoint expected = checkpoints.get(nextCheckpoint);
+            divergence = new ReplayDivergence(applied, game.globalTurnIndex(), expected, game.stateHash(),
+                    "recording reaches turn " + expected.globalTurnIndex() + " but the replay stayed on this one");
+        }
+        return new ReplayResult(game, applied, divergence, System.nanoTime() - started);
+    }
+
+    private static ReplayDivergence verify(GameStateManager game, int applied, List<TurnCheckpoint> checkpoints, int index) {
+        long actualHash = game.stateHash();
+        if (index >= checkpoints.size() || checkpoints.get(index).commandCount() != applied) {
+            TurnCheckpoint expected = index < checkpoints.size() ? checkpoints.get(index) : null;
+            return new ReplayDivergence(applied, game.globalTurnIndex(), expected, actualHash,
+                    "turn boundary the recording does not have");
+        }
+        TurnCheckpoint expected = checkpoints.get(index);
+        if (expected.globalTurnIndex() != game.globalTurnIndex()) {
+            return new ReplayDivergence(applied, game.globalTurnIndex(), expected, actualHash,
+                    "expected turn " + expected.globalTurnIndex());
+        }
+        if (expected.stateHash() != actualHash) {
+            return new ReplayDivergence(applied, game.globalTurnIndex(), expected, actualHash,
+                    String.format("state hash %016x, expected %016x", actualHash, expected.stateHash()));
+        }
+        return null;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: ReplayEngine <recording.json> [...]");
+            return;
+        }
+        CardRepository repository = new CardLoader(new SemanticValidator()).loadFromResourceDir(Path.of("src/main/resources"));
+        ReplayEngine replayEngine = new ReplayEngine(repository);
+        MatchRecordingIO io = new MatchRecordingIO();
+        boolean allVerified = true;
+        for (String arg : args) {
+            ReplayResult result = replayEngine.replay(io.read(Path.of(arg)));
+            System.out.println(arg + ": " + result.summary());
+            allVerified &= result.verified();
+        }
+        if (!allVerified) {
+            System.exit(1);
+        }
+    }
+}
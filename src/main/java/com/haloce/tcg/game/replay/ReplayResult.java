@@ -0,0 +1,27 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.game.GameStateManager;
+
+/**
+ * Outcome of {@link ReplayEngine#replay}.
+ *
+ * @param game           the replayed match, as it stood when the replay stopped
+ * @param commandsApplied commands that were applied successfully
+ * @param divergence     {@code null} if every checkpoint matched
+ */
+public record ReplayResult(
+        GameStateManager game,
+        int commandsApplied,
+        ReplayDivergence divergence,
+        long elapsedNanos
+) {
+    public boolean verified() {
+        return divergence == null;
+    }
+
+    public String summary() {
+        String outcome = verified() ? "verified" : divergence.toString();
+        return String.format("%d commands, %d turns, %s, %.1f ms: %s",
+                commandsApplied, game.globalTurnIndex(), game.status(), elapsedNanos / 1e6, outcome);
+    }
+}
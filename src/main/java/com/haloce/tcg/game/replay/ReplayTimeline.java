@@ -0,0 +1,109 @@
+package com.haloce.tcg.game.replay;
+
+import com.haloce.tcg.game.GameStateData;
+import com.haloce.tcg.game.GameStateManager;
+
+import java.util.List;
+
+/**
+ * A verified {@link MatchRecording} with keyframes for seeking: the saved state of the match every
+ * few turns. Seeking restores the nearest keyframe at or before the target and re-applies only the
+ * commands after it, so scrubbing through a long match never replays it from the start. Keyframes
+ * are plain values, so a timeline can be written out with {@link MatchRecordingIO} and loaded again
+ * without replaying; every keyframe is restored and checked against its recorded state hash when
+ * the timeline is built. Timelines are never modified and may be sought from several threads.
+ */
+public class ReplayTimeline {
+    /**
+     * @param state the match at {@code checkpoint}
+     */
+    public record Keyframe(TurnCheckpoint checkpoint, GameStateData state) {
+    }
+
+    private final MatchRecording recording;
+    private final GameStateManager start;
+    private final List<Keyframe> keyframes;
+
+    /**
+     * @param start the match as {@code recording} starts it; only its setup is read
+     * @throws IllegalStateException if a keyframe is not at one of the recording's checkpoints or
+     *                               does not restore to the state hash recorded there
+     */
+    ReplayTimeline(MatchRecording recording, GameStateManager start, List<Keyframe> keyframes) {
+        if (keyframes.isEmpty()) {
+            throw new IllegalArgumentException("At least the starting keyframe is required");
+        }
+        for (Keyframe keyframe : keyframes) {
+            TurnCheckpoint checkpoint = keyframe.checkpoint();
+            if (!recording.checkpoints().contains(checkpoint)) {
+                throw new IllegalStateException("Keyframe at command " + checkpoint.commandCount()
+                        + " is not at a checkpoint of the recording");
+            }
+            long actualHash = start.restoreState(keyframe.state()).stateHash();
+            if (actualHash != checkpoint.stateHash()) {
+                throw new IllegalStateException(String.format("Keyframe at command %d restores to state hash %016x, expected %016x",
+                        checkpoint.commandCount(), actualHash, checkpoint.stateHash()));
+            }
+        }
+        this.recording = recording;
+        this.start = start;
+        this.keyframes = List.copyOf(keyframes);
+    }
+
+    public MatchRecording recording() {
+        return recording;
+    }
+
+    public List<Keyframe> keyframes() {
+        return keyframes;
+    }
+
+    /**
+     * The recording and keyframes, for {@link MatchRecordingIO#writeTimeline(SavedTimeline, java.nio.file.Path)}.
+     */
+    public SavedTimeline saved() {
+        return new SavedTimeline(recording, keyframes);
+    }
+
+    /**
+     * Independent copy of the match at the start of turn {@code globalTurnIndex}.
+     */
+    public GameStateManager seekToTurn(int globalTurnIndex) {
+        for (TurnCheckpoint checkpoint : recording.checkpoints()) {
+            if (checkpoint.globalTurnIndex() == globalTurnIndex) {
+                return seekToCommand(checkpoint.commandCount());
+            }
+        }
+        throw new IllegalArgumentException("Turn " + globalTurnIndex + " is not in the recording");
+    }
+
+    /**
+     * Independent copy of the match after its first {@code commandCount} commands.
+     */
+    public GameStateManager seekToCommand(int commandCount) {
+        List<MatchCommand> commands = recording.commands();
+        if (commandCount < 0 || commandCount > commands.size()) {
+            throw new IllegalArgumentException("commandCount must be between 0 and " + commands.size());
+        }
+        Keyframe keyframe = keyframeAtOrBefore(commandCount);
+        GameStateManager game = start.restoreState(keyframe.state());
+        for (int i = keyframe.checkpoint().commandCount(); i < commandCount; i++) {
+            commands.get(i).applyTo(game);
+        }
+        return game;
+    }
+
+    private Keyframe keyframeAtOrBefore(int commandCount) {
+        int low = 0;
+        int high = keyframes.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (keyframes.get(mid).checkpoint().commandCount() <= commandCount) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return keyframes.get(low);
+    }
+}
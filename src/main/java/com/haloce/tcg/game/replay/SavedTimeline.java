@@ -0,0 +1,16 @@
+package com.haloce.tcg.game.replay;
+
+import java.util.List;
+
+/**
+ * A {@link ReplayTimeline} as it is written to a file; {@link ReplayEngine#timeline(SavedTimeline)}
+ * loads it again.
+ */
+public record SavedTimeline(MatchRecording recording, List<ReplayTimeline.Keyframe> keyframes) {
+    public SavedTimeline {
+        if (recording == null) {
+            throw new IllegalArgumentException("recording is required");
+        }
+        keyframes = keyframes == null ? List.of() : List.copyOf(keyframes);
+    }
+}
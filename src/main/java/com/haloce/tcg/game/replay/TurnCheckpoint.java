@@ -0,0 +1,15 @@
+package com.haloce.tcg.game.replay;
+
+/**
+ * State hash at a turn boundary of a recorded match: at the start of the match and after every
+ * command that changed the turn or ended the match.
+ *
+ * @param commandCount     commands applied before the hash was taken
+ * @param globalTurnIndex  turn the match was on
+ */
+public record TurnCheckpoint(
+        int commandCount,
+        int globalTurnIndex,
+        long stateHash
+) {
+}
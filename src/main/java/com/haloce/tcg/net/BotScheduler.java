@@ -0,0 +1,179 @@
+package com.haloce.tcg.net;
+
+import com.haloce.tcg.ai.MctsConfig;
+import com.haloce.tcg.ai.MctsSearch;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionGenerator;
+import com.haloce.tcg.game.replay.MatchCommand;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Plays the bot seats of {@link GameRoom}s. Bots think on their own threads, never the ones handling
+ * client commands: a bot forks the match while holding the room's game lock, with the cards and dice
+ * it cannot see {@link GameStateManager#determinize determinized}, searches the fork with the lock
+ * released and takes the lock again only to apply its move, so human rooms never wait on a
+ * search. At most one bot drives a room at a time.
+ */
+public class BotScheduler implements AutoCloseable {
+    private final MctsConfig config;
+    private final ExecutorService botExecutor;
+    private final ExecutorService searchPool;
+    private final MctsSearch search;
+    private final Set<String> activeRooms = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<GameRoom> moveListener = room -> {
+    };
+
+    public BotScheduler(MctsConfig config) {
+        this(config, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @param botThreads rooms whose bots can think at the same time; each search additionally uses
+     *                   {@code config.workers() - 1} threads from a pool shared by all bots
+     */
+    public BotScheduler(MctsConfig config, int botThreads) {
+        if (config == null) {
+            throw new IllegalArgumentException("config is required");
+        }
+        if (botThreads <= 0) {
+            throw new IllegalArgumentException("botThreads must be > 0");
+        }
+        this.config = config;
+        this.botExecutor = Executors.newFixedThreadPool(botThreads, daemonThreads("bot-"));
+        this.searchPool = config.workers() > 1
+                ? Executors.newFixedThreadPool(config.workers() - 1, daemonThreads("bot-search-"))
+                : null;
+        this.search = new MctsSearch(config, searchPool);
+    }
+
+    public MctsConfig config() {
+        return config;
+    }
+
+    /**
+     * Called on a bot thread after every bot move, outside the game lock, e.g. to broadcast state.
+     */
+    public void setMoveListener(Consumer<GameRoom> listener) {
+        this.moveListener = listener == null ? room -> {
+        } : listener;
+    }
+
+    /**
+     * Starts playing if a bot is to act in the room. Cheap and safe to call after every command.
+     */
+    public void wake(GameRoom room) {
+        if (!botToAct(room) || !activeRooms.add(room.roomId())) {
+            return;
+        }
+        try {
+            botExecutor.execute(() -> drive(room));
+        } catch (RuntimeException rejected) {
+            activeRooms.remove(room.roomId());
+        }
+    }
+
+    @Override
+    public void close() {
+        botExecutor.shutdownNow();
+        if (searchPool != null) {
+            searchPool.shutdownNow();
+        }
+    }
+
+    private void drive(GameRoom room) {
+        boolean yielded = false;
+        try {
+            yielded = play(room);
+        } finally {
+            activeRooms.remove(room.roomId());
+            if (yielded) {
+                // A client may have handed the turn back to a bot while this loop was winding down.
+                wake(room);
+            }
+        }
+    }
+
+    /**
+     * Moves for the room's bots until a client is to act or the match ends.
+     *
+     * @return false if interrupted
+     */
+    private boolean play(GameRoom room) {
+        ActionGenerator generator = new ActionGenerator();
+        ActionBuffer actions = new ActionBuffer();
+        while (!Thread.currentThread().isInterrupted()) {
+            GameStateManager copy;
+            long stateHash;
+            room.gameLock().lock();
+            try {
+                if (!botToAct(room)) {
+                    return true;
+                }
+                stateHash = room.game().stateHash();
+                // Other seats' hands, every library and the dice are hidden from the bot, so it
+                // searches a fork where they are dealt and seeded afresh rather than the real ones.
+                copy = room.game().determinize(room.game().activePlayerId(), true, config.seed() ^ stateHash);
+            } finally {
+                room.gameLock().unlock();
+            }
+
+            int choice = search.chooseAction(copy);
+
+            room.gameLock().lock();
+            try {
+                GameStateManager game = room.game();
+                if (game.stateHash() != stateHash || !botToAct(room)) {
+                    // A client command got in first; think again from the new position.
+                    continue;
+                }
+                generator.generate(game, actions);
+                String actorId = game.activePlayerId();
+                MatchCommand command;
+                int mark = game.mark();
+                try {
+                    command = MatchCommand.of(actions, choice, actorId);
+                    actions.apply(choice, game);
+                    game.release(mark);
+                } catch (RuntimeException e) {
+                    // Undo whatever the failed move changed, then take the phase step, which is
+                    // always the last action and keeps the match moving.
+                    game.rollbackTo(mark);
+                    command = MatchCommand.of(actions, actions.size() - 1, actorId);
+                    actions.apply(actions.size() - 1, game);
+                }
+                record(room, command);
+            } finally {
+                room.gameLock().unlock();
+            }
+            moveListener.accept(room);
+        }
+        return false;
+    }
+
+    private static void record(GameRoom room, MatchCommand command) {
+        room.recorder().ifPresent(recorder -> recorder.record(command));
+    }
+
+    private static boolean botToAct(GameRoom room) {
+        GameStateManager game = room.game();
+        return !room.isClosed() && game.status() == GameStatus.RUNNING && room.isBot(game.activePlayerId());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,40 +1,24 @@
 package com.haloce.tcg.net;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.Socket;
-import java.nio.charset.StandardCharsets;
-
-public class ClientSession implements Closeable {
-    private final Socket socket;
-    private final BufferedReader reader;
-    private final BufferedWriter writer;
-    private final ObjectMapper mapper;
+
+/**
+ * A connected client, whichever transport carries it. Sends may come from any thread.
+ */
+public abstract class ClientSession implements Closeable {
     private volatile String boundPlayerId;
     private volatile String boundRoomId;
 
-    public ClientSession(Socket socket, ObjectMapper mapper) throws IOException {
-        this.socket = socket;
-        this.mapper = mapper;
-        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
-    }
-
-    public String readLine() throws IOException {
-        return reader.readLine();
-    }
+    /**
+     * Writes {@code response} as one newline-terminated JSON line.
+     */
+    public abstract void send(NetResponse response) throws IOException;
 
-    public synchronized void send(NetResponse response) throws IOException {
-        writer.write(mapper.writeValueAsString(response));
-        writer.newLine();
-        writer.flush();
-    }
+    /**
+     * Writes a frame encoded once for many sessions, e.g. a room broadcast, without copying it.
+     */
+    public abstract void send(NetFrame frame) throws IOException;
 
     public String boundPlayerId() {
         return boundPlayerId;
@@ -51,9 +35,4 @@ public class ClientSession implements Closeable {
     public void bindRoomId(String roomId) {
         this.boundRoomId = roomId;
     }
-
-    @Override
-    public void close() throws IOException {
-        socket.close();
-    }
 }
@@ -1,25 +1,76 @@
 package com.haloce.tcg.net;
 
+import com.haloce.tcg.core.event.journal.EventJournal;
+import com.haloce.tcg.core.event.stream.GameEventPublisher;
 import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.replay.MatchRecorder;
+import com.haloce.tcg.game.replay.MatchRecordingIO;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class GameRoom {
+    /**
+     * File in the journal directory that holds the room's match recording once the room closes.
+     */
+    public static final String RECORDING_FILE_NAME = "recording.json";
+
     private final String roomId;
     private final GameStateManager game;
     private final RemotePlayerRegistry remotePlayers;
     private final Instant createdAt;
+    private final EventJournal journal;
+    private final GameEventPublisher eventStream;
+    private final Set<String> botPlayerIds;
+    private final MatchRecorder recorder;
+    private final ReentrantLock gameLock = new ReentrantLock();
+    private final RoomStateSync stateSync = new RoomStateSync();
     private final Map<String, LinkedHashMap<Long, NetResponse>> responseCacheByPlayer = new ConcurrentHashMap<>();
+    private volatile boolean closed;
 
     public GameRoom(String roomId, GameStateManager game) {
+        this(roomId, game, null, null);
+    }
+
+    /**
+     * @param eventStream publisher already attached to the game's event bus; {@code null} for none
+     */
+    public GameRoom(String roomId, GameStateManager game, EventJournal journal, GameEventPublisher eventStream) {
+        this(roomId, game, journal, eventStream, Set.of());
+    }
+
+    /**
+     * @param botPlayerIds seats played by the server's bots rather than by clients
+     */
+    public GameRoom(String roomId, GameStateManager game, EventJournal journal, GameEventPublisher eventStream, Set<String> botPlayerIds) {
+        this(roomId, game, journal, eventStream, botPlayerIds, null);
+    }
+
+    /**
+     * @param recorder records every command applied to the room for replay; {@code null} for none
+     */
+    public GameRoom(
+            String roomId,
+            GameStateManager game,
+            EventJournal journal,
+            GameEventPublisher eventStream,
+            Set<String> botPlayerIds,
+            MatchRecorder recorder
+    ) {
         this.roomId = roomId;
         this.game = game;
         this.remotePlayers = new RemotePlayerRegistry();
         this.createdAt = Instant.now();
+        this.journal = journal;
+        this.eventStream = eventStream;
+        this.botPlayerIds = Set.copyOf(botPlayerIds);
+        this.recorder = recorder;
     }
 
     public String roomId() {
@@ -30,14 +81,92 @@ public class GameRoom {
         return game;
     }
 
+    /**
+     * Held while reading or changing {@link #game()}. A lock rather than the game's monitor, so that
+     * a virtual thread waiting for it does not pin its carrier thread.
+     */
+    public ReentrantLock gameLock() {
+        return gameLock;
+    }
+
+    /**
+     * Versions of the room's public state and what each client was sent of them.
+     */
+    public RoomStateSync stateSync() {
+        return stateSync;
+    }
+
     public RemotePlayerRegistry remotePlayers() {
         return remotePlayers;
     }
 
+    public Set<String> botPlayerIds() {
+        return botPlayerIds;
+    }
+
+    public boolean isBot(String playerId) {
+        return botPlayerIds.contains(playerId);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
     public Instant createdAt() {
         return createdAt;
     }
 
+    /**
+     * Event stream for spectators, analytics and logging. Subscribers run on their own executors and
+     * never delay game actions unless they subscribe with {@code OverflowPolicy.BLOCK}. Empty for rooms
+     * created without one.
+     */
+    public Optional<GameEventPublisher> eventStream() {
+        return Optional.ofNullable(eventStream);
+    }
+
+    public Optional<MatchRecorder> recorder() {
+        return Optional.ofNullable(recorder);
+    }
+
+    public Optional<EventJournal> journal() {
+        return Optional.ofNullable(journal);
+    }
+
+    /**
+     * Completes stream subscribers, stops bots from moving and closes the journal, if any, after
+     * writing the match recording next to it.
+     */
+    public void close() {
+        closed = true;
+        if (eventStream != null) {
+            eventStream.close();
+        }
+        try {
+            saveRecording();
+        } finally {
+            closeJournal();
+        }
+    }
+
+    private void saveRecording() {
+        if (journal == null || recorder == null) {
+            return;
+        }
+        new MatchRecordingIO().write(recorder.recording(), journal.directory().resolve(RECORDING_FILE_NAME));
+    }
+
+    public void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close event journal for room " + roomId, e);
+        }
+    }
+
     public Optional<NetResponse> cachedResponse(String playerId, Long seq) {
         if (playerId == null || seq == null) {
             return Optional.empty();
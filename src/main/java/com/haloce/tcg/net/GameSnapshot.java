@@ -1,7 +1,16 @@
 package com.haloce.tcg.net;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+/**
+ * Public state of a room as sent to clients.
+ *
+ * @param publicHash {@link #publicHashOf(GameSnapshot)} of the other fields. It covers only what the
+ *                   snapshot shows, so clients can recompute it to check that the deltas they applied
+ *                   left them in sync; the full game state hash, which also covers hidden zones, stays
+ *                   on the server.
+ */
 public record GameSnapshot(
         String mode,
         String status,
@@ -12,6 +21,54 @@ public record GameSnapshot(
         String winnerPlayerId,
         String winnerTeamId,
         List<PlayerPublicState> players,
-        List<LanePublicState> lanes
+        List<LanePublicState> lanes,
+        String publicHash
 ) {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Returns a copy whose {@code publicHash} matches its other fields.
+     */
+    public GameSnapshot withPublicHash() {
+        return new GameSnapshot(mode, status, phase, roundIndex, globalTurnIndex, activePlayerId, winnerPlayerId,
+                winnerTeamId, players, lanes, publicHashOf(this));
+    }
+
+    /**
+     * 64-bit FNV-1a, as 16 lowercase hex digits, of the UTF-8 bytes of every field but
+     * {@code publicHash}. Each value is written as {@code String.valueOf(value)} followed by {@code |}:
+     * the top-level fields in declaration order, then each player's fields in declaration order, then
+     * for each lane its name and, for each player in player order, the total and frontline unit counts.
+     */
+    public static String publicHashOf(GameSnapshot snapshot) {
+        StringBuilder text = new StringBuilder(256);
+        append(text, snapshot.mode(), snapshot.status(), snapshot.phase(), snapshot.roundIndex(),
+                snapshot.globalTurnIndex(), snapshot.activePlayerId(), snapshot.winnerPlayerId(), snapshot.winnerTeamId());
+        for (PlayerPublicState player : snapshot.players()) {
+            append(text, player.playerId(), player.teamId(), player.alive(), player.baseHealth(), player.supplyCap(),
+                    player.currentSupply(), player.battery(), player.handSize(), player.librarySize(),
+                    player.discardSize(), player.controlledLaneCount(), player.fullControlStreak());
+        }
+        for (LanePublicState lane : snapshot.lanes()) {
+            append(text, lane.lane());
+            for (PlayerPublicState player : snapshot.players()) {
+                append(text, lane.totalUnitsByPlayer().get(player.playerId()),
+                        lane.frontlineUnitsByPlayer().get(player.playerId()));
+            }
+        }
+
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : text.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static void append(StringBuilder text, Object... values) {
+        for (Object value : values) {
+            text.append(value).append('|');
+        }
+    }
 }
@@ -0,0 +1,224 @@
+package com.haloce.tcg.net;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The fields of a {@link GameSnapshot} that changed between two room state versions. Players and
+ * lanes that did not change are left out; those that did carry their {@code playerId} or
+ * {@code lane} plus the changed fields only, and lane unit counts only for the players whose counts
+ * changed.
+ *
+ * @param baseVersion version the client acknowledged, which the delta applies to
+ * @param version     version the client has after applying it
+ * @param changes     changed top-level fields, such as {@code phase} or {@code publicHash}
+ */
+public record GameSnapshotDelta(
+        long baseVersion,
+        long version,
+        Map<String, Object> changes,
+        List<Map<String, Object>> players,
+        List<Map<String, Object>> lanes
+) {
+    /**
+     * @return empty if the snapshots do not share the same players and lanes, so that only a full
+     *         snapshot describes {@code next}
+     */
+    public static Optional<GameSnapshotDelta> between(GameSnapshot base, long baseVersion, GameSnapshot next, long version) {
+        if (base.players().size() != next.players().size() || base.lanes().size() != next.lanes().size()) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "mode", base.mode(), next.mode());
+        putIfChanged(changes, "status", base.status(), next.status());
+        putIfChanged(changes, "phase", base.phase(), next.phase());
+        putIfChanged(changes, "roundIndex", base.roundIndex(), next.roundIndex());
+        putIfChanged(changes, "globalTurnIndex", base.globalTurnIndex(), next.globalTurnIndex());
+        putIfChanged(changes, "activePlayerId", base.activePlayerId(), next.activePlayerId());
+        putIfChanged(changes, "winnerPlayerId", base.winnerPlayerId(), next.winnerPlayerId());
+        putIfChanged(changes, "winnerTeamId", base.winnerTeamId(), next.winnerTeamId());
+        putIfChanged(changes, "publicHash", base.publicHash(), next.publicHash());
+
+        List<Map<String, Object>> players = new ArrayList<>();
+        for (int i = 0; i < next.players().size(); i++) {
+            PlayerPublicState from = base.players().get(i);
+            PlayerPublicState to = next.players().get(i);
+            if (!from.playerId().equals(to.playerId())) {
+                return Optional.empty();
+            }
+            Map<String, Object> player = playerChanges(from, to);
+            if (!player.isEmpty()) {
+                players.add(player);
+            }
+        }
+
+        List<Map<String, Object>> lanes = new ArrayList<>();
+        for (int i = 0; i < next.lanes().size(); i++) {
+            LanePublicState from = base.lanes().get(i);
+            LanePublicState to = next.lanes().get(i);
+            if (!from.lane().equals(to.lane())) {
+                return Optional.empty();
+            }
+            Map<String, Object> lane = laneChanges(from, to);
+            if (!lane.isEmpty()) {
+                lanes.add(lane);
+            }
+        }
+
+        return Optional.of(new GameSnapshotDelta(baseVersion, version, changes, players, lanes));
+    }
+
+    /**
+     * Applies this delta to {@code base}, the snapshot at {@link #baseVersion()}, as a client does.
+     * Values may be any {@link Number}, so a delta read back from JSON applies as well as the one
+     * {@link #between} returned.
+     *
+     * @return the snapshot at {@link #version()}; its {@code publicHash} is the one the server sent,
+     *         which a client compares with {@link GameSnapshot#publicHashOf(GameSnapshot)}
+     * @throws IllegalArgumentException if a player or lane in the delta is not in {@code base}
+     */
+    public GameSnapshot applyTo(GameSnapshot base) {
+        Map<String, Map<String, Object>> playersById = index(players, "playerId");
+        List<PlayerPublicState> nextPlayers = new ArrayList<>(base.players().size());
+        for (PlayerPublicState player : base.players()) {
+            Map<String, Object> changed = playersById.remove(player.playerId());
+            nextPlayers.add(changed == null ? player : applyTo(player, changed));
+        }
+        Map<String, Map<String, Object>> lanesByName = index(lanes, "lane");
+        List<LanePublicState> nextLanes = new ArrayList<>(base.lanes().size());
+        for (LanePublicState lane : base.lanes()) {
+            Map<String, Object> changed = lanesByName.remove(lane.lane());
+            nextLanes.add(changed == null ? lane : applyTo(lane, changed));
+        }
+        if (!playersById.isEmpty() || !lanesByName.isEmpty()) {
+            throw new IllegalArgumentException("Delta changes players or lanes not in the base snapshot: "
+                    + playersById.keySet() + " " + lanesByName.keySet());
+        }
+
+        return new GameSnapshot(
+                string(changes, "mode", base.mode()),
+                string(changes, "status", base.status()),
+                string(changes, "phase", base.phase()),
+                integer(changes, "roundIndex", base.roundIndex()),
+                integer(changes, "globalTurnIndex", base.globalTurnIndex()),
+                string(changes, "activePlayerId", base.activePlayerId()),
+                string(changes, "winnerPlayerId", base.winnerPlayerId()),
+                string(changes, "winnerTeamId", base.winnerTeamId()),
+                nextPlayers,
+                nextLanes,
+                string(changes, "publicHash", base.publicHash())
+        );
+    }
+
+    private static PlayerPublicState applyTo(PlayerPublicState base, Map<String, Object> changes) {
+        return new PlayerPublicState(
+                base.playerId(),
+                string(changes, "teamId", base.teamId()),
+                changes.containsKey("alive") ? (Boolean) changes.get("alive") : base.alive(),
+                integer(changes, "baseHealth", base.baseHealth()),
+                integer(changes, "supplyCap", base.supplyCap()),
+                integer(changes, "currentSupply", base.currentSupply()),
+                integer(changes, "battery", base.battery()),
+                integer(changes, "handSize", base.handSize()),
+                integer(changes, "librarySize", base.librarySize()),
+                integer(changes, "discardSize", base.discardSize()),
+                integer(changes, "controlledLaneCount", base.controlledLaneCount()),
+                integer(changes, "fullControlStreak", base.fullControlStreak())
+        );
+    }
+
+    private static LanePublicState applyTo(LanePublicState base, Map<String, Object> changes) {
+        return new LanePublicState(
+                base.lane(),
+                counts(base.totalUnitsByPlayer(), changes.get("totalUnitsByPlayer")),
+                counts(base.frontlineUnitsByPlayer(), changes.get("frontlineUnitsByPlayer"))
+        );
+    }
+
+    private static Map<String, Integer> counts(Map<String, Integer> base, Object changed) {
+        if (changed == null) {
+            return base;
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>(base);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) changed).entrySet()) {
+            counts.put((String) entry.getKey(), ((Number) entry.getValue()).intValue());
+        }
+        return counts;
+    }
+
+    private static Map<String, Map<String, Object>> index(List<Map<String, Object>> entries, String key) {
+        Map<String, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Map<String, Object> entry : entries) {
+            byId.put((String) entry.get(key), entry);
+        }
+        return byId;
+    }
+
+    private static String string(Map<String, Object> changes, String field, String base) {
+        return changes.containsKey(field) ? (String) changes.get(field) : base;
+    }
+
+    private static int integer(Map<String, Object> changes, String field, int base) {
+        return changes.containsKey(field) ? ((Number) changes.get(field)).intValue() : base;
+    }
+
+    private static Map<String, Object> playerChanges(PlayerPublicState base, PlayerPublicState next) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "teamId", base.teamId(), next.teamId());
+        putIfChanged(changes, "alive", base.alive(), next.alive());
+        putIfChanged(changes, "baseHealth", base.baseHealth(), next.baseHealth());
+        putIfChanged(changes, "supplyCap", base.supplyCap(), next.supplyCap());
+        putIfChanged(changes, "currentSupply", base.currentSupply(), next.currentSupply());
+        putIfChanged(changes, "battery", base.battery(), next.battery());
+        putIfChanged(changes, "handSize", base.handSize(), next.handSize());
+        putIfChanged(changes, "librarySize", base.librarySize(), next.librarySize());
+        putIfChanged(changes, "discardSize", base.discardSize(), next.discardSize());
+        putIfChanged(changes, "controlledLaneCount", base.controlledLaneCount(), next.controlledLaneCount());
+        putIfChanged(changes, "fullControlStreak", base.fullControlStreak(), next.fullControlStreak());
+        return keyed("playerId", next.playerId(), changes);
+    }
+
+    private static Map<String, Object> laneChanges(LanePublicState base, LanePublicState next) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        Map<String, Integer> total = changedCounts(base.totalUnitsByPlayer(), next.totalUnitsByPlayer());
+        if (!total.isEmpty()) {
+            changes.put("totalUnitsByPlayer", total);
+        }
+        Map<String, Integer> frontline = changedCounts(base.frontlineUnitsByPlayer(), next.frontlineUnitsByPlayer());
+        if (!frontline.isEmpty()) {
+            changes.put("frontlineUnitsByPlayer", frontline);
+        }
+        return keyed("lane", next.lane(), changes);
+    }
+
+    private static Map<String, Integer> changedCounts(Map<String, Integer> base, Map<String, Integer> next) {
+        Map<String, Integer> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : next.entrySet()) {
+            if (!Objects.equals(base.get(entry.getKey()), entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changed;
+    }
+
+    private static Map<String, Object> keyed(String key, String id, Map<String, Object> changes) {
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put(key, id);
+        entry.putAll(changes);
+        return entry;
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object base, Object next) {
+        if (!Objects.equals(base, next)) {
+            changes.put(field, next);
+        }
+    }
+}
@@ -51,7 +51,8 @@ public class GameSnapshotFactory {
                 game.winnerPlayerId(),
                 game.winnerTeamId(),
                 players,
-                lanes
-        );
+                lanes,
+                null
+        ).withPublicHash();
     }
 }
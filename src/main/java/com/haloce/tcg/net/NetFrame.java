@@ -0,0 +1,45 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link NetResponse} encoded once as a newline-terminated JSON line, so that a broadcast can be
+ * written to every session without encoding it per recipient. Immutable; each writer reads its own
+ * view of the shared bytes.
+ */
+public final class NetFrame {
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+
+    private NetFrame(byte[] bytes) {
+        this.bytes = bytes;
+        this.buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    public static NetFrame encode(ObjectMapper mapper, NetResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        mapper.writeValue(out, response);
+        out.write('\n');
+        return new NetFrame(out.toByteArray());
+    }
+
+    /**
+     * A read-only view of the frame, positioned at its start, that the caller may consume.
+     */
+    public ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+}
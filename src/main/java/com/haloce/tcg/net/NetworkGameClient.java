@@ -60,6 +60,13 @@ public class NetworkGameClient implements Closeable {
         return send("STATE", Map.of());
     }
 
+    /**
+     * Tells the server this client holds state {@code version}, so later updates are deltas against it.
+     */
+    public NetResponse acknowledgeState(long version) {
+        return send("ACK_STATE", Map.of("version", version));
+    }
+
     public NetResponse hijack(String hijackerInstanceId, String targetVehicleInstanceId) {
         return send("HIJACK", Map.of(
                 "hijackerInstanceId", hijackerInstanceId,
@@ -73,7 +80,8 @@ public class NetworkGameClient implements Closeable {
 
     public NetResponse send(String type, Map<String, Object> payload) {
         try {
-            Long seq = "STATE".equalsIgnoreCase(type) || "LIST_ROOMS".equalsIgnoreCase(type) || "PING".equalsIgnoreCase(type)
+            Long seq = "STATE".equalsIgnoreCase(type) || "ACK_STATE".equalsIgnoreCase(type)
+                    || "LIST_ROOMS".equalsIgnoreCase(type) || "PING".equalsIgnoreCase(type)
                     ? null
                     : commandSeq.getAndIncrement();
             writer.write(mapper.writeValueAsString(new NetCommand(type, payload, seq)));
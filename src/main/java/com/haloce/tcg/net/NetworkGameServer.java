@@ -4,45 +4,89 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.haloce.tcg.game.GameMode;
 import com.haloce.tcg.game.GameRow;
 import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.replay.MatchCommand;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class NetworkGameServer {
     private final int port;
     private final RoomManager roomManager;
+    private final ServerTransport transport;
     private final ObjectMapper mapper = new ObjectMapper();
     private final GameSnapshotFactory snapshotFactory = new GameSnapshotFactory();
-    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final ExecutorService pool;
+    private final SessionHandler sessionHandler = new SessionHandler() {
+        @Override
+        public void opened(ClientSession session) throws IOException {
+            welcome(session);
+        }
+
+        @Override
+        public void received(ClientSession session, String line) throws IOException {
+            handleLine(session, line);
+        }
+
+        @Override
+        public void closed(ClientSession session) {
+            unbindSession(session);
+        }
+    };
 
     private volatile boolean running;
     private ServerSocket serverSocket;
+    private NioServerTransport nioTransport;
 
     public NetworkGameServer(int port, RoomManager roomManager) {
+        this(port, roomManager, ServerTransport.BLOCKING);
+    }
+
+    public NetworkGameServer(int port, RoomManager roomManager, ServerTransport transport) {
         this.port = port;
         this.roomManager = roomManager;
+        this.transport = transport;
+        this.pool = transport == ServerTransport.VIRTUAL_THREADS
+                ? VirtualThreads.newThreadPerTaskExecutor("session-")
+                : Executors.newCachedThreadPool();
+        roomManager.botScheduler().ifPresent(bots -> bots.setMoveListener(room -> broadcastState(room.roomId())));
+    }
+
+    public ServerTransport transport() {
+        return transport;
     }
 
     public synchronized void start() {
         if (running) {
             return;
         }
+        // Set before the accept loop starts, which runs only while it is set.
+        running = true;
         try {
-            serverSocket = new ServerSocket(port);
-            running = true;
+            switch (transport) {
+                case BLOCKING, VIRTUAL_THREADS -> {
+                    serverSocket = new ServerSocket(port);
+                    pool.submit(this::acceptLoop);
+                }
+                case NIO -> {
+                    int processors = Runtime.getRuntime().availableProcessors();
+                    nioTransport = new NioServerTransport(port, Math.max(1, processors / 2), processors, mapper, sessionHandler);
+                    nioTransport.start();
+                }
+            }
         } catch (IOException e) {
+            running = false;
             throw new RuntimeException("Failed to start server at port " + port, e);
         }
-
-        pool.submit(this::acceptLoop);
     }
 
     public synchronized void stop() {
@@ -53,6 +97,9 @@ public class NetworkGameServer {
             }
         } catch (IOException ignored) {
         }
+        if (nioTransport != null) {
+            nioTransport.close();
+        }
         pool.shutdownNow();
     }
 
@@ -60,7 +107,7 @@ public class NetworkGameServer {
         while (running) {
             try {
                 Socket socket = serverSocket.accept();
-                ClientSession session = new ClientSession(socket, mapper);
+                SocketClientSession session = new SocketClientSession(socket, mapper);
                 pool.submit(() -> handleSession(session));
             } catch (IOException e) {
                 if (!running) {
@@ -70,20 +117,12 @@ public class NetworkGameServer {
         }
     }
 
-    private void handleSession(ClientSession session) {
+    private void handleSession(SocketClientSession session) {
         try (session) {
-            session.send(NetResponse.ok("WELCOME", Map.of(
-                    "rooms", roomManager.listRooms(),
-                    "protocolVersion", "1.1"
-            )));
-
+            welcome(session);
             String line;
             while ((line = session.readLine()) != null) {
-                NetResponse response = processCommand(session, line);
-                session.send(response);
-                if (response.ok()) {
-                    broadcastState(session.boundRoomId());
-                }
+                handleLine(session, line);
             }
         } catch (Exception ignored) {
         } finally {
@@ -91,6 +130,22 @@ public class NetworkGameServer {
         }
     }
 
+    private void welcome(ClientSession session) throws IOException {
+        session.send(NetResponse.ok("WELCOME", Map.of(
+                "rooms", roomManager.listRooms(),
+                "protocolVersion", "1.2"
+        )));
+    }
+
+    private void handleLine(ClientSession session, String line) throws IOException {
+        NetResponse response = processCommand(session, line);
+        session.send(response);
+        if (response.ok()) {
+            broadcastState(session.boundRoomId());
+            wakeBots(session.boundRoomId());
+        }
+    }
+
     private NetResponse processCommand(ClientSession session, String line) {
         try {
             NetCommand command = mapper.readValue(line, NetCommand.class);
@@ -107,6 +162,7 @@ public class NetworkGameServer {
                 case "LEAVE_ROOM" -> leaveRoom(session);
                 case "JOIN" -> joinDefaultRoom(session, payload);
                 case "STATE" -> stateOfBoundRoom(session);
+                case "ACK_STATE" -> acknowledgeState(session, payload);
                 default -> routeRoomCommand(session, type, payload, seq);
             };
         } catch (Exception e) {
@@ -121,12 +177,16 @@ public class NetworkGameServer {
 
         List<String> playerIds = parsePlayerIds(payload.get("playerIds"));
         Map<String, String> teamByPlayer = parseTeamByPlayer(payload.get("teamByPlayer"));
+        Set<String> botPlayerIds = payload.containsKey("botPlayerIds")
+                ? Set.copyOf(parsePlayerIds(payload.get("botPlayerIds")))
+                : Set.of();
 
-        GameRoom room = roomManager.createRoom(roomId, mode, playerIds, teamByPlayer);
+        GameRoom room = roomManager.createRoom(roomId, mode, playerIds, teamByPlayer, botPlayerIds);
         return NetResponse.ok("CREATE_ROOM", Map.of(
                 "roomId", room.roomId(),
                 "mode", room.game().gameMode().name(),
-                "players", room.game().playerIds()
+                "players", room.game().playerIds(),
+                "bots", room.botPlayerIds()
         ));
     }
 
@@ -141,11 +201,15 @@ public class NetworkGameServer {
         if (!room.game().playerIds().contains(playerId)) {
             return NetResponse.error("JOIN_ROOM", "Player is not seated in this room: " + playerId);
         }
+        if (room.isBot(playerId)) {
+            return NetResponse.error("JOIN_ROOM", "Seat is played by a bot: " + playerId);
+        }
 
         unbindSession(session);
         session.bindRoomId(roomId);
         session.bindPlayerId(playerId);
         room.remotePlayers().bind(playerId, session);
+        room.stateSync().reset(playerId);
 
         return NetResponse.ok("JOIN_ROOM", Map.of(
                 "roomId", roomId,
@@ -166,9 +230,29 @@ public class NetworkGameServer {
 
     private NetResponse stateOfBoundRoom(ClientSession session) {
         GameRoom room = requireBoundRoom(session);
-        return NetResponse.ok("STATE", Map.of(
+        Map<String, Object> state;
+        long version;
+        room.gameLock().lock();
+        try {
+            state = roomSnapshot(room);
+            version = room.stateSync().version();
+        } finally {
+            room.gameLock().unlock();
+        }
+        markSent(room, session, version);
+        return NetResponse.ok("STATE", state);
+    }
+
+    private NetResponse acknowledgeState(ClientSession session, Map<String, Object> payload) {
+        GameRoom room = requireBoundRoom(session);
+        String playerId = requireActor(session);
+        if (!(payload.get("version") instanceof Number version)) {
+            throw new IllegalArgumentException("Missing required number field: version");
+        }
+        room.stateSync().acknowledge(playerId, version.longValue());
+        return NetResponse.ok("ACK_STATE", Map.of(
                 "roomId", room.roomId(),
-                "snapshot", snapshotFactory.create(room.game())
+                "version", version.longValue()
         ));
     }
 
@@ -199,59 +283,76 @@ public class NetworkGameServer {
         }
 
         NetResponse response;
-        synchronized (room.game()) {
-            response = switch (type) {
-                case "ADVANCE_PHASE" -> {
-                    room.game().advancePhase();
-                    yield NetResponse.ok("ADVANCE_PHASE", roomSnapshot(room));
-                }
-                case "END_TURN" -> {
-                    room.game().endTurn();
-                    yield NetResponse.ok("END_TURN", roomSnapshot(room));
-                }
-                case "DEPLOY" -> {
-                    String actor = requireActor(session);
-                    String cardInstanceId = requireString(payload, "cardInstanceId");
-                    Lane lane = Lane.valueOf(requireString(payload, "lane").toUpperCase(Locale.ROOT));
-                    GameRow row = GameRow.valueOf(requireString(payload, "row").toUpperCase(Locale.ROOT));
-                    room.game().deployUnitFromHand(actor, cardInstanceId, lane, row);
-                    yield NetResponse.ok("DEPLOY", roomSnapshot(room));
-                }
-                case "CONVERT_BATTERY" -> {
-                    String actor = requireActor(session);
-                    String cardInstanceId = requireString(payload, "cardInstanceId");
-                    room.game().convertToBattery(actor, cardInstanceId);
-                    yield NetResponse.ok("CONVERT_BATTERY", roomSnapshot(room));
-                }
-                case "ATTACK" -> {
-                    String attacker = requireString(payload, "attackerInstanceId");
-                    String defender = requireString(payload, "defenderInstanceId");
-                    var result = room.game().declareAttack(attacker, defender);
-                    yield NetResponse.ok("ATTACK", Map.of(
-                            "roomId", room.roomId(),
-                            "result", result,
-                            "snapshot", snapshotFactory.create(room.game())
-                    ));
-                }
-                case "ATTACK_BASE" -> {
-                    String attacker = requireString(payload, "attackerInstanceId");
-                    String targetPlayerId = requireString(payload, "targetPlayerId");
-                    room.game().attackBase(attacker, targetPlayerId);
-                    yield NetResponse.ok("ATTACK_BASE", roomSnapshot(room));
-                }
-                case "HIJACK" -> {
-                    String actorId = requireActor(session);
-                    String hijacker = requireString(payload, "hijackerInstanceId");
-                    String targetVehicle = requireString(payload, "targetVehicleInstanceId");
-                    room.game().hijackVehicle(hijacker, targetVehicle);
-                    yield NetResponse.ok("HIJACK", Map.of(
-                            "roomId", room.roomId(),
-                            "actor", actorId,
-                            "snapshot", snapshotFactory.create(room.game())
-                    ));
-                }
-                default -> NetResponse.error("ERROR", "Unknown command type: " + type);
-            };
+        long version;
+        room.gameLock().lock();
+        try {
+            // A command that throws halfway is rolled back so it leaves no partial state behind, and
+            // its events are dropped before they reach the journal or the event stream.
+            int mark = room.game().mark();
+            try {
+                response = switch (type) {
+                    case "ADVANCE_PHASE" -> {
+                        room.game().advancePhase();
+                        record(room, MatchCommand.advancePhase());
+                        yield NetResponse.ok("ADVANCE_PHASE", roomSnapshot(room));
+                    }
+                    case "END_TURN" -> {
+                        room.game().endTurn();
+                        record(room, MatchCommand.endTurn());
+                        yield NetResponse.ok("END_TURN", roomSnapshot(room));
+                    }
+                    case "DEPLOY" -> {
+                        String actor = requireActor(session);
+                        String cardInstanceId = requireString(payload, "cardInstanceId");
+                        Lane lane = Lane.valueOf(requireString(payload, "lane").toUpperCase(Locale.ROOT));
+                        GameRow row = GameRow.valueOf(requireString(payload, "row").toUpperCase(Locale.ROOT));
+                        room.game().deployUnitFromHand(actor, cardInstanceId, lane, row);
+                        record(room, MatchCommand.deploy(actor, cardInstanceId, lane, row));
+                        yield NetResponse.ok("DEPLOY", roomSnapshot(room));
+                    }
+                    case "CONVERT_BATTERY" -> {
+                        String actor = requireActor(session);
+                        String cardInstanceId = requireString(payload, "cardInstanceId");
+                        room.game().convertToBattery(actor, cardInstanceId);
+                        record(room, MatchCommand.convertToBattery(actor, cardInstanceId));
+                        yield NetResponse.ok("CONVERT_BATTERY", roomSnapshot(room));
+                    }
+                    case "ATTACK" -> {
+                        String attacker = requireString(payload, "attackerInstanceId");
+                        String defender = requireString(payload, "defenderInstanceId");
+                        var result = room.game().declareAttack(attacker, defender);
+                        record(room, MatchCommand.attackUnit(attacker, defender));
+                        yield NetResponse.ok("ATTACK", roomSnapshot(room, "result", result));
+                    }
+                    case "ATTACK_BASE" -> {
+                        String attacker = requireString(payload, "attackerInstanceId");
+                        String targetPlayerId = requireString(payload, "targetPlayerId");
+                        room.game().attackBase(attacker, targetPlayerId);
+                        record(room, MatchCommand.attackBase(attacker, targetPlayerId));
+                        yield NetResponse.ok("ATTACK_BASE", roomSnapshot(room));
+                    }
+                    case "HIJACK" -> {
+                        String actorId = requireActor(session);
+                        String hijacker = requireString(payload, "hijackerInstanceId");
+                        String targetVehicle = requireString(payload, "targetVehicleInstanceId");
+                        room.game().hijackVehicle(hijacker, targetVehicle);
+                        record(room, MatchCommand.hijack(actorId, hijacker, targetVehicle));
+                        yield NetResponse.ok("HIJACK", roomSnapshot(room, "actor", actorId));
+                    }
+                    default -> NetResponse.error("ERROR", "Unknown command type: " + type);
+                };
+            } catch (RuntimeException e) {
+                room.game().rollbackTo(mark);
+                throw e;
+            }
+            room.game().release(mark);
+            version = room.stateSync().version();
+        } finally {
+            room.gameLock().unlock();
+        }
+        if (response.ok()) {
+            // The response carries the full snapshot, so the broadcast that follows can skip this client.
+            markSent(room, session, version);
         }
 
         if (seq != null && boundActor != null && response.ok()) {
@@ -260,11 +361,35 @@ public class NetworkGameServer {
         return response;
     }
 
+    private static void record(GameRoom room, MatchCommand command) {
+        room.recorder().ifPresent(recorder -> recorder.record(command));
+    }
+
+    /**
+     * Publishes the room's current state as a new version. Call with the room's game lock held.
+     */
     private Map<String, Object> roomSnapshot(GameRoom room) {
-        return Map.of(
-                "roomId", room.roomId(),
-                "snapshot", snapshotFactory.create(room.game())
-        );
+        return roomSnapshot(room, null, null);
+    }
+
+    private Map<String, Object> roomSnapshot(GameRoom room, String extraKey, Object extraValue) {
+        GameSnapshot snapshot = snapshotFactory.create(room.game());
+        long version = room.stateSync().publish(snapshot);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("roomId", room.roomId());
+        if (extraKey != null) {
+            data.put(extraKey, extraValue);
+        }
+        data.put("version", version);
+        data.put("snapshot", snapshot);
+        return data;
+    }
+
+    private static void markSent(GameRoom room, ClientSession session, long version) {
+        String playerId = session.boundPlayerId();
+        if (playerId != null) {
+            room.stateSync().markSent(playerId, version);
+        }
     }
 
     private void broadcastState(String roomId) {
@@ -277,23 +402,46 @@ public class NetworkGameServer {
             return;
         }
 
-        NetResponse state = NetResponse.ok("STATE_BROADCAST", roomSnapshot(room));
+        room.gameLock().lock();
+        try {
+            room.stateSync().publish(snapshotFactory.create(room.game()));
+        } finally {
+            room.gameLock().unlock();
+        }
+        // Clients at the same base version share one update; encode each distinct one once.
+        Map<NetResponse, NetFrame> frames = new IdentityHashMap<>();
         for (String playerId : room.remotePlayers().onlinePlayers()) {
-            room.remotePlayers().sessionOf(playerId).ifPresent(session -> {
-                try {
-                    session.send(state);
-                } catch (IOException ignored) {
-                }
-            });
+            room.remotePlayers().sessionOf(playerId).ifPresent(session ->
+                    room.stateSync().updateFor(roomId, playerId).ifPresent(update -> {
+                        try {
+                            NetFrame frame = frames.get(update);
+                            if (frame == null) {
+                                frame = NetFrame.encode(mapper, update);
+                                frames.put(update, frame);
+                            }
+                            session.send(frame);
+                        } catch (IOException ignored) {
+                        }
+                    }));
         }
     }
 
+    private void wakeBots(String roomId) {
+        if (roomId == null || roomId.isBlank()) {
+            return;
+        }
+        roomManager.wakeBots(roomManager.getRoom(roomId));
+    }
+
     private void unbindSession(ClientSession session) {
         String roomId = session.boundRoomId();
         if (roomId != null) {
             GameRoom room = roomManager.getRoom(roomId);
             if (room != null) {
                 room.remotePlayers().unbind(session);
+                if (session.boundPlayerId() != null && !room.remotePlayers().isOnline(session.boundPlayerId())) {
+                    room.stateSync().reset(session.boundPlayerId());
+                }
             }
             roomManager.removeRoomIfEmpty(roomId);
         }
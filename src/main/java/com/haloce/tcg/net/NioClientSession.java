@@ -0,0 +1,281 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Session over a non-blocking channel owned by one {@link NioServerTransport} event loop. The loop
+ * splits incoming bytes into lines; the session runs its handler calls one at a time, in order, on
+ * the transport's command pool, so a slow command never stalls the loop or other connections.
+ *
+ * <p>At most {@link #MAX_QUEUED_COMMANDS} lines wait for the handler at a time. When that many are
+ * queued the loop stops reading the channel and holds any bytes it has already read, so a client
+ * that sends faster than its commands run is slowed down by TCP instead of growing the queue; reading
+ * resumes once the queue has drained to {@link #RESUME_QUEUED_COMMANDS}.
+ *
+ * <p>Sends write straight to the channel when nothing is queued and otherwise queue the frame for
+ * the loop to flush. An idle session holds no buffers.
+ */
+final class NioClientSession extends ClientSession {
+    private static final int MAX_LINE_BYTES = 1024 * 1024;
+    private static final int MAX_PENDING_BYTES = 8 * 1024 * 1024;
+    private static final int RETAINED_LINE_BUFFER_BYTES = 4096;
+    static final int MAX_QUEUED_COMMANDS = 64;
+    static final int RESUME_QUEUED_COMMANDS = 16;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ObjectMapper mapper;
+    private final Executor commandPool;
+    private final Executor eventLoop;
+    private final SessionHandler handler;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedCommands = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    private long pendingBytes;
+    // Event loop only.
+    private byte[] lineBuffer;
+    private int lineLength;
+    private boolean readPaused;
+    private ByteBuffer heldInput;
+
+    /**
+     * @param eventLoop runs tasks on the thread of the event loop that owns {@code key}
+     */
+    NioClientSession(SocketChannel channel, SelectionKey key, ObjectMapper mapper, Executor commandPool,
+                     Executor eventLoop, SessionHandler handler) {
+        this.channel = channel;
+        this.key = key;
+        this.mapper = mapper;
+        this.commandPool = commandPool;
+        this.eventLoop = eventLoop;
+        this.handler = handler;
+    }
+
+    /**
+     * Called by the event loop once the session is attached to its key.
+     */
+    void open() {
+        execute(() -> {
+            try {
+                handler.opened(this);
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        });
+    }
+
+    @Override
+    public void send(NetResponse response) throws IOException {
+        send(NetFrame.encode(mapper, response));
+    }
+
+    @Override
+    public void send(NetFrame frame) throws IOException {
+        write(frame.buffer());
+    }
+
+    private void write(ByteBuffer frame) throws IOException {
+        synchronized (writeLock) {
+            if (closed.get()) {
+                throw new IOException("Session is closed");
+            }
+            try {
+                if (pendingWrites.isEmpty()) {
+                    channel.write(frame);
+                    if (!frame.hasRemaining()) {
+                        return;
+                    }
+                }
+                if (pendingBytes + frame.remaining() > MAX_PENDING_BYTES) {
+                    throw new IOException("Client is not reading; " + pendingBytes + " bytes pending");
+                }
+            } catch (IOException e) {
+                closeQuietly();
+                throw e;
+            }
+            pendingWrites.add(frame);
+            pendingBytes += frame.remaining();
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+            key.selector().wakeup();
+        }
+    }
+
+    /**
+     * Called by the event loop when the channel is writable.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            try {
+                while (!pendingWrites.isEmpty()) {
+                    ByteBuffer frame = pendingWrites.peek();
+                    pendingBytes -= channel.write(frame);
+                    if (frame.hasRemaining()) {
+                        return;
+                    }
+                    pendingWrites.poll();
+                }
+                key.interestOpsAnd(~SelectionKey.OP_WRITE);
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+    }
+
+    /**
+     * Called by the event loop with freshly read bytes; hands every complete line to the handler.
+     * If the command queue fills up, stops reading and holds the bytes that are left.
+     */
+    void consume(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            if (queuedCommands.get() >= MAX_QUEUED_COMMANDS) {
+                pauseReading(bytes);
+                return;
+            }
+            byte b = bytes.get();
+            if (b == '\n') {
+                int length = lineLength > 0 && lineBuffer[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+                String line = new String(lineBuffer == null ? new byte[0] : lineBuffer, 0, length, StandardCharsets.UTF_8);
+                lineLength = 0;
+                if (lineBuffer != null && lineBuffer.length > RETAINED_LINE_BUFFER_BYTES) {
+                    lineBuffer = null;
+                }
+                queuedCommands.incrementAndGet();
+                execute(() -> {
+                    try {
+                        handler.received(this, line);
+                    } catch (IOException e) {
+                        closeQuietly();
+                    } finally {
+                        if (queuedCommands.decrementAndGet() == RESUME_QUEUED_COMMANDS) {
+                            eventLoop.execute(this::resumeReading);
+                        }
+                    }
+                });
+                continue;
+            }
+            if (lineLength == MAX_LINE_BYTES) {
+                closeQuietly();
+                return;
+            }
+            if (lineBuffer == null) {
+                lineBuffer = new byte[256];
+            } else if (lineLength == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, Math.min(MAX_LINE_BYTES, lineBuffer.length * 2));
+            }
+            lineBuffer[lineLength++] = b;
+        }
+    }
+
+    private void pauseReading(ByteBuffer unread) {
+        heldInput = ByteBuffer.allocate(unread.remaining()).put(unread).flip();
+        if (!readPaused) {
+            readPaused = true;
+            key.interestOpsAnd(~SelectionKey.OP_READ);
+        }
+        // The queue may have drained past the resume mark before readPaused was set, in which case
+        // the command that crossed it found nothing to resume and no later one will.
+        if (queuedCommands.get() <= RESUME_QUEUED_COMMANDS) {
+            resumeReading();
+        }
+    }
+
+    /**
+     * Runs on the event loop once the command queue has drained: reads again, starting with the held
+     * bytes.
+     */
+    private void resumeReading() {
+        if (!readPaused || closed.get() || queuedCommands.get() >= MAX_QUEUED_COMMANDS) {
+            return;
+        }
+        readPaused = false;
+        key.interestOpsOr(SelectionKey.OP_READ);
+        ByteBuffer held = heldInput;
+        heldInput = null;
+        if (held != null) {
+            consume(held);
+        }
+    }
+
+    /**
+     * Lines handed to the handler that it has not finished with yet.
+     */
+    int queuedCommands() {
+        return queuedCommands.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } finally {
+            synchronized (writeLock) {
+                pendingWrites.clear();
+                pendingBytes = 0;
+            }
+            execute(() -> handler.closed(this));
+        }
+    }
+
+    void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // Already closing; nothing more to release.
+        }
+    }
+
+    /**
+     * Runs {@code task} on the command pool after every task submitted before it.
+     */
+    private void execute(Runnable task) {
+        tasks.add(task);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                commandPool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // The server is stopping; still deliver what is queued, e.g. the close.
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException ignored) {
+                // The handler answers command errors itself; anything else must not stop the session.
+            }
+        }
+        draining.set(false);
+        if (!tasks.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector-based transport for {@link NetworkGameServer}: an acceptor thread hands connections
+ * round-robin to a few event loops, each multiplexing its connections over one {@link Selector} and
+ * reading them through one direct buffer it reuses for every read. Lines are handed to the sessions'
+ * handler on a shared command pool, so thread count does not grow with connection count.
+ */
+final class NioServerTransport implements Closeable {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final long SHUTDOWN_WAIT_MILLIS = 1000;
+
+    private final ServerSocketChannel serverChannel;
+    private final List<EventLoop> eventLoops = new ArrayList<>();
+    private final ExecutorService commandPool;
+    private final ObjectMapper mapper;
+    private final SessionHandler handler;
+    private final Thread acceptor;
+    private volatile boolean running = true;
+
+    NioServerTransport(int port, int eventLoopCount, int commandThreads, ObjectMapper mapper, SessionHandler handler) throws IOException {
+        if (eventLoopCount <= 0 || commandThreads <= 0) {
+            throw new IllegalArgumentException("eventLoopCount and commandThreads must be > 0");
+        }
+        this.mapper = mapper;
+        this.handler = handler;
+        this.commandPool = Executors.newFixedThreadPool(commandThreads, namedThreads("net-command-"));
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(port), 1024);
+            for (int i = 0; i < eventLoopCount; i++) {
+                eventLoops.add(new EventLoop(i));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        this.acceptor = new Thread(this::acceptLoop, "net-accept");
+        acceptor.setDaemon(true);
+    }
+
+    /**
+     * The port the transport listens on, which the system picks when it was created with port 0.
+     */
+    int localPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    void start() {
+        for (EventLoop loop : eventLoops) {
+            loop.thread.start();
+        }
+        acceptor.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException ignored) {
+            // Shutting down; the port is released either way.
+        }
+        for (EventLoop loop : eventLoops) {
+            loop.close();
+        }
+        for (EventLoop loop : eventLoops) {
+            loop.awaitExit();
+        }
+        commandPool.shutdown();
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                eventLoops.get(next).assign(channel);
+                next = (next + 1) % eventLoops.size();
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class EventLoop {
+        private final Selector selector;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<Runnable> loopTasks = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        private EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this::run, "net-loop-" + (index + 1));
+            thread.setDaemon(true);
+        }
+
+        private void assign(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        /**
+         * Runs {@code task} on this loop's thread before its next select.
+         */
+        private void runOnLoop(Runnable task) {
+            loopTasks.add(task);
+            selector.wakeup();
+        }
+
+        private void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerNewChannels();
+                    runLoopTasks();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        NioClientSession session = (NioClientSession) key.attachment();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isWritable()) {
+                            session.flush();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(key, session);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // Nothing more can be selected; drop this loop's connections.
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof NioClientSession session) {
+                        session.closeQuietly();
+                    }
+                }
+                SocketChannel unregistered;
+                while ((unregistered = newChannels.poll()) != null) {
+                    closeChannel(unregistered);
+                }
+                closeSelector();
+            }
+        }
+
+        private void registerNewChannels() {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    NioClientSession session = new NioClientSession(channel, key, mapper, commandPool, this::runOnLoop, handler);
+                    key.attach(session);
+                    session.open();
+                } catch (IOException e) {
+                    closeChannel(channel);
+                }
+            }
+        }
+
+        private void runLoopTasks() {
+            Runnable task;
+            while ((task = loopTasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        private void read(SelectionKey key, NioClientSession session) {
+            readBuffer.clear();
+            int read;
+            try {
+                read = ((SocketChannel) key.channel()).read(readBuffer);
+            } catch (IOException e) {
+                read = -1;
+            }
+            if (read < 0) {
+                session.closeQuietly();
+                return;
+            }
+            readBuffer.flip();
+            session.consume(readBuffer);
+        }
+
+        /**
+         * Stops the loop, which closes its connections on the way out.
+         */
+        private void close() {
+            if (thread.getState() == Thread.State.NEW) {
+                closeSelector();
+            } else {
+                selector.wakeup();
+            }
+        }
+
+        private void awaitExit() {
+            if (thread.getState() == Thread.State.NEW) {
+                return;
+            }
+            try {
+                thread.join(SHUTDOWN_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void closeSelector() {
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Nothing left to release.
+            }
+        }
+    }
+
+    private static void closeChannel(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Never registered; nothing else holds it.
+        }
+    }
+}
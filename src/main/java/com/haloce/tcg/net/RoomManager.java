@@ -1,31 +1,74 @@
 package com.haloce.tcg.net;
 
 import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.core.event.journal.EventJournal;
+import com.haloce.tcg.core.event.journal.EventJournalOptions;
+import com.haloce.tcg.core.event.journal.EventJournalSink;
+import com.haloce.tcg.core.event.stream.GameEventPublisher;
 import com.haloce.tcg.deck.model.DeckDef;
 import com.haloce.tcg.game.GameEngine;
 import com.haloce.tcg.game.GameMode;
 import com.haloce.tcg.game.GameStateManager;
 import com.haloce.tcg.game.PlayerSeat;
+import com.haloce.tcg.game.replay.MatchRecorder;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class RoomManager {
     private final CardRepository cardRepository;
     private final DeckDef templateDeck;
+    private final EventJournalOptions journalOptions;
+    private final BotScheduler botScheduler;
     private final Map<String, GameRoom> rooms = new ConcurrentHashMap<>();
+    // Each room gets its own match seed, recorded as GameStateManager.seed().
+    private final SplittableRandom roomSeeds = new SplittableRandom();
 
     public RoomManager(CardRepository cardRepository, DeckDef templateDeck) {
+        this(cardRepository, templateDeck, null);
+    }
+
+    /**
+     * @param journalOptions when non-null, every room journals its events to a subdirectory of
+     *                       {@code journalOptions.directory()} named after the room id
+     */
+    public RoomManager(CardRepository cardRepository, DeckDef templateDeck, EventJournalOptions journalOptions) {
+        this(cardRepository, templateDeck, journalOptions, null);
+    }
+
+    /**
+     * @param botScheduler plays the bot seats of rooms created with bot players; {@code null} if
+     *                     this server has no bots
+     */
+    public RoomManager(CardRepository cardRepository, DeckDef templateDeck, EventJournalOptions journalOptions, BotScheduler botScheduler) {
         this.cardRepository = cardRepository;
         this.templateDeck = templateDeck;
+        this.journalOptions = journalOptions;
+        this.botScheduler = botScheduler;
+    }
+
+    public Optional<BotScheduler> botScheduler() {
+        return Optional.ofNullable(botScheduler);
     }
 
     public GameRoom createRoom(String roomId, GameMode mode, List<String> playerIds, Map<String, String> teamByPlayer) {
+        return createRoom(roomId, mode, playerIds, teamByPlayer, Set.of());
+    }
+
+    /**
+     * @param botPlayerIds seats, among {@code playerIds}, to be played by the bot scheduler
+     */
+    public GameRoom createRoom(String roomId, GameMode mode, List<String> playerIds, Map<String, String> teamByPlayer, Set<String> botPlayerIds) {
         if (roomId == null || roomId.isBlank()) {
             throw new IllegalArgumentException("roomId is required");
         }
@@ -40,6 +83,13 @@ public class RoomManager {
         if (uniq.size() != playerIds.size()) {
             throw new IllegalArgumentException("playerIds contains duplicate values");
         }
+        Set<String> bots = botPlayerIds == null ? Set.of() : Set.copyOf(botPlayerIds);
+        if (!uniq.containsAll(bots)) {
+            throw new IllegalArgumentException("botPlayerIds must be seated players");
+        }
+        if (!bots.isEmpty() && botScheduler == null) {
+            throw new IllegalStateException("Bot seats requested but no bot scheduler is configured");
+        }
 
         List<PlayerSeat> seats = new ArrayList<>();
         for (String playerId : playerIds) {
@@ -49,22 +99,80 @@ public class RoomManager {
                     playerId,
                     templateDeck.cards()
             );
-            seats.add(new PlayerSeat(playerId, playerDeck, teamId, true));
+            seats.add(new PlayerSeat(playerId, playerDeck, teamId, !bots.contains(playerId)));
         }
 
-        GameEngine engine = new GameEngine(cardRepository);
-        GameStateManager game = engine.initializeMatchWithSeats(mode, seats);
-        GameRoom room = new GameRoom(roomId, game);
+        DeterministicEventBus eventBus = new DeterministicEventBus();
+        EventJournal journal = openJournal(roomId);
+        GameEventPublisher eventStream = new GameEventPublisher();
+        GameRoom room;
+        try {
+            eventStream.attach(eventBus);
+            if (journal != null) {
+                EventJournalSink.attach(eventBus, journal);
+            }
+            GameEngine engine = new GameEngine(cardRepository, eventBus);
+            GameStateManager game = engine.initializeMatchWithSeats(mode, seats, nextRoomSeed());
+            room = new GameRoom(roomId, game, journal, eventStream, bots, new MatchRecorder(mode, seats, game));
+        } catch (RuntimeException e) {
+            eventStream.close();
+            closeQuietly(journal);
+            throw e;
+        }
         rooms.put(roomId, room);
+        wakeBots(room);
         return room;
     }
 
+    private long nextRoomSeed() {
+        synchronized (roomSeeds) {
+            return roomSeeds.nextLong();
+        }
+    }
+
+    private EventJournal openJournal(String roomId) {
+        if (journalOptions == null) {
+            return null;
+        }
+        Path root = journalOptions.directory().toAbsolutePath().normalize();
+        Path roomDirectory = root.resolve(roomId).normalize();
+        if (!roomDirectory.getParent().equals(root)) {
+            throw new IllegalArgumentException("roomId is not a valid journal directory name: " + roomId);
+        }
+        return EventJournal.open(journalOptions.withDirectory(roomDirectory));
+    }
+
+    private static void closeQuietly(EventJournal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException ignored) {
+            // Room creation already failed; that error is the one to report.
+        }
+    }
+
+    /**
+     * Lets the room's bots move if it is their turn; call after every command applied to the room.
+     */
+    public void wakeBots(GameRoom room) {
+        if (botScheduler != null && room != null && !room.botPlayerIds().isEmpty()) {
+            botScheduler.wake(room);
+        }
+    }
+
     public GameRoom getRoom(String roomId) {
         return rooms.get(roomId);
     }
 
     public boolean removeRoom(String roomId) {
-        return rooms.remove(roomId) != null;
+        GameRoom removed = rooms.remove(roomId);
+        if (removed == null) {
+            return false;
+        }
+        removed.close();
+        return true;
     }
 
     public void removeRoomIfEmpty(String roomId) {
@@ -75,8 +183,8 @@ public class RoomManager {
         if (room == null) {
             return;
         }
-        if (room.remotePlayers().onlinePlayers().isEmpty()) {
-            rooms.remove(roomId, room);
+        if (room.remotePlayers().onlinePlayers().isEmpty() && rooms.remove(roomId, room)) {
+            room.close();
         }
     }
 
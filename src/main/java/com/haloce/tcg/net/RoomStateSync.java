@@ -0,0 +1,168 @@
+package com.haloce.tcg.net;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versions a room's public state and tracks what each client has of it. Every distinct
+ * {@link GameSnapshot} published gets the next version; a client is sent a
+ * {@link GameSnapshotDelta} against the last version it acknowledged, or a full snapshot when it
+ * has acknowledged none since joining or has fallen more than {@link #MAX_DELTA_VERSIONS} behind.
+ *
+ * <p>Updates to one client may arrive out of order when several threads broadcast at once, so
+ * clients ignore any version older than the one they hold.
+ */
+public class RoomStateSync {
+    /**
+     * Versions kept to compute deltas from; clients further behind get a full snapshot.
+     */
+    public static final int MAX_DELTA_VERSIONS = 32;
+
+    // Held by command and broadcast threads, virtual ones included; a lock does not pin a carrier thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Versioned> history = new ArrayDeque<>();
+    private final Map<String, Cursor> cursorsByPlayer = new HashMap<>();
+    // Updates to the latest version by base version, 0 for the full snapshot; shared by every client
+    // with the same base so that a broadcast encodes each distinct update once.
+    private final Map<Long, NetResponse> updatesByBase = new HashMap<>();
+    private long version;
+
+    /**
+     * Records {@code snapshot} as the room's latest state. Call with the game lock held, so that
+     * versions follow the order of the game's changes.
+     *
+     * @return the new version, or the current one if nothing changed
+     */
+    public long publish(GameSnapshot snapshot) {
+        lock.lock();
+        try {
+            Versioned latest = history.peekLast();
+            if (latest != null && latest.snapshot().equals(snapshot)) {
+                return latest.version();
+            }
+            version++;
+            history.addLast(new Versioned(version, snapshot));
+            updatesByBase.clear();
+            if (history.size() > MAX_DELTA_VERSIONS + 1) {
+                history.removeFirst();
+            }
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long version() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets what {@code playerId} has, so that it is sent a full snapshot next; call on join and
+     * reconnect.
+     */
+    public void reset(String playerId) {
+        lock.lock();
+        try {
+            cursorsByPlayer.remove(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that {@code playerId} holds {@code acknowledged}; later deltas are computed against it.
+     */
+    public void acknowledge(String playerId, long acknowledged) {
+        lock.lock();
+        try {
+            if (acknowledged < 1 || acknowledged > version) {
+                throw new IllegalArgumentException("Unknown state version: " + acknowledged);
+            }
+            Cursor cursor = cursorsByPlayer.computeIfAbsent(playerId, ignored -> new Cursor());
+            cursor.acknowledged = Math.max(cursor.acknowledged, acknowledged);
+            cursor.sent = Math.max(cursor.sent, cursor.acknowledged);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that {@code playerId} was sent the full state at {@code sentVersion} some other way,
+     * e.g. in a command response, so that it is not broadcast to it again.
+     */
+    public void markSent(String playerId, long sentVersion) {
+        lock.lock();
+        try {
+            Cursor cursor = cursorsByPlayer.computeIfAbsent(playerId, ignored -> new Cursor());
+            cursor.sent = Math.max(cursor.sent, sentVersion);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The update that brings {@code playerId} to the latest version: {@code STATE_DELTA} with a
+     * {@link GameSnapshotDelta}, or {@code STATE_BROADCAST} with the full snapshot. Counts as sent.
+     * Players with the same base get the same instance.
+     *
+     * @return empty if the player was already sent the latest version
+     */
+    public Optional<NetResponse> updateFor(String roomId, String playerId) {
+        lock.lock();
+        try {
+            Versioned latest = history.peekLast();
+            Cursor cursor = cursorsByPlayer.computeIfAbsent(playerId, ignored -> new Cursor());
+            if (latest == null || cursor.sent >= latest.version()) {
+                return Optional.empty();
+            }
+            cursor.sent = latest.version();
+            long base = latest.version() - cursor.acknowledged > MAX_DELTA_VERSIONS ? 0 : cursor.acknowledged;
+            return Optional.of(updatesByBase.computeIfAbsent(base, ignored -> update(roomId, base, latest)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private NetResponse update(String roomId, long base, Versioned latest) {
+        Optional<GameSnapshotDelta> delta = snapshotAt(base).flatMap(snapshot ->
+                GameSnapshotDelta.between(snapshot, base, latest.snapshot(), latest.version()));
+        if (delta.isPresent()) {
+            return NetResponse.ok("STATE_DELTA", Map.of(
+                    "roomId", roomId,
+                    "delta", delta.get()
+            ));
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("roomId", roomId);
+        data.put("version", latest.version());
+        data.put("snapshot", latest.snapshot());
+        return NetResponse.ok("STATE_BROADCAST", data);
+    }
+
+    private Optional<GameSnapshot> snapshotAt(long wanted) {
+        for (Versioned versioned : history) {
+            if (versioned.version() == wanted) {
+                return Optional.of(versioned.snapshot());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private record Versioned(long version, GameSnapshot snapshot) {
+    }
+
+    private static final class Cursor {
+        // 0 is never published, so a client that acknowledged nothing is always sent a full snapshot.
+        private long acknowledged;
+        private long sent;
+    }
+}
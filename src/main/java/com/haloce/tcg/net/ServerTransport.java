@@ -0,0 +1,20 @@
+package com.haloce.tcg.net;
+
+/**
+ * How {@link NetworkGameServer} accepts and reads connections. All speak the same newline-delimited
+ * JSON protocol.
+ */
+public enum ServerTransport {
+    /**
+     * A blocking socket and a thread per connection.
+     */
+    BLOCKING,
+    /**
+     * A blocking socket and a virtual thread per connection; requires Java 21.
+     */
+    VIRTUAL_THREADS,
+    /**
+     * Non-blocking channels multiplexed over a few selector threads; commands run on a shared pool.
+     */
+    NIO
+}
@@ -0,0 +1,15 @@
+package com.haloce.tcg.net;
+
+import java.io.IOException;
+
+/**
+ * What a transport calls as connections come and go. For one session the calls never overlap and
+ * arrive in order: {@code opened}, each {@code received} line, then {@code closed}.
+ */
+interface SessionHandler {
+    void opened(ClientSession session) throws IOException;
+
+    void received(ClientSession session, String line) throws IOException;
+
+    void closed(ClientSession session);
+}
@@ -0,0 +1,54 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session over a blocking socket, read by a thread of its own.
+ */
+public class SocketClientSession extends ClientSession {
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final OutputStream out;
+    private final ObjectMapper mapper;
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    public SocketClientSession(Socket socket, ObjectMapper mapper) throws IOException {
+        this.socket = socket;
+        this.mapper = mapper;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = socket.getOutputStream();
+    }
+
+    public String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    @Override
+    public void send(NetResponse response) throws IOException {
+        send(NetFrame.encode(mapper, response));
+    }
+
+    @Override
+    public void send(NetFrame frame) throws IOException {
+        sendLock.lock();
+        try {
+            frame.writeTo(out);
+            out.flush();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
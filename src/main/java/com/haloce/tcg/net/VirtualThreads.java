@@ -0,0 +1,69 @@
+package com.haloce.tcg.net;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads, looked up at run time so the code base still builds for Java 17; they exist from
+ * Java 21.
+ *
+ * <p>The build deliberately stays on release 17. Only the opt-in {@link ServerTransport#VIRTUAL_THREADS}
+ * transport needs 21, and moving every other transport, the CLI and the tools onto a Java 21
+ * runtime for it is not worth it. Running that transport on an older runtime fails at server start.
+ * Code on the session paths guards shared state with {@link java.util.concurrent.locks.ReentrantLock}
+ * rather than {@code synchronized}, so a virtual thread that blocks while holding the lock does not
+ * pin its carrier thread.
+ */
+final class VirtualThreads {
+    private static final MethodHandle NEW_EXECUTOR = lookupExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    static boolean available() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * An executor that starts a new virtual thread, named {@code prefix} plus a counter, per task.
+     *
+     * @throws IllegalStateException before Java 21
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (NEW_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on "
+                    + Runtime.version().feature());
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(prefix);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory())
+    private static MethodHandle lookupExecutorFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            MethodHandle newBuilder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual));
+            MethodHandle name = lookup.findVirtual(ofVirtual, "name", MethodType.methodType(ofVirtual, String.class, long.class));
+            MethodHandle factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            MethodHandle newExecutor = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+
+            // prefix -> newExecutor(factory(name(ofVirtual(), prefix, 1)))
+            MethodHandle named = MethodHandles.insertArguments(name, 2, 1L);
+            named = MethodHandles.collectArguments(named, 0, newBuilder);
+            MethodHandle threadFactory = MethodHandles.filterReturnValue(named, factory.asType(MethodType.methodType(ThreadFactory.class, ofVirtual)));
+            return MethodHandles.filterReturnValue(threadFactory, newExecutor);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.ai.PositionEvaluator;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.action.ActionBuffer;
+
+import java.util.SplittableRandom;
+
+/**
+ * One-ply lookahead: tries every legal move under an undo mark and keeps the one that leaves the
+ * mover's team with the best {@link PositionEvaluator} score, breaking ties at random.
+ */
+public class GreedyPolicy implements MatchPolicy {
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public int choose(GameStateManager game, ActionBuffer actions, SplittableRandom random) {
+        int seat = game.teamRelations().seatOf(game.activePlayerId());
+        double[] rewards = new double[game.teamRelations().seatCount()];
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int ties = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            int mark = game.mark();
+            try {
+                actions.apply(i, game);
+                PositionEvaluator.scoreSeats(game, rewards);
+            } finally {
+                game.rollbackTo(mark);
+            }
+            double score = rewards[seat];
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
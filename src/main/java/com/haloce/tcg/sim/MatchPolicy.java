@@ -0,0 +1,20 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.action.ActionBuffer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks a move for the active player during simulation. Policies are shared by every game of a run,
+ * so they must be stateless or thread-safe; per-game randomness comes from {@code random}.
+ */
+public interface MatchPolicy {
+    String name();
+
+    /**
+     * @param actions the legal actions in {@code game}, at least one
+     * @return index into {@code actions}; {@code game} must be left as it was passed in
+     */
+    int choose(GameStateManager game, ActionBuffer actions, SplittableRandom random);
+}
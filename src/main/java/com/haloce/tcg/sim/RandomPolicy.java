@@ -0,0 +1,21 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.action.ActionBuffer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniformly random legal moves.
+ */
+public class RandomPolicy implements MatchPolicy {
+    @Override
+    public String name() {
+        return "random";
+    }
+
+    @Override
+    public int choose(GameStateManager game, ActionBuffer actions, SplittableRandom random) {
+        return random.nextInt(actions.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.game.GameRow;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.action.ActionBuffer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fixed aggressive script: attack the base whenever possible, then the strongest reachable unit,
+ * then hijack, then deploy the most expensive affordable card to the frontline, and only then move
+ * on. Never converts cards to battery. Deterministic apart from its input.
+ */
+public class ScriptedPolicy implements MatchPolicy {
+    @Override
+    public String name() {
+        return "scripted";
+    }
+
+    @Override
+    public int choose(GameStateManager game, ActionBuffer actions, SplittableRandom random) {
+        int best = -1;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < actions.size(); i++) {
+            int rank = rank(actions, i);
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static int rank(ActionBuffer actions, int index) {
+        return switch (actions.type(index)) {
+            case ATTACK_BASE -> 5_000;
+            case ATTACK_UNIT -> 4_000 + actions.target(index).card().attack();
+            case HIJACK -> 3_000;
+            case DEPLOY -> 2_000 + actions.card(index).card().supplyCost() * 2
+                    + (actions.row(index) == GameRow.FRONTLINE ? 1 : 0);
+            case ADVANCE_PHASE, END_TURN -> 1_000;
+            case CONVERT_TO_BATTERY -> 0;
+        };
+    }
+}
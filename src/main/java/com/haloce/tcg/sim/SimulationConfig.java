@@ -0,0 +1,57 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.deck.model.DeckDef;
+import com.haloce.tcg.game.GameMode;
+
+import java.util.List;
+
+/**
+ * One simulation run. Seat {@code i} plays {@code decks.get(i % decks.size())} with
+ * {@code policies.get(i % policies.size())}; in {@code TEAM_2V2} even seats and odd seats are the
+ * two teams. Game {@code n} is fully determined by {@code seed} and {@code n}.
+ *
+ * @param seats    players per game: 2 for {@code DUEL_1V1}, 4 for {@code TEAM_2V2}, 2 or more for {@code FFA}
+ * @param threads  games played at the same time
+ * @param maxTurns games still running after this many turns are counted as draws
+ */
+public record SimulationConfig(
+        GameMode mode,
+        int games,
+        int seats,
+        List<DeckDef> decks,
+        List<MatchPolicy> policies,
+        long seed,
+        int threads,
+        int maxTurns
+) {
+    public static final int DEFAULT_MAX_TURNS = 200;
+
+    public SimulationConfig {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode is required");
+        }
+        if (games <= 0) {
+            throw new IllegalArgumentException("games must be > 0");
+        }
+        if (mode == GameMode.DUEL_1V1 && seats != 2 || mode == GameMode.TEAM_2V2 && seats != 4 || seats < 2) {
+            throw new IllegalArgumentException(mode + " cannot be played with " + seats + " seats");
+        }
+        if (decks == null || decks.isEmpty() || policies == null || policies.isEmpty()) {
+            throw new IllegalArgumentException("At least one deck and one policy are required");
+        }
+        if (threads <= 0 || maxTurns <= 0) {
+            throw new IllegalArgumentException("threads and maxTurns must be > 0");
+        }
+        decks = List.copyOf(decks);
+        policies = List.copyOf(policies);
+    }
+
+    /**
+     * All cores, default turn limit, and the usual seat count of the mode (4 for {@code FFA}).
+     */
+    public static SimulationConfig of(GameMode mode, int games, List<DeckDef> decks, List<MatchPolicy> policies, long seed) {
+        int seats = mode == GameMode.DUEL_1V1 ? 2 : 4;
+        return new SimulationConfig(mode, games, seats, decks, policies, seed,
+                Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_TURNS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.card.model.Faction;
+import com.haloce.tcg.game.GameMode;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Totals of one {@link SimulationRunner} run. Win rates count seats, so in {@code TEAM_2V2} both
+ * members of the winning team win.
+ *
+ * @param allocatedBytes bytes allocated by the game threads, or -1 if the JVM cannot measure it
+ */
+public record SimulationReport(
+        GameMode mode,
+        int games,
+        long elapsedNanos,
+        long turns,
+        long actions,
+        int draws,
+        long allocatedBytes,
+        Map<Faction, Integer> seatsByFaction,
+        Map<Faction, Integer> winsByFaction,
+        Map<String, Integer> seatsByPolicy,
+        Map<String, Integer> winsByPolicy
+) {
+    public SimulationReport {
+        seatsByFaction = Map.copyOf(seatsByFaction);
+        winsByFaction = Map.copyOf(winsByFaction);
+        seatsByPolicy = Map.copyOf(seatsByPolicy);
+        winsByPolicy = Map.copyOf(winsByPolicy);
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    public double averageTurns() {
+        return (double) turns / games;
+    }
+
+    public double averageActions() {
+        return (double) actions / games;
+    }
+
+    public long allocatedBytesPerGame() {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / games;
+    }
+
+    public double winRate(Faction faction) {
+        int seats = seatsByFaction.getOrDefault(faction, 0);
+        return seats == 0 ? 0 : (double) winsByFaction.getOrDefault(faction, 0) / seats;
+    }
+
+    public double winRate(String policyName) {
+        int seats = seatsByPolicy.getOrDefault(policyName, 0);
+        return seats == 0 ? 0 : (double) winsByPolicy.getOrDefault(policyName, 0) / seats;
+    }
+
+    public String summary() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%s: %d games in %.2fs (%.1f games/s), avg %.1f turns, %.1f actions, %d draws%n",
+                mode, games, elapsedNanos / 1e9, gamesPerSecond(), averageTurns(), averageActions(), draws));
+        text.append(allocatedBytes < 0
+                ? "allocation: not measurable on this JVM\n"
+                : String.format(Locale.ROOT, "allocation: %.1f KiB/game%n", allocatedBytesPerGame() / 1024.0));
+        for (Faction faction : Faction.values()) {
+            if (seatsByFaction.containsKey(faction)) {
+                text.append(String.format(Locale.ROOT, "  faction %-10s seats=%-6d win rate %.1f%%%n",
+                        faction, seatsByFaction.get(faction), winRate(faction) * 100));
+            }
+        }
+        seatsByPolicy.keySet().stream().sorted().forEach(policy -> text.append(String.format(Locale.ROOT,
+                "  policy  %-10s seats=%-6d win rate %.1f%%%n", policy, seatsByPolicy.get(policy), winRate(policy) * 100)));
+        return text.toString();
+    }
+}
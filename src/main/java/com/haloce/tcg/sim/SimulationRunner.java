@@ -0,0 +1,227 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.card.loader.CardLoader;
+import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.card.model.Faction;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckLoader;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.deck.model.DeckDef;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.PlayerSeat;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionGenerator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays complete matches headlessly, in parallel, with {@link MatchPolicy} players: no network, no
+ * journal, one {@link DeterministicEventBus} per game. Used for balance work and as the throughput
+ * benchmark for engine changes.
+ *
+ * <p>Usage: {@code SimulationRunner <mode> <games> <policy[,policy...]> [deck.json ...]}, with
+ * policies {@code random}, {@code greedy} and {@code scripted}; the demo deck is used when no deck
+ * is given.
+ */
+public class SimulationRunner {
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final CardRepository cardRepository;
+    private final DeckValidator deckValidator = new DeckValidator();
+
+    public SimulationRunner(CardRepository cardRepository) {
+        this.cardRepository = cardRepository;
+    }
+
+    public SimulationReport run(SimulationConfig config) {
+        for (DeckDef deck : config.decks()) {
+            deckValidator.validate(deck, cardRepository);
+        }
+        GameEngine factionLookup = new GameEngine(cardRepository);
+        Faction[] factionBySeat = new Faction[config.seats()];
+        for (int seat = 0; seat < factionBySeat.length; seat++) {
+            factionBySeat[seat] = factionLookup.inferDominantFaction(deckOf(config, seat).cards());
+        }
+
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(config.threads());
+        long started = System.nanoTime();
+        Tally total = new Tally();
+        try {
+            List<Future<Tally>> workers = new ArrayList<>(config.threads());
+            for (int i = 0; i < config.threads(); i++) {
+                workers.add(pool.submit(() -> {
+                    Tally tally = new Tally();
+                    for (int game = nextGame.getAndIncrement(); game < config.games(); game = nextGame.getAndIncrement()) {
+                        play(config, game, factionBySeat, tally);
+                    }
+                    return tally;
+                }));
+            }
+            for (Future<Tally> worker : workers) {
+                total.add(worker.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        return new SimulationReport(config.mode(), config.games(), elapsed, total.turns, total.actions, total.draws,
+                total.allocatedBytes, total.seatsByFaction, total.winsByFaction, total.seatsByPolicy, total.winsByPolicy);
+    }
+
+    private void play(SimulationConfig config, int gameIndex, Faction[] factionBySeat, Tally tally) {
+        long gameSeed = config.seed() + gameIndex * SEED_STRIDE;
+        long allocatedBefore = allocatedBytes();
+
+        List<PlayerSeat> seats = new ArrayList<>(config.seats());
+        for (int seat = 0; seat < config.seats(); seat++) {
+            String playerId = "P" + (seat + 1);
+            String teamId = config.mode() == GameMode.TEAM_2V2 ? "T" + (seat % 2 + 1) : playerId;
+            seats.add(new PlayerSeat(playerId, deckOf(config, seat), teamId, false));
+        }
+        GameEngine engine = new GameEngine(cardRepository, new DeterministicEventBus(), deckValidator, gameSeed);
+        GameStateManager game;
+        try {
+            game = engine.initializeMatchWithSeats(config.mode(), seats, gameSeed);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Game " + gameIndex + " (seed " + gameSeed + ") failed to start", e);
+        }
+
+        SplittableRandom random = new SplittableRandom(gameSeed);
+        ActionGenerator generator = new ActionGenerator();
+        ActionBuffer actions = new ActionBuffer();
+        long actionCount = 0;
+        try {
+            while (game.status() == GameStatus.RUNNING && game.globalTurnIndex() <= config.maxTurns()) {
+                if (generator.generate(game, actions) == 0) {
+                    break;
+                }
+                int seat = game.teamRelations().seatOf(game.activePlayerId());
+                actions.apply(policyOf(config, seat).choose(game, actions, random), game);
+                actionCount++;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Game " + gameIndex + " (seed " + gameSeed + ") failed at turn "
+                    + game.globalTurnIndex() + ", action " + actionCount, e);
+        }
+
+        tally.turns += game.globalTurnIndex();
+        tally.actions += actionCount;
+        boolean finished = game.status() == GameStatus.FINISHED && game.winnerTeamId() != null;
+        if (!finished) {
+            tally.draws++;
+        }
+        for (int seat = 0; seat < config.seats(); seat++) {
+            String policy = policyOf(config, seat).name();
+            tally.seatsByFaction.merge(factionBySeat[seat], 1, Integer::sum);
+            tally.seatsByPolicy.merge(policy, 1, Integer::sum);
+            if (finished && game.winnerTeamId().equals(game.teamIdOf(seats.get(seat).playerId()))) {
+                tally.winsByFaction.merge(factionBySeat[seat], 1, Integer::sum);
+                tally.winsByPolicy.merge(policy, 1, Integer::sum);
+            }
+        }
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore < 0 || allocatedAfter < 0 || tally.allocatedBytes < 0) {
+            tally.allocatedBytes = -1;
+        } else {
+            tally.allocatedBytes += allocatedAfter - allocatedBefore;
+        }
+    }
+
+    private static DeckDef deckOf(SimulationConfig config, int seat) {
+        return config.decks().get(seat % config.decks().size());
+    }
+
+    private static MatchPolicy policyOf(SimulationConfig config, int seat) {
+        return config.policies().get(seat % config.policies().size());
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public static MatchPolicy policy(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "random" -> new RandomPolicy();
+            case "greedy" -> new GreedyPolicy();
+            case "scripted" -> new ScriptedPolicy();
+            default -> throw new IllegalArgumentException("Unknown policy: " + name);
+        };
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: SimulationRunner <DUEL_1V1|FFA|TEAM_2V2> <games> <policy[,policy...]> [deck.json ...]");
+            return;
+        }
+        GameMode mode = GameMode.valueOf(args[0].toUpperCase(Locale.ROOT));
+        int games = Integer.parseInt(args[1]);
+        List<MatchPolicy> policies = new ArrayList<>();
+        for (String name : args[2].split(",")) {
+            policies.add(policy(name));
+        }
+        DeckLoader deckLoader = new DeckLoader();
+        List<DeckDef> decks = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            decks.add(deckLoader.load(Path.of(args[i])));
+        }
+        if (decks.isEmpty()) {
+            decks.add(deckLoader.load(Path.of("src/main/resources/decks/p1_demo_deck.v1.json")));
+        }
+
+        CardRepository repository = new CardLoader(new SemanticValidator()).loadFromResourceDir(Path.of("src/main/resources"));
+        long seed = Long.getLong("haloce.sim.seed", 1L);
+        SimulationReport report = new SimulationRunner(repository).run(SimulationConfig.of(mode, games, decks, policies, seed));
+        System.out.print(report.summary());
+    }
+
+    private static final class Tally {
+        private long turns;
+        private long actions;
+        private int draws;
+        private long allocatedBytes;
+        private final Map<Faction, Integer> seatsByFaction = new EnumMap<>(Faction.class);
+        private final Map<Faction, Integer> winsByFaction = new EnumMap<>(Faction.class);
+        private final Map<String, Integer> seatsByPolicy = new HashMap<>();
+        private final Map<String, Integer> winsByPolicy = new HashMap<>();
+
+        private void add(Tally other) {
+            turns += other.turns;
+            actions += other.actions;
+            draws += other.draws;
+            allocatedBytes = allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes;
+            other.seatsByFaction.forEach((key, value) -> seatsByFaction.merge(key, value, Integer::sum));
+            other.winsByFaction.forEach((key, value) -> winsByFaction.merge(key, value, Integer::sum));
+            other.seatsByPolicy.forEach((key, value) -> seatsByPolicy.merge(key, value, Integer::sum));
+            other.winsByPolicy.forEach((key, value) -> winsByPolicy.merge(key, value, Integer::sum));
+        }
+    }
+}
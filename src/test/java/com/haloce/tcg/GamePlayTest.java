@@ -3,7 +3,9 @@ package com.haloce.tcg;
 import com.haloce.tcg.card.loader.CardLoader;
 import com.haloce.tcg.card.loader.CardRepository;
 import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.card.model.CardType;
 import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.event.DeterministicEventBus;
 import com.haloce.tcg.deck.DeckLoader;
 import com.haloce.tcg.deck.DeckValidator;
 import com.haloce.tcg.deck.model.DeckDef;
@@ -14,6 +16,7 @@ import com.haloce.tcg.game.GameStatus;
 import com.haloce.tcg.game.GameStateManager;
 import com.haloce.tcg.game.Lane;
 import com.haloce.tcg.game.PlayerSeat;
+import com.haloce.tcg.game.PlayerState;
 import com.haloce.tcg.game.GameRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -67,29 +70,36 @@ class GamePlayTest {
     @Test
     @DisplayName("deploy a unit, advance to SKIRMISH, end turn")
     void fullTurnFlow() {
-        GameStateManager game = engine.initializeMatchWithSeats(
-                GameMode.DUEL_1V1,
-                List.of(
-                        new PlayerSeat("P1", deckDef, "P1", false),
-                        new PlayerSeat("P2", deckDef, "P2", false)
-                )
-        );
+        // The opening hand depends on the match seed; take the first seed that deals P1 a unit it
+        // can pay for with turn 1 supply.
+        GameStateManager game = null;
+        CardInstance toDeploy = null;
+        for (long seed = 0; toDeploy == null && seed < 100; seed++) {
+            game = new GameEngine(repository, new DeterministicEventBus(), new DeckValidator(), seed)
+                    .initializeMatchWithSeats(
+                            GameMode.DUEL_1V1,
+                            List.of(
+                                    new PlayerSeat("P1", deckDef, "P1", false),
+                                    new PlayerSeat("P2", deckDef, "P2", false)
+                            )
+                    );
+            toDeploy = affordableUnit(game.player("P1"));
+        }
+        assertNotNull(toDeploy, "no seed dealt an affordable unit");
 
         assertEquals(GamePhase.DEPLOYMENT, game.phase());
 
-        List<CardInstance> hand = game.player("P1").hand();
-        CardInstance toDeploy = hand.stream()
-                .filter(c -> c.definition().stats() != null)
-                .findFirst()
-                .orElse(hand.get(0));
-
         game.deployUnitFromHand("P1", toDeploy.instanceId(), Lane.ALPHA, GameRow.FRONTLINE);
         game.advancePhase();
         assertEquals(GamePhase.SKIRMISH, game.phase());
+        game.advancePhase();
+        assertEquals(GamePhase.ENDSTEP, game.phase());
 
         game.endTurn();
         assertEquals("P2", game.activePlayerId());
-        assertEquals(GamePhase.DRAW_RECHARGE, game.phase());
+        // Draw/recharge resolves as the turn starts.
+        assertEquals(GamePhase.DEPLOYMENT, game.phase());
+        assertEquals(6, game.player("P2").handSize());
     }
 
     @Test
@@ -112,4 +122,14 @@ class GamePlayTest {
         assertNotNull(game.winnerPlayerId());
         assertEquals("P1", game.winnerPlayerId());
     }
+
+    private static CardInstance affordableUnit(PlayerState player) {
+        return player.hand().stream()
+                .filter(c -> c.definition().cardType() == CardType.UNIT && c.definition().stats() != null)
+                .filter(c -> c.definition().cost() == null
+                        || c.definition().cost().supply() <= player.currentSupply()
+                        && c.definition().cost().battery() <= player.battery())
+                .findFirst()
+                .orElse(null);
+    }
 }
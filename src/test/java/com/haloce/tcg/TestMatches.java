@@ -0,0 +1,182 @@
+package com.haloce.tcg;
+
+import com.haloce.tcg.card.loader.CardLoader;
+import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.model.Cost;
+import com.haloce.tcg.card.model.Keyword;
+import com.haloce.tcg.card.model.Stats;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.deck.DeckLoader;
+import com.haloce.tcg.deck.model.DeckDef;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.GameRow;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.Lane;
+import com.haloce.tcg.game.LaneBoardState;
+import com.haloce.tcg.game.LaneState;
+import com.haloce.tcg.game.PlayerSeat;
+import com.haloce.tcg.game.PlayerState;
+import com.haloce.tcg.game.UnitStatus;
+import com.haloce.tcg.game.handlers.HandlerUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared fixtures for tests that play seeded matches: the bundled card set, the demo deck and a
+ * random move driver.
+ */
+public final class TestMatches {
+    private static final Path RESOURCES = Path.of("src/main/resources");
+    private static CardRepository repository;
+    private static DeckDef deck;
+
+    private TestMatches() {
+    }
+
+    public static synchronized CardRepository repository() {
+        if (repository == null) {
+            repository = new CardLoader(new SemanticValidator()).loadFromResourceDir(RESOURCES);
+        }
+        return repository;
+    }
+
+    public static synchronized DeckDef deck() {
+        if (deck == null) {
+            deck = new DeckLoader().load(RESOURCES.resolve("decks/p1_demo_deck.v1.json"));
+        }
+        return deck;
+    }
+
+    /**
+     * Seats P1..Pn with the demo deck; in {@code TEAM_2V2} seats alternate between teams T1 and T2.
+     */
+    public static List<PlayerSeat> seats(GameMode mode, int count) {
+        List<PlayerSeat> seats = new ArrayList<>(count);
+        for (int seat = 0; seat < count; seat++) {
+            String playerId = "P" + (seat + 1);
+            String teamId = mode == GameMode.TEAM_2V2 ? "T" + (seat % 2 + 1) : playerId;
+            seats.add(new PlayerSeat(playerId, deck(), teamId, false));
+        }
+        return seats;
+    }
+
+    public static GameStateManager duel(GameEngine engine, long seed) {
+        return engine.initializeMatchWithSeats(GameMode.DUEL_1V1, seats(GameMode.DUEL_1V1, 2), seed);
+    }
+
+    /**
+     * Applies up to {@code maxActions} random moves, stopping early when the match ends. Moves are
+     * drawn uniformly from a rule-abiding subset of what the active player may do: deploying an
+     * affordable unit into a row with space, attacking with a unit that may attack, and advancing
+     * the phase or ending the turn. Battery conversions and hijacks are never played.
+     *
+     * @return the number of actions applied
+     */
+    public static int playRandom(GameStateManager game, SplittableRandom random, int maxActions) {
+        List<Runnable> moves = new ArrayList<>();
+        int applied = 0;
+        while (applied < maxActions && game.status() == GameStatus.RUNNING) {
+            moves.clear();
+            String playerId = game.activePlayerId();
+            switch (game.phase()) {
+                case DEPLOYMENT -> {
+                    addDeployments(game, playerId, moves);
+                    moves.add(game::advancePhase);
+                }
+                case SKIRMISH -> {
+                    addAttacks(game, playerId, moves);
+                    moves.add(game::advancePhase);
+                }
+                case ENDSTEP -> moves.add(game::endTurn);
+                case DRAW_RECHARGE -> {
+                    return applied;
+                }
+            }
+            moves.get(random.nextInt(moves.size())).run();
+            applied++;
+        }
+        return applied;
+    }
+
+    private static void addDeployments(GameStateManager game, String playerId, List<Runnable> moves) {
+        PlayerState player = game.player(playerId);
+        for (CardInstance card : player.hand()) {
+            CardDef definition = card.definition();
+            if (definition.cardType() != CardType.UNIT && definition.cardType() != CardType.TOKEN) {
+                continue;
+            }
+            Cost cost = definition.cost() == null ? new Cost(0, 0) : definition.cost();
+            if (cost.supply() > player.currentSupply() || cost.battery() > player.battery()) {
+                continue;
+            }
+            for (Lane lane : Lane.values()) {
+                for (GameRow row : GameRow.values()) {
+                    if (game.battlefield().hasSpace(lane, playerId, row)) {
+                        moves.add(() -> game.deployUnitFromHand(playerId, card.instanceId(), lane, row));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addAttacks(GameStateManager game, String playerId, List<Runnable> moves) {
+        String teamId = game.teamIdOf(playerId);
+        for (Lane lane : Lane.values()) {
+            LaneState laneState = game.battlefield().lane(lane);
+            for (CardInstance attacker : laneState.unitsOf(playerId)) {
+                Stats stats = attacker.definition().stats();
+                if (stats == null || stats.attack() <= 0 || game.hasAttackedThisTurn(attacker.instanceId())
+                        || !canAttack(game, attacker)) {
+                    continue;
+                }
+                boolean ranged = HandlerUtils.hasKeyword(attacker, Keyword.RANGED);
+                for (String opponentId : game.playerIds()) {
+                    if (teamId.equals(game.teamIdOf(opponentId))) {
+                        continue;
+                    }
+                    LaneBoardState side = laneState.side(opponentId);
+                    addAttackTargets(game, attacker, side.frontline(), moves);
+                    if (ranged || side.frontlineCount() == 0) {
+                        addAttackTargets(game, attacker, side.backline(), moves);
+                    }
+                    List<String> defenders = game.playerIds().stream()
+                            .filter(id -> game.teamIdOf(id).equals(game.teamIdOf(opponentId)))
+                            .toList();
+                    if (game.battlefield().laneUnitCount(lane, defenders) == 0) {
+                        moves.add(() -> game.attackBase(attacker.instanceId(), opponentId));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addAttackTargets(GameStateManager game, CardInstance attacker, List<CardInstance> row,
+                                         List<Runnable> moves) {
+        for (CardInstance defender : row) {
+            // Only units with stats have combat state to take damage.
+            if (defender.definition().stats() != null) {
+                moves.add(() -> game.declareAttack(attacker.instanceId(), defender.instanceId()));
+            }
+        }
+    }
+
+    private static boolean canAttack(GameStateManager game, CardInstance unit) {
+        UnitStatus status = game.findUnitStatus(unit);
+        if (status == null) {
+            return true;
+        }
+        int turn = game.globalTurnIndex();
+        if (status.summonedTurnIndex() == turn && !HandlerUtils.hasKeyword(unit, Keyword.DROP_POD)) {
+            return false;
+        }
+        return status.cannotAttackUntilTurn() < turn;
+    }
+}
@@ -0,0 +1,90 @@
+package com.haloce.tcg.card.runtime;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.model.CardDef;
+import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.model.Keyword;
+import com.haloce.tcg.card.model.KeywordInstance;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The compiled lookups must answer exactly as the string scans over the definition they replaced.
+ */
+@DisplayName("Compiled card")
+class CompiledCardTest {
+    @Test
+    @DisplayName("keyword, tag and classification checks match the definition for every card")
+    void matchesDefinition() {
+        Set<String> tags = new TreeSet<>();
+        TestMatches.repository().all().forEach(definition -> {
+            if (definition.tags() != null) {
+                tags.addAll(definition.tags());
+            }
+        });
+        tags.add("NOT_A_TAG");
+        boolean sawKeyword = false;
+
+        for (CardDef definition : TestMatches.repository().all()) {
+            CompiledCard card = TestMatches.repository().compiled(definition.id());
+            for (Keyword keyword : Keyword.values()) {
+                boolean expected = hasKeyword(definition, keyword.name());
+                sawKeyword |= expected;
+                assertEquals(expected, card.hasKeyword(keyword), definition.id() + " " + keyword);
+                assertEquals(expected, card.hasKeyword(keyword.name().toLowerCase(Locale.ROOT)), definition.id() + " " + keyword);
+            }
+            for (String tag : tags) {
+                assertEquals(hasTag(definition, tag), card.hasTag(tag.toLowerCase(Locale.ROOT)), definition.id() + " " + tag);
+            }
+            assertEquals(isVehicle(definition), card.isVehicle(), definition.id());
+            assertEquals(isInfantry(definition), card.isInfantry(), definition.id());
+            assertEquals(definition.stats() != null, card.hasStats(), definition.id());
+            assertEquals(definition.stats() == null ? 0 : definition.stats().attack(), card.attack(), definition.id());
+            assertEquals(definition.cost() == null ? 0 : definition.cost().supply(), card.supplyCost(), definition.id());
+        }
+        assertTrue(sawKeyword, "the repository should have cards with keywords");
+    }
+
+    @Test
+    @DisplayName("names outside the keyword set and unseen tags are absent, and checking a tag does not intern it")
+    void unknownNamesAreAbsent() {
+        CompiledCard card = TestMatches.repository().compiled("UNSC-001");
+
+        assertFalse(card.hasKeyword("NOT_A_KEYWORD"));
+        assertFalse(card.hasKeyword((String) null));
+        assertFalse(card.hasTag("NEVER_SEEN_TAG"));
+        assertEquals(-1, CardTags.find("NEVER_SEEN_TAG"));
+        assertEquals(CardTags.VEHICLE, CardTags.find("vehicle"));
+    }
+
+    private static boolean hasKeyword(CardDef definition, String keyword) {
+        return definition.keywords() != null && definition.keywords().stream()
+                .map(KeywordInstance::name)
+                .anyMatch(keyword::equalsIgnoreCase);
+    }
+
+    private static boolean hasTag(CardDef definition, String tag) {
+        return definition.tags() != null && definition.tags().stream().anyMatch(tag::equalsIgnoreCase);
+    }
+
+    private static boolean isVehicle(CardDef definition) {
+        return definition.cardType() == CardType.VESSEL
+                || hasKeyword(definition, "VEHICLE")
+                || hasTag(definition, "VEHICLE")
+                || hasTag(definition, "VESSEL");
+    }
+
+    private static boolean isInfantry(CardDef definition) {
+        return definition.cardType() == CardType.UNIT
+                && !isVehicle(definition)
+                && (hasTag(definition, "INFANTRY") || !hasTag(definition, "VEHICLE"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.haloce.tcg.card.runtime;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateData;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Instance handle allocator")
+class InstanceHandleAllocatorTest {
+    @Test
+    @DisplayName("issues dense handles whose wire ids map back to them")
+    void issuesDenseHandles() {
+        InstanceHandleAllocator allocator = new InstanceHandleAllocator();
+        CompiledCard card = TestMatches.repository().compiled("UNSC-001");
+        for (int expected = 0; expected < 3; expected++) {
+            CardInstance instance = allocator.create(card, "P1", 0, null);
+            assertEquals(expected, instance.handle());
+            assertEquals(instance.handle(), InstanceHandleAllocator.handleOf(instance.instanceId()));
+        }
+        assertEquals("U0000042", InstanceHandleAllocator.instanceId(42));
+        assertEquals(3, allocator.allocated());
+
+        assertEquals(InstanceHandleAllocator.NO_HANDLE, InstanceHandleAllocator.handleOf("3f2c-uuid"));
+        assertEquals(InstanceHandleAllocator.NO_HANDLE, InstanceHandleAllocator.handleOf("U00000x2"));
+        assertEquals(InstanceHandleAllocator.NO_HANDLE, InstanceHandleAllocator.handleOf(null));
+    }
+
+    @Test
+    @DisplayName("rewinds to an earlier count, never ahead, and copies continue independently")
+    void rewindsAndCopies() {
+        InstanceHandleAllocator allocator = new InstanceHandleAllocator(5);
+        allocator.allocate();
+        allocator.allocate();
+        allocator.rewindTo(5);
+        assertEquals(5, allocator.allocate());
+        assertThrows(IllegalArgumentException.class, () -> allocator.rewindTo(7));
+
+        InstanceHandleAllocator copy = allocator.copy();
+        assertEquals(6, copy.allocate());
+        assertEquals(6, allocator.allocate());
+    }
+
+    @Test
+    @DisplayName("a match numbers its cards from 0 and a rollback returns the handles issued since the mark")
+    void matchHandlesRollBack() {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), 1);
+        GameStateManager game = TestMatches.duel(engine, 1);
+        int allocated = game.saveState().allocatedHandles();
+
+        BitSet issued = new BitSet();
+        for (GameStateData.Player player : game.saveState().players()) {
+            player.hand().forEach(card -> issued.set(card.handle()));
+            player.library().forEach(card -> issued.set(card.handle()));
+        }
+        assertEquals(allocated, issued.cardinality());
+        assertEquals(allocated, issued.nextClearBit(0));
+
+        int mark = game.mark();
+        TestMatches.playRandom(game, new SplittableRandom(1), 400);
+        assertTrue(game.saveState().allocatedHandles() > allocated, "the moves should create a token");
+        game.rollbackTo(mark);
+        assertEquals(allocated, game.saveState().allocatedHandles());
+    }
+}
@@ -0,0 +1,101 @@
+package com.haloce.tcg.combat;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.core.event.EventContext;
+import com.haloce.tcg.core.event.EventListener;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Combat state store parity")
+class CombatStateStoreParityTest {
+    @Test
+    @DisplayName("the in-memory and columnar stores produce the same events and combat state")
+    void storesAgree() {
+        int damageEvents = 0;
+        for (long seed = 1; seed <= 10; seed++) {
+            Trace inMemory = play(seed, InMemoryCombatStateStore::new);
+            Trace columnar = play(seed, ColumnarCombatStateStore::new);
+            assertEquals(inMemory.events, columnar.events, "events, seed " + seed);
+            assertEquals(inMemory.states, columnar.states, "combat state after each action, seed " + seed);
+            damageEvents += (int) inMemory.events.stream().filter(line -> line.contains(" SHIELD_DAMAGED ")
+                    || line.contains(" HULL_OR_HEALTH_DAMAGED ")).count();
+        }
+        assertTrue(damageEvents > 0, "the seeds should cover combat damage");
+    }
+
+    private static Trace play(long seed, Supplier<CombatStateStore> storeFactory) {
+        Trace trace = new Trace();
+        DeterministicEventBus bus = new DeterministicEventBus();
+        for (EventType type : EventType.values()) {
+            bus.register(new EventListener() {
+                @Override
+                public EventType supports() {
+                    return type;
+                }
+
+                @Override
+                public int priority() {
+                    return Integer.MAX_VALUE;
+                }
+
+                @Override
+                public void onEvent(GameEvent event, EventContext context) {
+                    trace.events.add(event.sequence() + " " + event.type() + " " + event.targetEntityId()
+                            + " " + new TreeMap<>(event.payload().asMap()));
+                }
+
+                @Override
+                public boolean passive() {
+                    return true;
+                }
+            });
+        }
+        CombatStateStore[] store = new CombatStateStore[1];
+        GameEngine engine = new GameEngine(TestMatches.repository(), bus, new DeckValidator(), seed, () -> {
+            store[0] = storeFactory.get();
+            return store[0];
+        });
+        GameStateManager game = TestMatches.duel(engine, seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        while (TestMatches.playRandom(game, random, 1) == 1 && trace.states.size() < 400) {
+            trace.states.add(Long.toHexString(game.stateHash()) + " " + describe(game, store[0]));
+        }
+        return trace;
+    }
+
+    private static String describe(GameStateManager game, CombatStateStore store) {
+        StringBuilder out = new StringBuilder();
+        for (String playerId : game.playerIds()) {
+            for (CardInstance unit : game.battlefield().unitsOfPlayer(playerId)) {
+                EntityCombatState state = store.find(unit.instanceId());
+                if (state != null) {
+                    out.append(unit.instanceId()).append('=').append(state.currentShield()).append('/')
+                            .append(state.currentHealth()).append('/').append(state.coverValue())
+                            .append(state.marked() ? "M" : "").append(state.suppressed() ? "S" : "").append(' ');
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static final class Trace {
+        private final List<String> events = new ArrayList<>();
+        private final List<String> states = new ArrayList<>();
+    }
+}
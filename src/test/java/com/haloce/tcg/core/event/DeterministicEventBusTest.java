@@ -0,0 +1,96 @@
+package com.haloce.tcg.core.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Deterministic event bus")
+class DeterministicEventBusTest {
+    private final DeterministicEventBus bus = new DeterministicEventBus();
+    private final List<String> seen = new ArrayList<>();
+
+    @Test
+    @DisplayName("dispatches only to listeners of the event's type, by priority and then registration order")
+    void dispatchesByTypeAndPriority() {
+        bus.register(recorder("late", EventType.CARD_DRAWN, 20, false));
+        bus.register(recorder("first", EventType.CARD_DRAWN, 0, false));
+        bus.register(recorder("other type", EventType.KILL_OCCURRED, 0, false));
+        bus.register(recorder("tie a", EventType.CARD_DRAWN, 10, false));
+        bus.register(recorder("tie b", EventType.CARD_DRAWN, 10, true));
+
+        bus.publish(event(1, EventType.CARD_DRAWN));
+        bus.processQueue();
+
+        assertEquals(List.of("first 1", "tie a 1", "tie b 1", "late 1"), seen);
+    }
+
+    @Test
+    @DisplayName("outside a batch passive listeners are dispatched with the others, in priority order")
+    void passiveListenersShareTheOrderOutsideBatches() {
+        bus.register(recorder("passive", EventType.KILL_OCCURRED, 5, true));
+        bus.register(recorder("reactive", EventType.KILL_OCCURRED, 1, false));
+        bus.register(recorder("reactive late", EventType.KILL_OCCURRED, 9, false));
+
+        bus.publish(event(1, EventType.KILL_OCCURRED));
+        bus.publish(event(2, EventType.KILL_OCCURRED));
+        bus.processQueue();
+
+        assertEquals(List.of("reactive 1", "passive 1", "reactive late 1", "reactive 2", "passive 2", "reactive late 2"), seen);
+    }
+
+    @Test
+    @DisplayName("events published while dispatching are queued, and listeners registered meanwhile see later events")
+    void changesDuringDispatchApplyToLaterEvents() {
+        bus.register(listener(EventType.KILL_OCCURRED, 0, false, event -> {
+            seen.add("kill " + event.sequence());
+            if (event.sequence() == 1) {
+                bus.publish(event(2, EventType.CARD_DRAWN));
+                bus.register(recorder("added", EventType.KILL_OCCURRED, 1, false));
+                bus.publish(event(3, EventType.KILL_OCCURRED));
+            }
+        }));
+        bus.register(recorder("draw", EventType.CARD_DRAWN, 0, false));
+
+        bus.publish(event(1, EventType.KILL_OCCURRED));
+        bus.processQueue();
+
+        assertEquals(List.of("kill 1", "draw 2", "kill 3", "added 3"), seen);
+    }
+
+    private EventListener recorder(String name, EventType type, int priority, boolean passive) {
+        return listener(type, priority, passive, event -> seen.add(name + " " + event.sequence()));
+    }
+
+    private static EventListener listener(EventType type, int priority, boolean passive, Consumer<GameEvent> onEvent) {
+        return new EventListener() {
+            @Override
+            public EventType supports() {
+                return type;
+            }
+
+            @Override
+            public int priority() {
+                return priority;
+            }
+
+            @Override
+            public void onEvent(GameEvent event, EventContext context) {
+                onEvent.accept(event);
+            }
+
+            @Override
+            public boolean passive() {
+                return passive;
+            }
+        };
+    }
+
+    private static GameEvent event(long sequence, EventType type) {
+        return new GameEvent(sequence, type, 1, 1, "P1", "P1", null, null, null, null, null, EventPayload.EMPTY);
+    }
+}
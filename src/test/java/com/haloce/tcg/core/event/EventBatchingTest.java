@@ -0,0 +1,164 @@
+package com.haloce.tcg.core.event;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Batched and unbatched dispatch must be indistinguishable to the game: same events in the same
+ * order, and reactions seeing and leaving the same state.
+ */
+@DisplayName("Event batching")
+class EventBatchingTest {
+    // The types the game's own reactions listen to (diplomacy reactions and cover mitigation).
+    private static final Set<EventType> REACTION_TYPES = EnumSet.of(
+            EventType.TURN_STARTED, EventType.TURN_ENDED, EventType.KILL_OCCURRED,
+            EventType.INFECT_TRIGGERED, EventType.ATTACK_DECLARED, EventType.DAMAGE_MODIFIED
+    );
+
+    @Test
+    @DisplayName("reactions see the same state and events keep their order with or without batches")
+    void batchingPreservesEventsAndState() {
+        boolean sawKill = false;
+        for (long seed = 1; seed <= 12; seed++) {
+            Trace batched = play(new DeterministicEventBus(), seed);
+            Trace unbatched = play(new UnbatchedEventBus(), seed);
+            assertEquals(unbatched.events, batched.events, "event order, seed " + seed);
+            assertEquals(unbatched.reactions, batched.reactions, "state seen by reactions, seed " + seed);
+            assertEquals(unbatched.afterActions, batched.afterActions, "state after each action, seed " + seed);
+            sawKill |= unbatched.reactions.stream().anyMatch(line -> line.startsWith("KILL_OCCURRED"));
+        }
+        assertTrue(sawKill, "the seeds should cover kills and their reactions");
+    }
+
+    @Test
+    @DisplayName("passive listeners wait for the commit, others are dispatched at each drain")
+    void passiveListenersAreDeferred() {
+        DeterministicEventBus bus = new DeterministicEventBus();
+        List<String> seen = new ArrayList<>();
+        bus.register(listener(EventType.CARD_DRAWN, true, event -> seen.add("passive " + event.sequence())));
+        bus.register(listener(EventType.KILL_OCCURRED, false, event -> seen.add("reactive " + event.sequence())));
+        bus.register(listener(EventType.KILL_OCCURRED, true, event -> seen.add("passive " + event.sequence())));
+
+        bus.beginBatch();
+        bus.publish(event(1, EventType.CARD_DRAWN));
+        bus.processQueue();
+        assertEquals(List.of(), seen);
+        bus.publish(event(2, EventType.KILL_OCCURRED));
+        bus.processQueue();
+        assertEquals(List.of("reactive 2"), seen);
+        bus.publish(event(3, EventType.CARD_DRAWN));
+        bus.processQueue();
+        assertEquals(1, seen.size());
+        bus.commitBatch();
+        assertEquals(List.of("reactive 2", "passive 1", "passive 2", "passive 3"), seen);
+    }
+
+    @Test
+    @DisplayName("an aborted scope drops its events for passive listeners and keeps the enclosing ones")
+    void abortDropsScopeEvents() {
+        DeterministicEventBus bus = new DeterministicEventBus();
+        List<String> seen = new ArrayList<>();
+        bus.register(listener(EventType.CARD_DRAWN, true, event -> seen.add("passive " + event.sequence())));
+        bus.register(listener(EventType.KILL_OCCURRED, false, event -> seen.add("reactive " + event.sequence())));
+
+        bus.beginBatch();
+        bus.publish(event(1, EventType.CARD_DRAWN));
+        bus.beginBatch();
+        bus.publish(event(2, EventType.CARD_DRAWN));
+        bus.publish(event(3, EventType.KILL_OCCURRED));
+        bus.processQueue();
+        bus.abortBatch();
+        bus.publish(event(2, EventType.CARD_DRAWN));
+        bus.commitBatch();
+        assertEquals(List.of("reactive 3", "passive 1", "passive 2"), seen);
+
+        bus.beginBatch();
+        bus.publish(event(4, EventType.CARD_DRAWN));
+        bus.abortBatch();
+        assertEquals(3, seen.size());
+    }
+
+    private static Trace play(EventBus bus, long seed) {
+        Trace trace = new Trace();
+        GameStateManager[] game = new GameStateManager[1];
+        for (EventType type : EventType.values()) {
+            bus.register(listener(type, true, event -> trace.events.add(event.sequence() + " " + event.type())));
+            if (REACTION_TYPES.contains(type)) {
+                bus.register(listener(type, false, event -> {
+                    if (game[0] != null) {
+                        trace.reactions.add(event.type() + " " + event.sequence() + " " + Long.toHexString(game[0].stateHash()));
+                    }
+                }));
+            }
+        }
+        GameEngine engine = new GameEngine(TestMatches.repository(), bus, new DeckValidator(), seed);
+        game[0] = TestMatches.duel(engine, seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < 400 && TestMatches.playRandom(game[0], random, 1) == 1; i++) {
+            trace.afterActions.add(Long.toHexString(game[0].stateHash()) + " " + game[0].status());
+        }
+        return trace;
+    }
+
+    private static EventListener listener(EventType type, boolean passive, Consumer<GameEvent> onEvent) {
+        return new EventListener() {
+            @Override
+            public EventType supports() {
+                return type;
+            }
+
+            @Override
+            public int priority() {
+                return 1000;
+            }
+
+            @Override
+            public void onEvent(GameEvent event, EventContext context) {
+                onEvent.accept(event);
+            }
+
+            @Override
+            public boolean passive() {
+                return passive;
+            }
+        };
+    }
+
+    private static GameEvent event(long sequence, EventType type) {
+        return new GameEvent(sequence, type, 1, 1, "P1", "P1", null, null, null, null, null, EventPayload.EMPTY);
+    }
+
+    private static final class Trace {
+        private final List<String> events = new ArrayList<>();
+        private final List<String> reactions = new ArrayList<>();
+        private final List<String> afterActions = new ArrayList<>();
+    }
+
+    /**
+     * Dispatches at every {@link #processQueue()}, as the bus did before batch scopes existed.
+     */
+    private static final class UnbatchedEventBus extends DeterministicEventBus {
+        @Override
+        public void beginBatch() {
+        }
+
+        @Override
+        public void commitBatch() {
+            processQueue();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.haloce.tcg.core.event.journal;
+
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Event journal")
+class EventJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("records decode to the events that were written")
+    void codecRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        CRC32 crc = new CRC32();
+        GameEvent first = event(7, EventType.UNIT_DEPLOYED, Map.of(
+                "instanceId", "P1-3",
+                "supplyCost", 2,
+                "charged", true,
+                "tags", List.of("INFANTRY", 4L),
+                "origin", Map.of("lane", "ALPHA")
+        ));
+        GameEvent second = new GameEvent(8, EventType.TURN_ENDED, 3, 2, "P2", "P2", null, null, null, null, null, Map.of());
+        JournalCodec.writeRecord(buffer, 0, first, crc);
+        JournalCodec.writeRecord(buffer, 1, second, crc);
+
+        buffer.flip();
+        assertEquals(new JournalEntry(0, first), JournalCodec.readRecord(buffer, crc));
+        assertEquals(new JournalEntry(1, second), JournalCodec.readRecord(buffer, crc));
+        assertNull(JournalCodec.readRecord(buffer, crc));
+    }
+
+    @Test
+    @DisplayName("a record whose checksum does not match is not read")
+    void crcMismatch() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        CRC32 crc = new CRC32();
+        JournalCodec.writeRecord(buffer, 0, event(1, EventType.CARD_DRAWN, Map.of("count", 1)), crc);
+        int end = buffer.position();
+        buffer.put(end - 1, (byte) (buffer.get(end - 1) ^ 0x40));
+
+        buffer.flip();
+        assertNull(JournalCodec.readRecord(buffer, crc));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("a record cut short by the end of the buffer is not read")
+    void truncatedRecord() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        CRC32 crc = new CRC32();
+        JournalCodec.writeRecord(buffer, 0, event(1, EventType.CARD_DRAWN, Map.of("count", 1)), crc);
+        int end = buffer.position();
+        JournalCodec.writeRecord(buffer, 1, event(2, EventType.CARD_DRAWN, Map.of("count", 2)), crc);
+
+        buffer.flip();
+        buffer.limit(buffer.limit() - 3);
+        assertEquals(0, JournalCodec.readRecord(buffer, crc).journalSequence());
+        assertNull(JournalCodec.readRecord(buffer, crc));
+        assertEquals(end, buffer.position());
+    }
+
+    @Test
+    @DisplayName("the reader sees every appended event in order across segments")
+    void journalRoundTrip() throws IOException {
+        List<GameEvent> written = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(options())) {
+            for (int i = 0; i < 200; i++) {
+                GameEvent event = event(i, EventType.DAMAGE_DEALT, Map.of("finalDamage", i, "note", "x".repeat(i % 40)));
+                assertEquals(i, journal.append(event));
+                written.add(event);
+            }
+        }
+        assertTrue(EventJournal.listSegments(directory).size() > 1, "the events should span several segments");
+
+        assertEquals(written, readAll());
+    }
+
+    @Test
+    @DisplayName("reopening clears a torn tail record and appends after the last intact one")
+    void tornTailIsRecovered() throws IOException {
+        try (EventJournal journal = EventJournal.open(options())) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(event(i, EventType.CARD_DRAWN, Map.of("count", i)));
+            }
+        }
+        Path segment = EventJournal.listSegments(directory).get(0);
+        int tail = tailOf(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // A crash after the length was written but before the body reached the disk.
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(40).putInt(0x1234).putInt(-1).flip();
+            channel.write(torn, tail);
+        }
+
+        try (EventJournal journal = EventJournal.open(options())) {
+            assertEquals(3, journal.nextSequence());
+            journal.append(event(3, EventType.CARD_DRAWN, Map.of("count", 3)));
+        }
+        List<GameEvent> events = readAll();
+        assertEquals(4, events.size());
+        assertEquals(3, events.get(3).sequence());
+    }
+
+    private EventJournalOptions options() {
+        return new EventJournalOptions(directory, 2048, FsyncPolicy.EVERY_N_EVENTS, 16);
+    }
+
+    private List<GameEvent> readAll() throws IOException {
+        List<GameEvent> events = new ArrayList<>();
+        try (EventJournalReader reader = EventJournalReader.open(directory)) {
+            JournalEntry entry;
+            while ((entry = reader.poll()) != null) {
+                assertEquals(events.size(), entry.journalSequence());
+                events.add(entry.event());
+            }
+        }
+        return events;
+    }
+
+    private static int tailOf(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(JournalCodec.SEGMENT_HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            while (JournalCodec.readRecord(buffer, crc) != null) {
+                // Skip to the end of the intact records.
+            }
+            return buffer.position();
+        }
+    }
+
+    private static GameEvent event(long sequence, EventType type, Map<String, Object> payload) {
+        return new GameEvent(sequence, type, 1, 1, "P1", "P1", "P2", "P1-1", "P2-1", "ALPHA", "GROUND", payload);
+    }
+}
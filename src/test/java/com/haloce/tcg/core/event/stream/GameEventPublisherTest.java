@@ -0,0 +1,150 @@
+package com.haloce.tcg.core.event.stream;
+
+import com.haloce.tcg.core.event.EventPayload;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Game event publisher overflow")
+class GameEventPublisherTest {
+    private static final int CAPACITY = 4;
+
+    @Test
+    @DisplayName("DROP_OLDEST skips a lapped subscriber ahead to the oldest event in the ring")
+    void dropOldest() {
+        ManualExecutor executor = new ManualExecutor();
+        GameEventPublisher publisher = new GameEventPublisher(CAPACITY, OverflowPolicy.DROP_OLDEST, executor, 0);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+
+        publishAll(publisher, 10);
+        executor.runAll();
+
+        assertEquals(List.of(6L, 7L, 8L, 9L), recorder.sequences);
+        assertNull(recorder.error);
+        assertEquals(1, publisher.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("DISCONNECT fails and removes a subscriber a full ring behind")
+    void disconnect() {
+        ManualExecutor executor = new ManualExecutor();
+        GameEventPublisher publisher = new GameEventPublisher(CAPACITY, OverflowPolicy.DISCONNECT, executor, 0);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+
+        publishAll(publisher, CAPACITY);
+        executor.runAll();
+        assertNull(recorder.error);
+        publishAll(publisher, CAPACITY + 1);
+        executor.runAll();
+
+        assertEquals(List.of(0L, 1L, 2L, 3L), recorder.sequences);
+        assertInstanceOf(IllegalStateException.class, recorder.error);
+        assertEquals(0, publisher.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("BLOCK disconnects a subscriber that does not catch up within the timeout")
+    void blockTimesOut() {
+        ManualExecutor executor = new ManualExecutor();
+        GameEventPublisher publisher = new GameEventPublisher(CAPACITY, OverflowPolicy.BLOCK, executor, 1);
+        Recorder recorder = new Recorder();
+        publisher.subscribe(recorder);
+
+        publishAll(publisher, CAPACITY + 1);
+        executor.runAll();
+
+        assertEquals(List.of(), recorder.sequences);
+        assertInstanceOf(IllegalStateException.class, recorder.error);
+        assertEquals(0, publisher.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("BLOCK delivers every event to a subscriber that keeps up")
+    void blockDeliversEverything() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GameEventPublisher publisher = new GameEventPublisher(CAPACITY, OverflowPolicy.BLOCK, executor, 10_000);
+            Recorder recorder = new Recorder();
+            publisher.subscribe(recorder);
+
+            publishAll(publisher, 500);
+            publisher.close();
+
+            assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+            assertEquals(LongStream.range(0, 500).boxed().toList(), recorder.sequences);
+            assertNull(recorder.error);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void publishAll(GameEventPublisher publisher, int count) {
+        for (int i = 0; i < count; i++) {
+            publisher.publish(new GameEvent(i, EventType.CARD_DRAWN, 1, 1, "P1", "P1", null, null, null, null, null, EventPayload.EMPTY));
+        }
+    }
+
+    /**
+     * Runs subscriber drains only when asked, so that a test decides how far behind a subscriber is.
+     */
+    private static final class ManualExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private static final class Recorder implements Flow.Subscriber<GameEvent> {
+        private final List<Long> sequences = new ArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            sequences.add(event.sequence());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.haloce.tcg.core.random;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Match random")
+class MatchRandomTest {
+    @Test
+    @DisplayName("named streams depend on the seed alone and differ from each other")
+    void streamsAreSeededAndIndependent() {
+        MatchRandom random = new MatchRandom(42);
+        MatchRandom same = new MatchRandom(42);
+
+        // Drawing from one stream does not move another.
+        draw(random.stream(MatchRandom.Stream.ZEALOTRY), 100);
+        for (MatchRandom.Stream stream : MatchRandom.Stream.values()) {
+            assertEquals(draw(same.stream(stream), 8), draw(random.stream(stream), 8), stream.name());
+        }
+        assertNotEquals(draw(random.stream(MatchRandom.Stream.SHUFFLE), 8), draw(random.stream(MatchRandom.Stream.OVERHEAT), 8));
+        assertNotEquals(draw(random.stream(MatchRandom.Stream.SHUFFLE), 8),
+                draw(new MatchRandom(43).stream(MatchRandom.Stream.SHUFFLE), 8));
+    }
+
+    @Test
+    @DisplayName("the generator follows SplittableRandom and a copy continues from where it stood")
+    void generatorCopiesContinue() {
+        SplitMixRandom generator = new SplitMixRandom(7);
+        SplittableRandom reference = new SplittableRandom(7);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(reference.nextLong(), generator.nextLong());
+        }
+
+        SplitMixRandom copy = generator.copy();
+        assertEquals(draw(generator, 8), draw(copy, 8));
+        for (int i = 0; i < 1000; i++) {
+            int value = generator.nextInt(6);
+            assertTrue(value >= 0 && value < 6, "out of range: " + value);
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.nextInt(0));
+    }
+
+    @Test
+    @DisplayName("a match seed reproduces the shuffled decks, and another seed does not")
+    void matchesAreReproducible() {
+        assertEquals(match(5).stateHash(), match(5).stateHash());
+        assertNotEquals(match(5).stateHash(), match(6).stateHash());
+    }
+
+    private static List<Long> draw(SplitMixRandom generator, int count) {
+        List<Long> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(generator.nextLong());
+        }
+        return values;
+    }
+
+    private static GameStateManager match(long seed) {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), seed);
+        return TestMatches.duel(engine, seed);
+    }
+}
@@ -0,0 +1,177 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.core.event.EventContext;
+import com.haloce.tcg.core.event.EventListener;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.deck.DeckValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Battlefield state")
+class BattlefieldStateTest {
+    private static final List<String> PLAYERS = List.of("P1", "P2", "P3", "P4");
+
+    private final InstanceHandleAllocator handles = new InstanceHandleAllocator();
+
+    @Test
+    @DisplayName("locates deployed units by instance id and forgets removed ones")
+    void locatesUnits() {
+        BattlefieldState board = new BattlefieldState(PLAYERS);
+        CardInstance first = unit("P1");
+        CardInstance second = unit("P3");
+        board.deploy("P1", Lane.ALPHA, GameRow.FRONTLINE, first);
+        board.deploy("P3", Lane.CHARLIE, GameRow.BACKLINE, second);
+
+        assertEquals(new UnitPosition("P1", Lane.ALPHA, GameRow.FRONTLINE, first), board.locateUnit(first.instanceId()));
+        assertEquals(new UnitPosition("P3", Lane.CHARLIE, GameRow.BACKLINE, second), board.locateUnit(second.instanceId()));
+        assertNull(board.locateUnit("U9999999"));
+
+        assertEquals(Optional.of(first), board.removeUnit(first.instanceId()));
+        assertNull(board.locateUnit(first.instanceId()));
+        assertEquals(Optional.empty(), board.removeUnit(first.instanceId()));
+        assertEquals(Lane.CHARLIE, board.locateUnit(second.instanceId()).lane());
+    }
+
+    @Test
+    @DisplayName("removing a unit keeps the order of the rest of its row")
+    void removalKeepsRowOrder() {
+        BattlefieldState board = new BattlefieldState(PLAYERS);
+        CardInstance left = unit("P2");
+        CardInstance right = unit("P2");
+        CardInstance back = unit("P2");
+        board.deploy("P2", Lane.BRAVO, GameRow.FRONTLINE, left);
+        board.deploy("P2", Lane.BRAVO, GameRow.FRONTLINE, right);
+        board.deploy("P2", Lane.BRAVO, GameRow.BACKLINE, back);
+
+        board.removeUnit(left.instanceId());
+
+        LaneBoardState side = board.lane(Lane.BRAVO).side("P2");
+        assertEquals(List.of(right), side.frontline());
+        assertEquals(List.of(back), side.backline());
+        assertEquals(GameRow.FRONTLINE, board.locateUnit(right.instanceId()).row());
+    }
+
+    @Test
+    @DisplayName("a unit cannot be deployed twice, and copies keep their own index")
+    void indexIsPerBoard() {
+        BattlefieldState board = new BattlefieldState(PLAYERS);
+        CardInstance card = unit("P4");
+        board.deploy("P4", Lane.ALPHA, GameRow.BACKLINE, card);
+        assertThrows(IllegalStateException.class, () -> board.deploy("P4", Lane.BRAVO, GameRow.BACKLINE, card));
+
+        BattlefieldState copy = board.copy();
+        copy.removeUnit(card.instanceId());
+        assertNull(copy.locateUnit(card.instanceId()));
+        assertEquals(Lane.ALPHA, board.locateUnit(card.instanceId()).lane());
+    }
+
+    @Test
+    @DisplayName("lane counters and lane control follow deploys and removals as a recount does")
+    void laneCountersMatchRecount() {
+        Map<String, String> teams = Map.of("P1", "T1", "P3", "T1", "P2", "T2", "P4", "T2");
+        BattlefieldState board = new BattlefieldState(PLAYERS, teams);
+        SplittableRandom random = new SplittableRandom(10);
+        List<CardInstance> deployed = new ArrayList<>();
+        int controlledSeen = 0;
+        for (int step = 0; step < 500; step++) {
+            String playerId = PLAYERS.get(random.nextInt(PLAYERS.size()));
+            Lane lane = Lane.values()[random.nextInt(Lane.values().length)];
+            GameRow row = GameRow.values()[random.nextInt(GameRow.values().length)];
+            if (!deployed.isEmpty() && (random.nextInt(3) == 0 || !board.hasSpace(lane, playerId, row))) {
+                board.removeUnit(deployed.remove(random.nextInt(deployed.size())).instanceId());
+            } else {
+                CardInstance card = unit(playerId);
+                board.deploy(playerId, lane, row, card);
+                deployed.add(card);
+            }
+
+            for (Lane each : Lane.values()) {
+                LaneState state = board.lane(each);
+                assertEquals(state.totalCountForPlayers(PLAYERS), board.laneUnitCount(each, PLAYERS), "step " + step);
+                assertEquals(state.frontlineCountForPlayers(List.of("P2", "P3")),
+                        board.laneFrontlineCount(each, List.of("P2", "P3")), "step " + step);
+            }
+            for (String player : PLAYERS) {
+                assertEquals(recountControlled(board, List.of(player)), board.controlledLaneCountForPlayer(player), "step " + step);
+            }
+            for (String teamId : List.of("T1", "T2")) {
+                List<String> members = PLAYERS.stream().filter(p -> teams.get(p).equals(teamId)).toList();
+                int controlled = recountControlled(board, members);
+                assertEquals(controlled, board.controlledLaneCountForTeam(teamId), "step " + step);
+                controlledSeen += controlled;
+            }
+        }
+        assertTrue(controlledSeen > 0, "the steps should give some team control of a lane");
+    }
+
+    @Test
+    @DisplayName("lane control updates are only published when the count or streak changes")
+    void laneControlUpdatesOnlyOnChange() {
+        DeterministicEventBus bus = new DeterministicEventBus();
+        Map<String, Object> announced = new HashMap<>();
+        int[] updates = new int[1];
+        bus.register(new EventListener() {
+            @Override
+            public EventType supports() {
+                return EventType.LANE_CONTROL_UPDATED;
+            }
+
+            @Override
+            public int priority() {
+                return 0;
+            }
+
+            @Override
+            public void onEvent(GameEvent event, EventContext context) {
+                Map<String, Object> payload = event.payload().asMap();
+                assertNotEquals(payload, announced.put(event.sourcePlayerId(), payload), "repeated update " + payload);
+                updates[0]++;
+            }
+        });
+        GameEngine engine = new GameEngine(TestMatches.repository(), bus, new DeckValidator(), 2);
+        GameStateManager game = TestMatches.duel(engine, 2);
+        TestMatches.playRandom(game, new SplittableRandom(2), 400);
+
+        assertTrue(updates[0] > 0, "the match should change lane control");
+        assertTrue(updates[0] < game.globalTurnIndex(), "an update per turn means unchanged counts were published");
+    }
+
+    /**
+     * Lanes where {@code players} together have more units than everyone else and no one else holds
+     * the frontline, counted from the rows.
+     */
+    private static int recountControlled(BattlefieldState board, List<String> players) {
+        List<String> others = PLAYERS.stream().filter(p -> !players.contains(p)).toList();
+        int controlled = 0;
+        for (Lane lane : Lane.values()) {
+            LaneState state = board.lane(lane);
+            if (state.totalCountForPlayers(players) > state.totalCountForPlayers(others)
+                    && state.frontlineCountForPlayers(others) == 0) {
+                controlled++;
+            }
+        }
+        return controlled;
+    }
+
+    private CardInstance unit(String ownerPlayerId) {
+        return handles.create(TestMatches.repository().compiled("UNSC-001"), ownerPlayerId, 0, null);
+    }
+}
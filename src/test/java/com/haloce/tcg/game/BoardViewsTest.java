@@ -0,0 +1,101 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.card.runtime.InstanceHandleAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The read-only views over lanes and hands: live, unmodifiable, and failing fast when the zone
+ * changes during iteration, while the snapshot methods keep what they saw.
+ */
+@DisplayName("Board and hand views")
+class BoardViewsTest {
+    private final InstanceHandleAllocator handles = new InstanceHandleAllocator();
+
+    @Test
+    @DisplayName("row views show later changes and cannot be modified; allUnits is a snapshot")
+    void rowViewsAreLive() {
+        LaneBoardState side = new LaneBoardState();
+        CardInstance front = unit();
+        CardInstance back = unit();
+        List<CardInstance> frontline = side.frontline();
+        List<CardInstance> units = side.unitsView();
+
+        side.add(GameRow.BACKLINE, back);
+        List<CardInstance> snapshot = side.allUnits();
+        side.add(GameRow.FRONTLINE, front);
+
+        assertEquals(List.of(front), frontline);
+        assertEquals(List.of(back), side.backline());
+        assertEquals(List.of(front, back), units);
+        assertEquals(List.of(back), snapshot);
+        assertThrows(UnsupportedOperationException.class, () -> frontline.add(back));
+        assertThrows(UnsupportedOperationException.class, () -> units.remove(0));
+    }
+
+    @Test
+    @DisplayName("iterating a view while its rows change fails fast")
+    void viewsFailFast() {
+        LaneBoardState side = new LaneBoardState();
+        side.add(GameRow.FRONTLINE, unit());
+        side.add(GameRow.BACKLINE, unit());
+
+        Iterator<CardInstance> units = side.unitsView().iterator();
+        units.next();
+        side.add(GameRow.BACKLINE, unit());
+        assertThrows(ConcurrentModificationException.class, units::next);
+
+        Iterator<CardInstance> frontline = side.frontline().iterator();
+        side.add(GameRow.FRONTLINE, unit());
+        assertThrows(ConcurrentModificationException.class, frontline::next);
+    }
+
+    @Test
+    @DisplayName("visitors see a player's units in the order of the copying methods")
+    void visitorsMatchCopies() {
+        BattlefieldState board = new BattlefieldState(List.of("P1", "P2"));
+        board.deploy("P1", Lane.CHARLIE, GameRow.FRONTLINE, unit());
+        board.deploy("P1", Lane.ALPHA, GameRow.BACKLINE, unit());
+        board.deploy("P2", Lane.ALPHA, GameRow.FRONTLINE, unit());
+        board.deploy("P1", Lane.ALPHA, GameRow.FRONTLINE, unit());
+
+        List<CardInstance> visited = new ArrayList<>();
+        board.forEachUnitOf("P1", visited::add);
+        assertEquals(board.unitsOfPlayer("P1"), visited);
+        assertEquals(3, visited.size());
+
+        List<CardInstance> lane = new ArrayList<>();
+        board.lane(Lane.ALPHA).side("P1").forEachUnit(lane::add);
+        assertEquals(board.lane(Lane.ALPHA).unitsOf("P1"), lane);
+        assertEquals(GameRow.FRONTLINE, board.locateUnit(lane.get(0).instanceId()).row());
+    }
+
+    @Test
+    @DisplayName("the hand view follows draws and is read-only; hand() is a snapshot")
+    void handViewIsLive() {
+        PlayerState player = new PlayerState("P1", 20, List.of(unit(), unit(), unit()));
+        List<CardInstance> view = player.handView();
+        player.draw(1);
+        List<CardInstance> snapshot = player.hand();
+        player.draw(1);
+
+        assertEquals(2, view.size());
+        assertEquals(1, snapshot.size());
+        assertEquals(snapshot.get(0), view.get(0));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+    }
+
+    private CardInstance unit() {
+        return handles.create(TestMatches.repository().compiled("UNSC-001"), "P1", 0, null);
+    }
+}
@@ -0,0 +1,143 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionGenerator;
+import com.haloce.tcg.game.replay.MatchCommand;
+import com.haloce.tcg.game.replay.MatchRecorder;
+import com.haloce.tcg.game.replay.ReplayEngine;
+import com.haloce.tcg.game.replay.ReplayResult;
+import com.haloce.tcg.net.GameSnapshot;
+import com.haloce.tcg.net.GameSnapshotFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Game fork")
+class GameForkTest {
+    private static final int SEEDS = 6;
+    private final GameSnapshotFactory snapshots = new GameSnapshotFactory();
+
+    @Test
+    @DisplayName("moves on a fork leave the source unchanged, and the other way round")
+    void forkIsIndependent() {
+        int moved = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            GameStateManager source = match(seed);
+            SplittableRandom random = new SplittableRandom(seed);
+            TestMatches.playRandom(source, random, 40);
+
+            long sourceHash = source.stateHash();
+            GameSnapshot sourceSnapshot = snapshots.create(source);
+            GameStateManager fork = source.fork();
+            assertEquals(sourceHash, fork.stateHash(), "seed " + seed);
+
+            moved += TestMatches.playRandom(fork, random, 60);
+            assertEquals(sourceHash, source.stateHash(), "source hash after moves on the fork, seed " + seed);
+            assertEquals(sourceSnapshot, snapshots.create(source), "source snapshot after moves on the fork, seed " + seed);
+
+            long forkHash = fork.stateHash();
+            GameSnapshot forkSnapshot = snapshots.create(fork);
+            TestMatches.playRandom(source, random, 60);
+            assertEquals(forkHash, fork.stateHash(), "fork hash after moves on the source, seed " + seed);
+            assertEquals(forkSnapshot, snapshots.create(fork), "fork snapshot after moves on the source, seed " + seed);
+        }
+        assertTrue(moved > 0, "no moves were played on the forks");
+    }
+
+    @Test
+    @DisplayName("the same commands on a fork and on a replay reach the same state")
+    void forkMatchesReplay() {
+        ActionGenerator generator = new ActionGenerator();
+        ActionBuffer actions = new ActionBuffer();
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            List<PlayerSeat> seats = TestMatches.seats(GameMode.DUEL_1V1, 2);
+            GameStateManager source = engine(seed).initializeMatchWithSeats(GameMode.DUEL_1V1, seats, seed);
+            MatchRecorder recorder = new MatchRecorder(GameMode.DUEL_1V1, seats, source);
+            SplittableRandom random = new SplittableRandom(seed);
+            GameStateManager fork = null;
+            for (int step = 0; step < 120 && source.status() == GameStatus.RUNNING; step++) {
+                if (step == 30) {
+                    fork = source.fork();
+                }
+                int count = generator.generate(source, actions);
+                if (count == 0) {
+                    break;
+                }
+                MatchCommand command = MatchCommand.of(actions, random.nextInt(count), source.activePlayerId());
+                recorder.apply(command);
+                if (fork != null) {
+                    command.applyTo(fork);
+                }
+            }
+
+            ReplayResult replay = new ReplayEngine(TestMatches.repository()).replay(recorder.recording());
+            assertTrue(replay.verified(), "seed " + seed + ": " + replay.divergence());
+            assertEquals(source.stateHash(), replay.game().stateHash(), "seed " + seed);
+            assertNotNull(fork, "seed " + seed + " ended before the fork");
+            assertEquals(replay.game().stateHash(), fork.stateHash(), "seed " + seed);
+            assertEquals(snapshots.create(replay.game()), snapshots.create(fork), "seed " + seed);
+        }
+    }
+
+    @Test
+    @DisplayName("a determinized fork keeps public state and the observer's hand but redeals hidden cards")
+    void determinizeHidesHiddenCards() {
+        int opponentHandsChanged = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            GameStateManager source = match(seed);
+            SplittableRandom random = new SplittableRandom(seed);
+            TestMatches.playRandom(source, random, 20);
+            long sourceHash = source.stateHash();
+            String observer = source.activePlayerId();
+            String opponent = source.teamRelations().opponentsOf(observer).get(0);
+
+            GameStateManager fork = source.determinize(observer, true, seed);
+            assertEquals(sourceHash, source.stateHash(), "seed " + seed);
+            assertEquals(snapshots.create(source), snapshots.create(fork), "seed " + seed);
+            assertEquals(source.player(observer).hand(), fork.player(observer).hand(), "seed " + seed);
+            assertEquals(hiddenCardIds(source, opponent), hiddenCardIds(fork, opponent), "seed " + seed);
+            if (!source.player(opponent).hand().equals(fork.player(opponent).hand())) {
+                opponentHandsChanged++;
+            }
+            assertEquals(fork.stateHash(), source.determinize(observer, true, seed).stateHash(),
+                    "equal seeds should determinize equally, seed " + seed);
+            TestMatches.playRandom(fork, random, 60);
+            assertEquals(sourceHash, source.stateHash(), "seed " + seed);
+        }
+        assertTrue(opponentHandsChanged > 0, "no opponent hand was redealt");
+    }
+
+    /**
+     * Instance ids of the cards in the player's hand and library together, read by drawing the
+     * whole library under a mark.
+     */
+    private static List<String> hiddenCardIds(GameStateManager game, String playerId) {
+        PlayerState player = game.player(playerId);
+        int mark = game.mark();
+        player.draw(player.librarySize());
+        List<String> ids = new ArrayList<>();
+        player.hand().forEach(card -> ids.add(card.instanceId()));
+        game.rollbackTo(mark);
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static GameStateManager match(long seed) {
+        return TestMatches.duel(engine(seed), seed);
+    }
+
+    private static GameEngine engine(long seed) {
+        return new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), seed);
+    }
+}
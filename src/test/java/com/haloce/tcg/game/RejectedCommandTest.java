@@ -0,0 +1,125 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.model.CardType;
+import com.haloce.tcg.card.runtime.CardInstance;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.core.event.EventContext;
+import com.haloce.tcg.core.event.EventListener;
+import com.haloce.tcg.core.event.EventType;
+import com.haloce.tcg.core.event.GameEvent;
+import com.haloce.tcg.core.event.journal.EventJournal;
+import com.haloce.tcg.core.event.journal.EventJournalOptions;
+import com.haloce.tcg.core.event.journal.EventJournalReader;
+import com.haloce.tcg.core.event.journal.EventJournalSink;
+import com.haloce.tcg.core.event.journal.JournalEntry;
+import com.haloce.tcg.deck.DeckValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Rejected command")
+class RejectedCommandTest {
+    private static final long SEED = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("a command that fails mid-batch journals nothing and its sequence numbers are not journaled twice")
+    void rejectedCommandIsNotJournaled() throws IOException {
+        List<String> expected = journal(directory.resolve("clean"), false);
+        List<String> journaled = journal(directory.resolve("rejected"), true);
+
+        // Events of one action share its sequence number; a reused number would go back.
+        assertEquals(expected, journaled);
+        for (int i = 1; i < journaled.size(); i++) {
+            assertTrue(sequence(journaled.get(i - 1)) <= sequence(journaled.get(i)),
+                    "sequence went back: " + journaled.get(i - 1) + " then " + journaled.get(i));
+        }
+    }
+
+    /**
+     * Plays the same seeded moves with a journal attached, optionally rejecting the first deploy
+     * halfway through by a reaction that throws, as the server does: mark, apply, roll back on
+     * failure. The deploy is then retried and succeeds.
+     *
+     * @return the journaled events as "sequence type"
+     */
+    private static List<String> journal(Path journalDirectory, boolean rejectFirstDeploy) throws IOException {
+        DeterministicEventBus bus = new DeterministicEventBus();
+        boolean[] armed = {rejectFirstDeploy};
+        bus.register(new EventListener() {
+            @Override
+            public EventType supports() {
+                return EventType.UNIT_DEPLOYED;
+            }
+
+            @Override
+            public int priority() {
+                return 0;
+            }
+
+            @Override
+            public void onEvent(GameEvent event, EventContext context) {
+                if (armed[0]) {
+                    armed[0] = false;
+                    throw new IllegalStateException("Rejected by test reaction");
+                }
+            }
+        });
+        try (EventJournal journal = EventJournal.open(EventJournalOptions.defaults(journalDirectory))) {
+            EventJournalSink.attach(bus, journal);
+            GameEngine engine = new GameEngine(TestMatches.repository(), bus, new DeckValidator(), SEED);
+            GameStateManager game = TestMatches.duel(engine, SEED);
+            CardInstance card = deployable(game);
+            String playerId = game.activePlayerId();
+
+            if (rejectFirstDeploy) {
+                int mark = game.mark();
+                assertThrows(IllegalStateException.class,
+                        () -> game.deployUnitFromHand(playerId, card.instanceId(), Lane.ALPHA, GameRow.FRONTLINE));
+                game.rollbackTo(mark);
+            }
+            int mark = game.mark();
+            game.deployUnitFromHand(playerId, card.instanceId(), Lane.ALPHA, GameRow.FRONTLINE);
+            game.release(mark);
+            TestMatches.playRandom(game, new SplittableRandom(SEED), 30);
+        }
+
+        List<String> events = new ArrayList<>();
+        try (EventJournalReader reader = EventJournalReader.open(journalDirectory)) {
+            JournalEntry entry;
+            while ((entry = reader.poll()) != null) {
+                events.add(entry.event().sequence() + " " + entry.event().type());
+            }
+        }
+        return events;
+    }
+
+    private static CardInstance deployable(GameStateManager game) {
+        PlayerState player = game.player(game.activePlayerId());
+        for (CardInstance card : player.hand()) {
+            if (card.definition().cardType() == CardType.UNIT
+                    && card.card().supplyCost() <= player.currentSupply()
+                    && card.card().batteryCost() <= player.battery()) {
+                return card;
+            }
+        }
+        throw new AssertionError("seed " + SEED + " has no affordable unit in the opening hand");
+    }
+
+    private static long sequence(String event) {
+        return Long.parseLong(event.substring(0, event.indexOf(' ')));
+    }
+}
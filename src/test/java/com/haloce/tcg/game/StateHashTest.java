@@ -0,0 +1,65 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.handlers.WinConditionEvaluator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * The state hash covers eliminations, the winner and the lane control streaks as well as the board
+ * and players, so saved states that differ in any of them hash apart.
+ */
+@DisplayName("State hash")
+class StateHashTest {
+    private static final long SEED = 4;
+
+    @Test
+    @DisplayName("a restored match hashes as the saved one")
+    void restoreKeepsHash() {
+        GameStateManager game = match();
+        TestMatches.playRandom(game, new SplittableRandom(SEED), 60);
+
+        assertEquals(game.stateHash(), game.restoreState(game.saveState()).stateHash());
+    }
+
+    @Test
+    @DisplayName("eliminations, the winner and lane control streaks each change the hash")
+    void outcomeFieldsAreHashed() {
+        GameStateManager game = match();
+        GameStateData saved = game.saveState();
+        long hash = game.restoreState(saved).stateHash();
+        String playerId = game.playerIds().get(1);
+
+        assertNotEquals(hash, game.restoreState(with(saved, List.of(playerId), saved.winnerPlayerId(),
+                saved.winConditions())).stateHash());
+        assertNotEquals(hash, game.restoreState(with(saved, saved.eliminatedPlayerIds(), playerId,
+                saved.winConditions())).stateHash());
+        assertNotEquals(hash, game.restoreState(with(saved, saved.eliminatedPlayerIds(), saved.winnerPlayerId(),
+                new WinConditionEvaluator.Data(Map.of(playerId, 1), saved.winConditions().announcedLaneControl()))).stateHash());
+        assertNotEquals(hash, game.restoreState(with(saved, saved.eliminatedPlayerIds(), saved.winnerPlayerId(),
+                new WinConditionEvaluator.Data(saved.winConditions().teamControlStreak(),
+                        Map.of(playerId, new WinConditionEvaluator.LaneControl(2, 0))))).stateHash());
+    }
+
+    private static GameStateData with(GameStateData data, List<String> eliminatedPlayerIds, String winnerPlayerId,
+                                      WinConditionEvaluator.Data winConditions) {
+        return new GameStateData(data.globalTurnIndex(), data.roundIndex(), data.activePlayerCursor(), data.status(),
+                data.phase(), winnerPlayerId, data.winnerTeamId(), data.eventSequence(), data.allocatedHandles(),
+                data.attackersUsedThisTurn(), eliminatedPlayerIds, data.players(), data.units(), data.combat(),
+                data.statuses(), data.reactions(), winConditions, data.campaign());
+    }
+
+    private static GameStateManager match() {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), SEED);
+        return TestMatches.duel(engine, SEED);
+    }
+}
@@ -0,0 +1,100 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.core.undo.UndoLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Team relations")
+class TeamRelationsTest {
+    private static final List<String> FOUR = List.of("P1", "P2", "P3", "P4");
+
+    @Test
+    @DisplayName("in a duel each player is their own team and the other's opponent")
+    void duelMasks() {
+        TeamRelations relations = new TeamRelations(List.of("P1", "P2"), GameMode.DUEL_1V1, Map.of());
+
+        assertEquals(0b01, relations.allyMask("P1"));
+        assertEquals(0b10, relations.opponentMask("P1"));
+        assertEquals(0b10, relations.allyMask("P2"));
+        assertEquals(0b01, relations.opponentMask("P2"));
+        assertEquals(List.of("P2"), relations.opponentsOf("P1"));
+        assertTrue(relations.areOpponents("P1", "P2"));
+        assertFalse(relations.areOpponents("P1", "P1"));
+    }
+
+    @Test
+    @DisplayName("in free-for-all everyone else is an opponent")
+    void freeForAllMasks() {
+        TeamRelations relations = new TeamRelations(FOUR, GameMode.FFA, Map.of());
+
+        for (String player : FOUR) {
+            int seat = relations.seatOf(player);
+            assertEquals(1L << seat, relations.allyMask(player));
+            assertEquals(0b1111 & ~(1L << seat), relations.opponentMask(player));
+            assertEquals(3, relations.opponentsOf(player).size());
+        }
+    }
+
+    @Test
+    @DisplayName("in 2v2 teammates share an ally mask and oppose the other team")
+    void teamMasks() {
+        TeamRelations relations = new TeamRelations(FOUR, GameMode.TEAM_2V2,
+                Map.of("P1", "T1", "P2", "T2", "P3", "T1", "P4", "T2"));
+
+        assertEquals(0b0101, relations.allyMask("P1"));
+        assertEquals(0b0101, relations.allyMask("P3"));
+        assertEquals(0b1010, relations.opponentMask("P1"));
+        assertEquals(0b1010, relations.allyMask("P2"));
+        assertEquals(0b0101, relations.opponentMask("P4"));
+        assertEquals(List.of("P1", "P3"), relations.alliesOf("P3"));
+        assertEquals(List.of("P2", "P4"), relations.alliesOfTeam("T2"));
+        assertEquals(List.of("P2", "P4"), relations.opponentsOf("P1"));
+        assertFalse(relations.areOpponents("P1", "P3"));
+        assertTrue(relations.areOpponents("P3", "P4"));
+    }
+
+    @Test
+    @DisplayName("eliminations update the alive mask and team count, and roll back")
+    void eliminations() {
+        TeamRelations relations = new TeamRelations(FOUR, GameMode.TEAM_2V2,
+                Map.of("P1", "T1", "P2", "T2", "P3", "T1", "P4", "T2"));
+        UndoLog undoLog = new UndoLog();
+        relations.bindUndoLog(undoLog);
+
+        relations.markEliminated("P2");
+        assertEquals(0b1101, relations.aliveMask());
+        assertEquals(2, relations.aliveTeamCount());
+
+        int mark = undoLog.mark();
+        relations.markEliminated("P4");
+        assertEquals(0b0101, relations.aliveMask());
+        assertEquals(1, relations.aliveTeamCount());
+        assertEquals(List.of("P2", "P4"), relations.opponentsOf("P1"), "membership outlives elimination");
+
+        undoLog.rollbackTo(mark);
+        assertEquals(0b1101, relations.aliveMask());
+        assertEquals(2, relations.aliveTeamCount());
+        assertFalse(relations.isEliminated("P4"));
+        assertTrue(relations.isEliminated("P2"));
+    }
+
+    @Test
+    @DisplayName("copies keep their own elimination state")
+    void copiesAreIndependent() {
+        TeamRelations relations = new TeamRelations(FOUR, GameMode.FFA, Map.of());
+        TeamRelations copy = relations.copy();
+
+        copy.markEliminated("P1");
+
+        assertEquals(0b1110, copy.aliveMask());
+        assertEquals(0b1111, relations.aliveMask());
+        assertEquals(3, copy.aliveTeamCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.haloce.tcg.game;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.combat.ColumnarCombatStateStore;
+import com.haloce.tcg.combat.CombatStateStore;
+import com.haloce.tcg.combat.InMemoryCombatStateStore;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.campaign.CampaignManager;
+import com.haloce.tcg.net.GameSnapshot;
+import com.haloce.tcg.net.GameSnapshotFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Undo rollback")
+class UndoRollbackTest {
+    private static final int SEEDS = 6;
+    private final GameSnapshotFactory snapshots = new GameSnapshotFactory();
+
+    @ParameterizedTest(name = "columnar store: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("rolling back random moves restores the state hash, public snapshot and campaign state")
+    void rollbackRestoresState(boolean columnar) {
+        int turnsUndone = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            GameStateManager game = match(seed, columnar ? ColumnarCombatStateStore::new : InMemoryCombatStateStore::new);
+            SplittableRandom random = new SplittableRandom(seed);
+            while (TestMatches.playRandom(game, random, 15) == 15) {
+                State before = State.of(game, snapshots);
+                int turn = game.globalTurnIndex();
+                long branchSeed = random.nextLong();
+
+                int mark = game.mark();
+                List<Long> hashes = play(game, new SplittableRandom(branchSeed), 40);
+                int nested = game.mark();
+                play(game, random.split(), 10);
+                game.rollbackTo(nested);
+                long expected = hashes.isEmpty() ? before.hash() : hashes.get(hashes.size() - 1);
+                assertEquals(expected, game.stateHash(), "nested rollback, seed " + seed);
+                if (game.globalTurnIndex() != turn) {
+                    turnsUndone++;
+                }
+                game.rollbackTo(mark);
+                assertEquals(before, State.of(game, snapshots), "seed " + seed + ", turn " + turn);
+
+                // The same moves must retrace the same states, so the random streams rolled back too.
+                mark = game.mark();
+                assertEquals(hashes, play(game, new SplittableRandom(branchSeed), 40), "seed " + seed + ", turn " + turn);
+                game.rollbackTo(mark);
+            }
+        }
+        assertTrue(turnsUndone > 0, "no turn boundary was rolled back, so the campaign snapshot path was not covered");
+    }
+
+    private static List<Long> play(GameStateManager game, SplittableRandom random, int maxActions) {
+        List<Long> hashes = new ArrayList<>();
+        while (hashes.size() < maxActions && TestMatches.playRandom(game, random, 1) == 1) {
+            hashes.add(game.stateHash());
+        }
+        return hashes;
+    }
+
+    private static GameStateManager match(long seed, Supplier<CombatStateStore> storeFactory) {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(),
+                seed, storeFactory);
+        return TestMatches.duel(engine, seed);
+    }
+
+    private record State(long hash, GameSnapshot snapshot, List<String> campaign) {
+        static State of(GameStateManager game, GameSnapshotFactory snapshots) {
+            CampaignManager campaign = game.campaignManager();
+            List<String> values = new ArrayList<>();
+            for (String playerId : game.playerIds()) {
+                values.add(playerId + " faith=" + campaign.covenantFaith().faith(playerId)
+                        + " power=" + campaign.forerunnerVacuumEnergy().getPowerLevel(playerId)
+                        + " commandPoints=" + campaign.unscDropPod().commandPoints(playerId)
+                        + " biologicalData=" + campaign.forerunnerComposer().getBiologicalDataCount(playerId)
+                        + " morale=" + campaign.unscTactical().getMoraleRechargeMultiplier(playerId));
+            }
+            return new State(game.stateHash(), snapshots.create(game), values);
+        }
+    }
+}
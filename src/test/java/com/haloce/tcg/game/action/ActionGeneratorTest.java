@@ -0,0 +1,56 @@
+package com.haloce.tcg.game.action;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@DisplayName("Action generator")
+class ActionGeneratorTest {
+    private static final int SEEDS = 8;
+    private static final int MAX_STEPS = 250;
+
+    @ParameterizedTest
+    @EnumSource(GameMode.class)
+    @DisplayName("every generated action applies without throwing")
+    void everyGeneratedActionApplies(GameMode mode) {
+        ActionGenerator generator = new ActionGenerator();
+        ActionBuffer actions = new ActionBuffer();
+        int checked = 0;
+        for (long seed = 1; seed <= SEEDS; seed++) {
+            GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), seed);
+            int seatCount = mode == GameMode.DUEL_1V1 ? 2 : mode == GameMode.FFA ? 3 : 4;
+            GameStateManager game = engine.initializeMatchWithSeats(mode, TestMatches.seats(mode, seatCount), seed);
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int step = 0; step < MAX_STEPS; step++) {
+                int count = generator.generate(game, actions);
+                if (count == 0) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    int mark = game.mark();
+                    try {
+                        actions.apply(i, game);
+                    } catch (RuntimeException e) {
+                        fail("seed " + seed + ", step " + step + ": " + actions.describe(i) + " threw " + e, e);
+                    } finally {
+                        game.rollbackTo(mark);
+                    }
+                    checked++;
+                }
+                actions.apply(random.nextInt(count), game);
+            }
+        }
+        assertTrue(checked > SEEDS * 100, "too few actions were checked: " + checked);
+    }
+}
@@ -0,0 +1,93 @@
+package com.haloce.tcg.game.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameMode;
+import com.haloce.tcg.game.GameStateData;
+import com.haloce.tcg.game.GameStateManager;
+import com.haloce.tcg.game.GameStatus;
+import com.haloce.tcg.game.PlayerSeat;
+import com.haloce.tcg.game.action.ActionBuffer;
+import com.haloce.tcg.game.action.ActionGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Replay timeline")
+class ReplayTimelineTest {
+    private final ReplayEngine replayEngine = new ReplayEngine(TestMatches.repository());
+    private final MatchRecordingIO io = new MatchRecordingIO();
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(GameMode.class)
+    @DisplayName("a timeline loaded from a file seeks to the recorded state at every checkpoint")
+    void savedTimelineSeeks(GameMode mode, @TempDir Path dir) {
+        MatchRecording recording = record(mode, 7);
+        ReplayTimeline built = replayEngine.timeline(recording, 4);
+        GameStateManager start = built.seekToCommand(0);
+        for (ReplayTimeline.Keyframe keyframe : built.keyframes()) {
+            GameStateData state = keyframe.state();
+            assertEquals(state, start.restoreState(state).saveState(), "command " + keyframe.checkpoint().commandCount());
+        }
+
+        Path file = dir.resolve("timeline.json");
+        io.writeTimeline(built.saved(), file);
+        ReplayTimeline loaded = replayEngine.timeline(io.readTimeline(file));
+        assertEquals(built.keyframes(), loaded.keyframes());
+        assertTrue(loaded.keyframes().size() > 1, "the match should span several keyframes");
+        for (TurnCheckpoint checkpoint : recording.checkpoints()) {
+            GameStateManager game = loaded.seekToCommand(checkpoint.commandCount());
+            assertEquals(checkpoint.stateHash(), game.stateHash(), "command " + checkpoint.commandCount());
+        }
+    }
+
+    @Test
+    @DisplayName("a keyframe that does not restore to its recorded hash fails to load")
+    void tamperedKeyframeFails(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("timeline.json");
+        io.writeTimeline(replayEngine.timeline(record(GameMode.DUEL_1V1, 3), 4).saved(), file);
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode timeline = (ObjectNode) mapper.readTree(file.toFile());
+        ObjectNode player = (ObjectNode) timeline.path("keyframes").path(1).path("state").path("players").path(0);
+        player.put("baseHealth", player.path("baseHealth").asInt() - 1);
+        mapper.writeValue(file.toFile(), timeline);
+
+        SavedTimeline tampered = io.readTimeline(file);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> replayEngine.timeline(tampered));
+        assertTrue(e.getMessage().contains("state hash"), e.getMessage());
+    }
+
+    private static MatchRecording record(GameMode mode, long seed) {
+        List<PlayerSeat> seats = TestMatches.seats(mode, mode == GameMode.DUEL_1V1 ? 2 : 4);
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), seed);
+        GameStateManager game = engine.initializeMatchWithSeats(mode, seats, seed);
+        MatchRecorder recorder = new MatchRecorder(mode, seats, game);
+        ActionGenerator generator = new ActionGenerator();
+        ActionBuffer actions = new ActionBuffer();
+        SplittableRandom random = new SplittableRandom(seed);
+        while (game.status() == GameStatus.RUNNING && game.globalTurnIndex() < 60) {
+            int count = generator.generate(game, actions);
+            if (count == 0) {
+                break;
+            }
+            recorder.apply(MatchCommand.of(actions, random.nextInt(count), game.activePlayerId()));
+        }
+        return recorder.recording();
+    }
+}
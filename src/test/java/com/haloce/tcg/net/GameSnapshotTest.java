@@ -0,0 +1,52 @@
+package com.haloce.tcg.net;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("Game snapshot")
+class GameSnapshotTest {
+    private final GameSnapshotFactory factory = new GameSnapshotFactory();
+
+    @Test
+    @DisplayName("the public hash ignores hidden zones")
+    void publicHashIgnoresHiddenZones() {
+        GameStateManager first = match(1);
+        GameStateManager second = match(2);
+
+        assertNotEquals(first.stateHash(), second.stateHash(), "the libraries should be shuffled differently");
+        assertEquals(factory.create(first), factory.create(second));
+    }
+
+    @Test
+    @DisplayName("clients can recompute the public hash from the snapshot")
+    void publicHashIsRecomputable() {
+        GameStateManager game = match(3);
+        SplittableRandom random = new SplittableRandom(3);
+        String previous = null;
+        int changes = 0;
+        for (int i = 0; i < 60 && TestMatches.playRandom(game, random, 1) == 1; i++) {
+            GameSnapshot snapshot = factory.create(game);
+            assertEquals(GameSnapshot.publicHashOf(snapshot), snapshot.publicHash());
+            if (!snapshot.publicHash().equals(previous)) {
+                changes++;
+            }
+            previous = snapshot.publicHash();
+        }
+        assertNotEquals(0, changes);
+    }
+
+    private static GameStateManager match(long seed) {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), seed);
+        return TestMatches.duel(engine, seed);
+    }
+}
@@ -0,0 +1,191 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A broadcast is encoded once and every session, on either transport, writes the same bytes.
+ */
+@DisplayName("Net frame")
+class NetFrameTest {
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final int CLIENTS = 3;
+    private static final NetResponse LARGE = NetResponse.ok("STATE_BROADCAST", "x".repeat(512 * 1024));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("clients at the same base version are handed one update until the next version")
+    void updatesAreSharedByBase() {
+        GameStateManager game = match();
+        GameSnapshotFactory factory = new GameSnapshotFactory();
+        RoomStateSync sync = new RoomStateSync();
+        sync.publish(factory.create(game));
+        sync.acknowledge("A", 1);
+        sync.acknowledge("B", 1);
+        long version = sync.version();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 50 && sync.version() == version; i++) {
+            TestMatches.playRandom(game, random, 1);
+            sync.publish(factory.create(game));
+        }
+        assertTrue(sync.version() > version, "the public state did not change in 50 moves");
+
+        NetResponse first = sync.updateFor("room", "A").orElseThrow();
+        assertSame(first, sync.updateFor("room", "B").orElseThrow());
+        NetResponse full = sync.updateFor("room", "C").orElseThrow();
+        assertEquals("STATE_DELTA", first.type());
+        assertEquals("STATE_BROADCAST", full.type());
+    }
+
+    @Test
+    @DisplayName("each reader gets its own view of the shared bytes")
+    void buffersAreIndependentViews() throws IOException {
+        NetFrame frame = NetFrame.encode(mapper, NetResponse.ok("PONG", "x"));
+        ByteBuffer consumed = frame.buffer();
+        consumed.position(consumed.limit());
+
+        ByteBuffer fresh = frame.buffer();
+        assertEquals(0, fresh.position());
+        assertEquals(frame.length(), fresh.remaining());
+        assertTrue(fresh.isReadOnly());
+        assertNotSame(consumed, fresh);
+    }
+
+    @Test
+    @DisplayName("one frame sent to many NIO sessions reaches each client byte for byte")
+    void nioSessionsWriteIdenticalBytes() throws Exception {
+        NetFrame frame = largeFrame();
+        BlockingQueue<ClientSession> sessions = new LinkedBlockingQueue<>();
+        NioServerTransport transport = new NioServerTransport(0, 1, 2, mapper, new SessionHandler() {
+            @Override
+            public void opened(ClientSession session) {
+                sessions.add(session);
+            }
+
+            @Override
+            public void received(ClientSession session, String line) {
+            }
+
+            @Override
+            public void closed(ClientSession session) {
+            }
+        });
+        transport.start();
+        List<Socket> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(connect(transport.localPort()));
+            }
+            List<ClientSession> opened = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                ClientSession session = sessions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                assertTrue(session != null, "no session was opened");
+                opened.add(session);
+            }
+            assertReceivedByAll(frame, clients, opened);
+        } finally {
+            closeAll(clients);
+            transport.close();
+        }
+    }
+
+    @Test
+    @DisplayName("one frame sent to many socket sessions reaches each client byte for byte")
+    void socketSessionsWriteIdenticalBytes() throws Exception {
+        NetFrame frame = largeFrame();
+        List<Socket> clients = new ArrayList<>();
+        List<ClientSession> sessions = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0)) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(connect(server.getLocalPort()));
+                sessions.add(new SocketClientSession(server.accept(), mapper));
+            }
+            assertReceivedByAll(frame, clients, sessions);
+        } finally {
+            for (ClientSession session : sessions) {
+                session.close();
+            }
+            closeAll(clients);
+        }
+    }
+
+    /**
+     * Larger than a socket buffer, so that sends go out over several partial writes.
+     */
+    private NetFrame largeFrame() throws IOException {
+        return NetFrame.encode(mapper, LARGE);
+    }
+
+    private void assertReceivedByAll(NetFrame frame, List<Socket> clients, List<ClientSession> sessions) throws Exception {
+        List<CompletableFuture<String>> received = new ArrayList<>();
+        for (Socket client : clients) {
+            // Read while the sessions write, since a blocking session waits for its client.
+            received.add(CompletableFuture.supplyAsync(() -> readLine(client)));
+        }
+        for (ClientSession session : sessions) {
+            session.send(frame);
+        }
+
+        ByteBuffer sent = frame.buffer();
+        byte[] bytes = new byte[sent.remaining()];
+        sent.get(bytes);
+        String expected = new String(bytes, 0, bytes.length - 1, StandardCharsets.UTF_8);
+        assertEquals(mapper.writeValueAsString(LARGE), expected);
+        for (CompletableFuture<String> line : received) {
+            assertEquals(expected, line.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    private static String readLine(Socket client) {
+        try {
+            return new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8)).readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Socket connect(int port) throws IOException {
+        Socket socket = new Socket("127.0.0.1", port);
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        return socket;
+    }
+
+    private static void closeAll(List<Socket> sockets) throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private static GameStateManager match() {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), 3);
+        return TestMatches.duel(engine, 3);
+    }
+}
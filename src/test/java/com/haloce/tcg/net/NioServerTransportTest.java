@@ -0,0 +1,205 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("NIO server transport")
+class NioServerTransportTest {
+    private static final int MAX_LINE_BYTES = 1024 * 1024;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final Handler handler = new Handler();
+    private NioServerTransport transport;
+
+    @BeforeEach
+    void start() throws IOException {
+        transport = new NioServerTransport(0, 1, 2, new ObjectMapper(), handler);
+        transport.start();
+    }
+
+    @AfterEach
+    void stop() {
+        transport.close();
+    }
+
+    @Test
+    @DisplayName("splits lines that span reads and strips the carriage return of CRLF")
+    void framesLinesAcrossReads() throws Exception {
+        try (Socket socket = connect()) {
+            OutputStream out = socket.getOutputStream();
+            write(out, "{\"type\":");
+            Thread.sleep(50);
+            write(out, "\"PING\"}\r");
+            Thread.sleep(50);
+            write(out, "\nsecond\r\n\r\nthird\nfou");
+            Thread.sleep(50);
+            write(out, "rth\n");
+
+            assertEquals(List.of("{\"type\":\"PING\"}", "second", "", "third", "fourth"), handler.take(5));
+        }
+    }
+
+    @Test
+    @DisplayName("disconnects a client whose line exceeds the limit")
+    void closesOnOversizedLine() throws Exception {
+        try (Socket socket = connect()) {
+            byte[] chunk = new byte[64 * 1024];
+            Arrays.fill(chunk, (byte) 'x');
+            OutputStream out = socket.getOutputStream();
+            try {
+                for (int written = 0; written <= MAX_LINE_BYTES; written += chunk.length) {
+                    out.write(chunk);
+                }
+                out.write('\n');
+                out.flush();
+            } catch (IOException expected) {
+                // The server may close before the whole line is written.
+            }
+
+            assertTrue(handler.closed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "the session was not closed");
+            assertNull(handler.lines.poll(), "no line should reach the handler");
+        }
+    }
+
+    @Test
+    @DisplayName("stops reading at 64 queued commands and resumes once 16 are left")
+    void pausesAndResumesReading() throws Exception {
+        handler.gate = new Semaphore(0);
+        int lines = 200;
+        try (Socket socket = connect()) {
+            StringBuilder commands = new StringBuilder();
+            for (int i = 0; i < lines; i++) {
+                commands.append(i).append('\n');
+            }
+            write(socket.getOutputStream(), commands.toString());
+            NioClientSession session = handler.session();
+
+            awaitSteady(session::queuedCommands, NioClientSession.MAX_QUEUED_COMMANDS);
+            handler.gate.release(NioClientSession.MAX_QUEUED_COMMANDS - NioClientSession.RESUME_QUEUED_COMMANDS - 1);
+            awaitSteady(session::queuedCommands, NioClientSession.RESUME_QUEUED_COMMANDS + 1);
+            handler.gate.release();
+            awaitSteady(session::queuedCommands, NioClientSession.MAX_QUEUED_COMMANDS);
+
+            handler.gate.release(lines);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < lines; i++) {
+                expected.add(String.valueOf(i));
+            }
+            assertEquals(expected, handler.take(lines));
+        }
+    }
+
+    @Test
+    @DisplayName("closes a client that stops reading once too many bytes are pending")
+    void closesSlowReader() throws Exception {
+        handler.flood = true;
+        try (Socket socket = connect()) {
+            write(socket.getOutputStream(), "flood\n");
+
+            assertTrue(handler.closed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "the session was not closed");
+            IOException failure = handler.sendFailure.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertTrue(failure != null && failure.getMessage().contains("not reading"), "sends should fail: " + failure);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("127.0.0.1", transport.localPort());
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        return socket;
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Waits for {@code value} to reach {@code expected}, then checks that it stays there.
+     */
+    private static void awaitSteady(IntSupplier value, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (value.getAsInt() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+        assertEquals(expected, value.getAsInt());
+    }
+
+    private static final class Handler implements SessionHandler {
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private final BlockingQueue<NioClientSession> sessions = new LinkedBlockingQueue<>();
+        private final BlockingQueue<IOException> sendFailure = new LinkedBlockingQueue<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        // Set before connecting: a gate the handler takes a permit from per line, and whether a line
+        // makes it send until sending fails.
+        private volatile Semaphore gate;
+        private volatile boolean flood;
+
+        @Override
+        public void opened(ClientSession session) {
+            sessions.add((NioClientSession) session);
+        }
+
+        @Override
+        public void received(ClientSession session, String line) throws IOException {
+            if (gate != null) {
+                gate.acquireUninterruptibly();
+            }
+            lines.add(line);
+            if (flood) {
+                NetResponse response = NetResponse.ok("FLOOD", "x".repeat(64 * 1024));
+                try {
+                    while (true) {
+                        session.send(response);
+                    }
+                } catch (IOException e) {
+                    sendFailure.add(e);
+                }
+            }
+        }
+
+        @Override
+        public void closed(ClientSession session) {
+            closed.countDown();
+        }
+
+        private NioClientSession session() throws InterruptedException {
+            NioClientSession session = sessions.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertTrue(session != null, "no session was opened");
+            return session;
+        }
+
+        private List<String> take(int count) throws InterruptedException {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String line = lines.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (line == null) {
+                    break;
+                }
+                taken.add(line);
+            }
+            return taken;
+        }
+    }
+}
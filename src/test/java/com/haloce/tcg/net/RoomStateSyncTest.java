@@ -0,0 +1,151 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.core.event.DeterministicEventBus;
+import com.haloce.tcg.deck.DeckValidator;
+import com.haloce.tcg.game.GameEngine;
+import com.haloce.tcg.game.GameStateManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Room state sync")
+class RoomStateSyncTest {
+    private static final String ROOM = "room";
+    private static final String PLAYER = "A";
+    private static final long SEED = 5;
+
+    private final GameSnapshotFactory factory = new GameSnapshotFactory();
+    private final RoomStateSync sync = new RoomStateSync();
+    private final Client client = new Client();
+    private final GameStateManager game = match();
+    private final SplittableRandom random = new SplittableRandom(SEED);
+
+    @Test
+    @DisplayName("a client that acknowledges every update stays in sync through deltas")
+    void acknowledgedDeltasRoundTrip() throws IOException {
+        sync.publish(factory.create(game));
+        assertEquals("STATE_BROADCAST", client.receive(update()));
+        sync.acknowledge(PLAYER, client.version);
+
+        for (int i = 0; i < 10; i++) {
+            publishNextVersion();
+            assertEquals("STATE_DELTA", client.receive(update()));
+            assertInSync();
+            sync.acknowledge(PLAYER, client.version);
+        }
+    }
+
+    @Test
+    @DisplayName("deltas apply to the last acknowledged version until the client falls too far behind")
+    void fallsBackToFullSnapshot() throws IOException {
+        sync.publish(factory.create(game));
+        client.receive(update());
+        sync.acknowledge(PLAYER, client.version);
+        long acknowledged = client.version;
+
+        while (sync.version() - acknowledged < RoomStateSync.MAX_DELTA_VERSIONS) {
+            publishNextVersion();
+            assertEquals("STATE_DELTA", client.receive(update()));
+            assertEquals(acknowledged, client.lastBaseVersion);
+            assertInSync();
+        }
+
+        publishNextVersion();
+        assertEquals("STATE_BROADCAST", client.receive(update()));
+        assertInSync();
+    }
+
+    @Test
+    @DisplayName("a reconnecting client is sent a full snapshot, then deltas once it acknowledges")
+    void resetSendsFullSnapshot() throws IOException {
+        sync.publish(factory.create(game));
+        client.receive(update());
+        sync.acknowledge(PLAYER, client.version);
+        publishNextVersion();
+        client.receive(update());
+
+        // The reconnecting client has lost what it held.
+        Client reconnected = new Client();
+        sync.reset(PLAYER);
+        assertEquals("STATE_BROADCAST", reconnected.receive(update()));
+        assertEquals(sync.version(), reconnected.version);
+        sync.acknowledge(PLAYER, reconnected.version);
+
+        publishNextVersion();
+        assertEquals("STATE_DELTA", reconnected.receive(update()));
+        assertEquals(factory.create(game), reconnected.snapshot());
+    }
+
+    private NetResponse update() {
+        return sync.updateFor(ROOM, PLAYER).orElseThrow();
+    }
+
+    /**
+     * Plays until the public state changes and publishes it.
+     */
+    private void publishNextVersion() {
+        long before = sync.version();
+        for (int i = 0; i < 50 && sync.version() == before; i++) {
+            assertEquals(1, TestMatches.playRandom(game, random, 1), "the match ended before the state changed");
+            sync.publish(factory.create(game));
+        }
+        assertTrue(sync.version() > before, "the public state did not change in 50 moves");
+    }
+
+    private void assertInSync() {
+        GameSnapshot applied = client.snapshot();
+        assertEquals(factory.create(game), applied);
+        assertEquals(GameSnapshot.publicHashOf(applied), applied.publicHash());
+    }
+
+    private static GameStateManager match() {
+        GameEngine engine = new GameEngine(TestMatches.repository(), new DeterministicEventBus(), new DeckValidator(), SEED);
+        return TestMatches.duel(engine, SEED);
+    }
+
+    /**
+     * Applies updates as a client does, from the JSON the server writes, keeping every version it
+     * was sent since deltas are based on the last one it acknowledged.
+     */
+    private static final class Client {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<Long, GameSnapshot> snapshots = new HashMap<>();
+        private long version;
+        private long lastBaseVersion;
+
+        /**
+         * @return the type of the update
+         */
+        private String receive(NetResponse response) throws IOException {
+            JsonNode node = mapper.readTree(mapper.writeValueAsString(response));
+            JsonNode data = node.path("data");
+            String type = node.path("type").asText();
+            if ("STATE_BROADCAST".equals(type)) {
+                version = data.path("version").asLong();
+                snapshots.put(version, mapper.treeToValue(data.path("snapshot"), GameSnapshot.class));
+            } else {
+                GameSnapshotDelta delta = mapper.treeToValue(data.path("delta"), GameSnapshotDelta.class);
+                GameSnapshot base = snapshots.get(delta.baseVersion());
+                assertTrue(base != null, "delta against version " + delta.baseVersion() + " the client never had");
+                lastBaseVersion = delta.baseVersion();
+                version = delta.version();
+                snapshots.put(version, delta.applyTo(base));
+            }
+            return type;
+        }
+
+        private GameSnapshot snapshot() {
+            return snapshots.get(version);
+        }
+    }
+}
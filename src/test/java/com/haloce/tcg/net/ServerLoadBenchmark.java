@@ -0,0 +1,247 @@
+package com.haloce.tcg.net;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haloce.tcg.card.loader.CardLoader;
+import com.haloce.tcg.card.loader.CardRepository;
+import com.haloce.tcg.card.loader.SemanticValidator;
+import com.haloce.tcg.deck.DeckLoader;
+import com.haloce.tcg.deck.model.DeckDef;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local load benchmark for comparing {@link ServerTransport}s. Starts a server in this JVM and seats
+ * the clients in pairs in {@code DUEL_1V1} rooms, where they play: a client whose turn it is advances
+ * the phase and ends its turn, one that has seen a state version it has not acknowledged sends
+ * {@code ACK_STATE}, and otherwise it polls with {@code STATE} and {@code PING}. Every client waits
+ * for each answer before sending the next command. Reports throughput, latency percentiles, the
+ * threads the server added and the commands the server rejected.
+ *
+ * <p>Usage: {@code ServerLoadBenchmark <BLOCKING|VIRTUAL_THREADS|NIO> [clients] [commandsPerClient] [port]},
+ * from the project directory, e.g. {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.haloce.tcg.net.ServerLoadBenchmark -Dexec.args="NIO 200 200"}. Which command
+ * a client sends depends on when its partner's moves arrive, so runs differ in timing and in mix.
+ */
+public class ServerLoadBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: ServerLoadBenchmark <BLOCKING|VIRTUAL_THREADS|NIO> [clients] [commandsPerClient] [port]");
+            return;
+        }
+        ServerTransport transport = ServerTransport.valueOf(args[0].toUpperCase(Locale.ROOT));
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int commands = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 19190;
+        if (clients < 2 || clients % 2 != 0) {
+            throw new IllegalArgumentException("clients must be an even number >= 2");
+        }
+
+        CardRepository repository = new CardLoader(new SemanticValidator()).loadFromResourceDir(Path.of("src/main/resources"));
+        DeckDef deck = new DeckLoader().load(Path.of("src/main/resources/decks/p1_demo_deck.v1.json"));
+        RoomManager roomManager = new RoomManager(repository, deck);
+        NetworkGameServer server = new NetworkGameServer(port, roomManager, transport);
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        server.start();
+        try {
+            new ServerLoadBenchmark().run(transport, port, clients, commands, threadsBefore);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void run(ServerTransport transport, int port, int clients, int commands, int threadsBefore) throws Exception {
+        long[][] latencies = new long[clients][];
+        AtomicInteger failedClients = new AtomicInteger();
+        AtomicInteger failedCommands = new AtomicInteger();
+        AtomicInteger gameCommands = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> drivers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(i, failedCommands, gameCommands);
+            Thread driver = new Thread(() -> {
+                try {
+                    latencies[client.index] = client.drive(port, commands, connected, go);
+                } catch (Exception e) {
+                    failedClients.incrementAndGet();
+                    connected.countDown();
+                }
+            }, "load-client-" + i);
+            driver.setDaemon(true);
+            drivers.add(driver);
+            driver.start();
+        }
+        connected.await();
+        // Client driver threads live in this JVM too; only count what the server added.
+        int serverThreads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore - clients;
+        long started = System.nanoTime();
+        go.countDown();
+        for (Thread driver : drivers) {
+            driver.join();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        long[] all = Arrays.stream(latencies).filter(l -> l != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf(Locale.ROOT,
+                "%s: %d clients x %d commands in %.2f s, %.0f commands/s, latency p50 %.2f ms p99 %.2f ms max %.2f ms, "
+                        + "server threads %d, game commands %d, failed commands %d, failed clients %d%n",
+                transport, clients, commands, elapsed / 1e9, all.length * 1e9 / elapsed,
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all.length == 0 ? 0 : all[all.length - 1] / 1e6,
+                serverThreads, gameCommands.get(), failedCommands.get(), failedClients.get());
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+
+    /**
+     * The parts of a room state version a client needs to choose its next command.
+     */
+    private record View(String status, String phase, String activePlayerId) {
+        View with(JsonNode changes) {
+            return new View(changes.path("status").asText(status), changes.path("phase").asText(phase),
+                    changes.path("activePlayerId").asText(activePlayerId));
+        }
+    }
+
+    private final class Client {
+        private final int index;
+        private final String playerId;
+        private final AtomicInteger failedCommands;
+        private final AtomicInteger gameCommands;
+        // Every version seen since the last acknowledged one, which deltas are based on.
+        private final Map<Long, View> views = new HashMap<>();
+        private long seenVersion = -1;
+        private long acknowledgedVersion = -1;
+        private BufferedReader reader;
+        private BufferedWriter writer;
+
+        private Client(int index, AtomicInteger failedCommands, AtomicInteger gameCommands) {
+            this.index = index;
+            this.playerId = index % 2 == 0 ? "A" : "B";
+            this.failedCommands = failedCommands;
+            this.gameCommands = gameCommands;
+        }
+
+        private long[] drive(int port, int commands, CountDownLatch connected, CountDownLatch go) throws Exception {
+            try (Socket socket = new Socket("127.0.0.1", port)) {
+                reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                await("WELCOME");
+                String roomId = "load-" + index / 2;
+                if (index % 2 == 0) {
+                    request("CREATE_ROOM", "{\"roomId\":\"" + roomId + "\",\"mode\":\"DUEL_1V1\",\"playerIds\":[\"A\",\"B\"]}");
+                }
+                String join = "{\"roomId\":\"" + roomId + "\",\"playerId\":\"" + playerId + "\"}";
+                // The second client of a pair waits for its partner to create the room.
+                for (int attempt = 0; !send("JOIN_ROOM", join).path("ok").asBoolean(); attempt++) {
+                    if (attempt == 500) {
+                        throw new IOException("Room was never created: " + roomId);
+                    }
+                    Thread.sleep(10);
+                }
+                request("STATE", "{}");
+                connected.countDown();
+                go.await();
+
+                long[] latencies = new long[commands];
+                int polls = 0;
+                for (int i = 0; i < commands; i++) {
+                    long started = System.nanoTime();
+                    View view = views.get(seenVersion);
+                    if (view != null && "RUNNING".equals(view.status()) && playerId.equals(view.activePlayerId())) {
+                        request("ENDSTEP".equals(view.phase()) ? "END_TURN" : "ADVANCE_PHASE", "{}");
+                        gameCommands.incrementAndGet();
+                    } else if (seenVersion > acknowledgedVersion) {
+                        long version = seenVersion;
+                        request("ACK_STATE", "{\"version\":" + version + "}");
+                        acknowledge(version);
+                    } else {
+                        request(polls++ % 4 == 3 ? "PING" : "STATE", "{}");
+                    }
+                    latencies[i] = System.nanoTime() - started;
+                }
+                return latencies;
+            }
+        }
+
+        /**
+         * Sends a command and counts it as failed if the server rejects it.
+         */
+        private void request(String type, String payload) throws IOException {
+            if (!send(type, payload).path("ok").asBoolean()) {
+                failedCommands.incrementAndGet();
+            }
+        }
+
+        private JsonNode send(String type, String payload) throws IOException {
+            writer.write("{\"type\":\"" + type + "\",\"payload\":" + payload + "}");
+            writer.newLine();
+            writer.flush();
+            return await("PING".equals(type) ? "PONG" : type);
+        }
+
+        /**
+         * Reads lines until the response of {@code type} or an error, keeping track of the state
+         * versions in every line on the way.
+         */
+        private JsonNode await(String type) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode node = mapper.readTree(line);
+                observe(node.path("data"));
+                String received = node.path("type").asText();
+                if (type.equals(received) || "ERROR".equals(received)) {
+                    return node;
+                }
+            }
+            throw new IOException("Connection closed while waiting for " + type);
+        }
+
+        private void observe(JsonNode data) {
+            JsonNode snapshot = data.path("snapshot");
+            if (data.has("version") && snapshot.isObject()) {
+                seen(data.path("version").asLong(), new View(snapshot.path("status").asText(),
+                        snapshot.path("phase").asText(), snapshot.path("activePlayerId").asText()));
+                return;
+            }
+            JsonNode delta = data.path("delta");
+            View base = views.get(delta.path("baseVersion").asLong(-1));
+            if (delta.isObject() && base != null) {
+                seen(delta.path("version").asLong(), base.with(delta.path("changes")));
+            }
+        }
+
+        private void seen(long version, View view) {
+            views.put(version, view);
+            seenVersion = Math.max(seenVersion, version);
+        }
+
+        private void acknowledge(long version) {
+            acknowledgedVersion = version;
+            views.keySet().removeIf(seen -> seen < version);
+        }
+    }
+}
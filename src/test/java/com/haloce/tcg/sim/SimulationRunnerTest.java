@@ -0,0 +1,51 @@
+package com.haloce.tcg.sim;
+
+import com.haloce.tcg.TestMatches;
+import com.haloce.tcg.card.model.Faction;
+import com.haloce.tcg.game.GameMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("Simulation runner")
+class SimulationRunnerTest {
+    private static final int GAMES = 6;
+    private static final int MAX_TURNS = 40;
+
+    private final SimulationRunner runner = new SimulationRunner(TestMatches.repository());
+
+    @ParameterizedTest
+    @EnumSource(GameMode.class)
+    @DisplayName("a fixed seed gives the same results whatever the thread count")
+    void fixedSeedIsDeterministic(GameMode mode) {
+        Outcome single = Outcome.of(runner.run(config(mode, 7, 1)));
+        Outcome parallel = Outcome.of(runner.run(config(mode, 7, 3)));
+        Outcome again = Outcome.of(runner.run(config(mode, 7, 3)));
+
+        assertEquals(single, parallel);
+        assertEquals(parallel, again);
+        assertNotEquals(single, Outcome.of(runner.run(config(mode, 8, 3))), "another seed should play other games");
+    }
+
+    private static SimulationConfig config(GameMode mode, long seed, int threads) {
+        int seats = mode == GameMode.DUEL_1V1 ? 2 : 4;
+        return new SimulationConfig(mode, GAMES, seats, List.of(TestMatches.deck()),
+                List.of(new RandomPolicy(), new GreedyPolicy()), seed, threads, MAX_TURNS);
+    }
+
+    /**
+     * What a run decides, leaving out its timing and allocation.
+     */
+    private record Outcome(long turns, long actions, int draws, Map<Faction, Integer> winsByFaction,
+                           Map<String, Integer> winsByPolicy) {
+        static Outcome of(SimulationReport report) {
+            return new Outcome(report.turns(), report.actions(), report.draws(), report.winsByFaction(), report.winsByPolicy());
+        }
+    }
+}